@@ -5,16 +5,33 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jakefear.aipublisher.document.AgentContribution;
 import com.jakefear.aipublisher.document.PublishingDocument;
+import com.jakefear.aipublisher.document.TokenUsageSummary;
+import com.jakefear.aipublisher.llm.LlmPriceTable;
+import com.jakefear.aipublisher.llm.LlmResponseCache;
+import com.jakefear.aipublisher.llm.LlmUsage;
+import com.jakefear.aipublisher.llm.StreamStalledException;
+import com.jakefear.aipublisher.llm.StreamingChatClient;
+import com.jakefear.aipublisher.llm.StreamingResult;
+import com.jakefear.aipublisher.monitoring.PipelineMonitoringService;
+import com.jakefear.aipublisher.monitoring.jfr.AgentCallEvent;
+import com.jakefear.aipublisher.monitoring.jfr.AgentProcessEvent;
 import com.jakefear.aipublisher.util.JsonParsingUtils;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -24,6 +41,10 @@ import java.util.regex.Pattern;
  * - JSON response parsing
  * - Retry logic with exponential backoff
  * - Contribution recording
+ * - Optional response caching for identical prompts
+ * - Optional streaming with stall detection and throughput metrics
+ * - Token and cost accounting per call, per document and per agent role
+ * - JFR events for each process and model call
  */
 public abstract class BaseAgent implements Agent {
 
@@ -33,6 +54,16 @@ public abstract class BaseAgent implements Agent {
     protected final String systemPrompt;
     protected final ObjectMapper objectMapper;
 
+    // Optional persistent cache of model responses, keyed by model and prompt
+    private LlmResponseCache responseCache;
+
+    // Optional streaming client; when enabled it replaces the blocking model call
+    private StreamingChatClient streamingClient;
+    private PipelineMonitoringService monitoringService;
+
+    // Optional price table for turning token counts into dollars
+    private LlmPriceTable priceTable;
+
     // Retry configuration
     private final int maxRetries;
     private final Duration initialRetryDelay;
@@ -70,43 +101,135 @@ public abstract class BaseAgent implements Agent {
         this.backoffMultiplier = backoffMultiplier;
     }
 
+    /**
+     * Set the response cache (called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setResponseCache(LlmResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * Set the streaming client for this agent's role. Subclasses call this from
+     * a qualified setter, like the chat model.
+     */
+    protected void setStreamingClient(StreamingChatClient streamingClient) {
+        this.streamingClient = streamingClient;
+    }
+
+    /**
+     * Set the monitoring service (called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setMonitoringService(PipelineMonitoringService monitoringService) {
+        this.monitoringService = monitoringService;
+    }
+
+    /**
+     * Set the price table (called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setPriceTable(LlmPriceTable priceTable) {
+        this.priceTable = priceTable;
+    }
+
+    /**
+     * A model response with the usage the provider reported for it.
+     *
+     * @param text Response text with thinking removed
+     * @param usage Token usage, or null if the model didn't report any
+     */
+    private record ModelReply(String text, LlmUsage usage) {
+    }
+
     @Override
     public PublishingDocument process(PublishingDocument document) throws AgentException {
         log.info("Starting {} processing for document: {}", getName(), document.getPageName());
 
         Instant startTime = Instant.now();
+        AgentProcessEvent processEvent = new AgentProcessEvent();
+        processEvent.begin();
         String response = null;
         Exception lastException = null;
+        // Prepared once and reused, so retries repeat only the model call
+        Supplier<String> prompt = null;
+        // Summed over every model call, including attempts whose response was rejected
+        TokenUsageSummary usage = TokenUsageSummary.EMPTY;
+        LlmUsage lastUsage = null;
 
         for (int attempt = 1; attempt <= maxRetries; attempt++) {
+            processEvent.attempts = attempt;
+            String cacheKey = null;
+            boolean cacheHit = false;
             try {
-                String userPrompt = buildUserPrompt(document);
-                log.debug("Sending prompt to Claude (attempt {}/{})", attempt, maxRetries);
-
-                response = callModel(userPrompt);
+                if (prompt == null) {
+                    prompt = preparePrompt(document);
+                }
+                String userPrompt = prompt.get();
+                AgentCallEvent callEvent = new AgentCallEvent();
+                callEvent.begin();
+                LlmUsage callUsage = null;
+                response = null;
+                try {
+                    cacheKey = cacheKeyFor(userPrompt);
+                    response = cacheKey != null ? responseCache.get(cacheKey).orElse(null) : null;
+                    cacheHit = response != null;
+
+                    if (cacheHit) {
+                        log.debug("Using cached response for {} (attempt {}/{})", getName(), attempt, maxRetries);
+                    } else {
+                        log.debug("Sending prompt to Claude (attempt {}/{})", attempt, maxRetries);
+                        ModelReply reply = callModelWithUsage(userPrompt);
+                        response = reply.text();
+                        callUsage = reply.usage();
+                        if (callUsage != null) {
+                            lastUsage = callUsage;
+                            usage = usage.plus(recordUsage(callUsage));
+                        }
+                    }
+                } finally {
+                    commitCallEvent(callEvent, attempt, userPrompt, response, cacheHit, callUsage);
+                }
                 log.debug("Received response of {} characters", response.length());
 
                 // Parse and apply the response
                 parseAndApplyResponse(response, document);
 
+                // Only cache responses that parsed, so a bad response is never replayed
+                if (cacheKey != null && !cacheHit) {
+                    responseCache.put(cacheKey, response);
+                }
+
                 // Record the contribution
                 Duration processingTime = Duration.between(startTime, Instant.now());
+                Map<String, Object> metrics = new LinkedHashMap<>();
+                metrics.put("responseLength", response.length());
+                metrics.put("attempts", attempt);
+                metrics.put("cacheHit", cacheHit);
+                if (!usage.isEmpty()) {
+                    usage.putInto(metrics);
+                    metrics.put("model", lastUsage.modelName());
+                    if (lastUsage.finishReason() != null) {
+                        metrics.put("finishReason", lastUsage.finishReason());
+                    }
+                }
                 document.addContribution(AgentContribution.withMetrics(
                         getRole().name(),
                         processingTime,
-                        Map.of(
-                                "responseLength", response.length(),
-                                "attempts", attempt
-                        )
+                        metrics
                 ));
 
                 log.info("{} completed successfully in {} ms",
                         getName(), processingTime.toMillis());
+                commitProcessEvent(processEvent, document, true);
                 return document;
 
             } catch (JsonProcessingException e) {
                 lastException = e;
                 log.warn("JSON parsing failed on attempt {}/{}: {}", attempt, maxRetries, e.getMessage());
+                if (cacheHit) {
+                    responseCache.invalidate(cacheKey);
+                }
 
                 if (attempt < maxRetries) {
                     sleepWithBackoff(attempt);
@@ -114,6 +237,9 @@ public abstract class BaseAgent implements Agent {
             } catch (Exception e) {
                 lastException = e;
                 log.warn("Processing failed on attempt {}/{}: {}", attempt, maxRetries, e.getMessage());
+                if (cacheHit) {
+                    responseCache.invalidate(cacheKey);
+                }
 
                 if (attempt < maxRetries && isRetryableError(e)) {
                     sleepWithBackoff(attempt);
@@ -123,7 +249,19 @@ public abstract class BaseAgent implements Agent {
             }
         }
 
-        // All retries exhausted
+        // All retries exhausted; keep the tokens spent so the document's cost stays complete
+        if (!usage.isEmpty()) {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("failed", true);
+            usage.putInto(metrics);
+            metrics.put("model", lastUsage.modelName());
+            document.addContribution(AgentContribution.withMetrics(
+                    getRole().name(),
+                    Duration.between(startTime, Instant.now()),
+                    metrics
+            ));
+        }
+        commitProcessEvent(processEvent, document, false);
         String errorMsg = String.format("%s failed after %d attempts", getName(), maxRetries);
         log.error(errorMsg, lastException);
         throw new AgentException(getRole(), errorMsg, lastException);
@@ -134,6 +272,16 @@ public abstract class BaseAgent implements Agent {
      */
     protected abstract String buildUserPrompt(PublishingDocument document);
 
+    /**
+     * Gather any expensive inputs for the prompt (e.g. search results) and return
+     * a cheap renderer for it. {@link #process} prepares the prompt once and
+     * reuses the renderer on every retry. Agents whose prompts need network
+     * lookups override this; the default simply calls {@link #buildUserPrompt}.
+     */
+    protected Supplier<String> preparePrompt(PublishingDocument document) {
+        return () -> buildUserPrompt(document);
+    }
+
     /**
      * Parse the model response and apply it to the document.
      */
@@ -145,10 +293,121 @@ public abstract class BaseAgent implements Agent {
      * Automatically extracts and logs any thinking blocks from the response.
      */
     protected String callModel(String userPrompt) {
+        return callModelWithUsage(userPrompt).text();
+    }
+
+    private ModelReply callModelWithUsage(String userPrompt) {
         // LangChain4j handles the system prompt + user prompt combination
         String fullPrompt = systemPrompt + "\n\n---\n\n" + userPrompt;
-        String response = model.chat(fullPrompt);
-        return extractAndLogThinking(response);
+        if (streamingClient != null && streamingClient.isEnabled()) {
+            return callStreamingModel(fullPrompt);
+        }
+        ChatRequest request = ChatRequest.builder()
+                .messages(UserMessage.from(fullPrompt))
+                .build();
+        Instant start = Instant.now();
+        ChatResponse chatResponse = model.chat(request);
+        Duration elapsed = Duration.between(start, Instant.now());
+        String response = chatResponse.aiMessage().text();
+        String cleaned = extractAndLogThinking(response);
+
+        int thinkingChars = response == null || cleaned == null ? 0 : response.length() - cleaned.length();
+        ChatRequestParameters parameters = model.defaultRequestParameters();
+        LlmUsage usage = LlmUsage.from(chatResponse, parameters != null ? parameters.modelName() : null,
+                thinkingChars, LlmUsage.contextWindowOf(parameters), elapsed);
+        return new ModelReply(cleaned, usage);
+    }
+
+    /**
+     * Stream the response, stripping thinking blocks as they arrive and
+     * recording time-to-first-token and throughput.
+     */
+    private ModelReply callStreamingModel(String fullPrompt) {
+        StreamingResult result;
+        try {
+            result = streamingClient.chat(fullPrompt);
+        } catch (StreamStalledException e) {
+            if (monitoringService != null) {
+                monitoringService.recordStreamStall();
+            }
+            throw e;
+        }
+        if (!result.thinkingBlocks().isEmpty()) {
+            logThinkingContent(String.join("\n---\n", result.thinkingBlocks()));
+        }
+        if (monitoringService != null) {
+            monitoringService.recordStreamingResponse(getRole(), result.timeToFirstToken(),
+                    result.outputTokens(), result.totalTime().minus(result.timeToFirstToken()));
+        }
+        int thinkingChars = result.thinkingBlocks().stream().mapToInt(String::length).sum();
+        AiMessage finalMessage = result.response() != null ? result.response().aiMessage() : null;
+        if (finalMessage == null || finalMessage.thinking() == null) {
+            // Streamed reasoning that the final response doesn't repeat
+            thinkingChars += result.thinkingChars();
+        }
+        LlmUsage usage = LlmUsage.from(result.response(), streamingClient.getModelName(), thinkingChars,
+                streamingClient.getContextWindow(), result.totalTime());
+        return new ModelReply(result.text(), usage);
+    }
+
+    /**
+     * Price one call, pass it to monitoring and warn about responses that hit a limit.
+     *
+     * @return The call's contribution to the document's usage
+     */
+    private TokenUsageSummary recordUsage(LlmUsage usage) {
+        double cost = priceTable != null ? priceTable.cost(usage) : 0.0;
+        if (usage.isTruncated()) {
+            log.warn("{} response was cut off at {} output tokens; consider raising the max-tokens/num-predict limit",
+                    getName(), usage.outputTokens());
+        }
+        if (usage.isAtContextLimit()) {
+            log.warn("{} call used {} of {} context tokens; the prompt may have been truncated (raise num-ctx)",
+                    getName(), usage.totalTokens(), usage.contextWindow());
+        }
+        if (monitoringService != null) {
+            monitoringService.recordLlmUsage(getRole(), usage, cost);
+        }
+        return new TokenUsageSummary(1, usage.inputTokens(), usage.outputTokens(), usage.thinkingTokens(), cost);
+    }
+
+    private void commitProcessEvent(AgentProcessEvent event, PublishingDocument document, boolean succeeded) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.agent = getRole().name();
+            event.pageName = document.getPageName();
+            event.succeeded = succeeded;
+            event.commit();
+        }
+    }
+
+    private void commitCallEvent(AgentCallEvent event, int attempt, String userPrompt, String response,
+                                 boolean cacheHit, LlmUsage usage) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.agent = getRole().name();
+            event.attempt = attempt;
+            event.promptChars = userPrompt.length();
+            event.responseChars = response != null ? response.length() : 0;
+            event.cacheHit = cacheHit;
+            event.succeeded = response != null;
+            if (usage != null) {
+                event.model = usage.modelName();
+                event.inputTokens = usage.inputTokens();
+                event.outputTokens = usage.outputTokens();
+            }
+            event.commit();
+        }
+    }
+
+    /**
+     * Compute the response cache key for a prompt, or null if caching is off.
+     */
+    private String cacheKeyFor(String userPrompt) {
+        if (responseCache == null || !responseCache.isEnabled() || model == null) {
+            return null;
+        }
+        return responseCache.keyFor(model, systemPrompt, userPrompt);
     }
 
     /**
@@ -3,6 +3,7 @@ package com.jakefear.aipublisher.agent;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.jakefear.aipublisher.document.*;
+import com.jakefear.aipublisher.llm.StreamingChatClient;
 import dev.langchain4j.model.chat.ChatModel;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
@@ -35,6 +36,14 @@ public class CriticAgent extends BaseAgent {
         this.model = model;
     }
 
+    /**
+     * Set the streaming client (optional, called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setStreamingChatClient(@Qualifier("criticStreamingClient") StreamingChatClient streamingClient) {
+        setStreamingClient(streamingClient);
+    }
+
     // Constructor for testing
     public CriticAgent(ChatModel model, String systemPrompt) {
         super(model, systemPrompt);
@@ -6,6 +6,7 @@ import com.jakefear.aipublisher.document.*;
 import com.jakefear.aipublisher.linking.LinkCandidate;
 import com.jakefear.aipublisher.linking.LinkEvaluator;
 import com.jakefear.aipublisher.linking.WikiLinkContext;
+import com.jakefear.aipublisher.llm.StreamingChatClient;
 import com.jakefear.aipublisher.seealso.SeeAlsoGenerator;
 import com.jakefear.aipublisher.seealso.SeeAlsoSection;
 import dev.langchain4j.model.chat.ChatModel;
@@ -25,15 +26,14 @@ import static com.jakefear.aipublisher.util.JsonParsingUtils.*;
 @Component
 public class EditorAgent extends BaseAgent {
 
-    // List of existing wiki pages that can be linked to
-    private List<String> existingPages = List.of();
+    // Existing wiki pages and link context for the document being edited.
+    // Held per thread so concurrent pipelines (parallel universe generation)
+    // cannot overwrite each other's page lists between setup and processing.
+    private final ThreadLocal<LinkState> linkState = ThreadLocal.withInitial(LinkState::empty);
 
     // Link evaluator for intelligent link suggestions
     private LinkEvaluator linkEvaluator;
 
-    // Wiki link context for page relationships
-    private WikiLinkContext wikiLinkContext;
-
     // See Also generator for related topic suggestions
     private SeeAlsoGenerator seeAlsoGenerator;
 
@@ -52,6 +52,14 @@ public class EditorAgent extends BaseAgent {
         this.model = model;
     }
 
+    /**
+     * Set the streaming client (optional, called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setStreamingChatClient(@Qualifier("editorStreamingClient") StreamingChatClient streamingClient) {
+        setStreamingClient(streamingClient);
+    }
+
     /**
      * Set the link evaluator (optional, called by Spring via @Autowired).
      */
@@ -88,36 +96,38 @@ public class EditorAgent extends BaseAgent {
      * Set the list of existing wiki pages for link integration.
      */
     public void setExistingPages(List<String> existingPages) {
-        this.existingPages = existingPages == null ? List.of() : List.copyOf(existingPages);
+        List<String> pages = existingPages == null ? List.of() : List.copyOf(existingPages);
         // Build wiki context from existing pages
-        this.wikiLinkContext = new WikiLinkContext();
-        for (String page : this.existingPages) {
-            wikiLinkContext.registerPage(page);
+        WikiLinkContext context = new WikiLinkContext();
+        for (String page : pages) {
+            context.registerPage(page);
         }
+        linkState.set(new LinkState(pages, context));
     }
 
     /**
      * Set the wiki link context with full page relationship data.
      */
     public void setWikiLinkContext(WikiLinkContext context) {
-        this.wikiLinkContext = context;
         // Also update existingPages list from context
-        if (context != null) {
-            this.existingPages = List.copyOf(context.getAllPages());
-        }
+        List<String> pages = context != null
+                ? List.copyOf(context.getAllPages())
+                : linkState.get().existingPages();
+        linkState.set(new LinkState(pages, context));
     }
 
     /**
      * Get the list of existing wiki pages.
      */
     public List<String> getExistingPages() {
-        return existingPages;
+        return linkState.get().existingPages();
     }
 
     /**
      * Get suggested links for content using the link evaluator.
      */
     public List<LinkCandidate> getSuggestedLinks(String content) {
+        WikiLinkContext wikiLinkContext = linkState.get().wikiLinkContext();
         if (linkEvaluator == null || wikiLinkContext == null || content == null) {
             return List.of();
         }
@@ -132,6 +142,8 @@ public class EditorAgent extends BaseAgent {
         ArticleDraft draft = document.getDraft();
         FactCheckReport factCheckReport = document.getFactCheckReport();
         TopicBrief topicBrief = document.getTopicBrief();
+        List<String> existingPages = getExistingPages();
+        WikiLinkContext wikiLinkContext = linkState.get().wikiLinkContext();
 
         StringBuilder prompt = new StringBuilder();
         prompt.append("Please edit and polish the following article for publication:\n\n");
@@ -307,4 +319,12 @@ public class EditorAgent extends BaseAgent {
         return DocumentMetadata.create(title, summary);
     }
 
+    /**
+     * Existing pages and link context used when building the editing prompt.
+     */
+    private record LinkState(List<String> existingPages, WikiLinkContext wikiLinkContext) {
+        static LinkState empty() {
+            return new LinkState(List.of(), null);
+        }
+    }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.jakefear.aipublisher.config.QualityProperties;
 import com.jakefear.aipublisher.document.*;
+import com.jakefear.aipublisher.llm.StreamingChatClient;
 import com.jakefear.aipublisher.search.SearchResult;
 import com.jakefear.aipublisher.search.WikidataSearchService;
 import dev.langchain4j.model.chat.ChatModel;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static com.jakefear.aipublisher.util.JsonParsingUtils.*;
 
@@ -42,6 +44,14 @@ public class FactCheckerAgent extends BaseAgent {
         this.model = model;
     }
 
+    /**
+     * Set the streaming client (optional, called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setStreamingChatClient(@Qualifier("factCheckerStreamingClient") StreamingChatClient streamingClient) {
+        setStreamingClient(streamingClient);
+    }
+
     /**
      * Set the Wikidata search service (called by Spring via @Autowired).
      */
@@ -76,6 +86,20 @@ public class FactCheckerAgent extends BaseAgent {
 
     @Override
     protected String buildUserPrompt(PublishingDocument document) {
+        return preparePrompt(document).get();
+    }
+
+    /**
+     * Run the Wikidata verification search once; retries only re-render the prompt.
+     */
+    @Override
+    protected Supplier<String> preparePrompt(PublishingDocument document) {
+        List<SearchResult> verificationResults =
+                performWikidataVerificationSearch(document.getTopicBrief().topic());
+        return () -> renderUserPrompt(document, verificationResults);
+    }
+
+    private String renderUserPrompt(PublishingDocument document, List<SearchResult> verificationResults) {
         ArticleDraft draft = document.getDraft();
         ResearchBrief researchBrief = document.getResearchBrief();
 
@@ -123,8 +147,6 @@ public class FactCheckerAgent extends BaseAgent {
         }
 
         // Add Wikidata verification results
-        String topic = document.getTopicBrief().topic();
-        List<SearchResult> verificationResults = performWikidataVerificationSearch(topic);
         if (!verificationResults.isEmpty()) {
             prompt.append("\n--- WIKIDATA VERIFICATION RESULTS ---\n");
             prompt.append("The following are Wikidata entities about this topic.\n");
@@ -3,6 +3,7 @@ package com.jakefear.aipublisher.agent;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.jakefear.aipublisher.document.*;
+import com.jakefear.aipublisher.llm.StreamingChatClient;
 import com.jakefear.aipublisher.search.SearchResult;
 import com.jakefear.aipublisher.search.WikidataSearchService;
 import dev.langchain4j.model.chat.ChatModel;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Component;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import static com.jakefear.aipublisher.util.JsonParsingUtils.*;
 
@@ -42,6 +44,14 @@ public class ResearchAgent extends BaseAgent {
         this.model = model;
     }
 
+    /**
+     * Set the streaming client (optional, called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setStreamingChatClient(@Qualifier("researchStreamingClient") StreamingChatClient streamingClient) {
+        setStreamingClient(streamingClient);
+    }
+
     /**
      * Set the Wikidata search service (called by Spring via @Autowired).
      */
@@ -68,8 +78,20 @@ public class ResearchAgent extends BaseAgent {
 
     @Override
     protected String buildUserPrompt(PublishingDocument document) {
+        return preparePrompt(document).get();
+    }
+
+    /**
+     * Look up the topic on Wikidata once; retries only re-render the prompt.
+     */
+    @Override
+    protected Supplier<String> preparePrompt(PublishingDocument document) {
         TopicBrief brief = document.getTopicBrief();
+        List<SearchResult> searchResults = performWikidataSearch(brief.topic());
+        return () -> renderUserPrompt(brief, searchResults);
+    }
 
+    private String renderUserPrompt(TopicBrief brief, List<SearchResult> searchResults) {
         StringBuilder prompt = new StringBuilder();
 
         // Include rich domain context if available
@@ -106,7 +128,6 @@ public class ResearchAgent extends BaseAgent {
         }
 
         // Add Wikidata search results if available
-        List<SearchResult> searchResults = performWikidataSearch(brief.topic());
         if (!searchResults.isEmpty()) {
             prompt.append("\n--- WIKIDATA SEARCH RESULTS ---\n");
             prompt.append("The following are Wikidata entities about this topic.\n");
@@ -7,6 +7,7 @@ import com.jakefear.aipublisher.content.ContentTypeTemplate;
 import com.jakefear.aipublisher.document.*;
 import com.jakefear.aipublisher.examples.ExamplePlan;
 import com.jakefear.aipublisher.examples.ExamplePlanner;
+import com.jakefear.aipublisher.llm.StreamingChatClient;
 import com.jakefear.aipublisher.prerequisites.PrerequisiteAnalyzer;
 import com.jakefear.aipublisher.prerequisites.PrerequisiteSet;
 import com.jakefear.aipublisher.util.WikiSyntaxValidator;
@@ -50,6 +51,14 @@ public class WriterAgent extends BaseAgent {
         this.model = model;
     }
 
+    /**
+     * Set the streaming client (optional, called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setStreamingChatClient(@Qualifier("writerStreamingClient") StreamingChatClient streamingClient) {
+        setStreamingClient(streamingClient);
+    }
+
     /**
      * Set the example planner (optional, called by Spring via @Autowired).
      */
@@ -10,11 +10,18 @@ import com.jakefear.aipublisher.domain.Topic;
 import com.jakefear.aipublisher.domain.TopicRelationship;
 import com.jakefear.aipublisher.domain.TopicUniverse;
 import com.jakefear.aipublisher.domain.TopicUniverseRepository;
+import com.jakefear.aipublisher.domain.UniverseFormat;
+import com.jakefear.aipublisher.document.TokenUsageSummary;
 import com.jakefear.aipublisher.document.TopicBrief;
 import com.jakefear.aipublisher.gap.GapConcept;
 import com.jakefear.aipublisher.gap.StubGenerationService;
+import com.jakefear.aipublisher.llm.LlmPriceTable;
+import com.jakefear.aipublisher.llm.LlmResponseCache;
+import com.jakefear.aipublisher.monitoring.jfr.FlightRecording;
+import com.jakefear.aipublisher.output.WikiPageIndex;
 import com.jakefear.aipublisher.pipeline.PipelineResult;
 import com.jakefear.aipublisher.pipeline.PublishingPipeline;
+import com.jakefear.aipublisher.pipeline.UniverseScheduler;
 import com.jakefear.aipublisher.util.PageNameUtils;
 import dev.langchain4j.model.chat.ChatModel;
 import org.slf4j.Logger;
@@ -32,12 +39,15 @@ import java.util.ArrayList;
 import java.util.stream.Collectors;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Main CLI command for AI Publisher.
@@ -103,6 +113,8 @@ import java.util.concurrent.Callable;
                 "  aipublisher --universe investing-basics        # Generate from universe ID",
                 "  aipublisher -u investing-basics                # Short form",
                 "  aipublisher -u myuniverse --generate-stubs     # Also generate stubs for gaps",
+                "  aipublisher -u myuniverse --workers 4          # Generate up to 4 topics concurrently",
+                "  aipublisher -u myuniverse --resume             # Skip published topics, resume failed ones",
                 "",
                 "Stub Generation (fill gaps in existing wiki):",
                 "  aipublisher --analyze-gaps                     # Report gaps only",
@@ -120,6 +132,15 @@ import java.util.concurrent.Callable;
                 "  aipublisher -t \"Topic\" --pipeline.skip-fact-check=true",
                 "  aipublisher -t \"Topic\" --pipeline.skip-fact-check=true --pipeline.skip-critique=true",
                 "",
+                "LLM Response Cache (reruns with identical prompts reuse earlier responses):",
+                "  aipublisher -t \"Topic\" --no-cache            # Always call the model",
+                "  aipublisher --clear-cache                      # Delete all cached responses",
+                "  --llm.cache.max-size-mb=<n>     Cache size limit in MB (default: 256)",
+                "",
+                "Profiling (Java Flight Recorder):",
+                "  aipublisher -u myuniverse --jfr                # Record to ai-publisher.jfr",
+                "  aipublisher -u myuniverse --jfr=slow-run.jfr   # Record to a chosen file",
+                "",
                 "Lenient Validation (for models with sparse JSON output):",
                 "  aipublisher -t \"Topic\" --quality.require-verified-claims=false",
                 "",
@@ -143,8 +164,11 @@ public class AiPublisherCommand implements Callable<Integer> {
     private Supplier<ContentTypeSelector> contentTypeSelectorSupplier;
     private Supplier<TopicUniverseRepository> universeRepositorySupplier;
     private Supplier<OutputProperties> outputPropertiesSupplier;
+    private Supplier<WikiPageIndex> pageIndexSupplier;
     private Supplier<ChatModel> summaryModelSupplier;
     private Supplier<StubGenerationService> stubGenerationServiceSupplier;
+    private Supplier<LlmResponseCache> responseCacheSupplier;
+    private Supplier<LlmPriceTable> priceTableSupplier;
 
     @Option(names = {"-t", "--topic"},
             description = "Topic to write about (launches interactive mode if not specified)")
@@ -199,6 +223,20 @@ public class AiPublisherCommand implements Callable<Integer> {
             description = "Generate articles from a saved topic universe (by ID or file path)")
     private String universeId;
 
+    @Option(names = {"--convert-universe"},
+            paramLabel = "<format>",
+            description = "Convert the universe given with --universe to json or smile (compact binary) and exit")
+    private String convertUniverseFormat;
+
+    @Option(names = {"--workers"},
+            description = "Number of universe topics to generate concurrently, respecting prerequisites (default: 1)",
+            defaultValue = "1")
+    private int workers;
+
+    @Option(names = {"--resume"},
+            description = "Resume from saved checkpoints: skip published universe topics and restart failed ones from their last completed phase")
+    private boolean resume;
+
     @Option(names = {"--generate-stubs"},
             description = "Generate stub pages for gap concepts after universe generation")
     private boolean generateStubs;
@@ -211,6 +249,21 @@ public class AiPublisherCommand implements Callable<Integer> {
             description = "Analyze wiki content for gaps without generating stubs (report only)")
     private boolean analyzeGaps;
 
+    @Option(names = {"--no-cache"},
+            description = "Bypass the LLM response cache (neither read nor write cached responses)")
+    private boolean noCache;
+
+    @Option(names = {"--clear-cache"},
+            description = "Delete all cached LLM responses before running")
+    private boolean clearCache;
+
+    @Option(names = {"--jfr"},
+            paramLabel = "<file>",
+            arity = "0..1",
+            fallbackValue = "ai-publisher.jfr",
+            description = "Record the run with Java Flight Recorder, including pipeline phase, agent call and HTTP lookup events (default file: ai-publisher.jfr)")
+    private Path jfrFile;
+
     @Option(names = {"-v", "--verbose"},
             description = "Enable verbose output")
     private boolean verbose;
@@ -286,6 +339,14 @@ public class AiPublisherCommand implements Callable<Integer> {
         this.outputPropertiesSupplier = outputPropertiesProvider::getObject;
     }
 
+    /**
+     * Set the page index supplier (called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired
+    public void setPageIndexProvider(ObjectProvider<WikiPageIndex> pageIndexProvider) {
+        this.pageIndexSupplier = pageIndexProvider::getObject;
+    }
+
     /**
      * Set the summary model supplier (called by Spring via @Autowired).
      * Uses the writer model for generating summaries.
@@ -303,6 +364,22 @@ public class AiPublisherCommand implements Callable<Integer> {
         this.stubGenerationServiceSupplier = stubGenerationServiceProvider::getObject;
     }
 
+    /**
+     * Set the LLM response cache supplier (called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired
+    public void setResponseCacheProvider(ObjectProvider<LlmResponseCache> responseCacheProvider) {
+        this.responseCacheSupplier = responseCacheProvider::getIfAvailable;
+    }
+
+    /**
+     * Set the LLM price table supplier (called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired
+    public void setPriceTableProvider(ObjectProvider<LlmPriceTable> priceTableProvider) {
+        this.priceTableSupplier = priceTableProvider::getIfAvailable;
+    }
+
     /**
      * Constructor for testing - uses direct instances.
      */
@@ -360,6 +437,15 @@ public class AiPublisherCommand implements Callable<Integer> {
         if (universeId != null && !universeId.isBlank()) {
             cmd.append(" -u ").append(universeId);
         }
+        if (convertUniverseFormat != null) {
+            cmd.append(" --convert-universe ").append(convertUniverseFormat);
+        }
+        if (workers > 1) {
+            cmd.append(" --workers ").append(workers);
+        }
+        if (resume) {
+            cmd.append(" --resume");
+        }
         if (generateStubs) {
             cmd.append(" --generate-stubs");
         }
@@ -369,6 +455,12 @@ public class AiPublisherCommand implements Callable<Integer> {
         if (analyzeGaps) {
             cmd.append(" --analyze-gaps");
         }
+        if (noCache) {
+            cmd.append(" --no-cache");
+        }
+        if (clearCache) {
+            cmd.append(" --clear-cache");
+        }
         if (verbose) {
             cmd.append(" --verbose");
         }
@@ -402,12 +494,46 @@ public class AiPublisherCommand implements Callable<Integer> {
         PrintWriter out = outputWriter != null ? outputWriter : new PrintWriter(System.out, true);
         BufferedReader in = inputReader != null ? inputReader : new BufferedReader(new InputStreamReader(System.in));
 
+        FlightRecording recording = null;
+        if (jfrFile != null) {
+            try {
+                recording = FlightRecording.start(jfrFile);
+                if (!quiet) {
+                    out.println("Recording JFR events to " + jfrFile);
+                }
+            } catch (IOException | RuntimeException e) {
+                out.println("ERROR: Could not start flight recording: " + e.getMessage());
+                return 1;
+            }
+        }
+
+        try {
+            return run(in, out);
+        } finally {
+            if (recording != null) {
+                recording.close();
+                out.println("Flight recording written to " + recording.getDestination());
+            }
+        }
+    }
+
+    private Integer run(BufferedReader in, PrintWriter out) {
         try {
             // Configure API key if provided via CLI
             if (!configureApiKey(out)) {
                 return 1;
             }
 
+            configureResponseCache(out);
+            if (clearCache && !hasWorkToDo()) {
+                return 0;
+            }
+
+            // Handle universe conversion - rewrite the file and exit
+            if (convertUniverseFormat != null) {
+                return runConvertUniverseMode(out);
+            }
+
             // Handle stubs-only mode - generate stubs for existing content
             // Check this BEFORE universe mode since stubs-only is more specific
             if (stubsOnly) {
@@ -491,7 +617,9 @@ public class AiPublisherCommand implements Callable<Integer> {
             }
 
             // Execute pipeline
-            PipelineResult result = pipelineSupplier.get().execute(topicBrief);
+            PipelineResult result = resume
+                    ? pipelineSupplier.get().execute(topicBrief, true)
+                    : pipelineSupplier.get().execute(topicBrief);
 
             // Display results
             printResults(out, result);
@@ -559,6 +687,9 @@ public class AiPublisherCommand implements Callable<Integer> {
 
         out.println();
         out.println("Total time: " + result.totalTime().toMillis() + " ms");
+        if (result.document() != null && !result.document().getTokenUsage().isEmpty()) {
+            out.println("Token usage: " + result.document().getTokenUsage().format());
+        }
         out.println("═".repeat(60));
     }
 
@@ -611,6 +742,39 @@ public class AiPublisherCommand implements Callable<Integer> {
         return true;
     }
 
+    /**
+     * Apply the --no-cache and --clear-cache options to the LLM response cache.
+     */
+    private void configureResponseCache(PrintWriter out) {
+        if ((!noCache && !clearCache) || responseCacheSupplier == null) {
+            return;
+        }
+        LlmResponseCache cache = responseCacheSupplier.get();
+        if (cache == null) {
+            return;
+        }
+        if (clearCache) {
+            int removed = cache.clear();
+            out.println("Cleared " + removed + " cached LLM responses from " + cache.getDirectory());
+        }
+        if (noCache) {
+            cache.setEnabled(false);
+            if (verbose) {
+                out.println("LLM response cache disabled for this run");
+            }
+        }
+    }
+
+    /**
+     * Check whether any generation or analysis was requested, as opposed to a
+     * maintenance-only invocation such as --clear-cache on its own.
+     */
+    private boolean hasWorkToDo() {
+        return stubsOnly || analyzeGaps || forceInteractive || convertUniverseFormat != null
+                || (universeId != null && !universeId.isBlank())
+                || (topic != null && !topic.isBlank());
+    }
+
     // Getters for testing
     public String getTopic() {
         return topic;
@@ -644,6 +808,42 @@ public class AiPublisherCommand implements Callable<Integer> {
         return forceInteractive;
     }
 
+    /**
+     * Rewrite a saved universe in another format, next to the original.
+     */
+    private Integer runConvertUniverseMode(PrintWriter out) {
+        UniverseFormat format = UniverseFormat.fromString(convertUniverseFormat);
+        if (format == null) {
+            out.println("ERROR: Unknown universe format: " + convertUniverseFormat + " (expected json or smile)");
+            return 1;
+        }
+        if (universeId == null || universeId.isBlank()) {
+            out.println("ERROR: --convert-universe requires --universe <id or path>");
+            return 1;
+        }
+
+        try {
+            TopicUniverseRepository repository = universeRepositorySupplier.get();
+            Optional<Path> source = repository.locate(universeId);
+            if (source.isEmpty() && Files.exists(Path.of(universeId))) {
+                source = Optional.of(Path.of(universeId));
+            }
+            if (source.isEmpty()) {
+                out.println("ERROR: Universe not found: " + universeId);
+                return 1;
+            }
+
+            Path target = repository.convert(source.get(), format);
+            out.printf("Converted %s (%,d bytes) to %s (%,d bytes)%n",
+                    source.get(), Files.size(source.get()), target, Files.size(target));
+            return 0;
+        } catch (IOException e) {
+            out.println("ERROR: " + e.getMessage());
+            log.error("Universe conversion failed", e);
+            return 1;
+        }
+    }
+
     /**
      * Run article generation from a saved topic universe.
      */
@@ -690,13 +890,21 @@ public class AiPublisherCommand implements Callable<Integer> {
             out.println();
 
             // Get topics in generation order
-            var topics = universe.getGenerationOrder();
+            var plan = universe.getGenerationPlan();
+            var topics = plan.order();
 
             out.println("Topics in generation order:");
             for (int i = 0; i < topics.size(); i++) {
                 var topic = topics.get(i);
                 out.printf("  %2d. %s [%s]%n", i + 1, topic.name(), topic.priority().getDisplayName());
             }
+            out.printf("Dependency layers: %d (up to %d topics can run in parallel)%n",
+                    plan.layers().size(), plan.getMaxParallelism());
+            for (var cycle : plan.brokenCycles()) {
+                out.printf("Warning: prerequisite cycle %s; generating '%s' before '%s'%n",
+                        String.join(" -> ", cycle), cycle.get(0), cycle.get(cycle.size() - 1));
+            }
+            printCostEstimate(out, topics.size());
             out.println();
 
             // Confirm before starting
@@ -711,42 +919,59 @@ public class AiPublisherCommand implements Callable<Integer> {
             // Configure auto-approval
             approvalServiceSupplier.get().setCallback(createAutoApproveCallback());
 
-            int successCount = 0;
-            int failCount = 0;
-            List<Topic> successfulTopics = new ArrayList<>();
-
-            for (int i = 0; i < topics.size(); i++) {
-                var topic = topics.get(i);
-                out.println();
-                out.println("─".repeat(67));
-                out.printf("Generating %d/%d: %s%n", i + 1, topics.size(), topic.name());
-                out.println("─".repeat(67));
+            // When resuming, topics that are already published count as done
+            List<Topic> alreadyPublished = new ArrayList<>();
+            if (resume) {
+                for (Topic topic : topics) {
+                    if (isAlreadyPublished(topic)) {
+                        alreadyPublished.add(topic);
+                    }
+                }
+                if (!alreadyPublished.isEmpty()) {
+                    out.printf("Resuming: skipping %d already published topic(s)%n", alreadyPublished.size());
+                }
+            }
+            List<Topic> pending = topics.stream()
+                    .filter(topic -> !alreadyPublished.contains(topic))
+                    .toList();
+
+            UniverseScheduler scheduler = new UniverseScheduler(workers);
+            if (scheduler.getWorkers() > 1) {
+                out.printf("Generating with %d concurrent workers (prerequisites are generated first)%n",
+                        scheduler.getWorkers());
+            }
 
-                // Build TopicBrief from universe topic
-                TopicBrief brief = TopicBrief.builder(topic.name())
-                        .targetAudience(audience)
-                        .targetWordCount(topic.estimatedWords() > 0 ? topic.estimatedWords() : wordCount)
-                        .contentType(topic.contentType())
-                        .domainContext(universe.name())
-                        .build();
+            AtomicInteger started = new AtomicInteger();
+            List<UniverseScheduler.TopicOutcome> outcomes = scheduler.run(
+                    universe,
+                    pending,
+                    topic -> resume
+                            ? pipelineSupplier.get().execute(buildUniverseTopicBrief(universe, topic), true)
+                            : pipelineSupplier.get().execute(buildUniverseTopicBrief(universe, topic)),
+                    topic -> {
+                        synchronized (out) {
+                            out.println();
+                            out.println("─".repeat(67));
+                            out.printf("Generating %d/%d: %s%n", started.incrementAndGet(), pending.size(), topic.name());
+                            out.println("─".repeat(67));
+                        }
+                    },
+                    outcome -> printUniverseOutcome(out, outcome)
+            );
 
-                try {
-                    PipelineResult result = pipelineSupplier.get().execute(brief);
-
-                    if (result.success()) {
-                        successCount++;
-                        successfulTopics.add(topic);
-                        out.printf("✓ Success: %s%n", result.outputPath());
-                    } else {
-                        failCount++;
-                        out.printf("✗ Failed: %s%n", result.errorMessage());
-                    }
-                } catch (Exception e) {
+            int successCount = 0;
+            int failCount = 0;
+            TokenUsageSummary runUsage = TokenUsageSummary.EMPTY;
+            List<Topic> successfulTopics = new ArrayList<>(alreadyPublished);
+            for (UniverseScheduler.TopicOutcome outcome : outcomes) {
+                if (outcome.result() != null && outcome.result().document() != null) {
+                    runUsage = runUsage.plus(outcome.result().document().getTokenUsage());
+                }
+                if (outcome.isSuccess()) {
+                    successCount++;
+                    successfulTopics.add(outcome.topic());
+                } else {
                     failCount++;
-                    out.printf("✗ Error: %s%n", e.getMessage());
-                    if (verbose) {
-                        e.printStackTrace(out);
-                    }
                 }
             }
 
@@ -794,7 +1019,15 @@ public class AiPublisherCommand implements Callable<Integer> {
 
             out.println();
             out.println("═".repeat(67));
-            out.printf("Generation complete: %d succeeded, %d failed%n", successCount, failCount);
+            if (alreadyPublished.isEmpty()) {
+                out.printf("Generation complete: %d succeeded, %d failed%n", successCount, failCount);
+            } else {
+                out.printf("Generation complete: %d succeeded, %d failed, %d already published%n",
+                        successCount, failCount, alreadyPublished.size());
+            }
+            if (!runUsage.isEmpty()) {
+                out.printf("Token usage: %s%n", runUsage.format());
+            }
             out.println("═".repeat(67));
 
             return failCount > 0 ? 1 : 0;
@@ -809,10 +1042,100 @@ public class AiPublisherCommand implements Callable<Integer> {
         }
     }
 
+    /**
+     * Print the projected token usage and cost of generating a number of articles.
+     */
+    private void printCostEstimate(PrintWriter out, int articles) {
+        LlmPriceTable priceTable = priceTableSupplier != null ? priceTableSupplier.get() : null;
+        if (priceTable == null || articles == 0) {
+            return;
+        }
+        LlmPriceTable.Estimate estimate = priceTable.estimate(articles);
+        if (estimate.costUsd().isPresent()) {
+            out.printf("Estimated cost: ~$%.2f with %s (~%,d input / %,d output tokens)%n",
+                    estimate.costUsd().get(), estimate.model(), estimate.inputTokens(), estimate.outputTokens());
+        } else {
+            out.printf("Estimated tokens: ~%,d input / %,d output (%s has no configured price)%n",
+                    estimate.inputTokens(), estimate.outputTokens(), estimate.model());
+        }
+    }
+
+    /**
+     * Check whether a universe topic already has a published page in the output directory.
+     */
+    private boolean isAlreadyPublished(Topic topic) {
+        WikiPageIndex pageIndex = pageIndexSupplier != null ? pageIndexSupplier.get() : null;
+        if (pageIndex != null) {
+            return pageIndex.containsTopic(topic.name());
+        }
+        OutputProperties outputProps = outputPropertiesSupplier != null ? outputPropertiesSupplier.get() : null;
+        if (outputProps == null) {
+            return false;
+        }
+        String filename = PageNameUtils.toCamelCase(topic.name()) + outputProps.getFileExtension();
+        return Files.exists(outputProps.getDirectoryPath().resolve(filename));
+    }
+
+    /**
+     * Build the TopicBrief for a topic in universe mode.
+     */
+    private TopicBrief buildUniverseTopicBrief(TopicUniverse universe, Topic topic) {
+        return TopicBrief.builder(topic.name())
+                .targetAudience(audience)
+                .targetWordCount(topic.estimatedWords() > 0 ? topic.estimatedWords() : wordCount)
+                .contentType(topic.contentType())
+                .domainContext(universe.name())
+                .build();
+    }
+
+    /**
+     * Print the result of generating a single universe topic.
+     */
+    private void printUniverseOutcome(PrintWriter out, UniverseScheduler.TopicOutcome outcome) {
+        synchronized (out) {
+            if (outcome.error() != null) {
+                out.printf("✗ Error (%s): %s%n", outcome.topic().name(), outcome.error().getMessage());
+                if (verbose) {
+                    outcome.error().printStackTrace(out);
+                }
+            } else if (outcome.result().success()) {
+                out.printf("✓ Success (%s): %s%n", outcome.topic().name(), outcome.result().outputPath());
+            } else {
+                out.printf("✗ Failed (%s): %s%n", outcome.topic().name(), outcome.result().errorMessage());
+            }
+            if (outcome.result() != null && outcome.result().document() != null) {
+                TokenUsageSummary usage = outcome.result().document().getTokenUsage();
+                if (!usage.isEmpty()) {
+                    out.printf("  Tokens: %s%n", usage.format());
+                }
+            }
+        }
+    }
+
     public String getUniverseId() {
         return universeId;
     }
 
+    public int getWorkers() {
+        return workers;
+    }
+
+    public String getConvertUniverseFormat() {
+        return convertUniverseFormat;
+    }
+
+    public boolean isNoCache() {
+        return noCache;
+    }
+
+    public boolean isClearCache() {
+        return clearCache;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
     public boolean isGenerateStubs() {
         return generateStubs;
     }
@@ -825,6 +1148,10 @@ public class AiPublisherCommand implements Callable<Integer> {
         return analyzeGaps;
     }
 
+    public Path getJfrFile() {
+        return jfrFile;
+    }
+
     /**
      * Run stub generation for existing wiki content without main article generation.
      */
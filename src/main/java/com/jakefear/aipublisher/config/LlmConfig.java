@@ -1,8 +1,16 @@
 package com.jakefear.aipublisher.config;
 
+import com.jakefear.aipublisher.agent.AgentRole;
+import com.jakefear.aipublisher.llm.LlmPriceTable;
+import com.jakefear.aipublisher.llm.LlmRequestScheduler;
+import com.jakefear.aipublisher.llm.LlmResponseCache;
+import com.jakefear.aipublisher.llm.StreamingChatClient;
 import dev.langchain4j.model.anthropic.AnthropicChatModel;
+import dev.langchain4j.model.anthropic.AnthropicStreamingChatModel;
 import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
 import dev.langchain4j.model.ollama.OllamaChatModel;
+import dev.langchain4j.model.ollama.OllamaStreamingChatModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,7 +18,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Map;
 
 /**
  * Configuration for LLM integration via LangChain4j.
@@ -19,6 +29,20 @@ import java.time.Duration;
  * Provider selection is controlled by the llm.provider property:
  * - "anthropic" (default): Uses Claude API
  * - "ollama": Uses local Ollama server
+ *
+ * All model beans share a single {@link LlmRequestScheduler} that limits the
+ * number of in-flight requests per provider (llm.max-in-flight.*) and admits
+ * later pipeline phases ahead of earlier ones when the limit is reached.
+ *
+ * Agent responses are cached on disk by {@link LlmResponseCache} (llm.cache.*),
+ * so reruns with identical prompts skip the model call.
+ *
+ * With llm.streaming.enabled=true, agents stream responses through a
+ * {@link StreamingChatClient} per role, which aborts stalled generations
+ * after llm.streaming.stall-timeout instead of waiting for the HTTP timeout.
+ *
+ * Token counts from every agent call are priced with {@link LlmPriceTable}
+ * (llm.pricing.*), which also estimates the cost of a universe before it runs.
  */
 @Configuration
 public class LlmConfig {
@@ -83,13 +107,82 @@ public class LlmConfig {
     @Value("${llm.temperature.critic:0.3}")
     private double criticTemperature;
 
+    // Concurrency limits (requests in flight at once, per provider)
+    @Value("${llm.max-in-flight.anthropic:4}")
+    private int anthropicMaxInFlight;
+
+    @Value("${llm.max-in-flight.ollama:1}")
+    private int ollamaMaxInFlight;
+
+    // Response cache settings
+    @Value("${llm.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${llm.cache.directory:}")
+    private String cacheDirectory;
+
+    @Value("${llm.cache.max-size-mb:256}")
+    private long cacheMaxSizeMb;
+
+    // Streaming settings
+    @Value("${llm.streaming.enabled:false}")
+    private boolean streamingEnabled;
+
+    @Value("${llm.streaming.first-token-timeout:PT2M}")
+    private Duration streamingFirstTokenTimeout;
+
+    @Value("${llm.streaming.stall-timeout:PT30S}")
+    private Duration streamingStallTimeout;
+
+    // Pricing settings
+    @Value("${llm.pricing.models:}")
+    private String pricingModels;
+
+    @Value("${llm.pricing.estimate.input-tokens-per-article:30000}")
+    private long estimateInputTokensPerArticle;
+
+    @Value("${llm.pricing.estimate.output-tokens-per-article:12000}")
+    private long estimateOutputTokensPerArticle;
+
+    /**
+     * Persistent response cache shared by agents and gap detection.
+     */
+    @Bean
+    public LlmResponseCache llmResponseCache() {
+        Path directory = cacheDirectory == null || cacheDirectory.isBlank()
+                ? Path.of(System.getProperty("user.home"), ".aipublisher", "cache", "llm")
+                : Path.of(cacheDirectory);
+        log.debug("LLM response cache: enabled={}, directory={}, maxSize={} MB", cacheEnabled, directory, cacheMaxSizeMb);
+        return new LlmResponseCache(directory, cacheMaxSizeMb * 1024 * 1024, cacheEnabled);
+    }
+
+    /**
+     * Token prices for cost accounting, with the configured model for estimates.
+     */
+    @Bean
+    public LlmPriceTable llmPriceTable() {
+        return new LlmPriceTable(LlmPriceTable.parse(pricingModels), getModelName(),
+                estimateInputTokensPerArticle, estimateOutputTokensPerArticle);
+    }
+
+    /**
+     * Scheduler shared by all chat model beans.
+     */
+    @Bean
+    public LlmRequestScheduler llmRequestScheduler() {
+        log.debug("LLM request scheduler limits: anthropic={}, ollama={}", anthropicMaxInFlight, ollamaMaxInFlight);
+        return new LlmRequestScheduler(
+                Map.of("anthropic", anthropicMaxInFlight, "ollama", ollamaMaxInFlight),
+                LlmRequestScheduler.DEFAULT_MAX_IN_FLIGHT);
+    }
+
     /**
      * Default chat model for general use.
      */
     @Bean
     @Primary
     public ChatModel chatModel() {
-        return buildModel(0.7);
+        return buildModel("chatModel", 0.7, 0);
     }
 
     /**
@@ -97,7 +190,7 @@ public class LlmConfig {
      */
     @Bean
     public ChatModel researchChatModel() {
-        return buildModel(researchTemperature);
+        return buildModel("researchChatModel", researchTemperature, AgentRole.RESEARCHER);
     }
 
     /**
@@ -105,7 +198,7 @@ public class LlmConfig {
      */
     @Bean
     public ChatModel writerChatModel() {
-        return buildModel(writerTemperature);
+        return buildModel("writerChatModel", writerTemperature, AgentRole.WRITER);
     }
 
     /**
@@ -113,7 +206,7 @@ public class LlmConfig {
      */
     @Bean
     public ChatModel factCheckerChatModel() {
-        return buildModel(factCheckerTemperature);
+        return buildModel("factCheckerChatModel", factCheckerTemperature, AgentRole.FACT_CHECKER);
     }
 
     /**
@@ -121,7 +214,7 @@ public class LlmConfig {
      */
     @Bean
     public ChatModel editorChatModel() {
-        return buildModel(editorTemperature);
+        return buildModel("editorChatModel", editorTemperature, AgentRole.EDITOR);
     }
 
     /**
@@ -129,7 +222,61 @@ public class LlmConfig {
      */
     @Bean
     public ChatModel criticChatModel() {
-        return buildModel(criticTemperature);
+        return buildModel("criticChatModel", criticTemperature, AgentRole.CRITIC);
+    }
+
+    /**
+     * Streaming client for research tasks.
+     */
+    @Bean
+    public StreamingChatClient researchStreamingClient() {
+        return buildStreamingClient("researchStreamingClient", researchTemperature, AgentRole.RESEARCHER);
+    }
+
+    /**
+     * Streaming client for writing tasks.
+     */
+    @Bean
+    public StreamingChatClient writerStreamingClient() {
+        return buildStreamingClient("writerStreamingClient", writerTemperature, AgentRole.WRITER);
+    }
+
+    /**
+     * Streaming client for fact-checking.
+     */
+    @Bean
+    public StreamingChatClient factCheckerStreamingClient() {
+        return buildStreamingClient("factCheckerStreamingClient", factCheckerTemperature, AgentRole.FACT_CHECKER);
+    }
+
+    /**
+     * Streaming client for editing tasks.
+     */
+    @Bean
+    public StreamingChatClient editorStreamingClient() {
+        return buildStreamingClient("editorStreamingClient", editorTemperature, AgentRole.EDITOR);
+    }
+
+    /**
+     * Streaming client for critic tasks.
+     */
+    @Bean
+    public StreamingChatClient criticStreamingClient() {
+        return buildStreamingClient("criticStreamingClient", criticTemperature, AgentRole.CRITIC);
+    }
+
+    /**
+     * Build a model for an agent role. Later pipeline phases get a higher
+     * priority so in-progress documents finish before new ones start.
+     */
+    private ChatModel buildModel(String name, double temperature, AgentRole role) {
+        return buildModel(name, temperature, role.ordinal() + 1);
+    }
+
+    private ChatModel buildModel(String name, double temperature, int priority) {
+        ChatModel model = buildModel(temperature);
+        String lane = isOllama() ? "ollama" : "anthropic";
+        return llmRequestScheduler().wrap(model, lane, name, priority);
     }
 
     private ChatModel buildModel(double temperature) {
@@ -140,6 +287,19 @@ public class LlmConfig {
         }
     }
 
+    /**
+     * Build a streaming client for an agent role, sharing the scheduler lanes and
+     * priorities of the blocking models.
+     */
+    private StreamingChatClient buildStreamingClient(String name, double temperature, AgentRole role) {
+        StreamingChatModel model = isOllama()
+                ? buildOllamaStreamingModel(temperature)
+                : buildAnthropicStreamingModel(temperature);
+        String lane = isOllama() ? "ollama" : "anthropic";
+        return new StreamingChatClient(model, llmRequestScheduler(), lane, name, role.ordinal() + 1,
+                streamingFirstTokenTimeout, streamingStallTimeout, streamingEnabled);
+    }
+
     private ChatModel buildAnthropicModel(double temperature) {
         String apiKey = resolveAnthropicApiKey();
         log.debug("Building Anthropic model: {} with temperature {}, timeout {}", anthropicModel, temperature, anthropicTimeout);
@@ -168,6 +328,30 @@ public class LlmConfig {
                 .build();
     }
 
+    private StreamingChatModel buildAnthropicStreamingModel(double temperature) {
+        return AnthropicStreamingChatModel.builder()
+                .apiKey(resolveAnthropicApiKey())
+                .modelName(anthropicModel)
+                .maxTokens(anthropicMaxTokens)
+                .temperature(temperature)
+                .timeout(anthropicTimeout)
+                .build();
+    }
+
+    private StreamingChatModel buildOllamaStreamingModel(double temperature) {
+        return OllamaStreamingChatModel.builder()
+                .baseUrl(ollamaBaseUrl)
+                .modelName(ollamaModel)
+                .temperature(temperature)
+                .numPredict(ollamaNumPredict)
+                .numCtx(ollamaNumCtx)
+                .repeatPenalty(ollamaRepeatPenalty)
+                .timeout(ollamaTimeout)
+                .think(ollamaThink)
+                .returnThinking(ollamaReturnThinking)
+                .build();
+    }
+
     /**
      * Resolve Anthropic API key with priority: System property > Environment variable > Config property.
      */
@@ -205,6 +389,10 @@ public class LlmConfig {
         return isOllama() && ollamaThink;
     }
 
+    public boolean isStreamingEnabled() {
+        return streamingEnabled;
+    }
+
     public boolean isReturnThinkingEnabled() {
         return isOllama() && ollamaReturnThinking;
     }
@@ -0,0 +1,66 @@
+package com.jakefear.aipublisher.config;
+
+import com.jakefear.aipublisher.monitoring.PipelineMeters;
+import com.jakefear.aipublisher.monitoring.PrometheusExporter;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration for Micrometer metrics.
+ *
+ * Pipeline, agent, LLM, search and output metrics are recorded by
+ * {@link PipelineMeters} into a Prometheus registry, tagged with the LLM
+ * provider. They can be exposed while a run is in progress:
+ * - metrics.prometheus.port: serve /metrics over HTTP (-1 disables, the default)
+ * - metrics.prometheus.file: rewrite a text file every metrics.prometheus.dump-interval
+ *   and once more at exit, for batch runs
+ *
+ * Set metrics.enabled=false to record nothing.
+ */
+@Configuration
+@ConditionalOnProperty(name = "metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsConfig {
+
+    @Value("${llm.provider:anthropic}")
+    private String provider;
+
+    @Value("${metrics.prometheus.port:-1}")
+    private int prometheusPort;
+
+    @Value("${metrics.prometheus.file:}")
+    private String prometheusFile;
+
+    @Value("${metrics.prometheus.dump-interval:PT30S}")
+    private Duration dumpInterval;
+
+    @Bean
+    public PrometheusMeterRegistry prometheusMeterRegistry() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().commonTags("application", "aipublisher", "provider", provider.toLowerCase());
+        return registry;
+    }
+
+    @Bean
+    public PipelineMeters pipelineMeters(PrometheusMeterRegistry registry) {
+        return new PipelineMeters(registry);
+    }
+
+    /**
+     * Created eagerly despite lazy initialization, so the endpoint is up before the
+     * run starts; closed by Spring at exit, which writes the final file dump.
+     */
+    @Bean
+    @Lazy(false)
+    public PrometheusExporter prometheusExporter(PrometheusMeterRegistry registry) {
+        Path file = prometheusFile == null || prometheusFile.isBlank() ? null : Path.of(prometheusFile);
+        return new PrometheusExporter(registry::scrape, prometheusPort, file, dumpInterval);
+    }
+}
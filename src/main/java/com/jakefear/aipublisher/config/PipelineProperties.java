@@ -40,6 +40,11 @@ public class PipelineProperties {
      */
     private ApprovalSettings approval = new ApprovalSettings();
 
+    /**
+     * Checkpoint settings for resuming failed or interrupted runs.
+     */
+    private CheckpointSettings checkpoint = new CheckpointSettings();
+
     public int getMaxRevisionCycles() {
         return maxRevisionCycles;
     }
@@ -64,6 +69,14 @@ public class PipelineProperties {
         this.approval = approval;
     }
 
+    public CheckpointSettings getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setCheckpoint(CheckpointSettings checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
     public boolean isSkipFactCheck() {
         return skipFactCheck;
     }
@@ -121,4 +134,31 @@ public class PipelineProperties {
             this.beforePublish = beforePublish;
         }
     }
+
+    /**
+     * Settings for saving the document after each phase so a run can be resumed.
+     */
+    public static class CheckpointSettings {
+        private boolean enabled = true;
+        private String directory;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Checkpoint directory, or null to use ".checkpoints" inside the output directory.
+         */
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+    }
 }
@@ -0,0 +1,121 @@
+package com.jakefear.aipublisher.document;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Serializable snapshot of a {@link PublishingDocument} taken after a pipeline phase
+ * completes, so a failed or interrupted run can resume from the last good phase.
+ */
+public record DocumentCheckpoint(
+        /**
+         * Document identity.
+         */
+        UUID id,
+
+        /**
+         * CamelCase page name, also used as the checkpoint key.
+         */
+        String pageName,
+
+        /**
+         * Current document title.
+         */
+        String title,
+
+        /**
+         * The last pipeline phase that completed (including skipped phases).
+         */
+        DocumentState completedPhase,
+
+        /**
+         * The document's state when the snapshot was taken.
+         */
+        DocumentState state,
+
+        /**
+         * When the document was originally created.
+         */
+        Instant createdAt,
+
+        /**
+         * When this checkpoint was written.
+         */
+        Instant savedAt,
+
+        /**
+         * The original topic brief.
+         */
+        TopicBrief topicBrief,
+
+        // Content produced so far (null for phases not yet run)
+        ResearchBrief researchBrief,
+        ArticleDraft draft,
+        FactCheckReport factCheckReport,
+        FinalArticle finalArticle,
+        CriticReport criticReport,
+
+        /**
+         * Audit trail of agent contributions.
+         */
+        List<AgentContribution> contributions,
+
+        /**
+         * Number of revision cycles performed so far.
+         */
+        int revisionCycleCount
+) {
+    public DocumentCheckpoint {
+        Objects.requireNonNull(id, "id must not be null");
+        Objects.requireNonNull(pageName, "pageName must not be null");
+        Objects.requireNonNull(completedPhase, "completedPhase must not be null");
+        Objects.requireNonNull(state, "state must not be null");
+        Objects.requireNonNull(topicBrief, "topicBrief must not be null");
+        if (savedAt == null) {
+            savedAt = Instant.now();
+        }
+        contributions = contributions == null ? List.of() : List.copyOf(contributions);
+    }
+
+    /**
+     * Snapshot a document after a phase has completed.
+     *
+     * @param document The document to snapshot
+     * @param completedPhase The phase that just completed
+     */
+    public static DocumentCheckpoint of(PublishingDocument document, DocumentState completedPhase) {
+        return new DocumentCheckpoint(
+                document.getId(),
+                document.getPageName(),
+                document.getTitle(),
+                completedPhase,
+                document.getState(),
+                document.getCreatedAt(),
+                Instant.now(),
+                document.getTopicBrief(),
+                document.getResearchBrief(),
+                document.getDraft(),
+                document.getFactCheckReport(),
+                document.getFinalArticle(),
+                document.getCriticReport(),
+                document.getContributions(),
+                document.getRevisionCycleCount()
+        );
+    }
+
+    /**
+     * Rebuild the document exactly as it was when the checkpoint was taken.
+     */
+    public PublishingDocument toDocument() {
+        return PublishingDocument.restore(this);
+    }
+
+    /**
+     * Check whether the given phase had already completed when the checkpoint was taken.
+     */
+    public boolean hasCompleted(DocumentState phase) {
+        return completedPhase.ordinal() >= phase.ordinal();
+    }
+}
@@ -75,6 +75,32 @@ public class PublishingDocument {
         this.revisionCycleCount = 0;
     }
 
+    /**
+     * Restore a document from a checkpoint, bypassing state-specific setter validation.
+     */
+    static PublishingDocument restore(DocumentCheckpoint checkpoint) {
+        return new PublishingDocument(checkpoint);
+    }
+
+    private PublishingDocument(DocumentCheckpoint checkpoint) {
+        Objects.requireNonNull(checkpoint, "checkpoint must not be null");
+
+        this.id = checkpoint.id();
+        this.pageName = checkpoint.pageName();
+        this.title = checkpoint.title() != null ? checkpoint.title() : checkpoint.topicBrief().topic();
+        this.state = checkpoint.state();
+        this.createdAt = checkpoint.createdAt() != null ? checkpoint.createdAt() : Instant.now();
+        this.updatedAt = checkpoint.savedAt();
+        this.topicBrief = checkpoint.topicBrief();
+        this.researchBrief = checkpoint.researchBrief();
+        this.draft = checkpoint.draft();
+        this.factCheckReport = checkpoint.factCheckReport();
+        this.finalArticle = checkpoint.finalArticle();
+        this.criticReport = checkpoint.criticReport();
+        this.contributions = new ArrayList<>(checkpoint.contributions());
+        this.revisionCycleCount = checkpoint.revisionCycleCount();
+    }
+
     // State transitions
 
     /**
@@ -277,6 +303,17 @@ public class PublishingDocument {
         return Collections.unmodifiableList(contributions);
     }
 
+    /**
+     * Get the tokens and cost of every model call made for this document so far.
+     */
+    public TokenUsageSummary getTokenUsage() {
+        TokenUsageSummary total = TokenUsageSummary.EMPTY;
+        for (AgentContribution contribution : contributions) {
+            total = total.plus(TokenUsageSummary.of(contribution));
+        }
+        return total;
+    }
+
     public int getRevisionCycleCount() {
         return revisionCycleCount;
     }
@@ -0,0 +1,99 @@
+package com.jakefear.aipublisher.document;
+
+import java.util.Map;
+
+/**
+ * Token counts and cost summed over one or more model calls.
+ */
+public record TokenUsageSummary(
+        /**
+         * Number of model calls (cache hits don't count).
+         */
+        int calls,
+
+        /**
+         * Prompt tokens.
+         */
+        long inputTokens,
+
+        /**
+         * Completion tokens.
+         */
+        long outputTokens,
+
+        /**
+         * Estimated thinking tokens (part of the completion tokens for most providers).
+         */
+        long thinkingTokens,
+
+        /**
+         * Cost in USD; 0 for unpriced models.
+         */
+        double costUsd
+) {
+    /** Metric keys used in {@link AgentContribution#metrics()}. */
+    public static final String CALLS = "llmCalls";
+    public static final String INPUT_TOKENS = "inputTokens";
+    public static final String OUTPUT_TOKENS = "outputTokens";
+    public static final String THINKING_TOKENS = "thinkingTokens";
+    public static final String COST_USD = "costUsd";
+
+    public static final TokenUsageSummary EMPTY = new TokenUsageSummary(0, 0, 0, 0, 0.0);
+
+    /**
+     * Read the usage recorded in a contribution's metrics.
+     *
+     * @return The usage, or {@link #EMPTY} if none was recorded
+     */
+    public static TokenUsageSummary of(AgentContribution contribution) {
+        Map<String, Object> metrics = contribution.metrics();
+        if (!metrics.containsKey(CALLS)) {
+            return EMPTY;
+        }
+        return new TokenUsageSummary(
+                (int) number(metrics, CALLS),
+                number(metrics, INPUT_TOKENS),
+                number(metrics, OUTPUT_TOKENS),
+                number(metrics, THINKING_TOKENS),
+                metrics.get(COST_USD) instanceof Number cost ? cost.doubleValue() : 0.0);
+    }
+
+    /**
+     * Write this usage into contribution metrics.
+     */
+    public void putInto(Map<String, Object> metrics) {
+        metrics.put(CALLS, calls);
+        metrics.put(INPUT_TOKENS, inputTokens);
+        metrics.put(OUTPUT_TOKENS, outputTokens);
+        metrics.put(THINKING_TOKENS, thinkingTokens);
+        metrics.put(COST_USD, costUsd);
+    }
+
+    public TokenUsageSummary plus(TokenUsageSummary other) {
+        return new TokenUsageSummary(
+                calls + other.calls,
+                inputTokens + other.inputTokens,
+                outputTokens + other.outputTokens,
+                thinkingTokens + other.thinkingTokens,
+                costUsd + other.costUsd);
+    }
+
+    public long totalTokens() {
+        return inputTokens + outputTokens;
+    }
+
+    public boolean isEmpty() {
+        return calls == 0;
+    }
+
+    /**
+     * Short one-line description, e.g. "3 calls, 12,345 in / 2,345 out tokens, $0.07".
+     */
+    public String format() {
+        return String.format("%d calls, %,d in / %,d out tokens, $%.2f", calls, inputTokens, outputTokens, costUsd);
+    }
+
+    private static long number(Map<String, Object> metrics, String key) {
+        return metrics.get(key) instanceof Number number ? number.longValue() : 0L;
+    }
+}
@@ -0,0 +1,188 @@
+package com.jakefear.aipublisher.domain;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Order in which a set of topics should be generated, derived from the
+ * relationships that imply ordering (see {@link TopicRelationship#impliesOrdering()}).
+ *
+ * Topics are grouped into layers: every prerequisite of a topic sits in an
+ * earlier layer, so the topics of one layer can be generated in parallel once
+ * the previous layers are done. Within a layer, topics keep the order they were
+ * supplied in (normally priority order).
+ *
+ * Prerequisite cycles can't be ordered. Each cycle is broken by releasing its
+ * earliest-supplied topic as if its remaining prerequisites were met, and is
+ * reported in {@link #brokenCycles()} starting with the released topic.
+ *
+ * @param order All topics in generation order (the layers, concatenated)
+ * @param layers Topics grouped by dependency depth
+ * @param brokenCycles Topic IDs of each broken cycle: the released topic first,
+ *                     each a prerequisite of the next, the last a prerequisite of the first
+ */
+public record GenerationPlan(
+        List<Topic> order,
+        List<List<Topic>> layers,
+        List<List<String>> brokenCycles
+) {
+    public GenerationPlan {
+        order = order == null ? List.of() : List.copyOf(order);
+        layers = layers == null ? List.of() : layers.stream().map(List::copyOf).toList();
+        brokenCycles = brokenCycles == null ? List.of() : brokenCycles.stream().map(List::copyOf).toList();
+    }
+
+    /**
+     * Check whether any prerequisite cycles had to be broken.
+     */
+    public boolean hasCycles() {
+        return !brokenCycles.isEmpty();
+    }
+
+    /**
+     * Get the size of the largest layer, i.e. the most topics that can be
+     * generated at the same time.
+     */
+    public int getMaxParallelism() {
+        return layers.stream().mapToInt(List::size).max().orElse(0);
+    }
+
+    /**
+     * Plan the generation of a set of topics with Kahn's algorithm, in
+     * O(topics + relationships).
+     *
+     * Relationships to topics outside the set are ignored. If a topic ID
+     * appears more than once, the first occurrence drives the ordering and
+     * later ones follow it in the same layer.
+     *
+     * @param topics Topics to generate, in preferred order
+     * @param relationships Relationships of the universe
+     */
+    public static GenerationPlan of(List<Topic> topics, List<TopicRelationship> relationships) {
+        int n = topics.size();
+        // Index of the first topic with each ID
+        Map<String, Integer> indexById = new HashMap<>(n * 2);
+        int[] first = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexById.putIfAbsent(topics.get(i).id(), i);
+            first[i] = indexById.get(topics.get(i).id());
+        }
+
+        // Adjacency lists over distinct prerequisite edges
+        List<List<Integer>> dependents = new ArrayList<>(n);
+        List<List<Integer>> prerequisites = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            dependents.add(new ArrayList<>(2));
+            prerequisites.add(new ArrayList<>(2));
+        }
+        int[] inDegree = new int[n];
+        Set<Long> seenEdges = new HashSet<>();
+        for (TopicRelationship rel : relationships) {
+            if (!rel.impliesOrdering()) {
+                continue;
+            }
+            Integer source = indexById.get(rel.sourceTopicId());
+            Integer target = indexById.get(rel.targetTopicId());
+            if (source == null || target == null) {
+                continue;
+            }
+            if (seenEdges.add(((long) source << 32) | target)) {
+                dependents.get(source).add(target);
+                prerequisites.get(target).add(source);
+                inDegree[target]++;
+            }
+        }
+
+        int[] layer = new int[n];
+        boolean[] done = new boolean[n];
+        ArrayDeque<Integer> ready = new ArrayDeque<>();
+        int pending = 0;
+        for (int i = 0; i < n; i++) {
+            if (first[i] == i) {
+                pending++;
+                if (inDegree[i] == 0) {
+                    ready.add(i);
+                }
+            }
+        }
+
+        List<List<String>> brokenCycles = new ArrayList<>();
+        int cursor = 0;
+        while (pending > 0) {
+            if (ready.isEmpty()) {
+                // Everything left waits on a cycle: find one and release its earliest topic
+                while (done[cursor] || first[cursor] != cursor) {
+                    cursor++;
+                }
+                List<Integer> cycle = findCycle(cursor, prerequisites, done);
+                int released = Collections.min(cycle);
+                Collections.rotate(cycle, -cycle.indexOf(released));
+                brokenCycles.add(cycle.stream().map(i -> topics.get(i).id()).toList());
+                ready.add(released);
+            }
+
+            int current = ready.poll();
+            done[current] = true;
+            pending--;
+            for (int dependent : dependents.get(current)) {
+                if (done[dependent]) {
+                    continue;
+                }
+                layer[dependent] = Math.max(layer[dependent], layer[current] + 1);
+                if (--inDegree[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        List<List<Topic>> layers = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            int depth = layer[first[i]];
+            while (layers.size() <= depth) {
+                layers.add(new ArrayList<>());
+            }
+            layers.get(depth).add(topics.get(i));
+        }
+        List<Topic> order = new ArrayList<>(n);
+        layers.forEach(order::addAll);
+
+        return new GenerationPlan(order, layers, brokenCycles);
+    }
+
+    /**
+     * Walk unfinished prerequisites back from a blocked topic until a topic
+     * repeats. Every blocked topic has an unfinished prerequisite, so the walk
+     * always ends on a cycle.
+     *
+     * @return The cycle, each topic a prerequisite of the next
+     */
+    private static List<Integer> findCycle(int start, List<List<Integer>> prerequisites, boolean[] done) {
+        Map<Integer, Integer> positionInWalk = new HashMap<>();
+        List<Integer> walk = new ArrayList<>();
+        int current = start;
+        while (!positionInWalk.containsKey(current)) {
+            positionInWalk.put(current, walk.size());
+            walk.add(current);
+            int next = -1;
+            for (int prerequisite : prerequisites.get(current)) {
+                if (!done[prerequisite]) {
+                    next = prerequisite;
+                    break;
+                }
+            }
+            if (next < 0) {
+                throw new IllegalStateException("Blocked topic has no pending prerequisite");
+            }
+            current = next;
+        }
+        List<Integer> cycle = new ArrayList<>(walk.subList(positionInWalk.get(current), walk.size()));
+        Collections.reverse(cycle);
+        return cycle;
+    }
+}
@@ -0,0 +1,151 @@
+package com.jakefear.aipublisher.domain;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Immutable relationship list backing {@link TopicUniverse#relationships()},
+ * with per-topic adjacency lists built on first lookup.
+ *
+ * Adjacency lists hold every relationship, active or not, in list order, so
+ * queries filter by status in O(degree). Incoming and outgoing edges are also
+ * split by relationship type. The lists are internal; callers copy what they
+ * return.
+ */
+final class IndexedRelationships extends AbstractList<TopicRelationship> implements RandomAccess {
+
+    private static final IndexedRelationships EMPTY = new IndexedRelationships(List.of());
+
+    private final List<TopicRelationship> relationships;
+    private volatile Map<String, Adjacency> adjacency;
+
+    /**
+     * Edges touching one topic.
+     */
+    private record Adjacency(
+            List<TopicRelationship> all,
+            List<TopicRelationship> outgoing,
+            List<TopicRelationship> incoming,
+            Map<RelationshipType, List<TopicRelationship>> outgoingByType,
+            Map<RelationshipType, List<TopicRelationship>> incomingByType
+    ) {
+        Adjacency() {
+            this(new ArrayList<>(4), new ArrayList<>(2), new ArrayList<>(2),
+                    new EnumMap<>(RelationshipType.class), new EnumMap<>(RelationshipType.class));
+        }
+    }
+
+    private IndexedRelationships(List<TopicRelationship> relationships) {
+        this.relationships = relationships;
+    }
+
+    /**
+     * Wrap an immutable copy of the relationships, or reuse the list if it is already indexed.
+     */
+    static IndexedRelationships copyOf(List<TopicRelationship> relationships) {
+        if (relationships == null || relationships.isEmpty()) {
+            return EMPTY;
+        }
+        if (relationships instanceof IndexedRelationships indexed) {
+            return indexed;
+        }
+        return new IndexedRelationships(List.copyOf(relationships));
+    }
+
+    /**
+     * Wrap a list without copying it. The caller hands over the list and must
+     * not modify it afterwards.
+     */
+    static IndexedRelationships adopt(List<TopicRelationship> owned) {
+        if (owned.isEmpty()) {
+            return EMPTY;
+        }
+        for (TopicRelationship element : owned) {
+            Objects.requireNonNull(element);
+        }
+        return new IndexedRelationships(Collections.unmodifiableList(owned));
+    }
+
+    @Override
+    public TopicRelationship get(int index) {
+        return relationships.get(index);
+    }
+
+    @Override
+    public int size() {
+        return relationships.size();
+    }
+
+    @Override
+    public Iterator<TopicRelationship> iterator() {
+        return relationships.iterator();
+    }
+
+    /**
+     * Relationships with the topic at either end, in list order.
+     */
+    List<TopicRelationship> touching(String topicId) {
+        Adjacency edges = adjacency().get(topicId);
+        return edges == null ? List.of() : edges.all();
+    }
+
+    /**
+     * Relationships whose source is the topic.
+     */
+    List<TopicRelationship> outgoing(String topicId) {
+        Adjacency edges = adjacency().get(topicId);
+        return edges == null ? List.of() : edges.outgoing();
+    }
+
+    /**
+     * Relationships whose target is the topic.
+     */
+    List<TopicRelationship> incoming(String topicId) {
+        Adjacency edges = adjacency().get(topicId);
+        return edges == null ? List.of() : edges.incoming();
+    }
+
+    /**
+     * Relationships of one type whose source is the topic.
+     */
+    List<TopicRelationship> outgoing(String topicId, RelationshipType type) {
+        Adjacency edges = adjacency().get(topicId);
+        return edges == null ? List.of() : edges.outgoingByType().getOrDefault(type, List.of());
+    }
+
+    /**
+     * Relationships of one type whose target is the topic.
+     */
+    List<TopicRelationship> incoming(String topicId, RelationshipType type) {
+        Adjacency edges = adjacency().get(topicId);
+        return edges == null ? List.of() : edges.incomingByType().getOrDefault(type, List.of());
+    }
+
+    private Map<String, Adjacency> adjacency() {
+        Map<String, Adjacency> current = adjacency;
+        if (current == null) {
+            current = new HashMap<>();
+            for (TopicRelationship rel : relationships) {
+                Adjacency source = current.computeIfAbsent(rel.sourceTopicId(), k -> new Adjacency());
+                source.all().add(rel);
+                source.outgoing().add(rel);
+                source.outgoingByType().computeIfAbsent(rel.type(), k -> new ArrayList<>(2)).add(rel);
+
+                Adjacency target = current.computeIfAbsent(rel.targetTopicId(), k -> new Adjacency());
+                target.all().add(rel);
+                target.incoming().add(rel);
+                target.incomingByType().computeIfAbsent(rel.type(), k -> new ArrayList<>(2)).add(rel);
+            }
+            adjacency = current;
+        }
+        return current;
+    }
+}
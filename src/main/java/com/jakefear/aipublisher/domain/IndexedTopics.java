@@ -0,0 +1,113 @@
+package com.jakefear.aipublisher.domain;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+
+/**
+ * Immutable topic list backing {@link TopicUniverse#topics()}, with id and
+ * name indexes built on first lookup.
+ *
+ * The indexes live on the list rather than the record, so a universe that
+ * reuses an unchanged list keeps them. Equality and hashing are the usual
+ * element-wise list semantics.
+ */
+final class IndexedTopics extends AbstractList<Topic> implements RandomAccess {
+
+    private static final IndexedTopics EMPTY = new IndexedTopics(List.of());
+
+    private final List<Topic> topics;
+    private volatile Index index;
+
+    private record Index(Map<String, Topic> byId, Map<String, Topic> byName) {
+    }
+
+    private IndexedTopics(List<Topic> topics) {
+        this.topics = topics;
+    }
+
+    /**
+     * Wrap an immutable copy of the topics, or reuse the list if it is already indexed.
+     */
+    static IndexedTopics copyOf(List<Topic> topics) {
+        if (topics == null || topics.isEmpty()) {
+            return EMPTY;
+        }
+        if (topics instanceof IndexedTopics indexed) {
+            return indexed;
+        }
+        return new IndexedTopics(List.copyOf(topics));
+    }
+
+    /**
+     * Wrap a list without copying it. The caller hands over the list and must
+     * not modify it afterwards.
+     */
+    static IndexedTopics adopt(List<Topic> owned) {
+        if (owned.isEmpty()) {
+            return EMPTY;
+        }
+        for (Topic element : owned) {
+            Objects.requireNonNull(element);
+        }
+        return new IndexedTopics(Collections.unmodifiableList(owned));
+    }
+
+    @Override
+    public Topic get(int index) {
+        return topics.get(index);
+    }
+
+    @Override
+    public int size() {
+        return topics.size();
+    }
+
+    @Override
+    public Iterator<Topic> iterator() {
+        return topics.iterator();
+    }
+
+    /**
+     * Find the first topic with the given ID.
+     */
+    Optional<Topic> byId(String id) {
+        return Optional.ofNullable(index().byId().get(id));
+    }
+
+    /**
+     * Find the first topic with the given name, ignoring case.
+     */
+    Optional<Topic> byName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(index().byName().get(nameKey(name)));
+    }
+
+    private Index index() {
+        Index current = index;
+        if (current == null) {
+            Map<String, Topic> byId = new HashMap<>(topics.size() * 2);
+            Map<String, Topic> byName = new HashMap<>(topics.size() * 2);
+            for (Topic topic : topics) {
+                byId.putIfAbsent(topic.id(), topic);
+                byName.putIfAbsent(nameKey(topic.name()), topic);
+            }
+            current = new Index(byId, byName);
+            index = current;
+        }
+        return current;
+    }
+
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
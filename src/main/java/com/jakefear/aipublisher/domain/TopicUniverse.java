@@ -4,11 +4,16 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * A complete topic universe representing a knowledge domain.
  * Contains all topics, relationships, and configuration for wiki generation.
+ *
+ * Topic and relationship lookups are served from indexes built on first use
+ * and kept with the (immutable) lists, so graph queries cost O(degree).
  */
 public record TopicUniverse(
         String id,
@@ -34,8 +39,8 @@ public record TopicUniverse(
 
         // Normalize
         if (description == null) description = "";
-        topics = topics == null ? List.of() : List.copyOf(topics);
-        relationships = relationships == null ? List.of() : List.copyOf(relationships);
+        topics = IndexedTopics.copyOf(topics);
+        relationships = IndexedRelationships.copyOf(relationships);
         if (scope == null) scope = ScopeConfiguration.empty();
         if (domainContext == null) domainContext = DomainContext.empty();
         backlog = backlog == null ? List.of() : List.copyOf(backlog);
@@ -121,6 +126,15 @@ public record TopicUniverse(
      */
     @JsonIgnore
     public List<Topic> getGenerationOrder() {
+        return getGenerationPlan().order();
+    }
+
+    /**
+     * Plan generation of the ready topics: priority order, adjusted so that
+     * prerequisites come first, grouped into layers that can run in parallel.
+     */
+    @JsonIgnore
+    public GenerationPlan getGenerationPlan() {
         List<Topic> ready = topics.stream()
                 .filter(Topic::isReadyForGeneration)
                 .collect(Collectors.toCollection(ArrayList::new));
@@ -128,26 +142,22 @@ public record TopicUniverse(
         // Sort by priority first
         ready.sort(Comparator.comparingInt(t -> t.priority().getOrder()));
 
-        // Then apply topological sort based on dependencies
-        return topologicalSort(ready);
+        // Then order by dependencies
+        return GenerationPlan.of(ready, relationships);
     }
 
     /**
      * Get a topic by ID.
      */
     public Optional<Topic> getTopicById(String id) {
-        return topics.stream()
-                .filter(t -> t.id().equals(id))
-                .findFirst();
+        return indexedTopics().byId(id);
     }
 
     /**
      * Get a topic by name (case-insensitive).
      */
     public Optional<Topic> getTopicByName(String name) {
-        return topics.stream()
-                .filter(t -> t.name().equalsIgnoreCase(name))
-                .findFirst();
+        return indexedTopics().byName(name);
     }
 
     /**
@@ -155,11 +165,7 @@ public record TopicUniverse(
      */
     @JsonIgnore
     public List<TopicRelationship> getRelationshipsFor(String topicId) {
-        return relationships.stream()
-                .filter(r -> r.sourceTopicId().equals(topicId) ||
-                        r.targetTopicId().equals(topicId))
-                .filter(TopicRelationship::isActive)
-                .toList();
+        return activeOnly(indexedRelationships().touching(topicId));
     }
 
     /**
@@ -167,10 +173,7 @@ public record TopicUniverse(
      */
     @JsonIgnore
     public List<TopicRelationship> getOutgoingRelationships(String topicId) {
-        return relationships.stream()
-                .filter(r -> r.sourceTopicId().equals(topicId))
-                .filter(TopicRelationship::isActive)
-                .toList();
+        return activeOnly(indexedRelationships().outgoing(topicId));
     }
 
     /**
@@ -178,10 +181,23 @@ public record TopicUniverse(
      */
     @JsonIgnore
     public List<TopicRelationship> getIncomingRelationships(String topicId) {
-        return relationships.stream()
-                .filter(r -> r.targetTopicId().equals(topicId))
-                .filter(TopicRelationship::isActive)
-                .toList();
+        return activeOnly(indexedRelationships().incoming(topicId));
+    }
+
+    /**
+     * Get active outgoing relationships of one type from a topic.
+     */
+    @JsonIgnore
+    public List<TopicRelationship> getOutgoingRelationships(String topicId, RelationshipType type) {
+        return activeOnly(indexedRelationships().outgoing(topicId, type));
+    }
+
+    /**
+     * Get active incoming relationships of one type to a topic.
+     */
+    @JsonIgnore
+    public List<TopicRelationship> getIncomingRelationships(String topicId, RelationshipType type) {
+        return activeOnly(indexedRelationships().incoming(topicId, type));
     }
 
     /**
@@ -189,11 +205,10 @@ public record TopicUniverse(
      */
     @JsonIgnore
     public List<Topic> getPrerequisites(String topicId) {
-        return relationships.stream()
-                .filter(r -> r.targetTopicId().equals(topicId))
-                .filter(r -> r.type() == RelationshipType.PREREQUISITE_OF)
+        IndexedTopics byId = indexedTopics();
+        return indexedRelationships().incoming(topicId, RelationshipType.PREREQUISITE_OF).stream()
                 .filter(TopicRelationship::isActive)
-                .map(r -> getTopicById(r.sourceTopicId()))
+                .map(r -> byId.byId(r.sourceTopicId()))
                 .filter(Optional::isPresent)
                 .map(Optional::get)
                 .toList();
@@ -204,7 +219,7 @@ public record TopicUniverse(
      */
     @JsonIgnore
     public List<Topic> getRelatedTopics(String topicId) {
-        Set<String> relatedIds = new HashSet<>();
+        Set<String> relatedIds = new LinkedHashSet<>();
 
         for (TopicRelationship rel : getRelationshipsFor(topicId)) {
             if (rel.sourceTopicId().equals(topicId)) {
@@ -214,8 +229,9 @@ public record TopicUniverse(
             }
         }
 
+        IndexedTopics byId = indexedTopics();
         return relatedIds.stream()
-                .map(this::getTopicById)
+                .map(byId::byId)
                 .filter(Optional::isPresent)
                 .map(Optional::get)
                 .toList();
@@ -267,112 +283,103 @@ public record TopicUniverse(
      * Add a topic to the universe.
      */
     public TopicUniverse addTopic(Topic topic) {
-        List<Topic> newTopics = new ArrayList<>(topics);
+        List<Topic> newTopics = new ArrayList<>(topics.size() + 1);
+        newTopics.addAll(topics);
         newTopics.add(topic);
-        return toBuilder().topics(newTopics).build();
+        return withLists(IndexedTopics.adopt(newTopics), relationships, backlog);
     }
 
     /**
      * Update a topic in the universe.
      */
     public TopicUniverse updateTopic(Topic updatedTopic) {
-        List<Topic> newTopics = topics.stream()
-                .map(t -> t.id().equals(updatedTopic.id()) ? updatedTopic : t)
-                .toList();
-        return toBuilder().topics(newTopics).build();
+        List<Topic> newTopics = new ArrayList<>(topics.size());
+        for (Topic t : topics) {
+            newTopics.add(t.id().equals(updatedTopic.id()) ? updatedTopic : t);
+        }
+        return withLists(IndexedTopics.adopt(newTopics), relationships, backlog);
     }
 
     /**
      * Add a relationship to the universe.
      */
     public TopicUniverse addRelationship(TopicRelationship relationship) {
-        List<TopicRelationship> newRels = new ArrayList<>(relationships);
+        List<TopicRelationship> newRels = new ArrayList<>(relationships.size() + 1);
+        newRels.addAll(relationships);
         newRels.add(relationship);
-        return toBuilder().relationships(newRels).build();
+        return withLists(topics, IndexedRelationships.adopt(newRels), backlog);
     }
 
     /**
      * Update a relationship in the universe.
      */
     public TopicUniverse updateRelationship(TopicRelationship updatedRel) {
-        List<TopicRelationship> newRels = relationships.stream()
-                .map(r -> r.id().equals(updatedRel.id()) ? updatedRel : r)
-                .toList();
-        return toBuilder().relationships(newRels).build();
+        List<TopicRelationship> newRels = new ArrayList<>(relationships.size());
+        for (TopicRelationship r : relationships) {
+            newRels.add(r.id().equals(updatedRel.id()) ? updatedRel : r);
+        }
+        return withLists(topics, IndexedRelationships.adopt(newRels), backlog);
     }
 
     /**
      * Add item to backlog.
      */
     public TopicUniverse addToBacklog(String item) {
-        List<String> newBacklog = new ArrayList<>(backlog);
+        List<String> newBacklog = new ArrayList<>(backlog.size() + 1);
+        newBacklog.addAll(backlog);
         newBacklog.add(item);
-        return toBuilder().backlog(newBacklog).build();
+        return withLists(topics, relationships, newBacklog);
     }
 
-    // ==================== Helper Methods ====================
-
     /**
-     * Topological sort based on prerequisite relationships.
+     * Apply a batch of edits in one builder session. Each edit is O(1)
+     * amortized and the lists are copied at most once per session.
+     *
+     * @param edits Changes to make, e.g. {@code b -> topics.forEach(b::addTopic)}
+     * @return The edited universe
      */
-    private List<Topic> topologicalSort(List<Topic> topics) {
-        // Use merge function to handle any duplicate topic IDs (keep first occurrence)
-        Map<String, Topic> topicMap = topics.stream()
-                .collect(Collectors.toMap(Topic::id, t -> t, (existing, replacement) -> existing));
-
-        Map<String, Set<String>> dependencies = new HashMap<>();
-        for (Topic topic : topics) {
-            dependencies.put(topic.id(), new HashSet<>());
-        }
-
-        // Build dependency graph
-        for (TopicRelationship rel : relationships) {
-            if (rel.impliesOrdering() &&
-                    topicMap.containsKey(rel.sourceTopicId()) &&
-                    topicMap.containsKey(rel.targetTopicId())) {
-                // Target depends on source
-                dependencies.get(rel.targetTopicId()).add(rel.sourceTopicId());
-            }
-        }
-
-        // Kahn's algorithm
-        List<Topic> result = new ArrayList<>();
-        Queue<String> ready = new LinkedList<>();
+    public TopicUniverse edit(Consumer<Builder> edits) {
+        Builder builder = toBuilder();
+        edits.accept(builder);
+        return builder.build();
+    }
 
-        // Find topics with no dependencies
-        for (Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
-            if (entry.getValue().isEmpty()) {
-                ready.add(entry.getKey());
-            }
-        }
+    // ==================== Helper Methods ====================
 
-        while (!ready.isEmpty()) {
-            String current = ready.poll();
-            Topic topic = topicMap.get(current);
-            if (topic != null) {
-                result.add(topic);
-            }
+    /**
+     * Copy this universe with new lists; lists passed through unchanged are
+     * shared, along with their indexes.
+     */
+    private TopicUniverse withLists(List<Topic> newTopics, List<TopicRelationship> newRelationships,
+                                    List<String> newBacklog) {
+        return new TopicUniverse(id, name, description, newTopics, newRelationships,
+                scope, domainContext, newBacklog, createdAt, Instant.now());
+    }
 
-            // Remove this topic from others' dependencies
-            for (Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
-                if (entry.getValue().remove(current) && entry.getValue().isEmpty()) {
-                    ready.add(entry.getKey());
-                }
-            }
-        }
+    private IndexedTopics indexedTopics() {
+        return (IndexedTopics) topics;
+    }
 
-        // Add any remaining topics (cycles or missing from relationships)
-        for (Topic topic : topics) {
-            if (!result.contains(topic)) {
-                result.add(topic);
-            }
-        }
+    private IndexedRelationships indexedRelationships() {
+        return (IndexedRelationships) relationships;
+    }
 
-        return result;
+    private static List<TopicRelationship> activeOnly(List<TopicRelationship> relationships) {
+        return relationships.stream()
+                .filter(TopicRelationship::isActive)
+                .toList();
     }
 
     /**
      * Builder for TopicUniverse.
+     *
+     * A builder started from a universe shares its lists until the first
+     * change to each one, so opening a session costs nothing and unchanged
+     * lists keep their lookup indexes. Edits are O(1) amortized;
+     * {@link #build()} hands the edited lists to the new universe without
+     * copying them, and the builder copies again only if edited further. Use
+     * {@link TopicUniverse#edit} for bulk changes instead of chaining the
+     * universe's own modification methods, which copy a list per call.
      */
     public static class Builder {
         private String id;
@@ -386,6 +393,15 @@ public record TopicUniverse(
         private Instant createdAt = Instant.now();
         private Instant modifiedAt = Instant.now();
 
+        // Whether each list is a private ArrayList (true) or shared with a universe (false)
+        private boolean topicsOwned = true;
+        private boolean relationshipsOwned = true;
+        private boolean backlogOwned = true;
+
+        // Position of the first topic / relationship with each ID, built on demand
+        private Map<String, Integer> topicPositions;
+        private Map<String, Integer> relationshipPositions;
+
         public Builder(String name) {
             this.name = name;
             this.id = TopicUniverse.generateId(name);
@@ -395,13 +411,16 @@ public record TopicUniverse(
             this.id = universe.id;
             this.name = universe.name;
             this.description = universe.description;
-            this.topics = new ArrayList<>(universe.topics);
-            this.relationships = new ArrayList<>(universe.relationships);
+            this.topics = universe.topics;
+            this.relationships = universe.relationships;
             this.scope = universe.scope;
             this.domainContext = universe.domainContext;
-            this.backlog = new ArrayList<>(universe.backlog);
+            this.backlog = universe.backlog;
             this.createdAt = universe.createdAt;
             this.modifiedAt = Instant.now();
+            this.topicsOwned = false;
+            this.relationshipsOwned = false;
+            this.backlogOwned = false;
         }
 
         public Builder id(String id) {
@@ -421,26 +440,68 @@ public record TopicUniverse(
 
         public Builder topics(List<Topic> topics) {
             this.topics = new ArrayList<>(topics);
+            this.topicsOwned = true;
+            this.topicPositions = null;
             return this;
         }
 
         public Builder addTopic(Topic topic) {
             // Check for duplicates by ID to prevent adding same topic twice
-            boolean exists = this.topics.stream()
-                    .anyMatch(t -> t.id().equals(topic.id()));
-            if (!exists) {
-                this.topics.add(topic);
+            Map<String, Integer> positions = topicPositions();
+            if (!positions.containsKey(topic.id())) {
+                List<Topic> owned = ownedTopics();
+                positions.put(topic.id(), owned.size());
+                owned.add(topic);
+            }
+            return this;
+        }
+
+        /**
+         * Replace the topic that has the same ID, if there is one.
+         */
+        public Builder updateTopic(Topic topic) {
+            Integer position = topicPositions().get(topic.id());
+            if (position != null) {
+                ownedTopics().set(position, topic);
             }
             return this;
         }
 
+        /**
+         * Get a topic added to this builder by ID.
+         */
+        public Optional<Topic> getTopic(String topicId) {
+            Integer position = topicPositions().get(topicId);
+            return position == null ? Optional.empty() : Optional.of(topics.get(position));
+        }
+
         public Builder relationships(List<TopicRelationship> relationships) {
             this.relationships = new ArrayList<>(relationships);
+            this.relationshipsOwned = true;
+            this.relationshipPositions = null;
             return this;
         }
 
         public Builder addRelationship(TopicRelationship relationship) {
-            this.relationships.add(relationship);
+            List<TopicRelationship> owned = ownedRelationships();
+            if (relationshipPositions != null) {
+                relationshipPositions.putIfAbsent(relationship.id(), owned.size());
+            }
+            owned.add(relationship);
+            return this;
+        }
+
+        /**
+         * Replace the relationship that has the same ID, if there is one.
+         */
+        public Builder updateRelationship(TopicRelationship relationship) {
+            if (relationshipPositions == null) {
+                relationshipPositions = positionsById(relationships, TopicRelationship::id);
+            }
+            Integer position = relationshipPositions.get(relationship.id());
+            if (position != null) {
+                ownedRelationships().set(position, relationship);
+            }
             return this;
         }
 
@@ -456,10 +517,15 @@ public record TopicUniverse(
 
         public Builder backlog(List<String> backlog) {
             this.backlog = new ArrayList<>(backlog);
+            this.backlogOwned = true;
             return this;
         }
 
         public Builder addToBacklog(String item) {
+            if (!backlogOwned) {
+                backlog = new ArrayList<>(backlog);
+                backlogOwned = true;
+            }
             this.backlog.add(item);
             return this;
         }
@@ -470,10 +536,49 @@ public record TopicUniverse(
         }
 
         public TopicUniverse build() {
+            if (topicsOwned) {
+                topics = IndexedTopics.adopt(topics);
+                topicsOwned = false;
+            }
+            if (relationshipsOwned) {
+                relationships = IndexedRelationships.adopt(relationships);
+                relationshipsOwned = false;
+            }
             return new TopicUniverse(
                     id, name, description, topics, relationships,
                     scope, domainContext, backlog, createdAt, modifiedAt
             );
         }
+
+        private List<Topic> ownedTopics() {
+            if (!topicsOwned) {
+                topics = new ArrayList<>(topics);
+                topicsOwned = true;
+            }
+            return topics;
+        }
+
+        private List<TopicRelationship> ownedRelationships() {
+            if (!relationshipsOwned) {
+                relationships = new ArrayList<>(relationships);
+                relationshipsOwned = true;
+            }
+            return relationships;
+        }
+
+        private Map<String, Integer> topicPositions() {
+            if (topicPositions == null) {
+                topicPositions = positionsById(topics, Topic::id);
+            }
+            return topicPositions;
+        }
+
+        private static <T> Map<String, Integer> positionsById(List<T> items, Function<T, String> idOf) {
+            Map<String, Integer> positions = new HashMap<>(Math.max(16, items.size() * 2));
+            for (int i = 0; i < items.size(); i++) {
+                positions.putIfAbsent(idOf.apply(items.get(i)), i);
+            }
+            return positions;
+        }
     }
 }
@@ -1,34 +1,106 @@
 package com.jakefear.aipublisher.domain;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileConstants;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
 
 /**
  * Repository for persisting and loading TopicUniverse instances.
+ *
+ * Universes are streamed straight to and from their files. A save writes a
+ * temporary file in the same directory, syncs it and renames it over the old
+ * file, so a crash mid-save leaves the previous version intact.
+ *
+ * {@link #saveChanges} appends only what changed since the last save or load
+ * to a journal next to the file ({@code <file>.journal}), and {@link #loadFromPath}
+ * replays it. The journal names the checksum of the snapshot it extends, so a
+ * journal left behind by an interrupted full save is recognised as stale. It is
+ * folded into a fresh snapshot once it grows past half the snapshot's size.
+ *
+ * Files are JSON ({@code .universe.json}) or binary Smile ({@code .universe.smile}),
+ * chosen by extension when saving and by content when loading, so a file in
+ * either encoding loads whatever it is called. When a universe ID has files in
+ * both formats, the most recently written one wins.
  */
 @Component
 public class TopicUniverseRepository {
     private static final Logger log = LoggerFactory.getLogger(TopicUniverseRepository.class);
 
-    private static final String FILE_EXTENSION = ".universe.json";
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final long MIN_JOURNAL_BYTES = 64 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
 
     private final ObjectMapper objectMapper;
+    private final ObjectMapper smileMapper;
     private Path storageDirectory;
+    private UniverseFormat defaultFormat = UniverseFormat.JSON;
+    private boolean journalEnabled = true;
+
+    /**
+     * Last saved or loaded state of each file, the base for the next journal delta.
+     */
+    private final Map<Path, Baseline> baselines = new ConcurrentHashMap<>();
+
+    /**
+     * @param universe Universe as it is on disk, snapshot plus journal
+     * @param snapshotChecksum CRC32C of the snapshot file
+     * @param journalClean False if the journal had unreadable records and must be rewritten
+     */
+    private record Baseline(TopicUniverse universe, long snapshotChecksum, boolean journalClean) {
+    }
 
     @Autowired
-    public TopicUniverseRepository(ObjectMapper objectMapper) {
+    public TopicUniverseRepository(
+            ObjectMapper objectMapper,
+            @Value("${universe.format:json}") String format) {
         this.objectMapper = objectMapper.copy();
         this.objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
+        this.smileMapper = smileMapperFor(this.objectMapper);
         this.storageDirectory = Path.of(System.getProperty("user.home"), ".aipublisher", "universes");
+        UniverseFormat parsed = UniverseFormat.fromString(format);
+        if (parsed == null) {
+            log.warn("Unknown universe.format '{}', saving as JSON", format);
+        } else {
+            this.defaultFormat = parsed;
+        }
+    }
+
+    /**
+     * Constructor for testing with a custom ObjectMapper, saving as JSON.
+     */
+    public TopicUniverseRepository(ObjectMapper objectMapper) {
+        this(objectMapper, UniverseFormat.JSON.name());
     }
 
     /**
@@ -39,9 +111,23 @@ public class TopicUniverseRepository {
         this.objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
         this.objectMapper.findAndRegisterModules(); // Auto-register available modules
         this.objectMapper.disable(com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.smileMapper = smileMapperFor(this.objectMapper);
         this.storageDirectory = Path.of(System.getProperty("user.home"), ".aipublisher", "universes");
     }
 
+    /**
+     * Smile mapper sharing the JSON mapper's modules and settings. Repeated
+     * short values (statuses, content types, topic IDs) are back-referenced.
+     */
+    private static ObjectMapper smileMapperFor(ObjectMapper jsonMapper) {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        ObjectMapper mapper = jsonMapper.copyWith(factory);
+        mapper.disable(SerializationFeature.INDENT_OUTPUT);
+        return mapper;
+    }
+
     /**
      * Set the storage directory.
      */
@@ -56,31 +142,158 @@ public class TopicUniverseRepository {
         return storageDirectory;
     }
 
+    /**
+     * Enable or disable the change journal. When disabled, {@link #saveChanges}
+     * writes a full snapshot every time.
+     */
+    public void setJournalEnabled(boolean journalEnabled) {
+        this.journalEnabled = journalEnabled;
+    }
+
+    /**
+     * Set the format {@link #save} and {@link #saveChanges} write.
+     */
+    public void setDefaultFormat(UniverseFormat defaultFormat) {
+        this.defaultFormat = defaultFormat;
+    }
+
+    /**
+     * Get the format {@link #save} and {@link #saveChanges} write.
+     */
+    public UniverseFormat getDefaultFormat() {
+        return defaultFormat;
+    }
+
     /**
      * Save a universe to the default storage location.
      */
     public Path save(TopicUniverse universe) throws IOException {
+        return save(universe, defaultFormat);
+    }
+
+    /**
+     * Save a universe to the default storage location in a given format.
+     */
+    public Path save(TopicUniverse universe, UniverseFormat format) throws IOException {
         ensureStorageDirectory();
-        Path filePath = storageDirectory.resolve(universe.id() + FILE_EXTENSION);
-        return saveToPath(universe, filePath);
+        return saveToPath(universe, pathFor(universe.id(), format));
     }
 
     /**
-     * Save a universe to a specific path.
+     * Save a universe to a specific path, replacing the file atomically and
+     * discarding any journal. The format follows the file extension.
      */
     public Path saveToPath(TopicUniverse universe, Path filePath) throws IOException {
-        String json = objectMapper.writeValueAsString(universe);
-        Files.writeString(filePath, json);
+        Path directory = filePath.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, filePath.getFileName().toString(), ".tmp");
+        CRC32C checksum = new CRC32C();
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                OutputStream out = new CheckedOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), checksum);
+                mapperFor(UniverseFormat.of(filePath)).writer()
+                        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .writeValue(out, universe);
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        // The new snapshot holds everything; a journal that survives a crash here is stale by checksum
+        Files.deleteIfExists(journalPath(filePath));
+        baselines.put(key(filePath), new Baseline(universe, checksum.getValue(), true));
         log.info("Saved universe '{}' to {}", universe.name(), filePath);
         return filePath;
     }
 
+    /**
+     * Save a universe to the default storage location, writing only the changes
+     * since it was last saved or loaded.
+     */
+    public Path saveChanges(TopicUniverse universe) throws IOException {
+        ensureStorageDirectory();
+        return saveChangesToPath(universe, pathFor(universe.id(), defaultFormat));
+    }
+
+    /**
+     * Save a universe to a specific path, appending the changes since it was
+     * last saved or loaded to the journal. Falls back to a full save when there
+     * is no baseline for the file, the journal is disabled or due for
+     * compaction, or the change reorders topics or relationships.
+     */
+    public Path saveChangesToPath(TopicUniverse universe, Path filePath) throws IOException {
+        Baseline baseline = baselines.get(key(filePath));
+        if (!journalEnabled || baseline == null || !baseline.journalClean()
+                || !baseline.universe().id().equals(universe.id()) || !Files.exists(filePath)) {
+            return saveToPath(universe, filePath);
+        }
+        String delta = UniverseJournal.diff(objectMapper, baseline.universe(), universe);
+        if (delta == null) {
+            return saveToPath(universe, filePath);
+        }
+        if (delta.isEmpty()) {
+            return filePath;
+        }
+
+        Path journal = journalPath(filePath);
+        long journalSize = Files.exists(journal) ? Files.size(journal) : 0;
+        byte[] bytes = delta.getBytes(StandardCharsets.UTF_8);
+        if (journalSize + bytes.length > Math.max(MIN_JOURNAL_BYTES, Files.size(filePath) / 2)) {
+            return saveToPath(universe, filePath);
+        }
+        if (journalSize == 0) {
+            bytes = (UniverseJournal.header(objectMapper, baseline.snapshotChecksum()) + delta)
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+
+        try (FileChannel channel = FileChannel.open(journal,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        baselines.put(key(filePath), new Baseline(universe, baseline.snapshotChecksum(), true));
+        log.debug("Journaled {} bytes of changes to universe '{}' in {}", bytes.length, universe.name(), journal);
+        return filePath;
+    }
+
     /**
      * Load a universe by ID from the default storage location.
      */
     public Optional<TopicUniverse> load(String id) {
-        Path filePath = storageDirectory.resolve(id + FILE_EXTENSION);
-        return loadFromPath(filePath);
+        Optional<Path> filePath = locate(id);
+        if (filePath.isEmpty()) {
+            log.debug("Universe not found in {}: {}", storageDirectory, id);
+            return Optional.empty();
+        }
+        return loadFromPath(filePath.get());
+    }
+
+    /**
+     * Find the file holding a universe in the default storage location. If
+     * it is saved in more than one format, the most recently written wins.
+     */
+    public Optional<Path> locate(String id) {
+        return java.util.Arrays.stream(UniverseFormat.values())
+                .map(format -> pathFor(id, format))
+                .filter(Files::isRegularFile)
+                .max(Comparator.comparing(TopicUniverseRepository::lastWritten));
+    }
+
+    /**
+     * Rewrite a universe file in another format next to the original, which
+     * is left in place.
+     *
+     * @return The path of the converted file
+     */
+    public Path convert(Path source, UniverseFormat format) throws IOException {
+        TopicUniverse universe = loadFromPath(source)
+                .orElseThrow(() -> new IOException("Cannot load universe from " + source));
+        return saveToPath(universe, format.siblingOf(source));
     }
 
     /**
@@ -93,8 +306,35 @@ public class TopicUniverseRepository {
         }
 
         try {
-            String json = Files.readString(filePath);
-            TopicUniverse universe = objectMapper.readValue(json, TopicUniverse.class);
+            CRC32C checksum = new CRC32C();
+            TopicUniverse universe;
+            try (InputStream in = new BufferedInputStream(
+                    new CheckedInputStream(Files.newInputStream(filePath), checksum), BUFFER_SIZE)) {
+                universe = mapperFor(sniffFormat(in)).reader()
+                        .without(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+                        .readValue(in, TopicUniverse.class);
+                // Checksum the whole file, including anything after the root value
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+
+            boolean journalClean = true;
+            Path journal = journalPath(filePath);
+            if (Files.exists(journal)) {
+                UniverseJournal.Replay replay =
+                        UniverseJournal.replay(objectMapper, journal, universe, checksum.getValue());
+                if (replay == null) {
+                    log.warn("Ignoring stale universe journal {}", journal);
+                    journalClean = false;
+                } else {
+                    universe = replay.universe();
+                    journalClean = replay.clean();
+                    if (!replay.clean()) {
+                        log.warn("Skipped unreadable records in universe journal {}", journal);
+                    }
+                    log.debug("Replayed {} journal records from {}", replay.records(), journal);
+                }
+            }
+            baselines.put(key(filePath), new Baseline(universe, checksum.getValue(), journalClean));
             log.info("Loaded universe '{}' from {}", universe.name(), filePath);
             return Optional.of(universe);
         } catch (IOException e) {
@@ -107,9 +347,15 @@ public class TopicUniverseRepository {
      * Delete a universe by ID.
      */
     public boolean delete(String id) {
-        Path filePath = storageDirectory.resolve(id + FILE_EXTENSION);
         try {
-            return Files.deleteIfExists(filePath);
+            boolean deleted = false;
+            for (UniverseFormat format : UniverseFormat.values()) {
+                Path filePath = pathFor(id, format);
+                baselines.remove(key(filePath));
+                Files.deleteIfExists(journalPath(filePath));
+                deleted |= Files.deleteIfExists(filePath);
+            }
+            return deleted;
         } catch (IOException e) {
             log.error("Failed to delete universe {}: {}", id, e.getMessage());
             return false;
@@ -127,9 +373,11 @@ public class TopicUniverseRepository {
         try (var stream = Files.list(storageDirectory)) {
             return stream
                     .filter(Files::isRegularFile)
-                    .filter(p -> p.toString().endsWith(FILE_EXTENSION))
                     .map(p -> p.getFileName().toString())
-                    .map(name -> name.substring(0, name.length() - FILE_EXTENSION.length()))
+                    .flatMap(name -> java.util.Arrays.stream(UniverseFormat.values())
+                            .filter(format -> name.endsWith(format.getExtension()))
+                            .map(format -> name.substring(0, name.length() - format.getExtension().length())))
+                    .distinct()
                     .toList();
         } catch (IOException e) {
             log.error("Failed to list universes: {}", e.getMessage());
@@ -141,8 +389,7 @@ public class TopicUniverseRepository {
      * Check if a universe exists.
      */
     public boolean exists(String id) {
-        Path filePath = storageDirectory.resolve(id + FILE_EXTENSION);
-        return Files.exists(filePath);
+        return locate(id).isPresent();
     }
 
     /**
@@ -167,6 +414,53 @@ public class TopicUniverseRepository {
         }
     }
 
+    private Path pathFor(String id, UniverseFormat format) {
+        return storageDirectory.resolve(id + format.getExtension());
+    }
+
+    private ObjectMapper mapperFor(UniverseFormat format) {
+        return format == UniverseFormat.SMILE ? smileMapper : objectMapper;
+    }
+
+    /**
+     * Tell a Smile file from JSON by its header, leaving the stream where it was.
+     */
+    private static UniverseFormat sniffFormat(InputStream in) throws IOException {
+        in.mark(3);
+        byte[] header = in.readNBytes(3);
+        in.reset();
+        return header.length == 3
+                && header[0] == SmileConstants.HEADER_BYTE_1
+                && header[1] == SmileConstants.HEADER_BYTE_2
+                && header[2] == SmileConstants.HEADER_BYTE_3
+                ? UniverseFormat.SMILE : UniverseFormat.JSON;
+    }
+
+    /**
+     * When a universe file last changed, counting appends to its journal.
+     */
+    private static FileTime lastWritten(Path filePath) {
+        try {
+            FileTime written = Files.getLastModifiedTime(filePath);
+            Path journal = journalPath(filePath);
+            if (Files.exists(journal)) {
+                FileTime journaled = Files.getLastModifiedTime(journal);
+                return journaled.compareTo(written) > 0 ? journaled : written;
+            }
+            return written;
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static Path journalPath(Path filePath) {
+        return filePath.resolveSibling(filePath.getFileName() + JOURNAL_SUFFIX);
+    }
+
+    private static Path key(Path filePath) {
+        return filePath.toAbsolutePath().normalize();
+    }
+
     private void ensureStorageDirectory() throws IOException {
         if (!Files.exists(storageDirectory)) {
             Files.createDirectories(storageDirectory);
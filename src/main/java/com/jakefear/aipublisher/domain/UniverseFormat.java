@@ -0,0 +1,72 @@
+package com.jakefear.aipublisher.domain;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * On-disk encodings of a topic universe, told apart by file extension.
+ */
+public enum UniverseFormat {
+    /** Pretty-printed JSON, readable and shared with other tools. */
+    JSON(".universe.json"),
+    /** Binary Smile encoding of the same JSON data model: smaller and faster to parse. */
+    SMILE(".universe.smile");
+
+    private final String extension;
+
+    UniverseFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Get the file extension, including the leading dot.
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Get the format a file is written in, judged by its name. Anything that
+     * isn't a Smile file is treated as JSON.
+     */
+    public static UniverseFormat of(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".smile") || name.endsWith(".sml") ? SMILE : JSON;
+    }
+
+    /**
+     * Parse a format name, case-insensitively.
+     *
+     * @return The format, or null if the name is not recognized
+     */
+    public static UniverseFormat fromString(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (UniverseFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name.trim())) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the path of the same universe file written in this format, next to the original.
+     */
+    public Path siblingOf(Path path) {
+        String name = path.getFileName().toString();
+        String base = name;
+        for (UniverseFormat format : values()) {
+            if (name.endsWith(format.extension)) {
+                base = name.substring(0, name.length() - format.extension.length());
+                break;
+            }
+        }
+        if (base.equals(name)) {
+            int dot = name.lastIndexOf('.');
+            base = dot > 0 ? name.substring(0, dot) : name;
+        }
+        return path.resolveSibling(base + extension);
+    }
+}
@@ -0,0 +1,299 @@
+package com.jakefear.aipublisher.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Append-only change journal kept next to a universe snapshot.
+ *
+ * Each line is one JSON record. The first is a header naming the CRC32C
+ * checksum of the snapshot the journal applies to; a journal whose header
+ * doesn't match the snapshot on disk is stale and ignored. The remaining
+ * records upsert or remove a topic or relationship by ID, or replace the
+ * universe's scalar fields and backlog. Replaying upserts keeps the position
+ * of existing IDs and appends new ones, so a delta can only be expressed when
+ * the new universe keeps that order; {@link #diff} returns null otherwise.
+ */
+final class UniverseJournal {
+
+    static final int FORMAT_VERSION = 1;
+
+    private static final String HEADER = "header";
+    private static final String TOPIC = "topic";
+    private static final String REMOVE_TOPIC = "removeTopic";
+    private static final String RELATIONSHIP = "relationship";
+    private static final String REMOVE_RELATIONSHIP = "removeRelationship";
+    private static final String META = "meta";
+
+    private UniverseJournal() {
+    }
+
+    /**
+     * One journal line. Only the fields for its type are set.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Entry(
+            String type,
+            Integer version,
+            Long snapshotChecksum,
+            String id,
+            Topic topic,
+            TopicRelationship relationship,
+            Meta meta
+    ) {
+    }
+
+    /**
+     * Universe fields other than topics and relationships.
+     */
+    record Meta(
+            String name,
+            String description,
+            ScopeConfiguration scope,
+            DomainContext domainContext,
+            List<String> backlog,
+            Instant createdAt,
+            Instant modifiedAt
+    ) {
+        static Meta of(TopicUniverse universe) {
+            return new Meta(universe.name(), universe.description(), universe.scope(),
+                    universe.domainContext(), universe.backlog(), universe.createdAt(), universe.modifiedAt());
+        }
+    }
+
+    /**
+     * Result of replaying a journal.
+     *
+     * @param universe The snapshot with the journal applied
+     * @param records Number of change records applied
+     * @param clean False if a record was unreadable (e.g. torn by a crash mid-append)
+     */
+    record Replay(TopicUniverse universe, int records, boolean clean) {
+    }
+
+    /**
+     * Journal header line for a snapshot.
+     */
+    static String header(ObjectMapper mapper, long snapshotChecksum) throws JsonProcessingException {
+        StringBuilder out = new StringBuilder();
+        append(lineWriter(mapper), out, new Entry(HEADER, FORMAT_VERSION, snapshotChecksum, null, null, null, null));
+        return out.toString();
+    }
+
+    /**
+     * Journal records turning one universe into another, one JSON object per line.
+     *
+     * @return The records (empty if nothing changed), or null if the change
+     *         can't be replayed in order and needs a full snapshot
+     */
+    static String diff(ObjectMapper mapper, TopicUniverse before, TopicUniverse after) throws JsonProcessingException {
+        ObjectWriter writer = lineWriter(mapper);
+        StringBuilder out = new StringBuilder();
+        if (!diffList(writer, before.topics(), after.topics(), Topic::id, out,
+                topic -> new Entry(TOPIC, null, null, null, topic, null, null),
+                id -> new Entry(REMOVE_TOPIC, null, null, id, null, null, null))) {
+            return null;
+        }
+        if (!diffList(writer, before.relationships(), after.relationships(), TopicRelationship::id, out,
+                rel -> new Entry(RELATIONSHIP, null, null, null, null, rel, null),
+                id -> new Entry(REMOVE_RELATIONSHIP, null, null, id, null, null, null))) {
+            return null;
+        }
+        Meta meta = Meta.of(after);
+        if (!meta.equals(Meta.of(before))) {
+            append(writer, out, new Entry(META, null, null, null, null, null, meta));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Apply a journal to the snapshot it was written against.
+     *
+     * @return The replayed universe, or null if the journal belongs to a different snapshot
+     */
+    static Replay replay(ObjectMapper mapper, Path journal, TopicUniverse snapshot, long snapshotChecksum)
+            throws IOException {
+        Map<String, Topic> topics = null;
+        Map<String, TopicRelationship> relationships = null;
+        Meta meta = null;
+        int records = 0;
+        boolean clean = true;
+
+        try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            Entry header = line == null ? null : parse(mapper, line);
+            if (header == null
+                    || !HEADER.equals(header.type())
+                    || !Objects.equals(header.version(), FORMAT_VERSION)
+                    || !Objects.equals(header.snapshotChecksum(), snapshotChecksum)) {
+                return null;
+            }
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Entry entry = parse(mapper, line);
+                if (entry == null || !isComplete(entry)) {
+                    clean = false;
+                    continue;
+                }
+                switch (entry.type()) {
+                    case TOPIC -> {
+                        topics = topics == null ? byId(snapshot.topics(), Topic::id) : topics;
+                        topics.put(entry.topic().id(), entry.topic());
+                    }
+                    case REMOVE_TOPIC -> {
+                        topics = topics == null ? byId(snapshot.topics(), Topic::id) : topics;
+                        topics.remove(entry.id());
+                    }
+                    case RELATIONSHIP -> {
+                        relationships = relationships == null
+                                ? byId(snapshot.relationships(), TopicRelationship::id) : relationships;
+                        relationships.put(entry.relationship().id(), entry.relationship());
+                    }
+                    case REMOVE_RELATIONSHIP -> {
+                        relationships = relationships == null
+                                ? byId(snapshot.relationships(), TopicRelationship::id) : relationships;
+                        relationships.remove(entry.id());
+                    }
+                    default -> meta = entry.meta();
+                }
+                records++;
+            }
+        }
+
+        if (records == 0) {
+            return new Replay(snapshot, 0, clean);
+        }
+        if (meta == null) {
+            meta = Meta.of(snapshot);
+        }
+        TopicUniverse universe = new TopicUniverse(
+                snapshot.id(),
+                meta.name(),
+                meta.description(),
+                topics != null ? new ArrayList<>(topics.values()) : snapshot.topics(),
+                relationships != null ? new ArrayList<>(relationships.values()) : snapshot.relationships(),
+                meta.scope(),
+                meta.domainContext(),
+                meta.backlog(),
+                meta.createdAt(),
+                meta.modifiedAt()
+        );
+        return new Replay(universe, records, clean);
+    }
+
+    /**
+     * Check that an entry carries what its type needs.
+     */
+    private static boolean isComplete(Entry entry) {
+        if (entry.type() == null) {
+            return false;
+        }
+        return switch (entry.type()) {
+            case TOPIC -> entry.topic() != null;
+            case RELATIONSHIP -> entry.relationship() != null;
+            case REMOVE_TOPIC, REMOVE_RELATIONSHIP -> entry.id() != null;
+            case META -> entry.meta() != null && entry.meta().name() != null;
+            default -> false;
+        };
+    }
+
+    /**
+     * Append upserts and removals for one list. Lists that are the same
+     * instance (e.g. shared by a builder session) are skipped outright.
+     */
+    private static <T> boolean diffList(ObjectWriter writer, List<T> before, List<T> after,
+                                        Function<T, String> idOf, StringBuilder out,
+                                        Function<T, Entry> upsert, Function<String, Entry> remove)
+            throws JsonProcessingException {
+        if (before == after) {
+            return true;
+        }
+        Map<String, Integer> previousIndex = new HashMap<>(before.size() * 2);
+        for (int i = 0; i < before.size(); i++) {
+            if (previousIndex.put(idOf.apply(before.get(i)), i) != null) {
+                return false;
+            }
+        }
+
+        // Surviving IDs must keep their relative order, with new IDs only at the end
+        Set<String> seen = new HashSet<>(after.size() * 2);
+        List<T> changed = new ArrayList<>();
+        int lastSurvivor = -1;
+        boolean added = false;
+        for (T element : after) {
+            String id = idOf.apply(element);
+            if (!seen.add(id)) {
+                return false;
+            }
+            Integer index = previousIndex.get(id);
+            if (index == null) {
+                added = true;
+                changed.add(element);
+            } else {
+                if (added || index < lastSurvivor) {
+                    return false;
+                }
+                lastSurvivor = index;
+                if (!before.get(index).equals(element)) {
+                    changed.add(element);
+                }
+            }
+        }
+
+        for (T element : before) {
+            String id = idOf.apply(element);
+            if (!seen.contains(id)) {
+                append(writer, out, remove.apply(id));
+            }
+        }
+        for (T element : changed) {
+            append(writer, out, upsert.apply(element));
+        }
+        return true;
+    }
+
+    private static ObjectWriter lineWriter(ObjectMapper mapper) {
+        return mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    private static void append(ObjectWriter writer, StringBuilder out, Entry entry) throws JsonProcessingException {
+        out.append(writer.writeValueAsString(entry)).append('\n');
+    }
+
+    private static <T> Map<String, T> byId(List<T> elements, Function<T, String> idOf) {
+        Map<String, T> map = new LinkedHashMap<>(elements.size() * 2);
+        for (T element : elements) {
+            map.put(idOf.apply(element), element);
+        }
+        return map;
+    }
+
+    private static Entry parse(ObjectMapper mapper, String line) {
+        try {
+            return mapper.readValue(line, Entry.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.jakefear.aipublisher.gap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Lookup structure for matching gap names against existing pages.
+ *
+ * Built once per detection run. Exact matches (after stripping case and
+ * punctuation, then after folding accents) are hash lookups. The remaining
+ * check - same digits and letters within a small edit distance - uses one
+ * BK-tree per digit sequence, so each query only measures distances to a
+ * handful of pages instead of every page in the wiki.
+ */
+final class CanonicalPageIndex {
+
+    /**
+     * Maximum edit distance between the letter parts of two names for them to
+     * be treated as the same page.
+     */
+    static final int MAX_LETTER_DISTANCE = 2;
+
+    private final Map<String, String> byNormalized = new HashMap<>();
+    private final Map<String, String> byFuzzy = new HashMap<>();
+    private final Map<String, BkTree> byDigits = new HashMap<>();
+
+    private CanonicalPageIndex() {
+    }
+
+    /**
+     * Build an index over the given page names. When several pages normalize
+     * to the same key, the alphabetically first one wins so results don't
+     * depend on set iteration order.
+     */
+    static CanonicalPageIndex build(Collection<String> pages) {
+        CanonicalPageIndex index = new CanonicalPageIndex();
+        pages.stream().sorted().forEach(index::add);
+        return index;
+    }
+
+    private void add(String page) {
+        byNormalized.putIfAbsent(normalizeName(page), page);
+        String fuzzy = normalizeForFuzzy(page);
+        byFuzzy.putIfAbsent(fuzzy, page);
+        byDigits.computeIfAbsent(digits(fuzzy), k -> new BkTree()).add(letters(fuzzy), page);
+    }
+
+    /**
+     * Find the existing page a gap name refers to.
+     *
+     * @return The canonical page name, or null if there is none
+     */
+    String find(String gapName) {
+        String page = byNormalized.get(normalizeName(gapName));
+        if (page != null) {
+            return page;
+        }
+        String fuzzy = normalizeForFuzzy(gapName);
+        page = byFuzzy.get(fuzzy);
+        if (page != null) {
+            return page;
+        }
+        BkTree tree = byDigits.get(digits(fuzzy));
+        return tree == null ? null : tree.nearest(letters(fuzzy), MAX_LETTER_DISTANCE);
+    }
+
+    /**
+     * Normalize a page name for exact comparison: lower case, letters and digits only.
+     */
+    static String normalizeName(String name) {
+        if (name == null) return "";
+        String lower = name.toLowerCase();
+        StringBuilder sb = new StringBuilder(lower.length());
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Normalize a page name for fuzzy comparison: like {@link #normalizeName}
+     * but common accented vowels and ñ are folded to their base letter first.
+     */
+    static String normalizeForFuzzy(String name) {
+        if (name == null) return "";
+        String lower = name.toLowerCase();
+        StringBuilder sb = new StringBuilder(lower.length());
+        for (int i = 0; i < lower.length(); i++) {
+            char c = foldAccent(lower.charAt(i));
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static char foldAccent(char c) {
+        return switch (c) {
+            case 'á', 'à', 'â', 'ã', 'ä' -> 'a';
+            case 'é', 'è', 'ê', 'ë' -> 'e';
+            case 'í', 'ì', 'î', 'ï' -> 'i';
+            case 'ó', 'ò', 'ô', 'õ', 'ö' -> 'o';
+            case 'ú', 'ù', 'û', 'ü' -> 'u';
+            case 'ñ' -> 'n';
+            default -> c;
+        };
+    }
+
+    private static String digits(String normalized) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (c >= '0' && c <= '9') sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static String letters(String normalized) {
+        StringBuilder sb = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (c >= 'a' && c <= 'z') sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Levenshtein distance that gives up once the result must exceed {@code max}.
+     *
+     * @return The distance, or {@code max + 1} if it is greater than {@code max}
+     */
+    static int boundedLevenshtein(String s1, String s2, int max) {
+        int n = s1.length();
+        int m = s2.length();
+        if (Math.abs(n - m) > max) {
+            return max + 1;
+        }
+        if (n == 0 || m == 0) {
+            return Math.max(n, m);
+        }
+
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) previous[j] = j;
+
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char c1 = s1.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                int cost = c1 == s2.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            // Distances never decrease down the rows, so the whole table is already over budget
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[m], max + 1);
+    }
+
+    /**
+     * BK-tree over letter strings. Each node keeps the pages that share its key.
+     */
+    private static final class BkTree {
+
+        private Node root;
+
+        void add(String key, String page) {
+            if (root == null) {
+                root = new Node(key, page);
+                return;
+            }
+            Node node = root;
+            while (true) {
+                int distance = boundedLevenshtein(key, node.key, Integer.MAX_VALUE - 1);
+                if (distance == 0) {
+                    node.pages.add(page);
+                    return;
+                }
+                Node child = node.children.get(distance);
+                if (child == null) {
+                    node.children.put(distance, new Node(key, page));
+                    return;
+                }
+                node = child;
+            }
+        }
+
+        /**
+         * Find the page whose key is closest to the query, within {@code limit}.
+         * Ties go to the alphabetically first page.
+         */
+        String nearest(String query, int limit) {
+            if (root == null) {
+                return null;
+            }
+            String best = null;
+            int bestDistance = limit + 1;
+            List<Node> pending = new ArrayList<>();
+            pending.add(root);
+            while (!pending.isEmpty()) {
+                Node node = pending.remove(pending.size() - 1);
+                // The exact distance only matters up to the furthest child we could visit
+                int cap = node.children.isEmpty() ? limit : node.children.lastKey() + limit;
+                int distance = boundedLevenshtein(query, node.key, cap);
+                if (distance <= limit) {
+                    String candidate = node.pages.get(0);
+                    if (distance < bestDistance
+                            || (distance == bestDistance && candidate.compareTo(best) < 0)) {
+                        best = candidate;
+                        bestDistance = distance;
+                    }
+                }
+                if (distance > cap) {
+                    continue;
+                }
+                for (Map.Entry<Integer, Node> child : node.children
+                        .subMap(distance - limit, true, distance + limit, true).entrySet()) {
+                    pending.add(child.getValue());
+                }
+            }
+            return best;
+        }
+
+        private static final class Node {
+            final String key;
+            final List<String> pages = new ArrayList<>(1);
+            final TreeMap<Integer, Node> children = new TreeMap<>();
+
+            Node(String key, String page) {
+                this.key = key;
+                this.pages.add(page);
+            }
+        }
+    }
+}
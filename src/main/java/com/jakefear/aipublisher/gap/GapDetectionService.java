@@ -4,6 +4,11 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jakefear.aipublisher.config.OutputProperties;
+import com.jakefear.aipublisher.llm.LlmResponseCache;
+import com.jakefear.aipublisher.output.PageExtractor;
+import com.jakefear.aipublisher.output.ScannedPage;
+import com.jakefear.aipublisher.output.WikiCorpusScanner;
+import com.jakefear.aipublisher.output.WikiPageIndex;
 import com.jakefear.aipublisher.util.PageNameUtils;
 import dev.langchain4j.model.chat.ChatModel;
 import org.slf4j.Logger;
@@ -12,13 +17,11 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Service for detecting gap concepts in generated wiki content.
@@ -58,6 +61,10 @@ public class GapDetectionService {
     private final OutputProperties outputProperties;
     private final ChatModel categorizationModel;
     private final ObjectMapper objectMapper;
+    private LlmResponseCache responseCache;
+    private WikiPageIndex pageIndex;
+    private LinkGraphIndex linkIndex;
+    private WikiCorpusScanner corpusScanner = new WikiCorpusScanner();
 
     @org.springframework.beans.factory.annotation.Autowired
     public GapDetectionService(
@@ -66,6 +73,7 @@ public class GapDetectionService {
         this.outputProperties = outputProperties;
         this.categorizationModel = categorizationModel;
         this.objectMapper = new ObjectMapper();
+        this.pageIndex = new WikiPageIndex(outputProperties);
     }
 
     // Constructor for testing
@@ -73,6 +81,40 @@ public class GapDetectionService {
         this.outputProperties = outputProperties;
         this.categorizationModel = categorizationModel;
         this.objectMapper = objectMapper;
+        this.pageIndex = new WikiPageIndex(outputProperties);
+    }
+
+    /**
+     * Set the response cache (called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setResponseCache(LlmResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * Set the shared page index (called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setPageIndex(WikiPageIndex pageIndex) {
+        this.pageIndex = pageIndex;
+    }
+
+    /**
+     * Set the persistent link index (called by Spring via @Autowired).
+     * Without it every detection run reads and scans every page.
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setLinkIndex(LinkGraphIndex linkIndex) {
+        this.linkIndex = linkIndex;
+    }
+
+    /**
+     * Set the shared corpus scanner (called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setCorpusScanner(WikiCorpusScanner corpusScanner) {
+        this.corpusScanner = corpusScanner;
     }
 
     /**
@@ -84,8 +126,8 @@ public class GapDetectionService {
         Path outputDir = outputProperties.getDirectoryPath();
         String extension = outputProperties.getFileExtension();
 
-        // Get existing pages
-        Set<String> existingPages = getExistingPages(outputDir, extension);
+        // Get existing pages from the index rather than listing the directory again
+        Set<String> existingPages = pageIndex.getPages();
         log.info("Found {} existing pages", existingPages.size());
 
         // Extract all internal links with their source pages
@@ -120,19 +162,11 @@ public class GapDetectionService {
      * Get set of existing page names (normalized).
      */
     Set<String> getExistingPages(Path outputDir, String extension) throws IOException {
-        if (!Files.exists(outputDir)) {
-            return Set.of();
-        }
-
-        try (Stream<Path> files = Files.list(outputDir)) {
-            return files
-                    .filter(Files::isRegularFile)
-                    .map(Path::getFileName)
-                    .map(Path::toString)
-                    .filter(name -> name.endsWith(extension))
-                    .map(name -> name.substring(0, name.length() - extension.length()))
-                    .collect(Collectors.toSet());
+        if (outputDir.equals(outputProperties.getDirectoryPath())
+                && extension.equals(outputProperties.getFileExtension())) {
+            return pageIndex.getPages();
         }
+        return WikiPageIndex.scan(outputDir, extension);
     }
 
     /**
@@ -141,40 +175,22 @@ public class GapDetectionService {
      * @return Map of link target -> set of source pages that reference it
      */
     Map<String, Set<String>> extractAllLinks(Path outputDir, String extension) throws IOException {
-        Map<String, Set<String>> linkToSources = new HashMap<>();
-
-        if (!Files.exists(outputDir)) {
-            return linkToSources;
+        if (linkIndex != null) {
+            return linkIndex.update(outputDir, extension, this::extractLinksFromContent);
         }
 
-        try (Stream<Path> files = Files.list(outputDir)) {
-            List<Path> wikiFiles = files
-                    .filter(Files::isRegularFile)
-                    .filter(p -> p.toString().endsWith(extension))
-                    .toList();
-
-            for (Path file : wikiFiles) {
-                String sourcePage = file.getFileName().toString();
-                sourcePage = sourcePage.substring(0, sourcePage.length() - extension.length());
+        PageExtractor<Set<String>> links = (page, content) -> extractLinksFromContent(content);
+        WikiCorpusScanner.ScanResult result = corpusScanner.scan(outputDir, extension, List.of(links));
 
-                Set<String> links = extractLinksFromFile(file);
-                for (String link : links) {
-                    linkToSources.computeIfAbsent(link, k -> new HashSet<>()).add(sourcePage);
-                }
+        Map<String, Set<String>> linkToSources = new HashMap<>();
+        for (ScannedPage page : result.pages()) {
+            for (String link : page.get(links)) {
+                linkToSources.computeIfAbsent(link, k -> new HashSet<>()).add(page.name());
             }
         }
-
         return linkToSources;
     }
 
-    /**
-     * Extract internal link targets from a single file.
-     */
-    Set<String> extractLinksFromFile(Path file) throws IOException {
-        String content = Files.readString(file);
-        return extractLinksFromContent(content);
-    }
-
     /**
      * Extract internal link targets from content string.
      */
@@ -224,6 +240,7 @@ public class GapDetectionService {
     List<GapConcept> findGaps(Map<String, Set<String>> linkToSources, Set<String> existingPages) {
         List<GapConcept> gaps = new ArrayList<>();
         Set<String> processedNormalized = new HashSet<>();
+        CanonicalPageIndex canonicalIndex = CanonicalPageIndex.build(existingPages);
 
         for (Map.Entry<String, Set<String>> entry : linkToSources.entrySet()) {
             String linkTarget = entry.getKey();
@@ -237,7 +254,7 @@ public class GapDetectionService {
             processedNormalized.add(normalized);
 
             // Check for fuzzy match against existing pages
-            String canonicalPage = findCanonicalPage(linkTarget, existingPages);
+            String canonicalPage = canonicalIndex.find(linkTarget);
             if (canonicalPage != null) {
                 // Page exists (or close variant) - create redirect if name differs
                 if (!linkTarget.equals(canonicalPage) && !PageNameUtils.toCamelCaseOrDefault(linkTarget, "").equals(canonicalPage)) {
@@ -264,9 +281,7 @@ public class GapDetectionService {
      * Normalize a page name for comparison.
      */
     String normalizeName(String name) {
-        if (name == null) return "";
-        return name.toLowerCase()
-                .replaceAll("[^a-z0-9]", "");
+        return CanonicalPageIndex.normalizeName(name);
     }
 
     /**
@@ -292,78 +307,10 @@ public class GapDetectionService {
     /**
      * Check if a potential gap name is a duplicate of an existing page.
      * Returns the canonical page name if a match is found, null otherwise.
+     * Builds a one-off index; {@link #findGaps} builds one per run instead.
      */
     String findCanonicalPage(String gapName, Set<String> existingPages) {
-        String normalized = normalizeName(gapName);
-
-        for (String existing : existingPages) {
-            // Exact normalized match
-            if (normalized.equals(normalizeName(existing))) {
-                return existing;
-            }
-
-            // Fuzzy match for common variations
-            if (isFuzzyMatch(gapName, existing)) {
-                return existing;
-            }
-        }
-
-        return null;
-    }
-
-    /**
-     * Check for fuzzy matches that should be treated as duplicates.
-     */
-    private boolean isFuzzyMatch(String name1, String name2) {
-        String n1 = normalizeForFuzzy(name1);
-        String n2 = normalizeForFuzzy(name2);
-
-        // Direct match after normalization
-        if (n1.equals(n2)) return true;
-
-        // Check for number/word substitutions (401k vs Four01K)
-        String digits1 = n1.replaceAll("[^0-9]", "");
-        String digits2 = n2.replaceAll("[^0-9]", "");
-        String letters1 = n1.replaceAll("[^a-z]", "");
-        String letters2 = n2.replaceAll("[^a-z]", "");
-
-        // Same digits and similar letters = likely duplicate
-        if (digits1.equals(digits2) && levenshteinDistance(letters1, letters2) <= 2) {
-            return true;
-        }
-
-        return false;
-    }
-
-    private String normalizeForFuzzy(String name) {
-        if (name == null) return "";
-        return name.toLowerCase()
-                .replaceAll("[áàâãä]", "a")
-                .replaceAll("[éèêë]", "e")
-                .replaceAll("[íìîï]", "i")
-                .replaceAll("[óòôõö]", "o")
-                .replaceAll("[úùûü]", "u")
-                .replaceAll("[ñ]", "n")
-                .replaceAll("[^a-z0-9]", "");
-    }
-
-    private int levenshteinDistance(String s1, String s2) {
-        int[][] dp = new int[s1.length() + 1][s2.length() + 1];
-
-        for (int i = 0; i <= s1.length(); i++) dp[i][0] = i;
-        for (int j = 0; j <= s2.length(); j++) dp[0][j] = j;
-
-        for (int i = 1; i <= s1.length(); i++) {
-            for (int j = 1; j <= s2.length(); j++) {
-                int cost = (s1.charAt(i - 1) == s2.charAt(j - 1)) ? 0 : 1;
-                dp[i][j] = Math.min(
-                        Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1),
-                        dp[i - 1][j - 1] + cost
-                );
-            }
-        }
-
-        return dp[s1.length()][s2.length()];
+        return CanonicalPageIndex.build(existingPages).find(gapName);
     }
 
     /**
@@ -378,7 +325,16 @@ public class GapDetectionService {
         String prompt = buildCategorizationPrompt(gaps, universeName);
 
         try {
-            String response = categorizationModel.chat(prompt);
+            String cacheKey = responseCache != null && responseCache.isEnabled()
+                    ? responseCache.keyFor(categorizationModel, null, prompt)
+                    : null;
+            String response = cacheKey != null ? responseCache.get(cacheKey).orElse(null) : null;
+            if (response == null) {
+                response = categorizationModel.chat(prompt);
+                if (cacheKey != null && extractJsonArray(response) != null) {
+                    responseCache.put(cacheKey, response);
+                }
+            }
             return parseCategorizationResponse(response, gaps);
         } catch (Exception e) {
             log.warn("Failed to categorize gaps with LLM, using defaults: {}", e.getMessage());
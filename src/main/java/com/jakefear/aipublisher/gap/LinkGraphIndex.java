@@ -0,0 +1,268 @@
+package com.jakefear.aipublisher.gap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jakefear.aipublisher.output.PageExtractor;
+import com.jakefear.aipublisher.output.ScannedPage;
+import com.jakefear.aipublisher.output.ScannedPage.PageFile;
+import com.jakefear.aipublisher.output.WikiCorpusScanner;
+import com.jakefear.aipublisher.output.WikiCorpusScanner.ScanFilter;
+import com.jakefear.aipublisher.output.WikiCorpusScanner.ScanResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Persistent page -> outbound-link index for the output directory.
+ *
+ * Each page is stored with the modification time, size and checksum of the
+ * file it was extracted from. An update lists the directory, skips files whose
+ * time and size are unchanged, re-reads the rest through the shared
+ * {@link WikiCorpusScanner}, and only re-extracts links when the checksum
+ * differs. The inverse map (link target -> source pages) is
+ * adjusted for just the pages that changed, so gap analysis on an unchanged
+ * wiki costs one directory listing and no file reads.
+ *
+ * The index is saved next to the pages as {@value #INDEX_FILE_NAME} and is
+ * discarded if its format version or file extension doesn't match.
+ */
+@Component
+public class LinkGraphIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LinkGraphIndex.class);
+
+    /**
+     * Bump when link extraction rules change so stale indexes are rebuilt.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    static final String INDEX_FILE_NAME = ".link-index.json";
+
+    private final boolean enabled;
+    private final WikiCorpusScanner scanner;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, PageEntry> pages = new HashMap<>();
+    private final Map<String, Set<String>> inbound = new HashMap<>();
+    private Path loadedDirectory;
+    private String loadedExtension;
+
+    private int lastScanned;
+    private int lastReused;
+    private int lastRemoved;
+
+    @Autowired
+    public LinkGraphIndex(@Value("${gap.link-index.enabled:true}") boolean enabled, WikiCorpusScanner scanner) {
+        this.enabled = enabled;
+        this.scanner = scanner;
+    }
+
+    /**
+     * Constructor for testing.
+     */
+    public LinkGraphIndex(boolean enabled) {
+        this(enabled, new WikiCorpusScanner());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Bring the index up to date with the output directory and return the
+     * inverse link map.
+     *
+     * @param outputDir The output directory
+     * @param extension The wiki file extension
+     * @param extractor Extracts link targets from page content
+     * @return Map of link target -> set of source pages that reference it
+     */
+    public synchronized Map<String, Set<String>> update(Path outputDir, String extension,
+                                                        Function<String, Set<String>> extractor) throws IOException {
+        if (!outputDir.equals(loadedDirectory) || !extension.equals(loadedExtension)) {
+            load(outputDir, extension);
+        }
+
+        lastScanned = 0;
+        lastReused = 0;
+        lastRemoved = 0;
+
+        PageExtractor<Set<String>> linkExtractor = (page, content) -> Set.copyOf(extractor.apply(content));
+        ScanResult result = scanner.scan(outputDir, extension, new ScanFilter() {
+            @Override
+            public boolean shouldRead(PageFile file) {
+                PageEntry existing = pages.get(file.name());
+                return existing == null || existing.modified() != file.modified() || existing.size() != file.size();
+            }
+
+            @Override
+            public boolean shouldExtract(PageFile file, long checksum) {
+                // Touched but not changed; keep the links
+                PageEntry existing = pages.get(file.name());
+                return existing == null || existing.hash() != checksum;
+            }
+        }, List.of(linkExtractor));
+
+        Set<String> seen = new HashSet<>();
+        for (PageFile file : result.files()) {
+            seen.add(file.name());
+        }
+        for (ScannedPage page : result.pages()) {
+            refreshPage(page, linkExtractor);
+        }
+        lastScanned = result.pages().size();
+        lastReused = result.files().size() - lastScanned;
+
+        Iterator<Map.Entry<String, PageEntry>> it = pages.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, PageEntry> entry = it.next();
+            if (!seen.contains(entry.getKey())) {
+                unlink(entry.getKey(), entry.getValue().links());
+                it.remove();
+                lastRemoved++;
+            }
+        }
+
+        if (lastScanned > 0 || lastRemoved > 0) {
+            save();
+        }
+        log.debug("Link index: {} pages, {} rescanned, {} unchanged, {} removed",
+                pages.size(), lastScanned, lastReused, lastRemoved);
+
+        Map<String, Set<String>> snapshot = new HashMap<>(inbound.size() * 2);
+        inbound.forEach((target, sources) -> snapshot.put(target, new HashSet<>(sources)));
+        return snapshot;
+    }
+
+    /**
+     * Get the indexed outbound links of a page.
+     */
+    public synchronized Set<String> getOutboundLinks(String page) {
+        PageEntry entry = pages.get(page);
+        return entry == null ? Set.of() : Set.copyOf(entry.links());
+    }
+
+    private void refreshPage(ScannedPage scanned, PageExtractor<Set<String>> linkExtractor) {
+        String page = scanned.name();
+        PageEntry existing = pages.get(page);
+        Set<String> links = scanned.isExtracted() ? scanned.get(linkExtractor) : existing.links();
+        pages.put(page, new PageEntry(scanned.file().modified(), scanned.file().size(), scanned.checksum(), links));
+        if (!scanned.isExtracted()) {
+            return;
+        }
+        if (existing != null) {
+            unlink(page, existing.links());
+        }
+        for (String link : links) {
+            inbound.computeIfAbsent(link, k -> new HashSet<>()).add(page);
+        }
+    }
+
+    private void unlink(String page, Set<String> links) {
+        for (String link : links) {
+            Set<String> sources = inbound.get(link);
+            if (sources != null) {
+                sources.remove(page);
+                if (sources.isEmpty()) {
+                    inbound.remove(link);
+                }
+            }
+        }
+    }
+
+    private void load(Path outputDir, String extension) {
+        pages.clear();
+        inbound.clear();
+        loadedDirectory = outputDir;
+        loadedExtension = extension;
+
+        Path file = outputDir.resolve(INDEX_FILE_NAME);
+        if (!enabled || !Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            JsonNode root = objectMapper.readTree(Files.readString(file, StandardCharsets.UTF_8));
+            if (root.path("version").asInt() != FORMAT_VERSION
+                    || !extension.equals(root.path("extension").asText())) {
+                log.info("Link index {} is out of date, rebuilding", file);
+                return;
+            }
+            root.path("pages").fields().forEachRemaining(field -> {
+                JsonNode node = field.getValue();
+                Set<String> links = new HashSet<>();
+                node.path("links").forEach(link -> links.add(link.asText()));
+                PageEntry entry = new PageEntry(node.path("modified").asLong(), node.path("size").asLong(),
+                        node.path("hash").asLong(), Set.copyOf(links));
+                pages.put(field.getKey(), entry);
+                for (String link : entry.links()) {
+                    inbound.computeIfAbsent(link, k -> new HashSet<>()).add(field.getKey());
+                }
+            });
+            log.debug("Loaded link index for {} pages from {}", pages.size(), file);
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable link index {}: {}", file, e.getMessage());
+            pages.clear();
+            inbound.clear();
+        }
+    }
+
+    private void save() {
+        if (!enabled || !Files.isDirectory(loadedDirectory)) {
+            return;
+        }
+        try {
+            ObjectNode root = objectMapper.createObjectNode();
+            root.put("version", FORMAT_VERSION);
+            root.put("extension", loadedExtension);
+            ObjectNode pagesNode = root.putObject("pages");
+            pages.forEach((page, entry) -> {
+                ObjectNode node = pagesNode.putObject(page);
+                node.put("modified", entry.modified());
+                node.put("size", entry.size());
+                node.put("hash", entry.hash());
+                ArrayNode links = node.putArray("links");
+                entry.links().forEach(links::add);
+            });
+            Path temp = Files.createTempFile(loadedDirectory, "link-index-", ".tmp");
+            Files.writeString(temp, objectMapper.writeValueAsString(root), StandardCharsets.UTF_8);
+            Files.move(temp, loadedDirectory.resolve(INDEX_FILE_NAME),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to save link index: {}", e.getMessage());
+        }
+    }
+
+    // Statistics for the most recent update
+
+    public int getLastScanned() {
+        return lastScanned;
+    }
+
+    public int getLastReused() {
+        return lastReused;
+    }
+
+    public int getLastRemoved() {
+        return lastRemoved;
+    }
+
+    private record PageEntry(long modified, long size, long hash, Set<String> links) {
+    }
+}
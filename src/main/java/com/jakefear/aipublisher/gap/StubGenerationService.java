@@ -1,6 +1,7 @@
 package com.jakefear.aipublisher.gap;
 
 import com.jakefear.aipublisher.config.OutputProperties;
+import com.jakefear.aipublisher.output.WikiPageIndex;
 import com.jakefear.aipublisher.util.PageNameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,8 +9,10 @@ import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -25,6 +28,7 @@ public class StubGenerationService {
     private final GapDetectionService gapDetectionService;
     private final StubWriterAgent stubWriterAgent;
     private final OutputProperties outputProperties;
+    private WikiPageIndex pageIndex;
 
     public StubGenerationService(
             GapDetectionService gapDetectionService,
@@ -33,6 +37,15 @@ public class StubGenerationService {
         this.gapDetectionService = gapDetectionService;
         this.stubWriterAgent = stubWriterAgent;
         this.outputProperties = outputProperties;
+        this.pageIndex = new WikiPageIndex(outputProperties);
+    }
+
+    /**
+     * Set the shared page index (called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setPageIndex(WikiPageIndex pageIndex) {
+        this.pageIndex = pageIndex;
     }
 
     /**
@@ -260,16 +273,23 @@ public class StubGenerationService {
 
         Files.createDirectories(outputDir);
 
-        String filename = PageNameUtils.toCamelCaseOrDefault(gap.name(), "UnnamedPage") + extension;
-        Path outputPath = outputDir.resolve(filename);
+        String pageName = PageNameUtils.toCamelCaseOrDefault(gap.name(), "UnnamedPage");
+        Path outputPath = outputDir.resolve(pageName + extension);
 
-        // Don't overwrite existing files
-        if (Files.exists(outputPath)) {
+        // Don't overwrite existing files. The index answers without touching the disk;
+        // CREATE_NEW catches pages created since the index was loaded.
+        if (pageIndex.contains(pageName)) {
             log.warn("File already exists, skipping: {}", outputPath);
             return null;
         }
-
-        Files.writeString(outputPath, content);
+        try {
+            Files.writeString(outputPath, content, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        } catch (FileAlreadyExistsException e) {
+            log.warn("File already exists, skipping: {}", outputPath);
+            pageIndex.add(pageName);
+            return null;
+        }
+        pageIndex.add(pageName);
         return outputPath;
     }
 
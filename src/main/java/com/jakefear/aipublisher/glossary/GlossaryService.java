@@ -1,7 +1,11 @@
 package com.jakefear.aipublisher.glossary;
 
+import com.jakefear.aipublisher.util.PhraseMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
@@ -14,16 +18,54 @@ import java.util.stream.Collectors;
  * - Duplicate detection and conflict resolution
  * - Category-based organization
  * - Term consistency checking
+ *
+ * Aliases are kept in a hash index alongside the canonical forms, and
+ * {@link #findTermsInText} scans text once with a compiled phrase matcher.
+ * The matcher is built lazily; entries added since the last build go into a
+ * small overlay matcher, which is folded into the main one once it grows.
+ *
+ * When a {@link GlossaryStore} is configured, entries stored by earlier runs
+ * are loaded on first use and new or changed entries are written through.
  */
 @Service
 public class GlossaryService {
 
+    private static final Logger log = LoggerFactory.getLogger(GlossaryService.class);
+
     // Store entries by canonical form for fast lookup
     private final Map<String, GlossaryEntry> entriesByCanonicalForm = new ConcurrentHashMap<>();
 
     // Store entries by category for organized access
     private final Map<String, Set<String>> entriesByCategory = new ConcurrentHashMap<>();
 
+    // Lower-cased alias -> canonical forms of the entries that declare it
+    private final Map<String, Set<String>> canonicalFormsByAlias = new ConcurrentHashMap<>();
+
+    // Overlay is folded into the main matcher once it reaches this many phrases
+    // or an eighth of the main matcher, whichever is larger
+    private static final int MIN_OVERLAY_REBUILD = 64;
+
+    // Term matcher state, guarded by matcherLock. Phrases map to canonical forms;
+    // phrases of replaced entries may linger and are filtered out on lookup.
+    private final Object matcherLock = new Object();
+    private final Map<String, Set<String>> basePhrases = new HashMap<>();
+    private final Map<String, Set<String>> overlayPhrases = new HashMap<>();
+    private final Map<String, Set<String>> pendingPhrases = new HashMap<>();
+    private PhraseMatcher<String> baseMatcher = PhraseMatcher.build(Map.of());
+    private PhraseMatcher<String> overlayMatcher;
+
+    private GlossaryStore store;
+    private volatile boolean loaded = true;
+
+    /**
+     * Set the persistent store. Stored entries are loaded on first use.
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setStore(GlossaryStore store) {
+        this.store = store != null && store.isEnabled() ? store : null;
+        this.loaded = this.store == null;
+    }
+
     /**
      * Add or update a glossary entry.
      *
@@ -31,8 +73,40 @@ public class GlossaryService {
      * @return The existing entry if one exists, or null if this is new
      */
     public GlossaryEntry addEntry(GlossaryEntry entry) {
+        ensureLoaded();
+        GlossaryEntry existing = index(entry);
+        if (!entry.equals(existing)) {
+            persist(List.of(entry));
+        }
+        return existing;
+    }
+
+    private GlossaryEntry index(GlossaryEntry entry) {
         GlossaryEntry existing = entriesByCanonicalForm.put(entry.canonicalForm(), entry);
 
+        // Update alias index
+        if (existing != null) {
+            for (String alias : existing.aliases()) {
+                canonicalFormsByAlias.computeIfPresent(alias.toLowerCase(), (k, forms) -> {
+                    forms.remove(existing.canonicalForm());
+                    return forms.isEmpty() ? null : forms;
+                });
+            }
+        }
+        for (String alias : entry.aliases()) {
+            canonicalFormsByAlias
+                    .computeIfAbsent(alias.toLowerCase(), k -> ConcurrentHashMap.newKeySet())
+                    .add(entry.canonicalForm());
+        }
+
+        // Queue new phrases for the term matcher
+        synchronized (matcherLock) {
+            addPhrase(pendingPhrases, entry.canonicalForm(), entry.canonicalForm());
+            for (String alias : entry.aliases()) {
+                addPhrase(pendingPhrases, alias, entry.canonicalForm());
+            }
+        }
+
         // Update category index
         if (entry.category() != null && !entry.category().isBlank()) {
             entriesByCategory
@@ -53,7 +127,9 @@ public class GlossaryService {
         if (glossaryMap == null) {
             return;
         }
+        ensureLoaded();
 
+        List<GlossaryEntry> changed = new ArrayList<>();
         for (Map.Entry<String, String> entry : glossaryMap.entrySet()) {
             GlossaryEntry glossaryEntry = new GlossaryEntry(
                     entry.getKey(),
@@ -66,8 +142,28 @@ public class GlossaryService {
                     true,
                     null
             );
-            addEntry(glossaryEntry);
+            if (!glossaryEntry.equals(index(glossaryEntry))) {
+                changed.add(glossaryEntry);
+            }
         }
+        persist(changed);
+    }
+
+    /**
+     * Get the entries that were defined by a given article.
+     *
+     * @param sourceArticle The article's page name
+     * @return Entries from that article, sorted alphabetically
+     */
+    public List<GlossaryEntry> getBySourceArticle(String sourceArticle) {
+        if (sourceArticle == null || sourceArticle.isBlank()) {
+            return List.of();
+        }
+        ensureLoaded();
+        return entriesByCanonicalForm.values().stream()
+                .filter(entry -> sourceArticle.equals(entry.sourceArticle()))
+                .sorted(Comparator.comparing(GlossaryEntry::term))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -81,15 +177,22 @@ public class GlossaryService {
             return Optional.empty();
         }
 
+        ensureLoaded();
         String normalized = term.toLowerCase().trim();
         GlossaryEntry direct = entriesByCanonicalForm.get(normalized);
         if (direct != null) {
             return Optional.of(direct);
         }
 
-        // Search by alias
-        return entriesByCanonicalForm.values().stream()
-                .filter(entry -> entry.matches(term))
+        // Search by alias; prefer the alphabetically first entry if several share it
+        Set<String> canonicalForms = canonicalFormsByAlias.get(normalized);
+        if (canonicalForms == null) {
+            return Optional.empty();
+        }
+        return canonicalForms.stream()
+                .sorted()
+                .map(entriesByCanonicalForm::get)
+                .filter(Objects::nonNull)
                 .findFirst();
     }
 
@@ -104,6 +207,7 @@ public class GlossaryService {
             return List.of();
         }
 
+        ensureLoaded();
         Set<String> canonicalForms = entriesByCategory.get(category.toLowerCase());
         if (canonicalForms == null) {
             return List.of();
@@ -122,6 +226,7 @@ public class GlossaryService {
      * @return Map of category names to entry counts
      */
     public Map<String, Integer> getCategoryCounts() {
+        ensureLoaded();
         Map<String, Integer> counts = new TreeMap<>();
         for (Map.Entry<String, Set<String>> entry : entriesByCategory.entrySet()) {
             counts.put(entry.getKey(), entry.getValue().size());
@@ -140,20 +245,78 @@ public class GlossaryService {
             return List.of();
         }
 
-        String lowerText = text.toLowerCase();
-        return entriesByCanonicalForm.values().stream()
-                .filter(entry -> {
-                    // Check if the canonical term appears in the text
-                    if (lowerText.contains(entry.canonicalForm())) {
-                        return true;
-                    }
-                    // Check aliases
-                    return entry.aliases().stream()
-                            .map(String::toLowerCase)
-                            .anyMatch(lowerText::contains);
-                })
-                .sorted(Comparator.comparing(GlossaryEntry::term))
-                .collect(Collectors.toList());
+        ensureLoaded();
+        List<PhraseMatcher<String>> matchers = currentMatchers();
+        Set<GlossaryEntry> found = new TreeSet<>(Comparator.comparing(GlossaryEntry::term)
+                .thenComparing(GlossaryEntry::canonicalForm));
+        for (PhraseMatcher<String> matcher : matchers) {
+            for (PhraseMatcher.Mention<String> mention : matcher.findAll(text)) {
+                GlossaryEntry entry = entriesByCanonicalForm.get(mention.value());
+                if (entry != null && !found.contains(entry)
+                        && entry.matches(text.substring(mention.start(), mention.start() + mention.length()))) {
+                    found.add(entry);
+                }
+            }
+        }
+        return new ArrayList<>(found);
+    }
+
+    /**
+     * Bring the term matchers up to date with the entries added since the
+     * last call, rebuilding the overlay or, once it is large, the main matcher.
+     */
+    private List<PhraseMatcher<String>> currentMatchers() {
+        synchronized (matcherLock) {
+            if (!pendingPhrases.isEmpty()) {
+                pendingPhrases.forEach((phrase, forms) -> forms.forEach(form -> addPhrase(overlayPhrases, phrase, form)));
+                pendingPhrases.clear();
+                if (overlayPhrases.size() >= Math.max(MIN_OVERLAY_REBUILD, basePhrases.size() / 8)) {
+                    overlayPhrases.forEach((phrase, forms) -> forms.forEach(form -> addPhrase(basePhrases, phrase, form)));
+                    overlayPhrases.clear();
+                    baseMatcher = PhraseMatcher.build(basePhrases);
+                    overlayMatcher = null;
+                } else {
+                    overlayMatcher = PhraseMatcher.build(overlayPhrases);
+                }
+            }
+            return overlayMatcher == null ? List.of(baseMatcher) : List.of(baseMatcher, overlayMatcher);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            try {
+                List<GlossaryEntry> stored = store.load();
+                stored.forEach(this::index);
+                log.info("Loaded {} glossary entries from {}", stored.size(), store.getDirectory());
+            } catch (IOException e) {
+                log.warn("Failed to load glossary store {}: {}", store.getDirectory(), e.getMessage());
+            }
+            loaded = true;
+        }
+    }
+
+    private void persist(List<GlossaryEntry> entries) {
+        if (store == null || entries.isEmpty()) {
+            return;
+        }
+        try {
+            store.append(entries);
+        } catch (IOException e) {
+            log.warn("Failed to write {} glossary entries to {}: {}", entries.size(), store.getDirectory(), e.getMessage());
+        }
+    }
+
+    private static void addPhrase(Map<String, Set<String>> phrases, String phrase, String canonicalForm) {
+        if (phrase != null && !phrase.isEmpty()) {
+            phrases.computeIfAbsent(phrase.toLowerCase(), k -> new HashSet<>()).add(canonicalForm);
+        }
     }
 
     /**
@@ -195,6 +358,7 @@ public class GlossaryService {
      * @return List of all entries
      */
     public List<GlossaryEntry> getAllEntries() {
+        ensureLoaded();
         return entriesByCanonicalForm.values().stream()
                 .sorted(Comparator.comparing(GlossaryEntry::term))
                 .collect(Collectors.toList());
@@ -206,14 +370,25 @@ public class GlossaryService {
      * @return Entry count
      */
     public int getEntryCount() {
+        ensureLoaded();
         return entriesByCanonicalForm.size();
     }
 
     /**
-     * Clear all glossary entries.
+     * Clear all glossary entries held in memory. The persistent store is left
+     * as it is and is not reloaded.
      */
     public void clear() {
+        loaded = true;
         entriesByCanonicalForm.clear();
         entriesByCategory.clear();
+        canonicalFormsByAlias.clear();
+        synchronized (matcherLock) {
+            basePhrases.clear();
+            overlayPhrases.clear();
+            pendingPhrases.clear();
+            baseMatcher = PhraseMatcher.build(Map.of());
+            overlayMatcher = null;
+        }
     }
 }
@@ -0,0 +1,297 @@
+package com.jakefear.aipublisher.glossary;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jakefear.aipublisher.config.OutputProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Durable backing store for the glossary, shared by every run and process
+ * that publishes into the same wiki.
+ *
+ * Entries are appended to a JSON-lines log ({@value #LOG_FILE_NAME}) as they
+ * are added; a later line for the same canonical form replaces an earlier one.
+ * Once the log holds more than the compaction threshold, the snapshot
+ * ({@value #SNAPSHOT_FILE_NAME}) is rewritten with the latest entry per term
+ * and the log is truncated.
+ *
+ * Appends, compaction and loading all hold an exclusive lock on
+ * {@value #LOCK_FILE_NAME}, so several workers or processes can write at once.
+ * Compaction re-reads the files under the lock and so keeps entries written by
+ * other processes. A torn last log line (e.g. after a crash) is skipped, and the
+ * next append starts on a fresh line so only the torn entry is lost.
+ *
+ * By default the store lives in a {@value #DEFAULT_DIRECTORY} directory inside
+ * the wiki output directory, so the vocabulary travels with the pages.
+ */
+@Component
+public class GlossaryStore {
+
+    private static final Logger log = LoggerFactory.getLogger(GlossaryStore.class);
+
+    static final String DEFAULT_DIRECTORY = ".glossary";
+    static final String SNAPSHOT_FILE_NAME = "glossary.json";
+    static final String LOG_FILE_NAME = "glossary.log";
+    static final String LOCK_FILE_NAME = "glossary.lock";
+
+    /**
+     * Bump when the stored entry format changes incompatibly.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    // File locks are held per JVM, so threads of this JVM also serialize on a monitor per directory
+    private static final Map<Path, Object> JVM_LOCKS = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final Path configuredDirectory;
+    private final OutputProperties outputProperties;
+    private final int compactThreshold;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Autowired
+    public GlossaryStore(
+            @Value("${glossary.store.enabled:true}") boolean enabled,
+            @Value("${glossary.store.directory:}") String directory,
+            @Value("${glossary.store.compact-threshold:500}") int compactThreshold,
+            OutputProperties outputProperties) {
+        this.enabled = enabled;
+        this.configuredDirectory = directory == null || directory.isBlank() ? null : Path.of(directory);
+        this.outputProperties = outputProperties;
+        this.compactThreshold = Math.max(1, compactThreshold);
+    }
+
+    /**
+     * Constructor for testing.
+     */
+    public GlossaryStore(Path directory, int compactThreshold) {
+        this.enabled = true;
+        this.configuredDirectory = directory;
+        this.outputProperties = null;
+        this.compactThreshold = Math.max(1, compactThreshold);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the directory holding the store files.
+     */
+    public Path getDirectory() {
+        if (configuredDirectory != null) {
+            return configuredDirectory;
+        }
+        return outputProperties.getDirectoryPath().resolve(DEFAULT_DIRECTORY);
+    }
+
+    /**
+     * Read the stored entries: the snapshot followed by the log, with the
+     * latest entry per canonical form.
+     *
+     * @return Entries in first-written order; empty if nothing is stored
+     */
+    public List<GlossaryEntry> load() throws IOException {
+        if (!enabled) {
+            return List.of();
+        }
+        Path directory = getDirectory();
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        synchronized (jvmLock(directory)) {
+            try (FileChannel lock = openLock(directory); FileLock ignored = lock.lock()) {
+                Map<String, GlossaryEntry> entries = readSnapshot(directory);
+                readLog(directory, entries);
+                return new ArrayList<>(entries.values());
+            }
+        }
+    }
+
+    /**
+     * Append entries to the log, compacting if the log has grown past the threshold.
+     */
+    public void append(Collection<GlossaryEntry> entries) throws IOException {
+        if (!enabled || entries.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        for (GlossaryEntry entry : entries) {
+            lines.append(objectMapper.writeValueAsString(entry)).append('\n');
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+
+        Path directory = getDirectory();
+        Files.createDirectories(directory);
+        synchronized (jvmLock(directory)) {
+            try (FileChannel lock = openLock(directory); FileLock ignored = lock.lock()) {
+                Path logFile = directory.resolve(LOG_FILE_NAME);
+                try (FileChannel channel = FileChannel.open(logFile,
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    channel.position(channel.size());
+                    if (!endsWithNewline(channel)) {
+                        // Terminate a torn last line so it doesn't swallow the first new entry
+                        writeFully(channel, ByteBuffer.wrap(new byte[]{'\n'}));
+                    }
+                    writeFully(channel, bytes);
+                }
+                if (countLines(logFile) > compactThreshold) {
+                    compactLocked(directory);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rewrite the snapshot with the latest entry per term and empty the log.
+     */
+    public void compact() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path directory = getDirectory();
+        Files.createDirectories(directory);
+        synchronized (jvmLock(directory)) {
+            try (FileChannel lock = openLock(directory); FileLock ignored = lock.lock()) {
+                compactLocked(directory);
+            }
+        }
+    }
+
+    private void compactLocked(Path directory) throws IOException {
+        Map<String, GlossaryEntry> entries = readSnapshot(directory);
+        readLog(directory, entries);
+
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("version", FORMAT_VERSION);
+        root.set("entries", objectMapper.valueToTree(entries.values()));
+
+        Path snapshot = directory.resolve(SNAPSHOT_FILE_NAME);
+        Path temp = Files.createTempFile(directory, SNAPSHOT_FILE_NAME, ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), root);
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        // Only truncate once the snapshot holds everything in the log
+        Files.write(directory.resolve(LOG_FILE_NAME), new byte[0]);
+        log.debug("Compacted glossary store {} to {} entries", directory, entries.size());
+    }
+
+    private Map<String, GlossaryEntry> readSnapshot(Path directory) throws IOException {
+        Map<String, GlossaryEntry> entries = new LinkedHashMap<>();
+        Path snapshot = directory.resolve(SNAPSHOT_FILE_NAME);
+        if (!Files.exists(snapshot)) {
+            return entries;
+        }
+        JsonNode root = objectMapper.readTree(snapshot.toFile());
+        if (root.path("version").asInt() != FORMAT_VERSION) {
+            log.warn("Ignoring glossary snapshot {} with unsupported format version {}",
+                    snapshot, root.path("version").asInt());
+            return entries;
+        }
+        for (JsonNode node : root.path("entries")) {
+            GlossaryEntry entry = parse(node, snapshot);
+            if (entry != null) {
+                entries.put(entry.canonicalForm(), entry);
+            }
+        }
+        return entries;
+    }
+
+    private void readLog(Path directory, Map<String, GlossaryEntry> entries) throws IOException {
+        Path logFile = directory.resolve(LOG_FILE_NAME);
+        try (BufferedReader reader = Files.newBufferedReader(logFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable glossary log line in {}", logFile);
+                    continue;
+                }
+                GlossaryEntry entry = parse(node, logFile);
+                if (entry != null) {
+                    entries.put(entry.canonicalForm(), entry);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // Nothing appended since the last compaction
+        }
+    }
+
+    private GlossaryEntry parse(JsonNode node, Path source) {
+        try {
+            return objectMapper.treeToValue(node, GlossaryEntry.class);
+        } catch (IOException | IllegalArgumentException | NullPointerException e) {
+            log.warn("Skipping invalid glossary entry in {}: {}", source, e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean endsWithNewline(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return true;
+        }
+        ByteBuffer last = ByteBuffer.allocate(1);
+        if (channel.read(last, size - 1) != 1) {
+            return false;
+        }
+        return last.get(0) == '\n';
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private static long countLines(Path file) throws IOException {
+        long lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            while (reader.readLine() != null) {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    private static FileChannel openLock(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return FileChannel.open(directory.resolve(LOCK_FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    private static Object jvmLock(Path directory) {
+        return JVM_LOCKS.computeIfAbsent(directory.toAbsolutePath().normalize(), k -> new Object());
+    }
+}
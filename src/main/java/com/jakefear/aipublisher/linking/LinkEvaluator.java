@@ -2,6 +2,7 @@ package com.jakefear.aipublisher.linking;
 
 import com.jakefear.aipublisher.glossary.GlossaryEntry;
 import com.jakefear.aipublisher.glossary.GlossaryService;
+import com.jakefear.aipublisher.util.PhraseMatcher;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
@@ -18,6 +19,13 @@ public class LinkEvaluator {
     private final GlossaryService glossaryService;
     private final LinkingStrategy strategy;
 
+    // Page mention matcher, reused until the wiki's page set changes
+    private final Object matcherLock = new Object();
+    private WikiLinkContext matcherContext;
+    private long matcherVersion;
+    private Set<String> matcherPages = Set.of();
+    private PhraseMatcher<String> pageMatcher;
+
     /**
      * Default constructor for Spring proxy creation.
      */
@@ -51,11 +59,13 @@ public class LinkEvaluator {
         List<LinkCandidate> candidates = new ArrayList<>();
         Set<String> seenTerms = new HashSet<>();
 
-        // Find mentions of existing wiki pages
-        for (String pageName : wikiContext.getAllPages()) {
-            List<LinkCandidate> pageCandidates = findPageMentions(content, pageName, seenTerms, wikiContext);
-            candidates.addAll(pageCandidates);
+        // Find mentions of existing wiki pages in one pass over the content
+        Map<String, List<PhraseMatcher.Mention<String>>> mentionsByPage = new TreeMap<>();
+        for (PhraseMatcher.Mention<String> mention : pageMatcher(wikiContext).findAll(content)) {
+            mentionsByPage.computeIfAbsent(mention.value(), k -> new ArrayList<>()).add(mention);
         }
+        mentionsByPage.forEach((pageName, mentions) ->
+                candidates.addAll(findPageMentions(content, pageName, mentions, seenTerms, wikiContext)));
 
         // Find mentions of glossary terms that map to pages
         List<GlossaryEntry> glossaryEntries = glossaryService.findTermsInText(content);
@@ -135,22 +145,52 @@ public class LinkEvaluator {
     }
 
     /**
-     * Find mentions of a wiki page in content.
+     * Get the page mention matcher for a wiki context, rebuilding it only when
+     * the set of pages has changed since the last build.
+     */
+    PhraseMatcher<String> pageMatcher(WikiLinkContext wikiContext) {
+        synchronized (matcherLock) {
+            if (pageMatcher != null && matcherContext == wikiContext && matcherVersion == wikiContext.getVersion()) {
+                return pageMatcher;
+            }
+            long version = wikiContext.getVersion();
+            Set<String> pages = wikiContext.getAllPages();
+            if (pageMatcher == null || !pages.equals(matcherPages)) {
+                Map<String, List<String>> phrases = new HashMap<>();
+                for (String pageName : pages) {
+                    phrases.computeIfAbsent(camelCaseToWords(pageName), k -> new ArrayList<>()).add(pageName);
+                }
+                pageMatcher = PhraseMatcher.build(phrases);
+                matcherPages = pages;
+            }
+            matcherContext = wikiContext;
+            matcherVersion = version;
+            return pageMatcher;
+        }
+    }
+
+    /**
+     * Turn the raw mentions of one page into candidates. Mentions are taken
+     * left to right without overlapping each other, and only whole-word
+     * mentions become candidates.
      */
     private List<LinkCandidate> findPageMentions(String content, String pageName,
+                                                  List<PhraseMatcher.Mention<String>> mentions,
                                                   Set<String> seenTerms, WikiLinkContext wikiContext) {
         List<LinkCandidate> candidates = new ArrayList<>();
+        mentions.sort(Comparator.comparingInt(PhraseMatcher.Mention::start));
 
-        // Convert CamelCase to space-separated for matching
-        String searchTerm = camelCaseToWords(pageName);
-        String lowerContent = content.toLowerCase();
-        String lowerSearch = searchTerm.toLowerCase();
-
-        int pos = 0;
+        int nextAllowed = 0;
         boolean firstFound = false;
-        while ((pos = lowerContent.indexOf(lowerSearch, pos)) != -1) {
+        for (PhraseMatcher.Mention<String> mention : mentions) {
+            int pos = mention.start();
+            if (pos < nextAllowed) {
+                continue;
+            }
+            nextAllowed = pos + mention.length();
+
             // Check if this is a word boundary match
-            if (isWordBoundary(content, pos, searchTerm.length())) {
+            if (isWordBoundary(content, pos, mention.length())) {
                 boolean isFirst = !firstFound && !seenTerms.contains(pageName.toLowerCase());
                 if (isFirst) {
                     firstFound = true;
@@ -162,14 +202,13 @@ public class LinkEvaluator {
 
                 candidates.add(new LinkCandidate(
                         pageName,
-                        content.substring(pos, pos + searchTerm.length()),
+                        content.substring(pos, pos + mention.length()),
                         pos,
                         isFirst,
                         context,
                         score
                 ));
             }
-            pos += searchTerm.length();
         }
 
         return candidates;
@@ -2,6 +2,7 @@ package com.jakefear.aipublisher.linking;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -22,12 +23,15 @@ public class WikiLinkContext {
     // All known pages
     private final Set<String> allPages = ConcurrentHashMap.newKeySet();
 
+    // Bumped whenever the page set changes, so derived indexes know to rebuild
+    private final AtomicLong version = new AtomicLong();
+
     /**
      * Register a page in the wiki context.
      */
     public void registerPage(String pageName) {
-        if (pageName != null && !pageName.isBlank()) {
-            allPages.add(pageName);
+        if (pageName != null && !pageName.isBlank() && allPages.add(pageName)) {
+            version.incrementAndGet();
         }
     }
 
@@ -133,6 +137,13 @@ public class WikiLinkContext {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get the page set version, which changes whenever a page is added or the context is cleared.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
     /**
      * Get total page count.
      */
@@ -148,5 +159,6 @@ public class WikiLinkContext {
         inboundLinks.clear();
         pageTopics.clear();
         allPages.clear();
+        version.incrementAndGet();
     }
 }
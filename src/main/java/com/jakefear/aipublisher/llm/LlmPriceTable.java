@@ -0,0 +1,181 @@
+package com.jakefear.aipublisher.llm;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Per-model token prices, for turning token counts into dollars.
+ *
+ * Prices are in USD per million tokens. A model is matched by exact name
+ * first, then by the longest configured prefix, so "claude-sonnet-4" prices
+ * every dated Sonnet 4 release. Anthropic models are priced by default;
+ * anything else (e.g. local Ollama models) is unpriced and costs nothing
+ * unless configured with llm.pricing.models.
+ *
+ * The table also estimates what a batch of articles will cost before it runs,
+ * from an assumed number of tokens per article.
+ */
+public class LlmPriceTable {
+
+    /** Assumed prompt tokens per article across all agents, for estimates. */
+    public static final long DEFAULT_INPUT_TOKENS_PER_ARTICLE = 30_000;
+
+    /** Assumed completion tokens per article across all agents, for estimates. */
+    public static final long DEFAULT_OUTPUT_TOKENS_PER_ARTICLE = 12_000;
+
+    /**
+     * Published Anthropic list prices.
+     */
+    public static final Map<String, Price> DEFAULT_PRICES = Map.ofEntries(
+            Map.entry("claude-opus-4-5", new Price(5.0, 25.0)),
+            Map.entry("claude-opus-4", new Price(15.0, 75.0)),
+            Map.entry("claude-sonnet-4", new Price(3.0, 15.0)),
+            Map.entry("claude-haiku-4-5", new Price(1.0, 5.0)),
+            Map.entry("claude-3-7-sonnet", new Price(3.0, 15.0)),
+            Map.entry("claude-3-5-sonnet", new Price(3.0, 15.0)),
+            Map.entry("claude-3-5-haiku", new Price(0.8, 4.0)),
+            Map.entry("claude-3-opus", new Price(15.0, 75.0)),
+            Map.entry("claude-3-haiku", new Price(0.25, 1.25))
+    );
+
+    private final Map<String, Price> prices;
+    private final String activeModel;
+    private final long inputTokensPerArticle;
+    private final long outputTokensPerArticle;
+
+    /**
+     * Price of one model.
+     *
+     * @param inputPerMillion USD per million prompt tokens
+     * @param outputPerMillion USD per million completion tokens
+     */
+    public record Price(double inputPerMillion, double outputPerMillion) {
+        public Price {
+            if (inputPerMillion < 0 || outputPerMillion < 0) {
+                throw new IllegalArgumentException("Prices must not be negative");
+            }
+        }
+
+        public double cost(long inputTokens, long outputTokens) {
+            return (inputTokens * inputPerMillion + outputTokens * outputPerMillion) / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Projected usage and cost of generating a number of articles.
+     *
+     * @param model Model the estimate is for
+     * @param articles Number of articles
+     * @param inputTokens Projected prompt tokens
+     * @param outputTokens Projected completion tokens
+     * @param costUsd Projected cost, or empty if the model is unpriced
+     */
+    public record Estimate(String model, int articles, long inputTokens, long outputTokens, Optional<Double> costUsd) {
+    }
+
+    public LlmPriceTable(Map<String, Price> overrides, String activeModel,
+                         long inputTokensPerArticle, long outputTokensPerArticle) {
+        Map<String, Price> merged = new LinkedHashMap<>(DEFAULT_PRICES);
+        merged.putAll(overrides);
+        this.prices = Map.copyOf(merged);
+        this.activeModel = activeModel;
+        this.inputTokensPerArticle = inputTokensPerArticle;
+        this.outputTokensPerArticle = outputTokensPerArticle;
+    }
+
+    /**
+     * Constructor for testing with the default prices and estimates.
+     */
+    public LlmPriceTable(String activeModel) {
+        this(Map.of(), activeModel, DEFAULT_INPUT_TOKENS_PER_ARTICLE, DEFAULT_OUTPUT_TOKENS_PER_ARTICLE);
+    }
+
+    /**
+     * Parse price overrides written as {@code model=input/output} pairs separated
+     * by commas, e.g. {@code claude-sonnet-4=3/15,qwen3=0/0}.
+     *
+     * @throws IllegalArgumentException if an entry is malformed
+     */
+    public static Map<String, Price> parse(String spec) {
+        Map<String, Price> result = new LinkedHashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return result;
+        }
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int equals = entry.lastIndexOf('=');
+            int slash = entry.indexOf('/', equals + 1);
+            if (equals <= 0 || slash < 0) {
+                throw new IllegalArgumentException("Invalid price entry '" + entry.trim()
+                        + "', expected model=input/output (USD per million tokens)");
+            }
+            try {
+                result.put(entry.substring(0, equals).trim(), new Price(
+                        Double.parseDouble(entry.substring(equals + 1, slash).trim()),
+                        Double.parseDouble(entry.substring(slash + 1).trim())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid price in '" + entry.trim() + "'", e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the price of a model.
+     *
+     * @return The price, or empty if the model is unpriced
+     */
+    public Optional<Price> priceOf(String model) {
+        if (model == null) {
+            return Optional.empty();
+        }
+        Price exact = prices.get(model);
+        if (exact != null) {
+            return Optional.of(exact);
+        }
+        return prices.entrySet().stream()
+                .filter(entry -> model.startsWith(entry.getKey()))
+                .max(Comparator.comparingInt(entry -> entry.getKey().length()))
+                .map(Map.Entry::getValue);
+    }
+
+    /**
+     * Cost of a call in USD; 0 for unpriced models.
+     */
+    public double cost(String model, long inputTokens, long outputTokens) {
+        return priceOf(model).map(price -> price.cost(inputTokens, outputTokens)).orElse(0.0);
+    }
+
+    /**
+     * Cost of a call in USD; 0 for unpriced models.
+     */
+    public double cost(LlmUsage usage) {
+        return cost(usage.modelName(), usage.inputTokens(), usage.outputTokens());
+    }
+
+    /**
+     * Project the usage and cost of generating articles with the configured model.
+     */
+    public Estimate estimate(int articles) {
+        long input = articles * inputTokensPerArticle;
+        long output = articles * outputTokensPerArticle;
+        return new Estimate(activeModel, articles, input, output,
+                priceOf(activeModel).map(price -> price.cost(input, output)));
+    }
+
+    public String getActiveModel() {
+        return activeModel;
+    }
+
+    public long getInputTokensPerArticle() {
+        return inputTokensPerArticle;
+    }
+
+    public long getOutputTokensPerArticle() {
+        return outputTokensPerArticle;
+    }
+}
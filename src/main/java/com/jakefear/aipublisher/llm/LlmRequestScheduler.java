@@ -0,0 +1,321 @@
+package com.jakefear.aipublisher.llm;
+
+import dev.langchain4j.model.chat.ChatModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Admission control shared by every {@link ChatModel} bean.
+ *
+ * Each provider ("anthropic", "ollama", ...) gets its own lane with a maximum
+ * number of in-flight requests. Callers beyond that limit wait in a queue that
+ * is ordered by priority first and arrival order second, so requests from
+ * later pipeline phases (e.g. a document's critique) are admitted before
+ * earlier phases of other documents (e.g. another document's research), and
+ * requests of equal priority are served first-come, first-served.
+ *
+ * Queue depth and wait time are tracked per lane so the provider-side
+ * parallelism (e.g. Ollama's OLLAMA_NUM_PARALLEL) can be sized to match.
+ */
+public class LlmRequestScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmRequestScheduler.class);
+
+    /**
+     * Default in-flight limit for providers without an explicit limit.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final Map<String, Integer> limits;
+    private final int defaultLimit;
+
+    public LlmRequestScheduler() {
+        this(Map.of(), DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Create a scheduler with per-provider in-flight limits.
+     *
+     * @param limits Maximum in-flight requests keyed by provider name (case-insensitive)
+     * @param defaultLimit Limit for providers not present in {@code limits}
+     */
+    public LlmRequestScheduler(Map<String, Integer> limits, int defaultLimit) {
+        Map<String, Integer> normalized = new HashMap<>();
+        limits.forEach((provider, limit) -> normalized.put(normalize(provider), Math.max(1, limit)));
+        this.limits = Map.copyOf(normalized);
+        this.defaultLimit = Math.max(1, defaultLimit);
+    }
+
+    /**
+     * Wrap a model so that every call through it is admitted by this scheduler.
+     *
+     * @param delegate The underlying model
+     * @param provider Provider lane the model belongs to
+     * @param name Name used in log messages (e.g. the bean name)
+     * @param priority Higher values are admitted first when the lane is saturated
+     * @return A model that queues for a slot before delegating
+     */
+    public ChatModel wrap(ChatModel delegate, String provider, String name, int priority) {
+        return new ScheduledChatModel(delegate, this, provider, name, priority);
+    }
+
+    /**
+     * Run a call once a slot in the provider's lane is available.
+     *
+     * @param provider Provider lane to queue on
+     * @param priority Higher values are admitted first
+     * @param call The model call to run while holding the slot
+     * @return The result of the call
+     * @throws IllegalStateException if the thread is interrupted while waiting
+     */
+    public <T> T execute(String provider, int priority, Supplier<T> call) {
+        Slot slot = acquire(provider, priority);
+        try {
+            return call.get();
+        } finally {
+            slot.release();
+        }
+    }
+
+    /**
+     * Wait for a slot in the provider's lane and hand it to the caller, for
+     * calls that may keep running after the calling method returns (e.g. an
+     * abandoned stream). The caller must release the slot exactly when the call
+     * has ended.
+     *
+     * @param provider Provider lane to queue on
+     * @param priority Higher values are admitted first
+     * @return The granted slot
+     * @throws IllegalStateException if the thread is interrupted while waiting
+     */
+    public Slot acquire(String provider, int priority) {
+        Lane lane = lane(provider);
+        long waitNanos = lane.acquire(priority);
+        if (log.isDebugEnabled() && waitNanos > 0) {
+            log.debug("LLM slot on '{}' granted after {} ms (priority {}, {} still queued)",
+                    lane.provider, waitNanos / 1_000_000, priority, lane.queuedCount());
+        }
+        return new Slot(lane);
+    }
+
+    /**
+     * Get a snapshot of the statistics of one provider lane.
+     */
+    public LaneStats getStats(String provider) {
+        return lane(provider).snapshot();
+    }
+
+    /**
+     * Get snapshots of every lane that has been used so far.
+     */
+    public List<LaneStats> getAllStats() {
+        return lanes.values().stream()
+                .map(Lane::snapshot)
+                .sorted(Comparator.comparing(LaneStats::provider))
+                .toList();
+    }
+
+    /**
+     * Get the in-flight limit configured for a provider.
+     */
+    public int getMaxInFlight(String provider) {
+        return limits.getOrDefault(normalize(provider), defaultLimit);
+    }
+
+    /**
+     * Get the providers with an explicitly configured in-flight limit.
+     */
+    public SortedSet<String> getConfiguredProviders() {
+        return new TreeSet<>(limits.keySet());
+    }
+
+    /**
+     * Generate a summary report of all lanes.
+     */
+    public String generateReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("LLM Scheduler:\n");
+        for (LaneStats stats : getAllStats()) {
+            sb.append(String.format("  %s: limit %d, %d completed, peak queue %d, avg wait %.1f ms, max wait %d ms\n",
+                    stats.provider(), stats.maxInFlight(), stats.completed(), stats.peakQueued(),
+                    stats.averageWaitMs(), stats.maxWait().toMillis()));
+        }
+        return sb.toString();
+    }
+
+    private Lane lane(String provider) {
+        String key = normalize(provider);
+        return lanes.computeIfAbsent(key, k -> new Lane(k, limits.getOrDefault(k, defaultLimit)));
+    }
+
+    private static String normalize(String provider) {
+        return provider == null || provider.isBlank() ? "default" : provider.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Point-in-time statistics for one provider lane.
+     *
+     * @param provider Provider name
+     * @param maxInFlight Configured in-flight limit
+     * @param inFlight Requests currently running
+     * @param queued Requests currently waiting for a slot
+     * @param peakQueued Largest queue depth observed
+     * @param completed Requests that have been admitted and finished
+     * @param totalWait Sum of time spent waiting for a slot
+     * @param maxWait Longest single wait for a slot
+     */
+    public record LaneStats(
+            String provider,
+            int maxInFlight,
+            int inFlight,
+            int queued,
+            int peakQueued,
+            long completed,
+            Duration totalWait,
+            Duration maxWait
+    ) {
+        /**
+         * Average wait per admitted request in milliseconds.
+         */
+        public double averageWaitMs() {
+            long admitted = completed + inFlight;
+            return admitted == 0 ? 0.0 : (double) totalWait.toMillis() / admitted;
+        }
+    }
+
+    /**
+     * A waiting request. Ordered by priority (highest first), then arrival.
+     */
+    private static final class Ticket implements Comparable<Ticket> {
+        final int priority;
+        final long sequence;
+        boolean granted;
+
+        Ticket(int priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Ticket other) {
+            int byPriority = Integer.compare(other.priority, priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * A granted slot in a provider lane. Releasing it more than once has no effect.
+     */
+    public static final class Slot {
+        private final Lane lane;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Slot(Lane lane) {
+            this.lane = lane;
+        }
+
+        /**
+         * Give the slot back to the lane, counting the call as completed.
+         */
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                lane.release();
+            }
+        }
+
+        public boolean isReleased() {
+            return released.get();
+        }
+    }
+
+    /**
+     * Per-provider slot pool. All state is guarded by the lane's monitor.
+     */
+    private static final class Lane {
+        final String provider;
+        final int maxInFlight;
+        final PriorityQueue<Ticket> waiting = new PriorityQueue<>();
+        long nextSequence;
+        int inFlight;
+        int peakQueued;
+        long completed;
+        long totalWaitNanos;
+        long maxWaitNanos;
+
+        Lane(String provider, int maxInFlight) {
+            this.provider = provider;
+            this.maxInFlight = maxInFlight;
+        }
+
+        /**
+         * Block until a slot is granted.
+         *
+         * @return Nanoseconds spent waiting
+         */
+        synchronized long acquire(int priority) {
+            long start = System.nanoTime();
+            Ticket ticket = new Ticket(priority, nextSequence++);
+            waiting.add(ticket);
+            peakQueued = Math.max(peakQueued, waiting.size());
+            grantAvailable();
+
+            try {
+                while (!ticket.granted) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                if (ticket.granted) {
+                    // Slot was handed over just as we were interrupted; give it back
+                    releaseSlot();
+                } else {
+                    waiting.remove(ticket);
+                }
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for an LLM slot on '" + provider + "'", e);
+            }
+
+            long waited = System.nanoTime() - start;
+            totalWaitNanos += waited;
+            maxWaitNanos = Math.max(maxWaitNanos, waited);
+            return waited;
+        }
+
+        synchronized void release() {
+            completed++;
+            releaseSlot();
+        }
+
+        synchronized int queuedCount() {
+            return waiting.size();
+        }
+
+        synchronized LaneStats snapshot() {
+            return new LaneStats(provider, maxInFlight, inFlight, waiting.size(), peakQueued, completed,
+                    Duration.ofNanos(totalWaitNanos), Duration.ofNanos(maxWaitNanos));
+        }
+
+        private void releaseSlot() {
+            inFlight--;
+            grantAvailable();
+        }
+
+        private void grantAvailable() {
+            boolean grantedAny = false;
+            while (inFlight < maxInFlight && !waiting.isEmpty()) {
+                waiting.poll().granted = true;
+                inFlight++;
+                grantedAny = true;
+            }
+            if (grantedAny) {
+                notifyAll();
+            }
+        }
+    }
+}
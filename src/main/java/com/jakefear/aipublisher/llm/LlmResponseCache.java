@@ -0,0 +1,316 @@
+package com.jakefear.aipublisher.llm;
+
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Persistent, content-addressed cache of LLM responses.
+ *
+ * Entries are keyed by a SHA-256 hash of (provider, model name, temperature,
+ * system prompt, user prompt) and stored as one file per entry in the cache
+ * directory, so a rerun with byte-identical prompts skips the model call.
+ *
+ * The cache is bounded by total size. When a write pushes it over the limit,
+ * the least recently used entries are deleted. Recency survives restarts
+ * because a hit refreshes the entry file's modification time.
+ */
+public class LlmResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmResponseCache.class);
+
+    private static final String ENTRY_EXTENSION = ".txt";
+
+    private final Path directory;
+    private final long maxBytes;
+    private volatile boolean enabled;
+
+    // Access-ordered index of key -> entry size; guarded by "this"
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private boolean loaded;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Create a cache.
+     *
+     * @param directory Directory holding the cache entries (created on first write)
+     * @param maxBytes Maximum total size of all entries
+     * @param enabled Whether lookups and writes are performed
+     */
+    public LlmResponseCache(Path directory, long maxBytes, boolean enabled) {
+        this.directory = directory;
+        this.maxBytes = Math.max(1, maxBytes);
+        this.enabled = enabled;
+    }
+
+    /**
+     * Compute the cache key for a call to the given model.
+     * Provider, model name and temperature are read from the model's default request parameters.
+     */
+    public String keyFor(ChatModel model, String systemPrompt, String userPrompt) {
+        String provider = null;
+        String modelName = null;
+        Double temperature = null;
+        try {
+            if (model.provider() != null) {
+                provider = model.provider().name();
+            }
+            ChatRequestParameters parameters = model.defaultRequestParameters();
+            if (parameters != null) {
+                modelName = parameters.modelName();
+                temperature = parameters.temperature();
+            }
+        } catch (RuntimeException e) {
+            log.debug("Could not read model parameters for cache key: {}", e.getMessage());
+        }
+        return key(provider, modelName, temperature, systemPrompt, userPrompt);
+    }
+
+    /**
+     * Compute the cache key from its components.
+     *
+     * @return Hex-encoded SHA-256 hash
+     */
+    public static String key(String provider, String modelName, Double temperature,
+                             String systemPrompt, String userPrompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // Length-prefix each field so different splits of the same text cannot collide
+            for (String part : new String[]{provider, modelName,
+                    temperature == null ? null : temperature.toString(), systemPrompt, userPrompt}) {
+                byte[] bytes = part == null ? new byte[0] : part.getBytes(StandardCharsets.UTF_8);
+                digest.update((bytes.length + ":").getBytes(StandardCharsets.UTF_8));
+                digest.update(bytes);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Look up a cached response.
+     *
+     * @param key Cache key from {@link #keyFor} or {@link #key}
+     * @return The cached response, or empty on a miss or when the cache is disabled
+     */
+    public Optional<String> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        synchronized (this) {
+            ensureLoaded();
+            if (index.get(key) == null) {
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+        }
+
+        Path file = entryPath(key);
+        try {
+            String response = Files.readString(file, StandardCharsets.UTF_8);
+            touch(file);
+            hits.incrementAndGet();
+            return Optional.of(response);
+        } catch (IOException e) {
+            log.debug("Dropping unreadable cache entry {}: {}", key, e.getMessage());
+            synchronized (this) {
+                removeFromIndex(key);
+            }
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Store a response, evicting least recently used entries if the size limit is exceeded.
+     */
+    public void put(String key, String response) {
+        if (!enabled || response == null) {
+            return;
+        }
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        Path file = entryPath(key);
+        synchronized (this) {
+            // Load (and evict) existing entries first, so load-time eviction can't delete the new file
+            ensureLoaded();
+        }
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write LLM cache entry: {}", e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            removeFromIndex(key);
+            index.put(key, (long) bytes.length);
+            totalBytes += bytes.length;
+            evictIfNeeded(key);
+        }
+    }
+
+    /**
+     * Remove a single entry (e.g. a cached response that no longer parses).
+     */
+    public synchronized void invalidate(String key) {
+        ensureLoaded();
+        if (removeFromIndex(key)) {
+            deleteQuietly(entryPath(key));
+        }
+    }
+
+    /**
+     * Delete every entry in the cache.
+     *
+     * @return Number of entries removed
+     */
+    public synchronized int clear() {
+        ensureLoaded();
+        int removed = index.size();
+        for (String key : index.keySet()) {
+            deleteQuietly(entryPath(key));
+        }
+        index.clear();
+        totalBytes = 0;
+        log.info("Cleared {} LLM cache entries from {}", removed, directory);
+        return removed;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public synchronized int getEntryCount() {
+        ensureLoaded();
+        return index.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        ensureLoaded();
+        return totalBytes;
+    }
+
+    private Path entryPath(String key) {
+        return directory.resolve(key + ENTRY_EXTENSION);
+    }
+
+    /**
+     * Build the in-memory index from the cache directory, oldest entries first.
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        record Entry(String key, long size, FileTime modified) {}
+        List<Entry> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(p -> p.getFileName().toString().endsWith(ENTRY_EXTENSION)).forEach(p -> {
+                try {
+                    String name = p.getFileName().toString();
+                    entries.add(new Entry(name.substring(0, name.length() - ENTRY_EXTENSION.length()),
+                            Files.size(p), Files.getLastModifiedTime(p)));
+                } catch (IOException e) {
+                    log.debug("Skipping cache entry {}: {}", p, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Failed to read LLM cache directory {}: {}", directory, e.getMessage());
+            return;
+        }
+
+        entries.sort(Comparator.comparing(Entry::modified));
+        for (Entry entry : entries) {
+            index.put(entry.key(), entry.size());
+            totalBytes += entry.size();
+        }
+        log.debug("Loaded {} LLM cache entries ({} bytes) from {}", index.size(), totalBytes, directory);
+        evictIfNeeded(null);
+    }
+
+    private void evictIfNeeded(String keep) {
+        Iterator<Map.Entry<String, Long>> it = index.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            it.remove();
+            totalBytes -= eldest.getValue();
+            deleteQuietly(entryPath(eldest.getKey()));
+            evictions.incrementAndGet();
+        }
+    }
+
+    private boolean removeFromIndex(String key) {
+        Long size = index.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+            return true;
+        }
+        return false;
+    }
+
+    private void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Could not update cache entry time {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Could not delete cache entry {}: {}", file, e.getMessage());
+        }
+    }
+}
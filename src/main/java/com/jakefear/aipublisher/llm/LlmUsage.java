@@ -0,0 +1,152 @@
+package com.jakefear.aipublisher.llm;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.ollama.OllamaChatRequestParameters;
+import dev.langchain4j.model.output.FinishReason;
+import dev.langchain4j.model.output.TokenUsage;
+
+import java.time.Duration;
+
+/**
+ * Token usage and response metadata of one model call.
+ */
+public record LlmUsage(
+        /**
+         * Model that answered, as reported by the provider.
+         */
+        String modelName,
+
+        /**
+         * Prompt tokens, as reported by the provider (0 if not reported).
+         */
+        int inputTokens,
+
+        /**
+         * Completion tokens, as reported by the provider (0 if not reported).
+         * Includes thinking tokens for providers that count them as output.
+         */
+        int outputTokens,
+
+        /**
+         * Estimated tokens spent on thinking. Neither Anthropic nor Ollama
+         * reports these separately, so they are estimated from the length of
+         * the thinking text.
+         */
+        int thinkingTokens,
+
+        /**
+         * Why generation stopped (e.g. STOP, LENGTH), or null if not reported.
+         */
+        String finishReason,
+
+        /**
+         * Context window of the model in tokens (Ollama num-ctx), or null if unknown.
+         */
+        Integer contextWindow,
+
+        /**
+         * Time from sending the request to the complete response.
+         */
+        Duration duration
+) {
+    /** Share of the context window above which a call counts as hitting the limit. */
+    public static final double CONTEXT_LIMIT_RATIO = 0.95;
+
+    /** Rough characters per token for English text, used for estimates. */
+    private static final int CHARS_PER_TOKEN = 4;
+
+    public LlmUsage {
+        modelName = modelName == null || modelName.isBlank() ? "unknown" : modelName;
+        duration = duration == null ? Duration.ZERO : duration;
+    }
+
+    /**
+     * Read the usage from a chat response.
+     *
+     * @param response The provider response; may be null
+     * @param fallbackModelName Model name to use if the response doesn't carry one
+     * @param extraThinkingChars Length of thinking text removed from the response body
+     *                           (e.g. {@code <think>} blocks), on top of any separate thinking text
+     * @param contextWindow Context window in tokens, or null if unknown
+     * @param duration Time taken by the call
+     * @return The usage, or null if there is no response or it reports no token usage
+     */
+    public static LlmUsage from(ChatResponse response, String fallbackModelName, int extraThinkingChars,
+                                Integer contextWindow, Duration duration) {
+        if (response == null || response.tokenUsage() == null) {
+            return null;
+        }
+        TokenUsage tokens = response.tokenUsage();
+        AiMessage message = response.aiMessage();
+        int thinkingChars = extraThinkingChars;
+        if (message != null && message.thinking() != null) {
+            thinkingChars += message.thinking().length();
+        }
+        FinishReason finishReason = response.finishReason();
+        String modelName = response.modelName();
+        return new LlmUsage(
+                modelName != null ? modelName : fallbackModelName,
+                count(tokens.inputTokenCount()),
+                count(tokens.outputTokenCount()),
+                estimateTokens(thinkingChars),
+                finishReason == null ? null : finishReason.name(),
+                contextWindow,
+                duration);
+    }
+
+    /**
+     * Get the context window configured on a model, if it says. Only Ollama
+     * models expose one (num-ctx); other providers return null.
+     */
+    public static Integer contextWindowOf(ChatRequestParameters parameters) {
+        if (parameters instanceof OllamaChatRequestParameters ollama) {
+            return ollama.numCtx();
+        }
+        return null;
+    }
+
+    /**
+     * Estimate the tokens in a piece of text from its length.
+     */
+    public static int estimateTokens(int chars) {
+        return (chars + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    public long totalTokens() {
+        return (long) inputTokens + outputTokens;
+    }
+
+    /**
+     * Check whether the response was cut off by the output token limit.
+     */
+    public boolean isTruncated() {
+        return FinishReason.LENGTH.name().equals(finishReason);
+    }
+
+    /**
+     * Check whether prompt and response filled the context window. Ollama
+     * silently drops the start of a prompt that doesn't fit, so a call at the
+     * limit has probably lost part of its prompt.
+     */
+    public boolean isAtContextLimit() {
+        return contextWindow != null && contextWindow > 0
+                && totalTokens() >= contextWindow * CONTEXT_LIMIT_RATIO;
+    }
+
+    /**
+     * Output tokens per second over the whole call.
+     */
+    public double outputTokensPerSecond() {
+        long millis = duration.toMillis();
+        if (millis <= 0) {
+            return 0.0;
+        }
+        return outputTokens * 1000.0 / millis;
+    }
+
+    private static int count(Integer value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,73 @@
+package com.jakefear.aipublisher.llm;
+
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+import java.util.Set;
+
+/**
+ * A {@link ChatModel} that obtains a slot from an {@link LlmRequestScheduler}
+ * before every call to the underlying model.
+ *
+ * Only {@link #chat(ChatRequest)} is overridden; the convenience overloads
+ * such as {@code chat(String)} route through it. Listeners stay on the
+ * delegate so they fire once per request.
+ */
+public class ScheduledChatModel implements ChatModel {
+
+    private final ChatModel delegate;
+    private final LlmRequestScheduler scheduler;
+    private final String provider;
+    private final String name;
+    private final int priority;
+
+    public ScheduledChatModel(ChatModel delegate, LlmRequestScheduler scheduler,
+                              String provider, String name, int priority) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+        this.provider = provider;
+        this.name = name;
+        this.priority = priority;
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        return scheduler.execute(provider, priority, () -> delegate.chat(chatRequest));
+    }
+
+    @Override
+    public ChatRequestParameters defaultRequestParameters() {
+        return delegate.defaultRequestParameters();
+    }
+
+    @Override
+    public ModelProvider provider() {
+        return delegate.provider();
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return delegate.supportedCapabilities();
+    }
+
+    public ChatModel getDelegate() {
+        return delegate;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduledChatModel[" + name + " on " + provider + ", priority " + priority + "]";
+    }
+}
@@ -0,0 +1,32 @@
+package com.jakefear.aipublisher.llm;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a streamed response stops producing tokens for longer than the
+ * configured stall timeout. The message mentions a timeout so agents treat the
+ * failure as retryable.
+ */
+public class StreamStalledException extends RuntimeException {
+
+    private final Duration idleTime;
+    private final boolean receivedTokens;
+
+    public StreamStalledException(Duration idleTime, boolean receivedTokens) {
+        super(String.format("Stream timeout: no tokens for %d s %s",
+                idleTime.toSeconds(), receivedTokens ? "mid-response" : "before the first token"));
+        this.idleTime = idleTime;
+        this.receivedTokens = receivedTokens;
+    }
+
+    public Duration getIdleTime() {
+        return idleTime;
+    }
+
+    /**
+     * Check whether the stream stalled after producing some output.
+     */
+    public boolean hasReceivedTokens() {
+        return receivedTokens;
+    }
+}
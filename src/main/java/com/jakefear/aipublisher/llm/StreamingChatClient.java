@@ -0,0 +1,255 @@
+package com.jakefear.aipublisher.llm;
+
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.PartialThinking;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import dev.langchain4j.model.output.TokenUsage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Blocking front end for a {@link StreamingChatModel} that watches the token stream.
+ *
+ * The caller still gets the complete response, but the client measures
+ * time-to-first-token and throughput, strips thinking blocks as chunks arrive,
+ * counts reasoning the provider streams separately as activity and output,
+ * and gives up as soon as the stream goes quiet for longer than the stall
+ * timeout instead of waiting for the HTTP timeout. A separate, longer timeout
+ * applies before the first token, since prompt processing on local models can
+ * take a while.
+ *
+ * When a scheduler is set, the call holds a slot in the provider's lane for the
+ * whole stream, just like a blocking call. An abandoned stream cannot be cancelled
+ * through the LangChain4j API and keeps the provider busy, so its slot is only
+ * released once the provider reports completion or an error (at the latest when
+ * its HTTP timeout fires); any chunks it produces meanwhile are ignored.
+ */
+public class StreamingChatClient {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamingChatClient.class);
+
+    public static final Duration DEFAULT_FIRST_TOKEN_TIMEOUT = Duration.ofMinutes(2);
+    public static final Duration DEFAULT_STALL_TIMEOUT = Duration.ofSeconds(30);
+
+    private final StreamingChatModel model;
+    private final LlmRequestScheduler scheduler;
+    private final String provider;
+    private final String name;
+    private final int priority;
+    private final Duration firstTokenTimeout;
+    private final Duration stallTimeout;
+    private volatile boolean enabled;
+
+    public StreamingChatClient(StreamingChatModel model, LlmRequestScheduler scheduler,
+                               String provider, String name, int priority,
+                               Duration firstTokenTimeout, Duration stallTimeout, boolean enabled) {
+        this.model = model;
+        this.scheduler = scheduler;
+        this.provider = provider;
+        this.name = name;
+        this.priority = priority;
+        this.firstTokenTimeout = firstTokenTimeout;
+        this.stallTimeout = stallTimeout;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Constructor for testing without a scheduler.
+     */
+    public StreamingChatClient(StreamingChatModel model, Duration firstTokenTimeout, Duration stallTimeout) {
+        this(model, null, null, "streaming", 0, firstTokenTimeout, stallTimeout, true);
+    }
+
+    /**
+     * Send a prompt and wait for the complete streamed response.
+     *
+     * @param prompt The full prompt
+     * @return The response with thinking removed, plus timing metrics
+     * @throws StreamStalledException if the stream goes quiet for too long
+     */
+    public StreamingResult chat(String prompt) {
+        CompletableFuture<ChatResponse> completion = new CompletableFuture<>();
+        if (scheduler == null) {
+            return stream(prompt, completion);
+        }
+        LlmRequestScheduler.Slot slot = scheduler.acquire(provider, priority);
+        // An abandoned stream keeps its slot until the provider calls back
+        completion.whenComplete((response, error) -> slot.release());
+        try {
+            return stream(prompt, completion);
+        } finally {
+            if (completion.isDone()) {
+                slot.release();
+            }
+        }
+    }
+
+    private StreamingResult stream(String prompt, CompletableFuture<ChatResponse> completion) {
+        ThinkingStreamFilter filter = new ThinkingStreamFilter();
+        AtomicBoolean abandoned = new AtomicBoolean(false);
+        AtomicInteger chunks = new AtomicInteger();
+        AtomicInteger thinkingChunks = new AtomicInteger();
+        AtomicInteger thinkingChars = new AtomicInteger();
+        long startNanos = System.nanoTime();
+        AtomicLong firstTokenNanos = new AtomicLong(-1);
+        AtomicLong lastActivityNanos = new AtomicLong(startNanos);
+
+        try {
+            model.chat(prompt, new StreamingChatResponseHandler() {
+                @Override
+                public void onPartialResponse(String partialResponse) {
+                    if (abandoned.get()) {
+                        return;
+                    }
+                    long now = System.nanoTime();
+                    firstTokenNanos.compareAndSet(-1, now);
+                    lastActivityNanos.set(now);
+                    chunks.incrementAndGet();
+                    synchronized (filter) {
+                        filter.accept(partialResponse);
+                    }
+                }
+
+                @Override
+                public void onPartialThinking(PartialThinking partialThinking) {
+                    // Reasoning streamed separately (e.g. Ollama think mode) shows the model is working,
+                    // but is not part of the response text
+                    if (abandoned.get()) {
+                        return;
+                    }
+                    long now = System.nanoTime();
+                    firstTokenNanos.compareAndSet(-1, now);
+                    lastActivityNanos.set(now);
+                    thinkingChunks.incrementAndGet();
+                    if (partialThinking.text() != null) {
+                        thinkingChars.addAndGet(partialThinking.text().length());
+                    }
+                }
+
+                @Override
+                public void onCompleteResponse(ChatResponse completeResponse) {
+                    completion.complete(completeResponse);
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    completion.completeExceptionally(error);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Failed before streaming started; no callback will follow
+            completion.completeExceptionally(e);
+            throw e;
+        }
+
+        ChatResponse response = awaitCompletion(completion, abandoned, firstTokenNanos, lastActivityNanos);
+        long endNanos = System.nanoTime();
+
+        String text;
+        synchronized (filter) {
+            if (chunks.get() == 0 && response.aiMessage() != null && response.aiMessage().text() != null) {
+                // Some providers deliver everything in the final response
+                filter.accept(response.aiMessage().text());
+            }
+            text = filter.finish();
+        }
+
+        long firstToken = firstTokenNanos.get() < 0 ? endNanos : firstTokenNanos.get();
+        StreamingResult result = new StreamingResult(
+                text,
+                filter.getThinkingBlocks(),
+                Duration.ofNanos(firstToken - startNanos),
+                Duration.ofNanos(endNanos - startNanos),
+                outputTokens(response, chunks.get() + thinkingChunks.get()),
+                response,
+                thinkingChars.get());
+        log.debug("{}: first token after {} ms, {} tokens in {} ms ({} tokens/s)",
+                name, result.timeToFirstToken().toMillis(), result.outputTokens(),
+                result.totalTime().toMillis(), String.format("%.1f", result.tokensPerSecond()));
+        return result;
+    }
+
+    private ChatResponse awaitCompletion(CompletableFuture<ChatResponse> completion, AtomicBoolean abandoned,
+                                         AtomicLong firstTokenNanos, AtomicLong lastActivityNanos) {
+        while (true) {
+            boolean receivedTokens = firstTokenNanos.get() >= 0;
+            long limitNanos = (receivedTokens ? stallTimeout : firstTokenTimeout).toNanos();
+            long idleNanos = System.nanoTime() - lastActivityNanos.get();
+            long remainingNanos = limitNanos - idleNanos;
+            if (remainingNanos <= 0) {
+                abandoned.set(true);
+                log.warn("{}: abandoning stalled stream after {} ms without tokens", name, idleNanos / 1_000_000);
+                throw new StreamStalledException(Duration.ofNanos(idleNanos), receivedTokens);
+            }
+            try {
+                return completion.get(remainingNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Tokens may have arrived meanwhile; re-check the idle time
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException("Streaming call failed: " + cause.getMessage(), cause);
+            } catch (InterruptedException e) {
+                abandoned.set(true);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while streaming", e);
+            }
+        }
+    }
+
+    private static int outputTokens(ChatResponse response, int chunks) {
+        TokenUsage usage = response.tokenUsage();
+        if (usage != null && usage.outputTokenCount() != null && usage.outputTokenCount() > 0) {
+            return usage.outputTokenCount();
+        }
+        return chunks;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the name of the model, or null if it doesn't say.
+     */
+    public String getModelName() {
+        ChatRequestParameters parameters = model.defaultRequestParameters();
+        return parameters != null ? parameters.modelName() : null;
+    }
+
+    /**
+     * Get the context window configured on the model, or null if it doesn't say.
+     */
+    public Integer getContextWindow() {
+        return LlmUsage.contextWindowOf(model.defaultRequestParameters());
+    }
+
+    public Duration getFirstTokenTimeout() {
+        return firstTokenTimeout;
+    }
+
+    public Duration getStallTimeout() {
+        return stallTimeout;
+    }
+}
@@ -0,0 +1,80 @@
+package com.jakefear.aipublisher.llm;
+
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The outcome of a streamed model call.
+ */
+public record StreamingResult(
+        /**
+         * Response text with thinking blocks removed.
+         */
+        String text,
+
+        /**
+         * Thinking blocks removed from the response.
+         */
+        List<String> thinkingBlocks,
+
+        /**
+         * Time from sending the request to the first streamed chunk, response or reasoning.
+         */
+        Duration timeToFirstToken,
+
+        /**
+         * Time from sending the request to the end of the stream.
+         */
+        Duration totalTime,
+
+        /**
+         * Output tokens reported by the provider, or the number of streamed chunks
+         * (response and reasoning) when the provider does not report usage.
+         */
+        int outputTokens,
+
+        /**
+         * The provider's final response with token usage and finish reason, or
+         * null if not available.
+         */
+        ChatResponse response,
+
+        /**
+         * Characters of reasoning the provider streamed separately from the
+         * response text (e.g. Ollama think mode).
+         */
+        int thinkingChars
+) {
+    public StreamingResult {
+        thinkingBlocks = thinkingBlocks == null ? List.of() : List.copyOf(thinkingBlocks);
+    }
+
+    /**
+     * Create a result without separately streamed reasoning.
+     */
+    public StreamingResult(String text, List<String> thinkingBlocks, Duration timeToFirstToken,
+                           Duration totalTime, int outputTokens, ChatResponse response) {
+        this(text, thinkingBlocks, timeToFirstToken, totalTime, outputTokens, response, 0);
+    }
+
+    /**
+     * Create a result without the provider response.
+     */
+    public StreamingResult(String text, List<String> thinkingBlocks, Duration timeToFirstToken,
+                           Duration totalTime, int outputTokens) {
+        this(text, thinkingBlocks, timeToFirstToken, totalTime, outputTokens, null, 0);
+    }
+
+    /**
+     * Output tokens per second, measured from the first token to the end of the stream.
+     */
+    public double tokensPerSecond() {
+        long generationMs = totalTime.minus(timeToFirstToken).toMillis();
+        if (generationMs <= 0) {
+            return 0.0;
+        }
+        return outputTokens * 1000.0 / generationMs;
+    }
+}
@@ -0,0 +1,142 @@
+package com.jakefear.aipublisher.llm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Removes {@code <think>...</think>} blocks from a response as it streams in.
+ *
+ * Chunks may split a tag anywhere, so the filter holds back any trailing text
+ * that could be the start of a tag until the next chunk arrives. The result is
+ * the same as stripping the complete response in one go: complete blocks are
+ * removed and collected, orphaned tags are dropped (including opening tags
+ * nested in an unterminated block), and the content of an unterminated block
+ * is kept. The one difference is that text which only forms a tag once a block
+ * between its halves has been removed (e.g. {@code <th<think>x</think>ink>})
+ * is kept as is, because it was emitted before the block was seen.
+ *
+ * Not thread-safe; callers feeding chunks from several threads must synchronize.
+ */
+public class ThinkingStreamFilter {
+
+    private static final String OPEN_TAG = "<think>";
+    private static final String CLOSE_TAG = "</think>";
+
+    private final StringBuilder content = new StringBuilder();
+    private final StringBuilder currentThinking = new StringBuilder();
+    private final List<String> thinkingBlocks = new ArrayList<>();
+    private String pending = "";
+    private boolean inThinking;
+    private boolean finished;
+
+    /**
+     * Feed the next chunk of the response.
+     */
+    public void accept(String chunk) {
+        if (finished) {
+            throw new IllegalStateException("Filter already finished");
+        }
+        if (chunk == null || chunk.isEmpty()) {
+            return;
+        }
+        String text = pending + chunk;
+        pending = "";
+
+        while (!text.isEmpty()) {
+            if (inThinking) {
+                int close = text.indexOf(CLOSE_TAG);
+                if (close >= 0) {
+                    currentThinking.append(text, 0, close);
+                    endBlock();
+                    text = text.substring(close + CLOSE_TAG.length());
+                } else {
+                    int keep = partialTagLength(text);
+                    currentThinking.append(text, 0, text.length() - keep);
+                    pending = text.substring(text.length() - keep);
+                    return;
+                }
+            } else {
+                int open = text.indexOf(OPEN_TAG);
+                int orphanClose = text.indexOf(CLOSE_TAG);
+                if (orphanClose >= 0 && (open < 0 || orphanClose < open)) {
+                    // A closing tag without an opening tag is dropped
+                    content.append(text, 0, orphanClose);
+                    text = text.substring(orphanClose + CLOSE_TAG.length());
+                } else if (open >= 0) {
+                    content.append(text, 0, open);
+                    inThinking = true;
+                    text = text.substring(open + OPEN_TAG.length());
+                } else {
+                    int keep = partialTagLength(text);
+                    content.append(text, 0, text.length() - keep);
+                    pending = text.substring(text.length() - keep);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Signal the end of the stream and return the response with thinking removed.
+     */
+    public String finish() {
+        if (!finished) {
+            finished = true;
+            if (inThinking) {
+                // Unterminated block: its opening tags are dropped but its content is kept
+                content.append(currentThinking.append(pending).toString().replace(OPEN_TAG, ""));
+                currentThinking.setLength(0);
+                inThinking = false;
+            } else {
+                content.append(pending);
+            }
+            pending = "";
+        }
+        return content.toString();
+    }
+
+    /**
+     * Get the content of the complete thinking blocks seen so far, trimmed,
+     * with empty blocks omitted.
+     */
+    public List<String> getThinkingBlocks() {
+        return List.copyOf(thinkingBlocks);
+    }
+
+    /**
+     * Check whether the stream is currently inside a thinking block.
+     */
+    public boolean isInThinking() {
+        return inThinking;
+    }
+
+    /**
+     * Get the number of content characters emitted so far (excluding held-back text).
+     */
+    public int getContentLength() {
+        return content.length();
+    }
+
+    private void endBlock() {
+        String block = currentThinking.toString().trim();
+        if (!block.isEmpty()) {
+            thinkingBlocks.add(block);
+        }
+        currentThinking.setLength(0);
+        inThinking = false;
+    }
+
+    /**
+     * Length of the longest suffix of the text that is a proper prefix of either tag.
+     */
+    private static int partialTagLength(String text) {
+        int max = Math.min(text.length(), CLOSE_TAG.length() - 1);
+        for (int length = max; length > 0; length--) {
+            String suffix = text.substring(text.length() - length);
+            if (OPEN_TAG.startsWith(suffix) || CLOSE_TAG.startsWith(suffix)) {
+                return length;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,354 @@
+package com.jakefear.aipublisher.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Delivers pipeline events to listeners on a dedicated thread, so a slow
+ * listener never adds to article latency.
+ *
+ * Events are published into a bounded ring buffer and drained by a single
+ * consumer thread in batches of up to {@code batchSize}; each listener gets
+ * every batch through {@link PipelineEventListener#onEvents}. When the buffer
+ * is full, the {@link OverflowPolicy} decides whether the pipeline waits or the
+ * event is dropped. Each listener's lag (events published but not yet
+ * delivered to it), dropped events and failures are tracked and exposed
+ * through {@link #getListenerStats()}.
+ *
+ * Closing the dispatcher delivers everything still buffered; events published
+ * after that are delivered synchronously on the caller's thread.
+ */
+@Component
+@ConditionalOnProperty(name = "monitoring.events.async", havingValue = "true", matchIfMissing = true)
+public class AsyncEventDispatcher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncEventDispatcher.class);
+
+    /**
+     * What to do with an event published while the buffer is full.
+     */
+    public enum OverflowPolicy {
+        /** Drop the new event; the pipeline never waits. */
+        DROP,
+        /** Wait for the consumer to make room; no event is lost. */
+        BLOCK,
+        /**
+         * Once the buffer is half full, keep only one in every sample-rate events
+         * so listeners see a thinned but continuous stream; drop when full.
+         */
+        SAMPLE
+    }
+
+    /**
+     * Delivery counters for one listener.
+     *
+     * @param listener Listener class name
+     * @param delivered Events delivered to the listener
+     * @param lag Events published but not yet delivered to the listener
+     * @param dropped Events the listener never received because of overflow
+     * @param failures Batches in which the listener threw
+     */
+    public record ListenerStats(String listener, long delivered, long lag, long dropped, long failures) {
+    }
+
+    private final PipelineEvent[] ring;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final int sampleRate;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition progressed = lock.newCondition();
+
+    // Sequence numbers: head is the next event to consume, tail the next to publish
+    private long head;
+    private volatile long tail;
+    // Every event below this sequence has been handed to all listeners
+    private long deliveredUpTo;
+    private long sampleCounter;
+    private volatile boolean running = true;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread consumer;
+
+    public AsyncEventDispatcher(
+            @Value("${monitoring.events.buffer-size:1024}") int bufferSize,
+            @Value("${monitoring.events.overflow:DROP}") OverflowPolicy overflowPolicy,
+            @Value("${monitoring.events.batch-size:64}") int batchSize,
+            @Value("${monitoring.events.sample-rate:10}") int sampleRate) {
+        if (bufferSize < 1 || batchSize < 1 || sampleRate < 1) {
+            throw new IllegalArgumentException("Buffer size, batch size and sample rate must be positive");
+        }
+        this.ring = new PipelineEvent[bufferSize];
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = batchSize;
+        this.sampleRate = sampleRate;
+        this.consumer = new Thread(this::consume, "pipeline-events");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    /**
+     * Register a listener. It receives events published from now on, plus any
+     * still buffered.
+     */
+    public void addListener(PipelineEventListener listener) {
+        lock.lock();
+        try {
+            subscriptions.add(new Subscription(listener, head));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Unregister a listener.
+     */
+    public void removeListener(PipelineEventListener listener) {
+        subscriptions.removeIf(subscription -> subscription.listener.equals(listener));
+    }
+
+    public int getListenerCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Queue an event for delivery, applying the overflow policy if the buffer is full.
+     */
+    public void publish(PipelineEvent event) {
+        lock.lock();
+        try {
+            if (running && !admit()) {
+                recordDrop();
+                return;
+            }
+            if (running) {
+                ring[index(tail)] = event;
+                tail++;
+                notEmpty.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Closed: nobody is consuming any more, so deliver on the caller's thread
+        List<PipelineEvent> batch = List.of(event);
+        subscriptions.forEach(subscription -> subscription.deliver(batch, Long.MAX_VALUE));
+    }
+
+    /**
+     * Decide whether there is room for one more event; called with the lock held.
+     */
+    private boolean admit() {
+        int capacity = ring.length;
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            while (running && tail - head == capacity) {
+                try {
+                    notFull.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (tail - head == capacity) {
+            return false;
+        }
+        if (overflowPolicy == OverflowPolicy.SAMPLE && tail - head >= capacity / 2) {
+            return sampleCounter++ % sampleRate == 0;
+        }
+        return true;
+    }
+
+    private void recordDrop() {
+        dropped.incrementAndGet();
+        subscriptions.forEach(subscription -> subscription.dropped.incrementAndGet());
+    }
+
+    private void consume() {
+        List<PipelineEvent> batch = new ArrayList<>(batchSize);
+        while (true) {
+            long end;
+            lock.lock();
+            try {
+                while (head == tail) {
+                    if (!running) {
+                        return;
+                    }
+                    notEmpty.awaitUninterruptibly();
+                }
+                int count = (int) Math.min(batchSize, tail - head);
+                for (int i = 0; i < count; i++) {
+                    int index = index(head + i);
+                    batch.add(ring[index]);
+                    ring[index] = null;
+                }
+                head += count;
+                end = head;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            List<PipelineEvent> events = List.copyOf(batch);
+            batch.clear();
+            for (Subscription subscription : subscriptions) {
+                subscription.deliver(events, end);
+            }
+
+            lock.lock();
+            try {
+                deliveredUpTo = end;
+                progressed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Wait until every event published so far has been delivered.
+     *
+     * @return true if delivered, false if the timeout elapsed first
+     */
+    public boolean flush(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        lock.lock();
+        try {
+            long target = tail;
+            while (deliveredUpTo < target && running) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                progressed.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deliver everything still buffered and stop the consumer thread.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            running = false;
+            notEmpty.signalAll();
+            notFull.signalAll();
+            progressed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (consumer.isAlive()) {
+            log.warn("Pipeline event listeners did not finish within 10s; {} events undelivered", tail - head);
+        }
+    }
+
+    /**
+     * Get the delivery counters of every registered listener.
+     */
+    public List<ListenerStats> getListenerStats() {
+        return subscriptions.stream().map(Subscription::stats).toList();
+    }
+
+    /**
+     * Get the number of events published but not yet taken by the consumer thread.
+     */
+    public int getBufferedCount() {
+        lock.lock();
+        try {
+            return (int) (tail - head);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the total number of events dropped because the buffer was full.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % ring.length);
+    }
+
+    private final class Subscription {
+
+        final PipelineEventListener listener;
+        final AtomicLong delivered = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        // Sequence of the next event this listener has yet to receive
+        volatile long nextSequence;
+
+        Subscription(PipelineEventListener listener, long nextSequence) {
+            this.listener = listener;
+            this.nextSequence = nextSequence;
+        }
+
+        void deliver(List<PipelineEvent> events, long end) {
+            // Skip a batch taken before this listener subscribed
+            if (end != Long.MAX_VALUE && nextSequence >= end) {
+                return;
+            }
+            try {
+                listener.onEvents(events);
+                delivered.addAndGet(events.size());
+            } catch (Exception e) {
+                // Don't let listener errors stop delivery to the others
+                failures.incrementAndGet();
+                log.debug("Pipeline event listener {} failed: {}", name(), e.getMessage());
+            }
+            if (end != Long.MAX_VALUE) {
+                nextSequence = end;
+            }
+        }
+
+        ListenerStats stats() {
+            long lag = Math.max(0, tail - nextSequence);
+            return new ListenerStats(name(), delivered.get(), lag, dropped.get(), failures.get());
+        }
+
+        String name() {
+            String name = listener.getClass().getSimpleName();
+            return name.isEmpty() ? listener.getClass().getName() : name;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.jakefear.aipublisher.monitoring;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free, fixed-size latency histogram in milliseconds.
+ *
+ * Buckets are log-linear in the style of HdrHistogram: values below 64 ms get
+ * a bucket each, and every power of two above that is split into 64 equal
+ * buckets, so a reported percentile is within 1/64 (about 1.6%) of the true
+ * value. Values from 0 ms to about 50 days fit in 1,728 buckets; longer
+ * ones are clamped. Recording is a few atomic increments.
+ *
+ * Besides all-time counts, the histogram keeps a sliding window made of a
+ * ring of time slices. A slice is cleared by the first recording that
+ * reaches it after its time has passed; a value recorded concurrently with
+ * that clear may be dropped from the window (never from the all-time counts).
+ */
+public final class LatencyHistogram {
+
+    /** Default length of the sliding window. */
+    public static final Duration DEFAULT_WINDOW = Duration.ofMinutes(15);
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 31;
+    private static final long MAX_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private static final int WINDOW_SLICES = 5;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalMillis = new AtomicLong();
+    private final AtomicLong maxMillis = new AtomicLong();
+
+    private final long sliceMillis;
+    private final LongSupplier clock;
+    private final Slice[] slices = new Slice[WINDOW_SLICES];
+
+    /**
+     * One time slice of the sliding window.
+     */
+    private static final class Slice {
+        final AtomicLong epoch = new AtomicLong(-1);
+        final AtomicIntegerArray counts = new AtomicIntegerArray(BUCKET_COUNT);
+        final AtomicLong max = new AtomicLong();
+    }
+
+    /**
+     * Summary of recorded latencies.
+     *
+     * @param count Number of values
+     * @param meanMs Mean; exact for all-time snapshots, from bucket midpoints for the window
+     * @param p50Ms Median
+     * @param p90Ms 90th percentile
+     * @param p99Ms 99th percentile
+     * @param maxMs Largest value, exact
+     */
+    public record Snapshot(long count, double meanMs, long p50Ms, long p90Ms, long p99Ms, long maxMs) {
+        public static final Snapshot EMPTY = new Snapshot(0, 0, 0, 0, 0, 0);
+    }
+
+    public LatencyHistogram() {
+        this(DEFAULT_WINDOW, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor for testing with a controllable clock.
+     *
+     * @param window Length of the sliding window
+     * @param clock Current time in milliseconds
+     */
+    public LatencyHistogram(Duration window, LongSupplier clock) {
+        this.sliceMillis = Math.max(1, window.toMillis() / WINDOW_SLICES);
+        this.clock = clock;
+        for (int i = 0; i < WINDOW_SLICES; i++) {
+            slices[i] = new Slice();
+        }
+    }
+
+    /**
+     * Record one latency.
+     */
+    public void record(Duration latency) {
+        recordMillis(latency.toMillis());
+    }
+
+    /**
+     * Record one latency in milliseconds. Negative values count as zero.
+     */
+    public void recordMillis(long millis) {
+        long value = Math.min(Math.max(millis, 0), MAX_VALUE);
+        int bucket = bucketOf(value);
+
+        counts.incrementAndGet(bucket);
+        totalCount.incrementAndGet();
+        totalMillis.addAndGet(value);
+        maxMillis.accumulateAndGet(value, Math::max);
+
+        Slice slice = currentSlice();
+        slice.counts.incrementAndGet(bucket);
+        slice.max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Summarize everything recorded since creation or the last reset.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+        }
+        long count = totalCount.get();
+        return summarize(copy, count == 0 ? 0 : (double) totalMillis.get() / count, maxMillis.get());
+    }
+
+    /**
+     * Summarize the values recorded in the sliding window. The mean is
+     * approximated from bucket midpoints.
+     */
+    public Snapshot windowSnapshot() {
+        long now = clock.getAsLong() / sliceMillis;
+        long[] copy = new long[BUCKET_COUNT];
+        long max = 0;
+        for (Slice slice : slices) {
+            if (now - slice.epoch.get() >= WINDOW_SLICES) {
+                continue;
+            }
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                copy[i] += slice.counts.get(i);
+            }
+            max = Math.max(max, slice.max.get());
+        }
+        long count = 0;
+        double sum = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += copy[i];
+            sum += copy[i] * ((lowestValueOf(i) + highestValueOf(i)) / 2.0);
+        }
+        return summarize(copy, count == 0 ? 0 : sum / count, max);
+    }
+
+    /**
+     * Get the length of the sliding window.
+     */
+    public Duration getWindow() {
+        return Duration.ofMillis(sliceMillis * WINDOW_SLICES);
+    }
+
+    /**
+     * Clear all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalMillis.set(0);
+        maxMillis.set(0);
+        for (Slice slice : slices) {
+            slice.epoch.set(-1);
+        }
+    }
+
+    private Slice currentSlice() {
+        long epoch = clock.getAsLong() / sliceMillis;
+        Slice slice = slices[(int) Math.floorMod(epoch, (long) WINDOW_SLICES)];
+        long seen = slice.epoch.get();
+        if (seen < epoch && slice.epoch.compareAndSet(seen, epoch)) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                slice.counts.set(i, 0);
+            }
+            slice.max.set(0);
+        }
+        return slice;
+    }
+
+    private static Snapshot summarize(long[] buckets, double mean, long max) {
+        long count = 0;
+        for (long c : buckets) {
+            count += c;
+        }
+        if (count == 0) {
+            return Snapshot.EMPTY;
+        }
+        return new Snapshot(count, mean,
+                valueAtPercentile(buckets, count, 50, max),
+                valueAtPercentile(buckets, count, 90, max),
+                valueAtPercentile(buckets, count, 99, max),
+                max);
+    }
+
+    /**
+     * Upper bound of the bucket holding the given percentile, capped at the maximum.
+     */
+    private static long valueAtPercentile(long[] buckets, long count, double percentile, long max) {
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + (magnitude - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long lowestValueOf(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        int magnitude = (bucket - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT + SUB_BUCKET_BITS;
+        long subBucket = (bucket - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return subBucket << (magnitude - SUB_BUCKET_BITS);
+    }
+
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        int magnitude = (bucket - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT + SUB_BUCKET_BITS;
+        return lowestValueOf(bucket) + (1L << (magnitude - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -1,10 +1,14 @@
 package com.jakefear.aipublisher.monitoring;
 
+import java.util.List;
+
 /**
  * Listener interface for pipeline events.
  *
  * Implementations can receive notifications about pipeline state changes,
- * phase transitions, and errors.
+ * phase transitions, and errors. When events are dispatched asynchronously
+ * (see {@link AsyncEventDispatcher}), listeners are called on the dispatcher
+ * thread and may receive events in batches.
  */
 @FunctionalInterface
 public interface PipelineEventListener {
@@ -15,4 +19,15 @@ public interface PipelineEventListener {
      * @param event The pipeline event
      */
     void onEvent(PipelineEvent event);
+
+    /**
+     * Called with a batch of consecutive events. Override to handle a batch at
+     * once (e.g. one write for many events); the default calls
+     * {@link #onEvent} for each event in order.
+     *
+     * @param events The events, oldest first
+     */
+    default void onEvents(List<PipelineEvent> events) {
+        events.forEach(this::onEvent);
+    }
 }
@@ -0,0 +1,267 @@
+package com.jakefear.aipublisher.monitoring;
+
+import com.jakefear.aipublisher.agent.AgentRole;
+import com.jakefear.aipublisher.document.DocumentState;
+import com.jakefear.aipublisher.llm.LlmRequestScheduler;
+import com.jakefear.aipublisher.llm.LlmUsage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Publishes pipeline, agent, LLM, search and output metrics to a Micrometer registry.
+ *
+ * Unlike {@link PipelineMetrics}, which only feeds the end-of-run report, these
+ * meters can be scraped while a long generation run is in progress. All meter
+ * names are defined here; tags are lower case so they read naturally in
+ * Prometheus queries (e.g. {@code aipublisher_phase_duration_seconds{phase="drafting"}}).
+ */
+public class PipelineMeters {
+
+    private static final String PREFIX = "aipublisher.";
+
+    private final MeterRegistry registry;
+
+    public PipelineMeters(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    // Pipeline
+
+    public void pipelineStarted() {
+        registry.counter(PREFIX + "pipeline.started").increment();
+    }
+
+    public void pipelineCompleted(Duration totalTime) {
+        Timer.builder(PREFIX + "pipeline.duration")
+                .description("Time to take a topic from brief to published article")
+                .tag("outcome", "completed")
+                .register(registry)
+                .record(totalTime);
+    }
+
+    public void pipelineFailed(DocumentState failedAt) {
+        Counter.builder(PREFIX + "pipeline.failures")
+                .tag("phase", tagOf(failedAt))
+                .register(registry)
+                .increment();
+    }
+
+    public void phaseCompleted(DocumentState phase, Duration duration) {
+        Timer.builder(PREFIX + "phase.duration")
+                .description("Time spent in one pipeline phase, including revisions within it")
+                .tag("phase", tagOf(phase))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(duration);
+    }
+
+    public void approval(boolean granted) {
+        Counter.builder(PREFIX + "approvals")
+                .tag("decision", granted ? "granted" : "rejected")
+                .register(registry)
+                .increment();
+    }
+
+    public void revisionStarted() {
+        registry.counter(PREFIX + "revisions").increment();
+    }
+
+    // Agents
+
+    /**
+     * Record one agent pass; attempt 0 is the first pass, later attempts are revisions.
+     */
+    public void agentProcessing(AgentRole role, Duration duration, int attempt) {
+        Timer.builder(PREFIX + "agent.duration")
+                .description("Time for an agent to process a document, including retries")
+                .tag("agent", tagOf(role))
+                .tag("pass", attempt == 0 ? "first" : "revision")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(duration);
+    }
+
+    // LLM calls
+
+    public void llmUsage(AgentRole role, LlmUsage usage, double costUsd) {
+        String agent = tagOf(role);
+        String model = usage.modelName() != null ? usage.modelName() : "unknown";
+        tokens(agent, model, "input", usage.inputTokens());
+        tokens(agent, model, "output", usage.outputTokens());
+        tokens(agent, model, "thinking", usage.thinkingTokens());
+        Counter.builder(PREFIX + "llm.cost")
+                .description("Estimated cost of model calls")
+                .baseUnit("usd")
+                .tag("agent", agent)
+                .tag("model", model)
+                .register(registry)
+                .increment(costUsd);
+        Timer.builder(PREFIX + "llm.call.duration")
+                .tag("agent", agent)
+                .tag("model", model)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(usage.duration());
+        DistributionSummary.builder(PREFIX + "llm.response.tokens")
+                .description("Output tokens per model call")
+                .baseUnit("tokens")
+                .tag("model", model)
+                .register(registry)
+                .record(usage.outputTokens());
+        if (usage.isTruncated()) {
+            Counter.builder(PREFIX + "llm.truncated").tag("model", model).register(registry).increment();
+        }
+        if (usage.isAtContextLimit()) {
+            Counter.builder(PREFIX + "llm.context.limit").tag("model", model).register(registry).increment();
+        }
+    }
+
+    public void streamingResponse(AgentRole role, Duration timeToFirstToken, int outputTokens,
+                                  Duration generationTime) {
+        Timer.builder(PREFIX + "llm.time.to.first.token")
+                .tag("agent", tagOf(role))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(timeToFirstToken);
+        if (!generationTime.isZero() && !generationTime.isNegative()) {
+            DistributionSummary.builder(PREFIX + "llm.stream.throughput")
+                    .description("Streamed output tokens per second after the first token")
+                    .baseUnit("tokens.per.second")
+                    .tag("agent", tagOf(role))
+                    .register(registry)
+                    .record(outputTokens * 1000.0 / Math.max(1, generationTime.toMillis()));
+        }
+    }
+
+    public void streamStall() {
+        registry.counter(PREFIX + "llm.stream.stalls").increment();
+    }
+
+    /**
+     * Expose queue depth, in-flight calls and slot wait time of each scheduler
+     * lane with a configured limit. Lanes are created on first use, so an idle
+     * lane reads as zero.
+     */
+    public void monitorRequestScheduler(LlmRequestScheduler scheduler) {
+        for (String lane : scheduler.getConfiguredProviders()) {
+            Gauge.builder(PREFIX + "llm.scheduler.queued", scheduler,
+                            s -> laneStat(s, lane, LlmRequestScheduler.LaneStats::queued))
+                    .description("Model calls waiting for a slot")
+                    .tag("lane", lane)
+                    .register(registry);
+            Gauge.builder(PREFIX + "llm.scheduler.in.flight", scheduler,
+                            s -> laneStat(s, lane, LlmRequestScheduler.LaneStats::inFlight))
+                    .description("Model calls holding a slot")
+                    .tag("lane", lane)
+                    .register(registry);
+            FunctionTimer.builder(PREFIX + "llm.scheduler.wait", scheduler,
+                            s -> (long) laneStat(s, lane, stats -> stats.completed() + stats.inFlight()),
+                            s -> laneStat(s, lane, stats -> stats.totalWait().toNanos()),
+                            TimeUnit.NANOSECONDS)
+                    .description("Time model calls spent waiting for a slot")
+                    .tag("lane", lane)
+                    .register(registry);
+        }
+    }
+
+    // Search and output
+
+    /**
+     * Record an HTTP lookup by a search service, including its retries.
+     */
+    public void httpLookup(String service, Duration duration, boolean succeeded) {
+        Timer.builder(PREFIX + "search.lookup.duration")
+                .tag("service", service)
+                .tag("outcome", succeeded ? "success" : "failure")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(duration);
+    }
+
+    /**
+     * Record a page written to the output directory.
+     *
+     * @param kind "article" or "failed"
+     */
+    public void outputWrite(String kind, Duration duration, int chars) {
+        Timer.builder(PREFIX + "output.write.duration")
+                .tag("kind", kind)
+                .register(registry)
+                .record(duration);
+        DistributionSummary.builder(PREFIX + "output.page.size")
+                .baseUnit("characters")
+                .tag("kind", kind)
+                .register(registry)
+                .record(chars);
+    }
+
+    // Event dispatch
+
+    /**
+     * Expose the dispatcher's buffer depth, dropped events and the lag of each
+     * listener registered so far.
+     */
+    public void monitorEventDispatcher(AsyncEventDispatcher dispatcher) {
+        Gauge.builder(PREFIX + "events.buffered", dispatcher, AsyncEventDispatcher::getBufferedCount)
+                .description("Events waiting for the dispatcher thread")
+                .register(registry);
+        for (AsyncEventDispatcher.ListenerStats stats : dispatcher.getListenerStats()) {
+            String listener = stats.listener();
+            Gauge.builder(PREFIX + "events.lag", dispatcher,
+                            d -> listenerStat(d, listener, AsyncEventDispatcher.ListenerStats::lag))
+                    .description("Events published but not yet delivered to the listener")
+                    .tag("listener", listener)
+                    .register(registry);
+            FunctionCounter.builder(PREFIX + "events.dropped", dispatcher,
+                            d -> listenerStat(d, listener, AsyncEventDispatcher.ListenerStats::dropped))
+                    .description("Events the listener never received because the buffer was full")
+                    .tag("listener", listener)
+                    .register(registry);
+        }
+    }
+
+    private static double listenerStat(AsyncEventDispatcher dispatcher, String listener,
+                                       ToLongFunction<AsyncEventDispatcher.ListenerStats> stat) {
+        return dispatcher.getListenerStats().stream()
+                .filter(stats -> stats.listener().equals(listener))
+                .mapToLong(stat)
+                .sum();
+    }
+
+    private static double laneStat(LlmRequestScheduler scheduler, String lane,
+                                   ToDoubleFunction<LlmRequestScheduler.LaneStats> stat) {
+        return scheduler.getAllStats().stream()
+                .filter(stats -> stats.provider().equals(lane))
+                .mapToDouble(stat)
+                .sum();
+    }
+
+    private void tokens(String agent, String model, String type, long count) {
+        Counter.builder(PREFIX + "llm.tokens")
+                .description("Tokens sent to and generated by the model")
+                .tag("agent", agent)
+                .tag("model", model)
+                .tag("type", type)
+                .register(registry)
+                .increment(count);
+    }
+
+    private static String tagOf(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
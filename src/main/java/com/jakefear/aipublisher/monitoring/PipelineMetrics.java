@@ -2,16 +2,26 @@ package com.jakefear.aipublisher.monitoring;
 
 import com.jakefear.aipublisher.agent.AgentRole;
 import com.jakefear.aipublisher.document.DocumentState;
+import com.jakefear.aipublisher.document.TokenUsageSummary;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 /**
  * Collects and tracks pipeline metrics for monitoring and analysis.
+ *
+ * Besides totals and averages, latencies are kept in {@link LatencyHistogram}s
+ * per pipeline, per agent role, per phase and per revision attempt, each with
+ * all-time and sliding-window percentiles. Token counts and cost are summed
+ * per agent role and per model.
  */
 public class PipelineMetrics {
 
@@ -31,8 +41,46 @@ public class PipelineMetrics {
     private final Map<AgentRole, AtomicLong> processingTimeByAgent = new ConcurrentHashMap<>();
     private final Map<AgentRole, AtomicInteger> invocationsByAgent = new ConcurrentHashMap<>();
 
+    // Streaming responses: time to first token and generation throughput per agent
+    private final Map<AgentRole, AtomicInteger> streamedResponsesByAgent = new ConcurrentHashMap<>();
+    private final Map<AgentRole, AtomicLong> timeToFirstTokenByAgent = new ConcurrentHashMap<>();
+    private final Map<AgentRole, AtomicLong> streamedTokensByAgent = new ConcurrentHashMap<>();
+    private final Map<AgentRole, AtomicLong> generationTimeByAgent = new ConcurrentHashMap<>();
+    private final AtomicInteger totalStreamStalls = new AtomicInteger(0);
+
+    // Token usage and cost per agent role and per model
+    private final Map<AgentRole, TokenUsageSummary> tokensByAgent = new ConcurrentHashMap<>();
+    private final Map<String, TokenUsageSummary> tokensByModel = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> callTimeByModel = new ConcurrentHashMap<>();
+    private final AtomicInteger totalTruncatedResponses = new AtomicInteger(0);
+    private final AtomicInteger totalContextLimitHits = new AtomicInteger(0);
+
+    // Latency distributions
+    private final Duration latencyWindow;
+    private final LongSupplier clock;
+    private final LatencyHistogram pipelineLatency;
+    private final Map<AgentRole, LatencyHistogram> latencyByAgent = new ConcurrentHashMap<>();
+    private final Map<DocumentState, LatencyHistogram> latencyByPhase = new ConcurrentHashMap<>();
+    private final Map<Integer, LatencyHistogram> latencyByAttempt = new ConcurrentHashMap<>();
+
     private final Instant startTime = Instant.now();
 
+    public PipelineMetrics() {
+        this(LatencyHistogram.DEFAULT_WINDOW, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor for testing with a controllable clock.
+     *
+     * @param latencyWindow Length of the sliding window for recent percentiles
+     * @param clock Current time in milliseconds
+     */
+    public PipelineMetrics(Duration latencyWindow, LongSupplier clock) {
+        this.latencyWindow = latencyWindow;
+        this.clock = clock;
+        this.pipelineLatency = newHistogram();
+    }
+
     /**
      * Record a pipeline start.
      */
@@ -46,6 +94,7 @@ public class PipelineMetrics {
     public void recordPipelineCompleted(Duration processingTime) {
         totalPipelinesCompleted.incrementAndGet();
         updateProcessingTime(processingTime.toMillis());
+        pipelineLatency.record(processingTime);
     }
 
     /**
@@ -85,13 +134,84 @@ public class PipelineMetrics {
     }
 
     /**
-     * Record agent processing time.
+     * Record agent processing time on a first attempt.
      */
     public void recordAgentProcessing(AgentRole role, Duration processingTime) {
+        recordAgentProcessing(role, processingTime, 0);
+    }
+
+    /**
+     * Record agent processing time.
+     *
+     * @param attempt 0 for the first pass, n for the n-th revision
+     */
+    public void recordAgentProcessing(AgentRole role, Duration processingTime, int attempt) {
         processingTimeByAgent.computeIfAbsent(role, k -> new AtomicLong(0))
                 .addAndGet(processingTime.toMillis());
         invocationsByAgent.computeIfAbsent(role, k -> new AtomicInteger(0))
                 .incrementAndGet();
+        latencyByAgent.computeIfAbsent(role, k -> newHistogram()).record(processingTime);
+        latencyByAttempt.computeIfAbsent(Math.max(0, attempt), k -> newHistogram()).record(processingTime);
+    }
+
+    /**
+     * Record the wall-clock time of a pipeline phase, including any revisions within it.
+     */
+    public void recordPhase(DocumentState phase, Duration duration) {
+        latencyByPhase.computeIfAbsent(phase, k -> newHistogram()).record(duration);
+    }
+
+    /**
+     * Record a streamed model response.
+     *
+     * @param role The agent that made the call
+     * @param timeToFirstToken Time until the first chunk arrived
+     * @param outputTokens Tokens generated
+     * @param generationTime Time from the first token to the end of the stream
+     */
+    public void recordStreamingResponse(AgentRole role, Duration timeToFirstToken, int outputTokens,
+                                        Duration generationTime) {
+        streamedResponsesByAgent.computeIfAbsent(role, k -> new AtomicInteger(0)).incrementAndGet();
+        timeToFirstTokenByAgent.computeIfAbsent(role, k -> new AtomicLong(0))
+                .addAndGet(timeToFirstToken.toMillis());
+        streamedTokensByAgent.computeIfAbsent(role, k -> new AtomicLong(0)).addAndGet(outputTokens);
+        generationTimeByAgent.computeIfAbsent(role, k -> new AtomicLong(0))
+                .addAndGet(generationTime.toMillis());
+    }
+
+    /**
+     * Record a stream abandoned because it stopped producing tokens.
+     */
+    public void recordStreamStall() {
+        totalStreamStalls.incrementAndGet();
+    }
+
+    /**
+     * Record the tokens and cost of model calls.
+     *
+     * @param role The agent that made the calls
+     * @param model The model that answered
+     * @param usage Tokens and cost
+     * @param callTime Time from request to complete response
+     */
+    public void recordTokenUsage(AgentRole role, String model, TokenUsageSummary usage, Duration callTime) {
+        tokensByAgent.merge(role, usage, TokenUsageSummary::plus);
+        tokensByModel.merge(model, usage, TokenUsageSummary::plus);
+        callTimeByModel.computeIfAbsent(model, k -> new AtomicLong(0)).addAndGet(callTime.toMillis());
+    }
+
+    /**
+     * Record a response cut off by the output token limit.
+     */
+    public void recordTruncatedResponse() {
+        totalTruncatedResponses.incrementAndGet();
+    }
+
+    /**
+     * Record a call that filled the model's context window.
+     */
+    public void recordContextLimitHit() {
+        totalContextLimitHits.incrementAndGet();
     }
 
     private void updateProcessingTime(long millis) {
@@ -183,10 +303,148 @@ public class PipelineMetrics {
         return (double) getAgentTotalProcessingTimeMs(role) / count;
     }
 
+    public int getStreamedResponseCount(AgentRole role) {
+        AtomicInteger count = streamedResponsesByAgent.get(role);
+        return count != null ? count.get() : 0;
+    }
+
+    public double getAgentAverageTimeToFirstTokenMs(AgentRole role) {
+        int count = getStreamedResponseCount(role);
+        if (count == 0) {
+            return 0.0;
+        }
+        return (double) timeToFirstTokenByAgent.get(role).get() / count;
+    }
+
+    public double getAgentTokensPerSecond(AgentRole role) {
+        AtomicLong generationMs = generationTimeByAgent.get(role);
+        if (generationMs == null || generationMs.get() == 0) {
+            return 0.0;
+        }
+        return streamedTokensByAgent.get(role).get() * 1000.0 / generationMs.get();
+    }
+
+    public int getTotalStreamStalls() {
+        return totalStreamStalls.get();
+    }
+
+    public TokenUsageSummary getAgentTokenUsage(AgentRole role) {
+        return tokensByAgent.getOrDefault(role, TokenUsageSummary.EMPTY);
+    }
+
+    public TokenUsageSummary getModelTokenUsage(String model) {
+        return tokensByModel.getOrDefault(model, TokenUsageSummary.EMPTY);
+    }
+
+    /**
+     * Get the usage of every model that has been called, by model name.
+     */
+    public Map<String, TokenUsageSummary> getTokenUsageByModel() {
+        return new TreeMap<>(tokensByModel);
+    }
+
+    public TokenUsageSummary getTotalTokenUsage() {
+        return tokensByAgent.values().stream().reduce(TokenUsageSummary.EMPTY, TokenUsageSummary::plus);
+    }
+
+    /**
+     * Output tokens per second for a model, over whole calls (prompt processing included).
+     */
+    public double getModelTokensPerSecond(String model) {
+        AtomicLong callMs = callTimeByModel.get(model);
+        if (callMs == null || callMs.get() == 0) {
+            return 0.0;
+        }
+        return getModelTokenUsage(model).outputTokens() * 1000.0 / callMs.get();
+    }
+
+    public int getTotalTruncatedResponses() {
+        return totalTruncatedResponses.get();
+    }
+
+    public int getTotalContextLimitHits() {
+        return totalContextLimitHits.get();
+    }
+
     public Duration getUptime() {
         return Duration.between(startTime, Instant.now());
     }
 
+    public LatencyHistogram.Snapshot getPipelineLatency() {
+        return pipelineLatency.snapshot();
+    }
+
+    public LatencyHistogram.Snapshot getRecentPipelineLatency() {
+        return pipelineLatency.windowSnapshot();
+    }
+
+    public LatencyHistogram.Snapshot getAgentLatency(AgentRole role) {
+        LatencyHistogram histogram = latencyByAgent.get(role);
+        return histogram != null ? histogram.snapshot() : LatencyHistogram.Snapshot.EMPTY;
+    }
+
+    public LatencyHistogram.Snapshot getRecentAgentLatency(AgentRole role) {
+        LatencyHistogram histogram = latencyByAgent.get(role);
+        return histogram != null ? histogram.windowSnapshot() : LatencyHistogram.Snapshot.EMPTY;
+    }
+
+    public LatencyHistogram.Snapshot getPhaseLatency(DocumentState phase) {
+        LatencyHistogram histogram = latencyByPhase.get(phase);
+        return histogram != null ? histogram.snapshot() : LatencyHistogram.Snapshot.EMPTY;
+    }
+
+    public LatencyHistogram.Snapshot getRecentPhaseLatency(DocumentState phase) {
+        LatencyHistogram histogram = latencyByPhase.get(phase);
+        return histogram != null ? histogram.windowSnapshot() : LatencyHistogram.Snapshot.EMPTY;
+    }
+
+    /**
+     * @param attempt 0 for first passes, n for n-th revisions
+     */
+    public LatencyHistogram.Snapshot getAttemptLatency(int attempt) {
+        LatencyHistogram histogram = latencyByAttempt.get(attempt);
+        return histogram != null ? histogram.snapshot() : LatencyHistogram.Snapshot.EMPTY;
+    }
+
+    public Duration getLatencyWindow() {
+        return latencyWindow;
+    }
+
+    /**
+     * Export every latency distribution that has data, keyed
+     * {@code pipeline}, {@code agent.<role>}, {@code phase.<state>} or
+     * {@code attempt.<n>}, with a {@code .recent} twin for the sliding window.
+     */
+    public Map<String, LatencyHistogram.Snapshot> exportLatencies() {
+        Map<String, LatencyHistogram.Snapshot> export = new LinkedHashMap<>();
+        addLatency(export, "pipeline", pipelineLatency);
+        for (AgentRole role : AgentRole.values()) {
+            addLatency(export, "agent." + role.name().toLowerCase(Locale.ROOT), latencyByAgent.get(role));
+        }
+        for (DocumentState state : DocumentState.values()) {
+            addLatency(export, "phase." + state.name().toLowerCase(Locale.ROOT), latencyByPhase.get(state));
+        }
+        new TreeMap<>(latencyByAttempt).forEach((attempt, histogram) ->
+                addLatency(export, "attempt." + attempt, histogram));
+        return export;
+    }
+
+    private static void addLatency(Map<String, LatencyHistogram.Snapshot> export, String key,
+                                   LatencyHistogram histogram) {
+        if (histogram == null) {
+            return;
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        if (snapshot.count() > 0) {
+            export.put(key, snapshot);
+            export.put(key + ".recent", histogram.windowSnapshot());
+        }
+    }
+
+    private LatencyHistogram newHistogram() {
+        return new LatencyHistogram(latencyWindow, clock);
+    }
+
     /**
      * Generate a summary report of all metrics.
      */
@@ -232,11 +490,69 @@ public class PipelineMetrics {
         }
         sb.append("\n");
 
+        if (!streamedResponsesByAgent.isEmpty() || getTotalStreamStalls() > 0) {
+            sb.append("Streaming:\n");
+            for (AgentRole role : AgentRole.values()) {
+                int count = getStreamedResponseCount(role);
+                if (count > 0) {
+                    sb.append(String.format("  %s: %d responses, avg first token %.1f ms, %.1f tokens/s\n",
+                            role, count, getAgentAverageTimeToFirstTokenMs(role), getAgentTokensPerSecond(role)));
+                }
+            }
+            sb.append(String.format("  Stalled streams: %d\n", getTotalStreamStalls()));
+            sb.append("\n");
+        }
+
+        if (!tokensByAgent.isEmpty()) {
+            sb.append("Tokens and Cost:\n");
+            for (AgentRole role : AgentRole.values()) {
+                TokenUsageSummary usage = tokensByAgent.get(role);
+                if (usage != null) {
+                    sb.append(String.format("  %s: %s\n", role, usage.format()));
+                }
+            }
+            getTokenUsageByModel().forEach((model, usage) ->
+                    sb.append(String.format("  Model %s: %s, %.1f tokens/s\n",
+                            model, usage.format(), getModelTokensPerSecond(model))));
+            sb.append(String.format("  Total: %s\n", getTotalTokenUsage().format()));
+            sb.append(String.format("  Truncated responses: %d\n", getTotalTruncatedResponses()));
+            sb.append(String.format("  Context limit hits: %d\n", getTotalContextLimitHits()));
+            sb.append("\n");
+        }
+
+        if (getPipelineLatency().count() > 0 || !latencyByAgent.isEmpty() || !latencyByPhase.isEmpty()) {
+            sb.append(String.format("Latency (all time | last %d min):\n", latencyWindow.toMinutes()));
+            appendLatency(sb, "Pipeline", pipelineLatency);
+            for (AgentRole role : AgentRole.values()) {
+                appendLatency(sb, role.getDisplayName(), latencyByAgent.get(role));
+            }
+            for (DocumentState state : DocumentState.values()) {
+                appendLatency(sb, "Phase " + state.name(), latencyByPhase.get(state));
+            }
+            new TreeMap<>(latencyByAttempt).forEach((attempt, histogram) ->
+                    appendLatency(sb, attempt == 0 ? "First attempts" : "Revision " + attempt, histogram));
+            sb.append("\n");
+        }
+
         sb.append(String.format("Uptime: %s\n", formatDuration(getUptime())));
 
         return sb.toString();
     }
 
+    private static void appendLatency(StringBuilder sb, String label, LatencyHistogram histogram) {
+        if (histogram == null) {
+            return;
+        }
+        LatencyHistogram.Snapshot all = histogram.snapshot();
+        if (all.count() == 0) {
+            return;
+        }
+        LatencyHistogram.Snapshot recent = histogram.windowSnapshot();
+        sb.append(String.format("  %s: n=%d p50 %d ms, p90 %d ms, p99 %d ms, max %d ms | n=%d p99 %d ms, max %d ms\n",
+                label, all.count(), all.p50Ms(), all.p90Ms(), all.p99Ms(), all.maxMs(),
+                recent.count(), recent.p99Ms(), recent.maxMs()));
+    }
+
     private String formatDuration(Duration duration) {
         long hours = duration.toHours();
         long minutes = duration.toMinutesPart();
@@ -261,5 +577,19 @@ public class PipelineMetrics {
         failuresByState.clear();
         processingTimeByAgent.clear();
         invocationsByAgent.clear();
+        streamedResponsesByAgent.clear();
+        timeToFirstTokenByAgent.clear();
+        streamedTokensByAgent.clear();
+        generationTimeByAgent.clear();
+        totalStreamStalls.set(0);
+        tokensByAgent.clear();
+        tokensByModel.clear();
+        callTimeByModel.clear();
+        totalTruncatedResponses.set(0);
+        totalContextLimitHits.set(0);
+        pipelineLatency.reset();
+        latencyByAgent.clear();
+        latencyByPhase.clear();
+        latencyByAttempt.clear();
     }
 }
@@ -3,45 +3,128 @@ package com.jakefear.aipublisher.monitoring;
 import com.jakefear.aipublisher.agent.AgentRole;
 import com.jakefear.aipublisher.document.DocumentState;
 import com.jakefear.aipublisher.document.PublishingDocument;
+import com.jakefear.aipublisher.document.TokenUsageSummary;
+import com.jakefear.aipublisher.llm.LlmRequestScheduler;
+import com.jakefear.aipublisher.llm.LlmUsage;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Central service for pipeline monitoring.
  *
- * Dispatches events to registered listeners and collects metrics.
+ * Dispatches events to registered listeners and collects metrics. With an
+ * {@link AsyncEventDispatcher} (the default, monitoring.events.async=true),
+ * listeners run on the dispatcher's thread instead of the pipeline's. When a
+ * {@link PipelineMeters} is available, the same measurements are also published
+ * to Micrometer so they can be scraped during a run. Queue depth, in-flight
+ * calls and wait time of the {@link LlmRequestScheduler} lanes are reported
+ * alongside.
  */
 @Service
 public class PipelineMonitoringService {
 
+    // Listeners called on the emitting thread when there is no dispatcher
     private final List<PipelineEventListener> listeners = new CopyOnWriteArrayList<>();
+    private final AsyncEventDispatcher dispatcher;
     private final PipelineMetrics metrics = new PipelineMetrics();
 
+    // Optional Micrometer meters, mirroring the in-process metrics
+    private PipelineMeters meters;
+
+    // Optional scheduler whose lane statistics are reported alongside
+    private LlmRequestScheduler requestScheduler;
+
+    /** Start time (System.nanoTime) of each phase in progress, per document. */
+    private final Map<PhaseKey, Long> phaseStarts = new ConcurrentHashMap<>();
+
+    private record PhaseKey(PublishingDocument document, DocumentState phase) {
+    }
+
+    /**
+     * Create a service that calls listeners synchronously on the emitting thread.
+     */
     public PipelineMonitoringService(List<PipelineEventListener> autoRegisteredListeners) {
-        this.listeners.addAll(autoRegisteredListeners);
+        this(autoRegisteredListeners, (AsyncEventDispatcher) null);
+    }
+
+    @Autowired
+    public PipelineMonitoringService(List<PipelineEventListener> autoRegisteredListeners,
+                                     ObjectProvider<AsyncEventDispatcher> dispatcherProvider) {
+        this(autoRegisteredListeners, dispatcherProvider.getIfAvailable());
+    }
+
+    /**
+     * Create a service that hands events to a dispatcher, or calls listeners
+     * synchronously if the dispatcher is null.
+     */
+    public PipelineMonitoringService(List<PipelineEventListener> autoRegisteredListeners,
+                                     AsyncEventDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+        autoRegisteredListeners.forEach(this::addListener);
+    }
+
+    /**
+     * Set the Micrometer meters (called by Spring via @Autowired).
+     */
+    @Autowired(required = false)
+    public void setMeters(PipelineMeters meters) {
+        this.meters = meters;
+        if (meters != null && dispatcher != null) {
+            meters.monitorEventDispatcher(dispatcher);
+        }
+        if (meters != null && requestScheduler != null) {
+            meters.monitorRequestScheduler(requestScheduler);
+        }
+    }
+
+    /**
+     * Set the LLM request scheduler (called by Spring via @Autowired).
+     */
+    @Autowired(required = false)
+    public void setRequestScheduler(LlmRequestScheduler requestScheduler) {
+        this.requestScheduler = requestScheduler;
+        if (meters != null && requestScheduler != null) {
+            meters.monitorRequestScheduler(requestScheduler);
+        }
     }
 
     /**
      * Register an event listener.
      */
     public void addListener(PipelineEventListener listener) {
-        listeners.add(listener);
+        if (dispatcher != null) {
+            dispatcher.addListener(listener);
+        } else {
+            listeners.add(listener);
+        }
     }
 
     /**
      * Unregister an event listener.
      */
     public void removeListener(PipelineEventListener listener) {
-        listeners.remove(listener);
+        if (dispatcher != null) {
+            dispatcher.removeListener(listener);
+        } else {
+            listeners.remove(listener);
+        }
     }
 
     /**
      * Emit a pipeline event to all listeners.
      */
     public void emit(PipelineEvent event) {
+        if (dispatcher != null) {
+            dispatcher.publish(event);
+            return;
+        }
         listeners.forEach(listener -> {
             try {
                 listener.onEvent(event);
@@ -56,6 +139,9 @@ public class PipelineMonitoringService {
      */
     public void pipelineStarted(PublishingDocument document) {
         metrics.recordPipelineStarted();
+        if (meters != null) {
+            meters.pipelineStarted();
+        }
         emit(PipelineEvent.pipelineStarted(document));
     }
 
@@ -63,6 +149,7 @@ public class PipelineMonitoringService {
      * Record and emit phase started event.
      */
     public void phaseStarted(PublishingDocument document, DocumentState previousState, DocumentState newState) {
+        phaseStarts.put(new PhaseKey(document, newState), System.nanoTime());
         emit(PipelineEvent.phaseStarted(document, previousState, newState));
     }
 
@@ -70,6 +157,14 @@ public class PipelineMonitoringService {
      * Record and emit phase completed event.
      */
     public void phaseCompleted(PublishingDocument document, DocumentState state, String summary) {
+        Long started = phaseStarts.remove(new PhaseKey(document, state));
+        if (started != null) {
+            Duration duration = Duration.ofNanos(System.nanoTime() - started);
+            metrics.recordPhase(state, duration);
+            if (meters != null) {
+                meters.phaseCompleted(state, duration);
+            }
+        }
         emit(PipelineEvent.phaseCompleted(document, state, summary));
     }
 
@@ -90,6 +185,9 @@ public class PipelineMonitoringService {
         } else {
             metrics.recordApprovalRejected();
         }
+        if (meters != null) {
+            meters.approval(approved);
+        }
         emit(PipelineEvent.approvalReceived(document, atState, approved));
     }
 
@@ -98,6 +196,9 @@ public class PipelineMonitoringService {
      */
     public void revisionStarted(PublishingDocument document, int revisionNumber, int maxRevisions) {
         metrics.recordRevisionCycle();
+        if (meters != null) {
+            meters.revisionStarted();
+        }
         emit(PipelineEvent.revisionStarted(document, revisionNumber, maxRevisions));
     }
 
@@ -106,6 +207,10 @@ public class PipelineMonitoringService {
      */
     public void pipelineCompleted(PublishingDocument document, Duration totalTime) {
         metrics.recordPipelineCompleted(totalTime);
+        if (meters != null) {
+            meters.pipelineCompleted(totalTime);
+        }
+        forgetPhases(document);
         emit(PipelineEvent.pipelineCompleted(document, totalTime.toMillis()));
     }
 
@@ -114,6 +219,10 @@ public class PipelineMonitoringService {
      */
     public void pipelineFailed(PublishingDocument document, DocumentState failedAt, String error) {
         metrics.recordPipelineFailed(failedAt);
+        if (meters != null) {
+            meters.pipelineFailed(failedAt);
+        }
+        forgetPhases(document);
         emit(PipelineEvent.pipelineFailed(document, failedAt, error));
     }
 
@@ -121,7 +230,60 @@ public class PipelineMonitoringService {
      * Record agent processing time.
      */
     public void recordAgentProcessing(AgentRole role, Duration processingTime) {
-        metrics.recordAgentProcessing(role, processingTime);
+        recordAgentProcessing(role, processingTime, 0);
+    }
+
+    /**
+     * Record agent processing time for a revision attempt (0 for the first pass).
+     */
+    public void recordAgentProcessing(AgentRole role, Duration processingTime, int attempt) {
+        metrics.recordAgentProcessing(role, processingTime, attempt);
+        if (meters != null) {
+            meters.agentProcessing(role, processingTime, attempt);
+        }
+    }
+
+    /**
+     * Record time-to-first-token and throughput of a streamed agent response.
+     */
+    public void recordStreamingResponse(AgentRole role, Duration timeToFirstToken, int outputTokens,
+                                        Duration generationTime) {
+        metrics.recordStreamingResponse(role, timeToFirstToken, outputTokens, generationTime);
+        if (meters != null) {
+            meters.streamingResponse(role, timeToFirstToken, outputTokens, generationTime);
+        }
+    }
+
+    /**
+     * Record a stream that was abandoned because it stopped producing tokens.
+     */
+    public void recordStreamStall() {
+        metrics.recordStreamStall();
+        if (meters != null) {
+            meters.streamStall();
+        }
+    }
+
+    /**
+     * Record the tokens and cost of one model call.
+     *
+     * @param role The agent that made the call
+     * @param usage Tokens and response metadata reported by the provider
+     * @param costUsd Cost of the call; 0 if the model is unpriced
+     */
+    public void recordLlmUsage(AgentRole role, LlmUsage usage, double costUsd) {
+        metrics.recordTokenUsage(role, usage.modelName(),
+                new TokenUsageSummary(1, usage.inputTokens(), usage.outputTokens(), usage.thinkingTokens(), costUsd),
+                usage.duration());
+        if (usage.isTruncated()) {
+            metrics.recordTruncatedResponse();
+        }
+        if (usage.isAtContextLimit()) {
+            metrics.recordContextLimitHit();
+        }
+        if (meters != null) {
+            meters.llmUsage(role, usage, costUsd);
+        }
     }
 
     /**
@@ -149,13 +311,36 @@ public class PipelineMonitoringService {
      * Generate a metrics report.
      */
     public String generateMetricsReport() {
-        return metrics.generateReport();
+        StringBuilder report = new StringBuilder(metrics.generateReport());
+        if (requestScheduler != null && !requestScheduler.getAllStats().isEmpty()) {
+            report.append("\n").append(requestScheduler.generateReport());
+        }
+        if (dispatcher != null) {
+            report.append("\nEvent Listeners:\n");
+            for (AsyncEventDispatcher.ListenerStats stats : dispatcher.getListenerStats()) {
+                report.append(String.format("  %s: %d delivered, lag %d, %d dropped, %d failed\n",
+                        stats.listener(), stats.delivered(), stats.lag(), stats.dropped(), stats.failures()));
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Get the delivery counters of each listener, or an empty list when
+     * listeners are called synchronously.
+     */
+    public List<AsyncEventDispatcher.ListenerStats> getListenerStats() {
+        return dispatcher != null ? dispatcher.getListenerStats() : List.of();
+    }
+
+    private void forgetPhases(PublishingDocument document) {
+        phaseStarts.keySet().removeIf(key -> key.document() == document);
     }
 
     /**
      * Get the number of registered listeners.
      */
     public int getListenerCount() {
-        return listeners.size();
+        return dispatcher != null ? dispatcher.getListenerCount() : listeners.size();
     }
 }
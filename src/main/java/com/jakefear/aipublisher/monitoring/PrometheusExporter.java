@@ -0,0 +1,141 @@
+package com.jakefear.aipublisher.monitoring;
+
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Exposes metrics in the Prometheus text format.
+ *
+ * Two independent outputs, either or both of which may be enabled:
+ * - An HTTP endpoint at {@code /metrics} for hosts that are scraped directly
+ * - A file rewritten periodically and once more on close, for batch runs
+ *   (e.g. picked up by the node_exporter textfile collector)
+ *
+ * The file is replaced atomically so a collector never reads a partial dump.
+ */
+public class PrometheusExporter implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PrometheusExporter.class);
+
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final Supplier<String> scrape;
+    private final HttpServer server;
+    private final Path file;
+    private final ScheduledExecutorService dumper;
+
+    /**
+     * Start exporting.
+     *
+     * @param scrape Renders the current metrics in the Prometheus text format
+     * @param port Port for the HTTP endpoint; negative to disable, 0 for any free port
+     * @param file File to dump metrics to, or null to disable
+     * @param dumpInterval Time between file dumps
+     * @throws UncheckedIOException if the port can't be bound
+     */
+    public PrometheusExporter(Supplier<String> scrape, int port, Path file, Duration dumpInterval) {
+        this.scrape = scrape;
+        this.file = file;
+        this.server = port >= 0 ? startServer(port) : null;
+        if (file != null) {
+            this.dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "prometheus-dump");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMs = Math.max(1, dumpInterval.toMillis());
+            dumper.scheduleWithFixedDelay(this::dumpQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+            log.info("Dumping Prometheus metrics to {} every {}", file, dumpInterval);
+        } else {
+            this.dumper = null;
+        }
+    }
+
+    private HttpServer startServer(int port) {
+        try {
+            HttpServer httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+            httpServer.createContext("/metrics", exchange -> {
+                byte[] body = scrape.get().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            httpServer.start();
+            log.info("Serving Prometheus metrics on port {}", httpServer.getAddress().getPort());
+            return httpServer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serve Prometheus metrics on port " + port, e);
+        }
+    }
+
+    /**
+     * Get the port the HTTP endpoint is bound to, or -1 if it is disabled.
+     */
+    public int getPort() {
+        return server != null ? server.getAddress().getPort() : -1;
+    }
+
+    /**
+     * Get the dump file, or null if file dumps are disabled.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Write the current metrics to the dump file.
+     */
+    public void dump() throws IOException {
+        if (file == null) {
+            return;
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            Files.writeString(temp, scrape.get(), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void dumpQuietly() {
+        try {
+            dump();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not dump Prometheus metrics to {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Stop the endpoint and write a final dump, so a batch run's file reflects the whole run.
+     */
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (dumper != null) {
+            dumper.shutdownNow();
+            dumpQuietly();
+        }
+    }
+}
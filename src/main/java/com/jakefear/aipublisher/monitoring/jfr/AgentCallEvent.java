@@ -0,0 +1,48 @@
+package com.jakefear.aipublisher.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one model call made by an agent, or the cache lookup that replaced it.
+ */
+@Name("com.jakefear.aipublisher.AgentCall")
+@Label("Agent Model Call")
+@Category({"AI Publisher", "Agent"})
+@Description("One language model call made by an agent")
+@StackTrace(false)
+public class AgentCallEvent extends Event {
+
+    @Label("Agent")
+    public String agent;
+
+    @Label("Attempt")
+    public int attempt;
+
+    @Label("Prompt Characters")
+    @Description("Length of the user prompt, excluding the system prompt")
+    public int promptChars;
+
+    @Label("Response Characters")
+    public int responseChars;
+
+    @Label("Cache Hit")
+    public boolean cacheHit;
+
+    @Label("Model")
+    public String model;
+
+    @Label("Input Tokens")
+    public int inputTokens;
+
+    @Label("Output Tokens")
+    public int outputTokens;
+
+    @Label("Succeeded")
+    @Description("Whether the model returned a response; parsing is reported by the enclosing Agent Process event")
+    public boolean succeeded;
+}
@@ -0,0 +1,31 @@
+package com.jakefear.aipublisher.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one agent's processing of a document, including retries and backoff.
+ */
+@Name("com.jakefear.aipublisher.AgentProcess")
+@Label("Agent Process")
+@Category({"AI Publisher", "Agent"})
+@Description("An agent processing a document, including every attempt and the backoff between them")
+@StackTrace(false)
+public class AgentProcessEvent extends Event {
+
+    @Label("Agent")
+    public String agent;
+
+    @Label("Page")
+    public String pageName;
+
+    @Label("Attempts")
+    public int attempts;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
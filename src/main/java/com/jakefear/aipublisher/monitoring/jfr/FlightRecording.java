@@ -0,0 +1,62 @@
+package com.jakefear.aipublisher.monitoring.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/**
+ * A Java Flight Recorder recording covering one CLI run.
+ *
+ * Uses the JDK's low-overhead "default" settings, which record GC, thread
+ * contention and I/O alongside the pipeline events in this package, and writes
+ * the recording to a file when stopped. Open it with JDK Mission Control or
+ * {@code jfr print --categories "AI Publisher" <file>}.
+ */
+public final class FlightRecording implements AutoCloseable {
+
+    private final Recording recording;
+    private final Path destination;
+
+    private FlightRecording(Recording recording, Path destination) {
+        this.recording = recording;
+        this.destination = destination;
+    }
+
+    /**
+     * Start recording.
+     *
+     * @param destination File the recording is written to when stopped
+     * @throws IOException if the JFR settings can't be read or the destination isn't writable
+     */
+    public static FlightRecording start(Path destination) throws IOException {
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration("default"));
+        } catch (ParseException e) {
+            throw new IOException("Could not read the default JFR settings: " + e.getMessage(), e);
+        }
+        recording.setName("ai-publisher");
+        recording.setDestination(destination.toAbsolutePath());
+        recording.start();
+        return new FlightRecording(recording, destination);
+    }
+
+    /**
+     * Get the file the recording is written to.
+     */
+    public Path getDestination() {
+        return destination;
+    }
+
+    /**
+     * Stop recording and write the file.
+     */
+    @Override
+    public void close() {
+        recording.stop();
+        recording.close();
+    }
+}
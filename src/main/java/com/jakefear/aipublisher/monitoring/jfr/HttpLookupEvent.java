@@ -0,0 +1,31 @@
+package com.jakefear.aipublisher.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one HTTP lookup by a search service, including retries.
+ */
+@Name("com.jakefear.aipublisher.HttpLookup")
+@Label("HTTP Lookup")
+@Category({"AI Publisher", "Search"})
+@Description("An HTTP request made by a search service, including retries and backoff")
+@StackTrace(false)
+public class HttpLookupEvent extends Event {
+
+    @Label("Service")
+    public String service;
+
+    @Label("URL")
+    public String url;
+
+    @Label("Response Characters")
+    public int responseChars;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
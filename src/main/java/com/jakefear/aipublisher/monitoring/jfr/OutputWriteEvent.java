@@ -0,0 +1,35 @@
+package com.jakefear.aipublisher.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the write of one page to the output directory.
+ */
+@Name("com.jakefear.aipublisher.OutputWrite")
+@Label("Output Write")
+@Category({"AI Publisher", "Output"})
+@Description("A published article or failed document written to the output directory")
+@StackTrace(false)
+public class OutputWriteEvent extends Event {
+
+    @Label("Page")
+    public String pageName;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Kind")
+    @Description("\"article\" for a published page, \"failed\" for a document saved for debugging")
+    public String kind;
+
+    @Label("Characters")
+    public int chars;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,32 @@
+package com.jakefear.aipublisher.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one phase of the publishing pipeline for one document.
+ */
+@Name("com.jakefear.aipublisher.PipelinePhase")
+@Label("Pipeline Phase")
+@Category({"AI Publisher", "Pipeline"})
+@Description("One phase (research, drafting, fact check, ...) of the publishing pipeline for a document")
+@StackTrace(false)
+public class PipelinePhaseEvent extends Event {
+
+    @Label("Page")
+    public String pageName;
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Revision Cycles")
+    @Description("Revision cycles the document had been through when the phase ended")
+    public int revisionCycles;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
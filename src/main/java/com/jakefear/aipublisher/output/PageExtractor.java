@@ -0,0 +1,23 @@
+package com.jakefear.aipublisher.output;
+
+/**
+ * Pulls one kind of information out of a wiki page during a corpus scan.
+ *
+ * Extractors run concurrently on different pages, so implementations must be
+ * stateless or thread-safe. Results are looked up on a {@link ScannedPage} by
+ * extractor instance.
+ *
+ * @param <T> The extracted value type
+ */
+@FunctionalInterface
+public interface PageExtractor<T> {
+
+    /**
+     * Extract a value from a page.
+     *
+     * @param pageName The page name (file name without extension)
+     * @param content The page content
+     * @return The extracted value (never null)
+     */
+    T extract(String pageName, String content);
+}
@@ -0,0 +1,66 @@
+package com.jakefear.aipublisher.output;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Built-in {@link PageExtractor}s for JSPWiki pages.
+ *
+ * Link extraction lives with gap detection, which owns the rules for what
+ * counts as an internal link; glossary terms can be plugged in with
+ * {@code (page, content) -> glossaryService.findTermsInText(content)}.
+ */
+public final class PageExtractors {
+
+    // !!! Title, !! Section, ! Subsection
+    private static final Pattern HEADING_PATTERN = Pattern.compile("(?m)^(!{1,3})\\s*(.+?)\\s*$");
+
+    // [{SET categories='Cat1,Cat2'}]
+    private static final Pattern CATEGORIES_PATTERN = Pattern.compile(
+            "\\[\\{SET\\s+categories\\s*=\\s*'([^']*)'\\s*}]", Pattern.CASE_INSENSITIVE);
+
+    private PageExtractors() {
+    }
+
+    /**
+     * A section heading and its level (3 = page title, 1 = subsection).
+     */
+    public record Heading(int level, String text) {
+    }
+
+    /**
+     * Extracts JSPWiki headings in document order.
+     */
+    public static PageExtractor<List<Heading>> headings() {
+        return (page, content) -> {
+            List<Heading> headings = new ArrayList<>();
+            Matcher matcher = HEADING_PATTERN.matcher(content);
+            while (matcher.find()) {
+                headings.add(new Heading(matcher.group(1).length(), matcher.group(2)));
+            }
+            return headings;
+        };
+    }
+
+    /**
+     * Extracts the categories declared with {@code [{SET categories='...'}]}.
+     */
+    public static PageExtractor<Set<String>> categories() {
+        return (page, content) -> {
+            Set<String> categories = new LinkedHashSet<>();
+            Matcher matcher = CATEGORIES_PATTERN.matcher(content);
+            while (matcher.find()) {
+                for (String category : matcher.group(1).split(",")) {
+                    if (!category.isBlank()) {
+                        categories.add(category.trim());
+                    }
+                }
+            }
+            return categories;
+        };
+    }
+}
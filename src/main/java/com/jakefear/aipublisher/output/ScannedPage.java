@@ -0,0 +1,59 @@
+package com.jakefear.aipublisher.output;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * A page read during a corpus scan, with the results of each extractor.
+ *
+ * @param file The page file and its attributes
+ * @param checksum CRC32C of the file content
+ * @param extracted Extractor results, keyed by extractor instance; empty if
+ *                  the scan filter chose not to extract
+ */
+public record ScannedPage(
+        PageFile file,
+        long checksum,
+        Map<PageExtractor<?>, Object> extracted
+) {
+
+    public String name() {
+        return file.name();
+    }
+
+    public Path path() {
+        return file.path();
+    }
+
+    /**
+     * Check whether extractors were run on this page.
+     */
+    public boolean isExtracted() {
+        return !extracted.isEmpty();
+    }
+
+    /**
+     * Get the result of one extractor.
+     *
+     * @throws IllegalArgumentException if the extractor wasn't part of the scan
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(PageExtractor<T> extractor) {
+        Object value = extracted.get(extractor);
+        if (value == null) {
+            throw new IllegalArgumentException("Extractor was not run on page " + file.name());
+        }
+        return (T) value;
+    }
+
+    /**
+     * A wiki file in the output directory.
+     *
+     * @param name The page name (file name without extension)
+     * @param path The file path
+     * @param modified Last-modified time in epoch milliseconds
+     * @param size File size in bytes
+     */
+    public record PageFile(String name, Path path, long modified, long size) {
+    }
+}
@@ -0,0 +1,239 @@
+package com.jakefear.aipublisher.output;
+
+import com.jakefear.aipublisher.output.ScannedPage.PageFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads the wiki pages in the output directory in parallel and runs a set of
+ * {@link PageExtractor}s over each page in a single pass.
+ *
+ * Each page is read on its own virtual thread, with a semaphore bounding the
+ * number of files open at once. Files above the mmap threshold are mapped
+ * rather than copied onto the heap; typical pages are a few kilobytes, where
+ * mapping costs more than it saves, so they are read directly.
+ *
+ * A {@link ScanFilter} lets incremental callers skip files they already know
+ * about (by time and size) and skip extraction for files whose checksum is
+ * unchanged.
+ */
+@Component
+public class WikiCorpusScanner {
+
+    private static final Logger log = LoggerFactory.getLogger(WikiCorpusScanner.class);
+
+    private final int maxConcurrentReads;
+    private final long mmapThreshold;
+
+    @Autowired
+    public WikiCorpusScanner(
+            @Value("${output.scan.max-concurrent-reads:64}") int maxConcurrentReads,
+            @Value("${output.scan.mmap-threshold:262144}") long mmapThreshold) {
+        this.maxConcurrentReads = Math.max(1, maxConcurrentReads);
+        this.mmapThreshold = mmapThreshold;
+    }
+
+    /**
+     * Constructor for testing and for services created without Spring.
+     */
+    public WikiCorpusScanner() {
+        this(64, 262_144);
+    }
+
+    /**
+     * Decides which listed files are read and which read files are extracted.
+     */
+    public interface ScanFilter {
+
+        ScanFilter ALL = file -> true;
+
+        /**
+         * Whether to read a listed file.
+         */
+        boolean shouldRead(PageFile file);
+
+        /**
+         * Whether to run the extractors on a file that was read.
+         */
+        default boolean shouldExtract(PageFile file, long checksum) {
+            return true;
+        }
+    }
+
+    /**
+     * Result of a scan.
+     *
+     * @param files Every wiki file in the directory
+     * @param pages The files that were read, in the same order as {@code files}
+     */
+    public record ScanResult(List<PageFile> files, List<ScannedPage> pages) {
+    }
+
+    /**
+     * List the wiki files in a directory without reading them.
+     *
+     * @param directory The output directory
+     * @param extension The wiki file extension
+     * @return Regular files with the extension; empty if the directory doesn't exist
+     */
+    public static List<PageFile> list(Path directory, String extension) throws IOException {
+        List<PageFile> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                String filename = path.getFileName().toString();
+                if (!filename.endsWith(extension)) {
+                    continue;
+                }
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                if (attributes.isRegularFile()) {
+                    files.add(new PageFile(filename.substring(0, filename.length() - extension.length()),
+                            path, attributes.lastModifiedTime().toMillis(), attributes.size()));
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Read every wiki page and run the extractors on each.
+     */
+    public ScanResult scan(Path directory, String extension, List<PageExtractor<?>> extractors) throws IOException {
+        return scan(directory, extension, ScanFilter.ALL, extractors);
+    }
+
+    /**
+     * Read the wiki pages accepted by the filter and run the extractors on each.
+     *
+     * @param directory The output directory
+     * @param extension The wiki file extension
+     * @param filter Chooses which files to read and extract
+     * @param extractors Extractors to run on every extracted page
+     * @return The listed files and the pages that were read
+     */
+    public ScanResult scan(Path directory, String extension, ScanFilter filter,
+                           List<PageExtractor<?>> extractors) throws IOException {
+        List<PageFile> files = list(directory, extension);
+        List<PageFile> toRead = files.stream().filter(filter::shouldRead).toList();
+        if (toRead.isEmpty()) {
+            return new ScanResult(files, List.of());
+        }
+
+        long start = System.nanoTime();
+        Semaphore permits = new Semaphore(maxConcurrentReads);
+        List<ScannedPage> pages = new ArrayList<>(toRead.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ScannedPage>> futures = new ArrayList<>(toRead.size());
+            for (PageFile file : toRead) {
+                futures.add(executor.submit(() -> readPage(file, filter, extractors, permits)));
+            }
+            for (Future<ScannedPage> future : futures) {
+                ScannedPage page = await(future);
+                if (page != null) {
+                    pages.add(page);
+                }
+            }
+        }
+        log.debug("Scanned {} of {} pages in {} in {} ms", pages.size(), files.size(), directory,
+                (System.nanoTime() - start) / 1_000_000);
+        return new ScanResult(files, pages);
+    }
+
+    private ScannedPage readPage(PageFile file, ScanFilter filter, List<PageExtractor<?>> extractors,
+                                 Semaphore permits) throws IOException, InterruptedException {
+        ByteBuffer content;
+        permits.acquire();
+        try {
+            content = read(file.path());
+        } catch (NoSuchFileException e) {
+            // Deleted between listing and reading
+            return null;
+        } finally {
+            permits.release();
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(content.duplicate());
+        long checksum = crc.getValue();
+        if (!filter.shouldExtract(file, checksum) || extractors.isEmpty()) {
+            return new ScannedPage(file, checksum, Map.of());
+        }
+
+        String text = StandardCharsets.UTF_8.decode(content).toString();
+        Map<PageExtractor<?>, Object> extracted = new IdentityHashMap<>(extractors.size());
+        for (PageExtractor<?> extractor : extractors) {
+            extracted.put(extractor, extractor.extract(file.name(), text));
+        }
+        return new ScannedPage(file, checksum, extracted);
+    }
+
+    private ByteBuffer read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Page too large to scan: " + path);
+            }
+            if (size >= mmapThreshold) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading until full or end of file
+            }
+            return buffer.flip();
+        }
+    }
+
+    private static ScannedPage await(Future<ScannedPage> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while scanning pages", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Failed to scan page", cause);
+        }
+    }
+}
@@ -2,10 +2,13 @@ package com.jakefear.aipublisher.output;
 
 import com.jakefear.aipublisher.config.OutputProperties;
 import com.jakefear.aipublisher.document.*;
+import com.jakefear.aipublisher.monitoring.PipelineMeters;
+import com.jakefear.aipublisher.monitoring.jfr.OutputWriteEvent;
 import com.jakefear.aipublisher.util.PageNameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import org.springframework.stereotype.Service;
@@ -16,8 +19,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Service for writing wiki articles to the filesystem.
@@ -29,9 +30,26 @@ public class WikiOutputService {
     private static final Logger log = LoggerFactory.getLogger(WikiOutputService.class);
 
     private final OutputProperties outputProperties;
+    private final WikiPageIndex pageIndex;
+    private PipelineMeters meters;
 
-    public WikiOutputService(OutputProperties outputProperties) {
+    @org.springframework.beans.factory.annotation.Autowired
+    public WikiOutputService(OutputProperties outputProperties, WikiPageIndex pageIndex) {
         this.outputProperties = outputProperties;
+        this.pageIndex = pageIndex;
+    }
+
+    // Constructor for testing
+    public WikiOutputService(OutputProperties outputProperties) {
+        this(outputProperties, new WikiPageIndex(outputProperties));
+    }
+
+    /**
+     * Set the Micrometer meters (called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setMeters(PipelineMeters meters) {
+        this.meters = meters;
     }
 
     /**
@@ -53,7 +71,8 @@ public class WikiOutputService {
 
         String content = formatForOutput(article);
 
-        Files.writeString(outputPath, content, StandardCharsets.UTF_8);
+        write(document, outputPath, content, "article");
+        pageIndex.add(outputPath);
 
         log.info("Wrote article to {}: {} words, quality score {}",
                 outputPath, article.estimateWordCount(), article.qualityScore());
@@ -64,32 +83,12 @@ public class WikiOutputService {
     /**
      * Discover existing wiki pages in the output directory.
      * These can be linked to from new articles using [PageName]() syntax.
+     * Served from the page index, so the directory is only listed once.
      *
-     * @return Set of existing page names (without .md extension)
+     * @return Set of existing page names (without extension)
      */
     public Set<String> discoverExistingPages() {
-        Path outputDir = outputProperties.getDirectoryPath();
-
-        if (!Files.exists(outputDir)) {
-            log.debug("Output directory does not exist yet: {}", outputDir);
-            return Set.of();
-        }
-
-        try (Stream<Path> files = Files.list(outputDir)) {
-            Set<String> pages = files
-                    .filter(Files::isRegularFile)
-                    .map(Path::getFileName)
-                    .map(Path::toString)
-                    .filter(name -> name.endsWith(outputProperties.getFileExtension()))
-                    .map(this::removeExtension)
-                    .collect(Collectors.toSet());
-
-            log.debug("Discovered {} existing pages in {}", pages.size(), outputDir);
-            return pages;
-        } catch (IOException e) {
-            log.warn("Failed to discover existing pages: {}", e.getMessage());
-            return Set.of();
-        }
+        return pageIndex.getPages();
     }
 
     /**
@@ -98,9 +97,7 @@ public class WikiOutputService {
      * @return Sorted list of existing page names
      */
     public List<String> getExistingPagesList() {
-        return discoverExistingPages().stream()
-                .sorted()
-                .collect(Collectors.toList());
+        return pageIndex.getSortedPages();
     }
 
     /**
@@ -110,9 +107,7 @@ public class WikiOutputService {
      * @return true if the page exists
      */
     public boolean pageExists(String pageName) {
-        Path outputDir = outputProperties.getDirectoryPath();
-        String filename = generateFilename(pageName);
-        return Files.exists(outputDir.resolve(filename));
+        return pageIndex.contains(PageNameUtils.toCamelCaseOrDefault(pageName, "UnnamedPage"));
     }
 
     /**
@@ -165,17 +160,6 @@ public class WikiOutputService {
         return outputDir;
     }
 
-    /**
-     * Remove the file extension from a filename.
-     */
-    private String removeExtension(String filename) {
-        String ext = outputProperties.getFileExtension();
-        if (filename.endsWith(ext)) {
-            return filename.substring(0, filename.length() - ext.length());
-        }
-        return filename;
-    }
-
     /**
      * Write a failed document to the output directory for debugging.
      * The filename will include a suffix indicating the failure state.
@@ -194,7 +178,8 @@ public class WikiOutputService {
 
             String content = formatFailedDocument(document, failedState, errorMessage);
 
-            Files.writeString(outputPath, content, StandardCharsets.UTF_8);
+            write(document, outputPath, content, "failed");
+            pageIndex.add(outputPath);
 
             log.info("Wrote failed document to {} for debugging (failed at {})", outputPath, failedState);
 
@@ -205,6 +190,34 @@ public class WikiOutputService {
         }
     }
 
+    /**
+     * Write a page inside an {@link OutputWriteEvent}, recording it in the meters if present.
+     */
+    private void write(PublishingDocument document, Path outputPath, String content, String kind)
+            throws IOException {
+        OutputWriteEvent event = new OutputWriteEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            Files.writeString(outputPath, content, StandardCharsets.UTF_8);
+            succeeded = true;
+        } finally {
+            if (meters != null && succeeded) {
+                meters.outputWrite(kind, Duration.ofNanos(System.nanoTime() - start), content.length());
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.pageName = document.getPageName();
+                event.path = outputPath.toString();
+                event.kind = kind;
+                event.chars = content.length();
+                event.succeeded = succeeded;
+                event.commit();
+            }
+        }
+    }
+
     /**
      * Generate the filename for a failed document.
      * Format: PageName_FAILED_STATE_timestamp.md
@@ -355,4 +368,8 @@ public class WikiOutputService {
     public OutputProperties getOutputProperties() {
         return outputProperties;
     }
+
+    public WikiPageIndex getPageIndex() {
+        return pageIndex;
+    }
 }
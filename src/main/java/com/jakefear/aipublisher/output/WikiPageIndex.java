@@ -0,0 +1,291 @@
+package com.jakefear.aipublisher.output;
+
+import com.jakefear.aipublisher.config.OutputProperties;
+import com.jakefear.aipublisher.util.PageNameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of the wiki pages in the output directory.
+ *
+ * The directory is listed once, on first use, and the index is then kept
+ * current by the services that write pages ({@link #add}). Edits made outside
+ * the application are picked up either by an explicit {@link #refresh()} or,
+ * when {@code output.watch-for-changes} is enabled, by a background
+ * {@link WatchService}.
+ *
+ * If the configured directory or extension changes the index reloads itself,
+ * so it never answers for a directory it didn't scan.
+ */
+@Component
+public class WikiPageIndex implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(WikiPageIndex.class);
+
+    private final OutputProperties outputProperties;
+    private final boolean watchForChanges;
+
+    private final Set<String> pages = ConcurrentHashMap.newKeySet();
+    private volatile Path loadedDirectory;
+    private volatile String loadedExtension;
+    private volatile boolean loaded;
+
+    private WatchService watchService;
+    private Thread watchThread;
+
+    @Autowired
+    public WikiPageIndex(
+            OutputProperties outputProperties,
+            @Value("${output.watch-for-changes:false}") boolean watchForChanges) {
+        this.outputProperties = outputProperties;
+        this.watchForChanges = watchForChanges;
+    }
+
+    /**
+     * Constructor for testing and for services created without Spring.
+     */
+    public WikiPageIndex(OutputProperties outputProperties) {
+        this(outputProperties, false);
+    }
+
+    /**
+     * Check whether a page exists.
+     *
+     * @param pageName The page name (without extension)
+     * @return true if the page is in the index
+     */
+    public boolean contains(String pageName) {
+        if (pageName == null || pageName.isBlank()) {
+            return false;
+        }
+        ensureLoaded();
+        return pages.contains(pageName);
+    }
+
+    /**
+     * Get a snapshot of all indexed page names.
+     */
+    public Set<String> getPages() {
+        ensureLoaded();
+        return Set.copyOf(pages);
+    }
+
+    /**
+     * Get all indexed page names, sorted.
+     */
+    public List<String> getSortedPages() {
+        return getPages().stream()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the number of indexed pages.
+     */
+    public int size() {
+        ensureLoaded();
+        return pages.size();
+    }
+
+    /**
+     * Record a page that was just written.
+     *
+     * @param pageName The page name (without extension)
+     */
+    public void add(String pageName) {
+        if (pageName == null || pageName.isBlank()) {
+            return;
+        }
+        ensureLoaded();
+        pages.add(pageName);
+        if (watchForChanges && !isWatching()) {
+            // The directory may only have been created by this write
+            startWatching(loadedDirectory);
+        }
+    }
+
+    /**
+     * Record a file that was just written to the output directory.
+     * Files without the configured extension are ignored.
+     */
+    public void add(Path file) {
+        toPageName(file.getFileName().toString()).ifPresent(this::add);
+    }
+
+    /**
+     * Remove a page from the index.
+     */
+    public void remove(String pageName) {
+        if (pageName != null) {
+            ensureLoaded();
+            pages.remove(pageName);
+        }
+    }
+
+    /**
+     * Discard the index and list the output directory again.
+     */
+    public synchronized void refresh() {
+        Path directory = outputProperties.getDirectoryPath();
+        String extension = outputProperties.getFileExtension();
+        Set<String> scanned;
+        try {
+            scanned = scan(directory, extension);
+        } catch (IOException e) {
+            log.warn("Failed to index wiki pages in {}: {}", directory, e.getMessage());
+            scanned = Set.of();
+        }
+        // Retain-then-add so concurrent readers never see a surviving page vanish
+        pages.retainAll(scanned);
+        pages.addAll(scanned);
+        loadedDirectory = directory;
+        loadedExtension = extension;
+        loaded = true;
+        log.debug("Indexed {} existing pages in {}", scanned.size(), directory);
+
+        if (watchForChanges) {
+            startWatching(directory);
+        }
+    }
+
+    /**
+     * List the page names in a directory: regular files with the given
+     * extension, with the extension removed.
+     */
+    public static Set<String> scan(Path directory, String extension) throws IOException {
+        return WikiCorpusScanner.list(directory, extension).stream()
+                .map(ScannedPage.PageFile::name)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Check whether a topic name has a page, after CamelCase normalization.
+     */
+    public boolean containsTopic(String topicName) {
+        return contains(PageNameUtils.toCamelCase(topicName));
+    }
+
+    public boolean isWatching() {
+        return watchThread != null && watchThread.isAlive();
+    }
+
+    private void ensureLoaded() {
+        if (!loaded
+                || !outputProperties.getDirectoryPath().equals(loadedDirectory)
+                || !outputProperties.getFileExtension().equals(loadedExtension)) {
+            synchronized (this) {
+                if (!loaded
+                        || !outputProperties.getDirectoryPath().equals(loadedDirectory)
+                        || !outputProperties.getFileExtension().equals(loadedExtension)) {
+                    refresh();
+                }
+            }
+        }
+    }
+
+    private Optional<String> toPageName(String filename) {
+        String extension = outputProperties.getFileExtension();
+        if (!filename.endsWith(extension)) {
+            return Optional.empty();
+        }
+        return Optional.of(filename.substring(0, filename.length() - extension.length()));
+    }
+
+    private synchronized void startWatching(Path directory) {
+        stopWatching();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try {
+            WatchService service = FileSystems.getDefault().newWatchService();
+            directory.register(service,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            watchService = service;
+            watchThread = Thread.ofPlatform()
+                    .name("wiki-page-index-watcher")
+                    .daemon(true)
+                    .start(() -> watch(service, directory));
+            log.debug("Watching {} for external page changes", directory);
+        } catch (IOException e) {
+            log.warn("Cannot watch {} for page changes: {}", directory, e.getMessage());
+        }
+    }
+
+    private void watch(WatchService service, Path directory) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Events were lost; rebuild from a fresh listing
+                        Set<String> scanned = scan(directory, outputProperties.getFileExtension());
+                        pages.retainAll(scanned);
+                        pages.addAll(scanned);
+                        continue;
+                    }
+                    Path name = (Path) event.context();
+                    Optional<String> pageName = toPageName(name.toString());
+                    if (pageName.isEmpty()) {
+                        continue;
+                    }
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                        pages.add(pageName.get());
+                    } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        pages.remove(pageName.get());
+                    }
+                }
+                if (!key.reset()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Stopped
+        } catch (IOException e) {
+            log.warn("Stopped watching {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Stop the background watcher (called by Spring on shutdown).
+     */
+    @Override
+    public void close() {
+        stopWatching();
+    }
+
+    /**
+     * Stop the background watcher, if one is running.
+     */
+    public synchronized void stopWatching() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.debug("Error closing watch service: {}", e.getMessage());
+            }
+            watchService = null;
+            watchThread = null;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.jakefear.aipublisher.pipeline;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jakefear.aipublisher.config.OutputProperties;
+import com.jakefear.aipublisher.config.PipelineProperties;
+import com.jakefear.aipublisher.document.DocumentCheckpoint;
+import com.jakefear.aipublisher.document.DocumentState;
+import com.jakefear.aipublisher.document.PublishingDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Persists {@link DocumentCheckpoint}s so that a pipeline run can resume from the
+ * last completed phase instead of starting over.
+ *
+ * One JSON file is kept per page name. By default checkpoints live in a
+ * ".checkpoints" directory inside the output directory, so they follow the
+ * wiki they belong to.
+ */
+@Component
+public class CheckpointStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckpointStore.class);
+
+    private static final String FILE_EXTENSION = ".checkpoint.json";
+    private static final String DEFAULT_DIRECTORY = ".checkpoints";
+
+    private final ObjectMapper objectMapper;
+    private final OutputProperties outputProperties;
+    private final PipelineProperties pipelineProperties;
+    private Path directoryOverride;
+
+    @Autowired
+    public CheckpointStore(ObjectMapper objectMapper, OutputProperties outputProperties,
+                           PipelineProperties pipelineProperties) {
+        this.objectMapper = objectMapper.copy();
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.outputProperties = outputProperties;
+        this.pipelineProperties = pipelineProperties;
+    }
+
+    /**
+     * Constructor for testing without Spring.
+     */
+    public CheckpointStore(Path directory) {
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.findAndRegisterModules();
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.outputProperties = null;
+        this.pipelineProperties = null;
+        this.directoryOverride = directory;
+    }
+
+    /**
+     * Check whether checkpointing is enabled.
+     */
+    public boolean isEnabled() {
+        return pipelineProperties == null || pipelineProperties.getCheckpoint().isEnabled();
+    }
+
+    /**
+     * Get the directory checkpoints are written to.
+     */
+    public Path getDirectory() {
+        if (directoryOverride != null) {
+            return directoryOverride;
+        }
+        String configured = pipelineProperties.getCheckpoint().getDirectory();
+        if (configured != null && !configured.isBlank()) {
+            return Path.of(configured);
+        }
+        return outputProperties.getDirectoryPath().resolve(DEFAULT_DIRECTORY);
+    }
+
+    /**
+     * Save a checkpoint for a document after a phase completes.
+     * Failures are logged and never interrupt the pipeline.
+     *
+     * @param document The document to snapshot
+     * @param completedPhase The phase that just completed
+     */
+    public void save(PublishingDocument document, DocumentState completedPhase) {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            Path directory = getDirectory();
+            Files.createDirectories(directory);
+            Path file = fileFor(document.getPageName());
+            Path temp = Files.createTempFile(directory, "checkpoint-", ".tmp");
+            objectMapper.writeValue(temp.toFile(), DocumentCheckpoint.of(document, completedPhase));
+            // Replace atomically so a crash mid-write never leaves a truncated checkpoint
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved checkpoint for {} after {}", document.getPageName(), completedPhase);
+        } catch (IOException e) {
+            log.warn("Failed to save checkpoint for {}: {}", document.getPageName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Load the checkpoint for a page, if one exists and is readable.
+     */
+    public Optional<DocumentCheckpoint> load(String pageName) {
+        Path file = fileFor(pageName);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            DocumentCheckpoint checkpoint = objectMapper.readValue(file.toFile(), DocumentCheckpoint.class);
+            log.debug("Loaded checkpoint for {} (completed {})", pageName, checkpoint.completedPhase());
+            return Optional.of(checkpoint);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable checkpoint {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Delete the checkpoint for a page (e.g. after it has been published).
+     */
+    public boolean delete(String pageName) {
+        try {
+            return Files.deleteIfExists(fileFor(pageName));
+        } catch (IOException e) {
+            log.warn("Failed to delete checkpoint for {}: {}", pageName, e.getMessage());
+            return false;
+        }
+    }
+
+    private Path fileFor(String pageName) {
+        return getDirectory().resolve(pageName + FILE_EXTENSION);
+    }
+}
@@ -7,7 +7,9 @@ import com.jakefear.aipublisher.config.QualityProperties;
 import com.jakefear.aipublisher.document.*;
 import com.jakefear.aipublisher.glossary.GlossaryService;
 import com.jakefear.aipublisher.monitoring.PipelineMonitoringService;
+import com.jakefear.aipublisher.monitoring.jfr.PipelinePhaseEvent;
 import com.jakefear.aipublisher.output.WikiOutputService;
+import com.jakefear.aipublisher.util.PageNameUtils;
 import com.jakefear.aipublisher.util.LanguageValidator;
 import com.jakefear.aipublisher.util.WikiSyntaxValidator;
 import org.slf4j.Logger;
@@ -19,6 +21,7 @@ import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Orchestrates the complete publishing pipeline from topic brief to published article.
@@ -32,6 +35,8 @@ import java.util.List;
  * 6. Publish - Write to output
  *
  * Each phase can be configured with approval checkpoints and revision cycles.
+ * When a {@link CheckpointStore} is available, the document is saved after each
+ * phase so a failed run can later resume from the last completed phase.
  */
 @Service
 public class PublishingPipeline {
@@ -49,6 +54,7 @@ public class PublishingPipeline {
     private final GlossaryService glossaryService;
     private final PipelineProperties pipelineProperties;
     private final QualityProperties qualityProperties;
+    private CheckpointStore checkpointStore;
 
     public PublishingPipeline(
             ResearchAgent researchAgent,
@@ -75,6 +81,14 @@ public class PublishingPipeline {
         this.qualityProperties = qualityProperties;
     }
 
+    /**
+     * Set the checkpoint store (called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setCheckpointStore(CheckpointStore checkpointStore) {
+        this.checkpointStore = checkpointStore;
+    }
+
     /**
      * Execute the full pipeline for a topic brief.
      *
@@ -82,40 +96,76 @@ public class PublishingPipeline {
      * @return Result containing the published document and output path
      */
     public PipelineResult execute(TopicBrief topicBrief) {
-        Instant startTime = Instant.now();
-        PublishingDocument document = new PublishingDocument(topicBrief);
+        return execute(topicBrief, false);
+    }
 
-        log.info("Starting pipeline for topic: {}", topicBrief.topic());
+    /**
+     * Execute the pipeline for a topic brief, optionally resuming from a checkpoint.
+     *
+     * @param topicBrief The topic to create an article about
+     * @param resume If true and a checkpoint exists for this topic, skip the phases it already completed
+     * @return Result containing the published document and output path
+     */
+    public PipelineResult execute(TopicBrief topicBrief, boolean resume) {
+        Instant startTime = Instant.now();
+        DocumentCheckpoint checkpoint = resume ? findCheckpoint(topicBrief) : null;
+        PublishingDocument document = checkpoint != null
+                ? checkpoint.toDocument()
+                : new PublishingDocument(topicBrief);
+        DocumentState resumedFrom = checkpoint != null ? checkpoint.completedPhase() : DocumentState.CREATED;
+
+        if (checkpoint != null) {
+            log.info("Resuming pipeline for topic: {} (completed through {})", topicBrief.topic(), resumedFrom);
+            restoreGlossary(document);
+        } else {
+            log.info("Starting pipeline for topic: {}", topicBrief.topic());
+        }
         monitoringService.pipelineStarted(document);
 
         try {
             // Phase 1: Research
-            document = executeResearchPhase(document);
+            if (!hasCompleted(resumedFrom, DocumentState.RESEARCHING)) {
+                document = inPhase(document, DocumentState.RESEARCHING, this::executeResearchPhase);
+                saveCheckpoint(document, DocumentState.RESEARCHING);
+            }
 
             // Phase 2: Drafting (with revision loop)
-            document = executeDraftingPhase(document);
+            if (!hasCompleted(resumedFrom, DocumentState.DRAFTING)) {
+                document = inPhase(document, DocumentState.DRAFTING, this::executeDraftingPhase);
+                saveCheckpoint(document, DocumentState.DRAFTING);
+            }
 
             // Phase 3: Fact Checking (with revision loop)
-            if (pipelineProperties.isSkipFactCheck()) {
+            if (hasCompleted(resumedFrom, DocumentState.FACT_CHECKING)) {
+                log.debug("Phase 3: Fact Checking - restored from checkpoint");
+            } else if (pipelineProperties.isSkipFactCheck()) {
                 log.info("Phase 3: Fact Checking - SKIPPED (pipeline.skip-fact-check=true)");
                 monitoringService.phaseCompleted(document, DocumentState.FACT_CHECKING, "skipped");
             } else {
-                document = executeFactCheckPhase(document);
+                document = inPhase(document, DocumentState.FACT_CHECKING, this::executeFactCheckPhase);
+                saveCheckpoint(document, DocumentState.FACT_CHECKING);
             }
 
             // Phase 4: Editing
-            document = executeEditingPhase(document);
+            if (!hasCompleted(resumedFrom, DocumentState.EDITING)) {
+                document = inPhase(document, DocumentState.EDITING, this::executeEditingPhase);
+                saveCheckpoint(document, DocumentState.EDITING);
+            }
 
             // Phase 5: Critique (final quality check)
-            if (pipelineProperties.isSkipCritique()) {
+            if (hasCompleted(resumedFrom, DocumentState.CRITIQUING)) {
+                log.debug("Phase 5: Critique - restored from checkpoint");
+            } else if (pipelineProperties.isSkipCritique()) {
                 log.info("Phase 5: Critique - SKIPPED (pipeline.skip-critique=true)");
                 monitoringService.phaseCompleted(document, DocumentState.CRITIQUING, "skipped");
             } else {
-                document = executeCritiquePhase(document);
+                document = inPhase(document, DocumentState.CRITIQUING, this::executeCritiquePhase);
+                saveCheckpoint(document, DocumentState.CRITIQUING);
             }
 
             // Phase 6: Publishing
-            Path outputPath = executePublishPhase(document);
+            Path outputPath = inPhase(document, DocumentState.PUBLISHED, this::executePublishPhase);
+            deleteCheckpoint(document);
 
             Duration totalTime = Duration.between(startTime, Instant.now());
             log.info("Pipeline completed successfully in {} ms", totalTime.toMillis());
@@ -145,6 +195,79 @@ public class PublishingPipeline {
         }
     }
 
+    /**
+     * Find a usable checkpoint for a topic brief.
+     */
+    private DocumentCheckpoint findCheckpoint(TopicBrief topicBrief) {
+        if (checkpointStore == null) {
+            return null;
+        }
+        String pageName = PageNameUtils.toCamelCase(topicBrief.topic());
+        DocumentCheckpoint checkpoint = checkpointStore.load(pageName).orElse(null);
+        if (checkpoint == null) {
+            return null;
+        }
+        if (!topicBrief.topic().equals(checkpoint.topicBrief().topic()) || checkpoint.state().isTerminal()) {
+            log.info("Ignoring checkpoint for {} - it does not match this topic", pageName);
+            return null;
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Check whether a phase was already completed by the run being resumed.
+     */
+    private boolean hasCompleted(DocumentState resumedFrom, DocumentState phase) {
+        return resumedFrom.ordinal() >= phase.ordinal();
+    }
+
+    /**
+     * Re-register research glossary terms, which normally happens during the research phase.
+     */
+    private void restoreGlossary(PublishingDocument document) {
+        ResearchBrief researchBrief = document.getResearchBrief();
+        if (researchBrief != null && !researchBrief.glossary().isEmpty()) {
+            glossaryService.addFromMap(researchBrief.glossary(), document.getPageName());
+        }
+    }
+
+    private void saveCheckpoint(PublishingDocument document, DocumentState completedPhase) {
+        if (checkpointStore != null) {
+            checkpointStore.save(document, completedPhase);
+        }
+    }
+
+    private void deleteCheckpoint(PublishingDocument document) {
+        if (checkpointStore != null) {
+            checkpointStore.delete(document.getPageName());
+        }
+    }
+
+    /**
+     * Run one phase inside a {@link PipelinePhaseEvent}, so a flight recording
+     * shows where a slow run spent its time.
+     */
+    private <T> T inPhase(PublishingDocument document, DocumentState phase,
+                          Function<PublishingDocument, T> execution) {
+        PipelinePhaseEvent event = new PipelinePhaseEvent();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            T result = execution.apply(document);
+            succeeded = true;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.pageName = document.getPageName();
+                event.phase = phase.name();
+                event.revisionCycles = document.getRevisionCycleCount();
+                event.succeeded = succeeded;
+                event.commit();
+            }
+        }
+    }
+
     /**
      * Execute the research phase.
      */
@@ -238,7 +361,7 @@ public class PublishingPipeline {
             try {
                 Instant phaseStart = Instant.now();
                 document = factCheckerAgent.process(document);
-                monitoringService.recordAgentProcessing(AgentRole.FACT_CHECKER, Duration.between(phaseStart, Instant.now()));
+                monitoringService.recordAgentProcessing(AgentRole.FACT_CHECKER, Duration.between(phaseStart, Instant.now()), revisionCount);
 
                 if (!factCheckerAgent.validate(document)) {
                     throw new PipelineException("Fact check validation failed",
@@ -276,7 +399,7 @@ public class PublishingPipeline {
                     document.transitionTo(DocumentState.DRAFTING);
                     Instant revisionStart = Instant.now();
                     document = writerAgent.process(document);
-                    monitoringService.recordAgentProcessing(AgentRole.WRITER, Duration.between(revisionStart, Instant.now()));
+                    monitoringService.recordAgentProcessing(AgentRole.WRITER, Duration.between(revisionStart, Instant.now()), revisionCount);
                     document.transitionTo(DocumentState.FACT_CHECKING);
                 }
 
@@ -433,7 +556,7 @@ public class PublishingPipeline {
             try {
                 Instant phaseStart = Instant.now();
                 document = criticAgent.process(document);
-                monitoringService.recordAgentProcessing(AgentRole.CRITIC, Duration.between(phaseStart, Instant.now()));
+                monitoringService.recordAgentProcessing(AgentRole.CRITIC, Duration.between(phaseStart, Instant.now()), revisionCount);
 
                 if (!criticAgent.validate(document)) {
                     throw new PipelineException("Critic validation failed",
@@ -493,7 +616,7 @@ public class PublishingPipeline {
 
                     Instant revisionStart = Instant.now();
                     document = editorAgent.process(document);
-                    monitoringService.recordAgentProcessing(AgentRole.EDITOR, Duration.between(revisionStart, Instant.now()));
+                    monitoringService.recordAgentProcessing(AgentRole.EDITOR, Duration.between(revisionStart, Instant.now()), revisionCount);
                     document.transitionTo(DocumentState.CRITIQUING);
                 }
 
@@ -0,0 +1,255 @@
+package com.jakefear.aipublisher.pipeline;
+
+import com.jakefear.aipublisher.domain.GenerationPlan;
+import com.jakefear.aipublisher.domain.Topic;
+import com.jakefear.aipublisher.domain.TopicRelationship;
+import com.jakefear.aipublisher.domain.TopicUniverse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs pipeline executions for the topics of a universe concurrently while
+ * respecting the prerequisite DAG.
+ *
+ * A topic is started as soon as every topic it depends on (via a relationship
+ * whose {@link TopicRelationship#impliesOrdering()} is true) has finished. Among
+ * ready topics, the one that appears earliest in the supplied generation order
+ * is started first, so with a single worker the execution order is identical to
+ * a sequential walk of {@link TopicUniverse#getGenerationOrder()}.
+ *
+ * Dependents of a failed topic are still generated, matching the sequential
+ * behavior where a failure does not stop the rest of the universe. If the
+ * remaining topics form a cycle, the topic {@link GenerationPlan} chose to
+ * release for that cycle is started early, so the run always makes progress and
+ * breaks cycles the same way as the plan reported in
+ * {@link TopicUniverse#getGenerationPlan()}.
+ */
+public class UniverseScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(UniverseScheduler.class);
+
+    private final int workers;
+
+    /**
+     * Create a scheduler with the given number of concurrent pipeline workers.
+     *
+     * @param workers Maximum number of topics generated at the same time (minimum 1)
+     */
+    public UniverseScheduler(int workers) {
+        this.workers = Math.max(1, workers);
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Outcome of generating a single topic.
+     *
+     * @param topic The topic that was generated
+     * @param result The pipeline result, or null if the generator threw
+     * @param error The exception thrown by the generator, or null on a normal return
+     * @param elapsed Wall-clock time spent generating this topic
+     */
+    public record TopicOutcome(Topic topic, PipelineResult result, Exception error, Duration elapsed) {
+
+        /**
+         * Check whether the topic was generated and published successfully.
+         */
+        public boolean isSuccess() {
+            return error == null && result != null && result.success();
+        }
+    }
+
+    /**
+     * Generate all topics, running up to {@link #getWorkers()} at a time.
+     *
+     * @param universe The universe providing the ordering relationships
+     * @param topics Topics to generate, in preferred (generation) order
+     * @param generator Function that generates one topic, typically {@code PublishingPipeline::execute}
+     * @param onStart Called on the worker thread just before a topic starts (may be null)
+     * @param onComplete Called on the calling thread as each topic finishes (may be null)
+     * @return Outcomes in completion order
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public List<TopicOutcome> run(
+            TopicUniverse universe,
+            List<Topic> topics,
+            Function<Topic, PipelineResult> generator,
+            Consumer<Topic> onStart,
+            Consumer<TopicOutcome> onComplete) throws InterruptedException {
+
+        int n = topics.size();
+        List<TopicOutcome> outcomes = new ArrayList<>(n);
+        if (n == 0) {
+            return outcomes;
+        }
+
+        // Index topics by ID (first occurrence wins, as in topological sort)
+        Map<String, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            indexById.putIfAbsent(topics.get(i).id(), i);
+        }
+
+        // Build in-degree counters and dependent adjacency lists
+        int[] inDegree = new int[n];
+        List<List<Integer>> dependents = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            dependents.add(new ArrayList<>());
+        }
+        Set<Long> seenEdges = new HashSet<>();
+        for (TopicRelationship rel : universe.relationships()) {
+            if (!rel.impliesOrdering()) {
+                continue;
+            }
+            Integer source = indexById.get(rel.sourceTopicId());
+            Integer target = indexById.get(rel.targetTopicId());
+            if (source == null || target == null) {
+                continue;
+            }
+            // Ignore duplicate edges so in-degree matches the set of distinct prerequisites
+            if (seenEdges.add(((long) source << 32) | target)) {
+                dependents.get(source).add(target);
+                inDegree[target]++;
+            }
+        }
+
+        PriorityQueue<Integer> ready = new PriorityQueue<>();
+        for (int i = 0; i < n; i++) {
+            if (inDegree[i] == 0) {
+                ready.add(i);
+            }
+        }
+
+        boolean[] submitted = new boolean[n];
+        Deque<List<String>> cycles = null;
+        int inFlight = 0;
+        int completed = 0;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(workers, n), r -> {
+            Thread t = new Thread(r, "universe-worker-" + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        CompletionService<Integer> completion = new ExecutorCompletionService<>(executor);
+        TopicOutcome[] results = new TopicOutcome[n];
+
+        try {
+            while (completed < n) {
+                // Fill free worker slots with ready topics, earliest generation order first
+                while (inFlight < workers && !ready.isEmpty()) {
+                    int index = ready.poll();
+                    submitted[index] = true;
+                    inFlight++;
+                    completion.submit(() -> {
+                        results[index] = generate(topics.get(index), generator, onStart);
+                        return index;
+                    });
+                }
+
+                if (inFlight == 0) {
+                    // Nothing running and nothing ready: the remaining topics form a cycle
+                    if (cycles == null) {
+                        cycles = new ArrayDeque<>(universe.getGenerationPlan().brokenCycles());
+                    }
+                    List<String> cycle = nextCycle(cycles, indexById, submitted);
+                    if (cycle == null) {
+                        cycle = remainingCycle(universe, topics, submitted);
+                    }
+                    int next = indexById.get(cycle.get(0));
+                    log.warn("Prerequisite cycle {} detected, releasing '{}' early",
+                            String.join(" -> ", cycle), topics.get(next).name());
+                    ready.add(next);
+                    continue;
+                }
+
+                int index = awaitNext(completion);
+                inFlight--;
+                completed++;
+
+                TopicOutcome outcome = results[index];
+                outcomes.add(outcome);
+                if (onComplete != null) {
+                    onComplete.accept(outcome);
+                }
+
+                for (int dependent : dependents.get(index)) {
+                    if (--inDegree[dependent] == 0 && !submitted[dependent]) {
+                        ready.add(dependent);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return outcomes;
+    }
+
+    private TopicOutcome generate(Topic topic, Function<Topic, PipelineResult> generator, Consumer<Topic> onStart) {
+        Instant start = Instant.now();
+        try {
+            if (onStart != null) {
+                onStart.accept(topic);
+            }
+            PipelineResult result = generator.apply(topic);
+            return new TopicOutcome(topic, result, null, Duration.between(start, Instant.now()));
+        } catch (Exception e) {
+            log.error("Generation of '{}' failed: {}", topic.name(), e.getMessage(), e);
+            return new TopicOutcome(topic, null, e, Duration.between(start, Instant.now()));
+        }
+    }
+
+    private int awaitNext(CompletionService<Integer> completion) throws InterruptedException {
+        try {
+            return completion.take().get();
+        } catch (ExecutionException e) {
+            // generate() never throws, so this only happens on an unexpected Error
+            throw new IllegalStateException("Universe worker failed unexpectedly", e.getCause());
+        }
+    }
+
+    /**
+     * Take the next cycle broken by the generation plan whose released topic
+     * is still pending. With every ready topic scheduled, the scheduler gets
+     * stuck on exactly the cycles the plan broke, in the same order.
+     */
+    private List<String> nextCycle(Deque<List<String>> cycles, Map<String, Integer> indexById, boolean[] submitted) {
+        while (!cycles.isEmpty()) {
+            List<String> cycle = cycles.poll();
+            Integer index = indexById.get(cycle.get(0));
+            if (index != null && !submitted[index]) {
+                return cycle;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Plan the pending topics on their own and take the first cycle it breaks.
+     * Used when the topics differ from the universe's generation plan (e.g.
+     * published topics skipped on resume) and none of its cycles applies.
+     */
+    private List<String> remainingCycle(TopicUniverse universe, List<Topic> topics, boolean[] submitted) {
+        List<Topic> pending = new ArrayList<>();
+        for (int i = 0; i < submitted.length; i++) {
+            if (!submitted[i]) {
+                pending.add(topics.get(i));
+            }
+        }
+        List<List<String>> cycles = GenerationPlan.of(pending, universe.relationships()).brokenCycles();
+        if (cycles.isEmpty()) {
+            throw new IllegalStateException("No prerequisite cycle found among pending topics");
+        }
+        return cycles.get(0);
+    }
+}
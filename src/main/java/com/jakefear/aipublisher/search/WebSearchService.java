@@ -1,5 +1,7 @@
 package com.jakefear.aipublisher.search;
 
+import com.jakefear.aipublisher.monitoring.PipelineMeters;
+import com.jakefear.aipublisher.monitoring.jfr.HttpLookupEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -34,6 +36,7 @@ public class WebSearchService {
     private final HttpClient httpClient;
     private final int maxResults;
     private final boolean enabled;
+    private PipelineMeters meters;
 
     /**
      * Default constructor for Spring.
@@ -65,6 +68,14 @@ public class WebSearchService {
         this.enabled = enabled;
     }
 
+    /**
+     * Set the Micrometer meters (called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setMeters(PipelineMeters meters) {
+        this.meters = meters;
+    }
+
     /**
      * Search the web for information about a topic.
      *
@@ -92,7 +103,26 @@ public class WebSearchService {
                     .GET()
                     .build();
 
-            return executeWithRetry(request);
+            HttpLookupEvent event = new HttpLookupEvent();
+            event.begin();
+            long start = System.nanoTime();
+            List<SearchResult> results = null;
+            try {
+                results = executeWithRetry(request);
+                return results;
+            } finally {
+                if (meters != null) {
+                    meters.httpLookup("duckduckgo", Duration.ofNanos(System.nanoTime() - start),
+                            results != null && !results.isEmpty());
+                }
+                event.end();
+                if (event.shouldCommit()) {
+                    event.service = "duckduckgo";
+                    event.url = url;
+                    event.succeeded = results != null && !results.isEmpty();
+                    event.commit();
+                }
+            }
         } catch (InterruptedException e) {
             log.error("Search interrupted: {}", e.getMessage());
             Thread.currentThread().interrupt();
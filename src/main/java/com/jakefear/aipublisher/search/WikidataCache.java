@@ -0,0 +1,278 @@
+package com.jakefear.aipublisher.search;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier cache for Wikidata lookups: a bounded in-memory LRU in front of an
+ * on-disk store that survives between runs.
+ *
+ * Keys combine an operation name with a normalized argument (query text or
+ * entity ID). Values are JSON trees. Empty results (no search hits, unknown
+ * entity) are cached too, with their own shorter TTL, so repeated misses don't
+ * go back to the network.
+ *
+ * In offline mode entries never expire and the search service makes no HTTP
+ * calls at all, which makes runs against a warmed cache reproducible.
+ */
+@Component
+public class WikidataCache {
+
+    private static final Logger log = LoggerFactory.getLogger(WikidataCache.class);
+
+    private static final String FILE_EXTENSION = ".json";
+
+    private final Path directory;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final int memoryEntries;
+    private final boolean enabled;
+    private final boolean offline;
+    private final Clock clock;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, Entry> memory;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+
+    @Autowired
+    public WikidataCache(
+            @Value("${search.wikidata.cache.enabled:true}") boolean enabled,
+            @Value("${search.wikidata.cache.directory:}") String directory,
+            @Value("${search.wikidata.cache.ttl:P7D}") Duration ttl,
+            @Value("${search.wikidata.cache.negative-ttl:P1D}") Duration negativeTtl,
+            @Value("${search.wikidata.cache.memory-entries:5000}") int memoryEntries,
+            @Value("${search.wikidata.offline:false}") boolean offline) {
+        this(directory == null || directory.isBlank()
+                        ? Path.of(System.getProperty("user.home"), ".aipublisher", "cache", "wikidata")
+                        : Path.of(directory),
+                ttl, negativeTtl, memoryEntries, enabled, offline, Clock.systemUTC());
+    }
+
+    /**
+     * Constructor for testing.
+     */
+    public WikidataCache(Path directory, Duration ttl, Duration negativeTtl, int memoryEntries,
+                         boolean enabled, boolean offline, Clock clock) {
+        this.directory = directory;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.memoryEntries = memoryEntries;
+        this.enabled = enabled;
+        this.offline = offline;
+        this.clock = clock;
+        this.memory = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > WikidataCache.this.memoryEntries;
+            }
+        };
+    }
+
+    /**
+     * Build a cache key from an operation name and its argument.
+     * Query text is trimmed, lower-cased and has its whitespace collapsed.
+     */
+    public static String key(String operation, String argument) {
+        String normalized = argument == null ? "" : argument.trim()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+        return operation + ":" + normalized;
+    }
+
+    /**
+     * Check whether an empty lookup result should be cached as a negative entry.
+     */
+    public static boolean isNegative(JsonNode value) {
+        return value == null || value.isNull() || (value.isContainerNode() && value.isEmpty());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Check whether lookups must be served from the cache alone.
+     */
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * Look up a fresh entry, checking memory first and then disk.
+     */
+    public Optional<JsonNode> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Entry entry;
+        synchronized (memory) {
+            entry = memory.get(key);
+        }
+        if (entry == null) {
+            entry = readFromDisk(key);
+            if (entry != null) {
+                synchronized (memory) {
+                    memory.put(key, entry);
+                }
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        if (isExpired(entry)) {
+            expired.incrementAndGet();
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        (entry.negative() ? negativeHits : hits).incrementAndGet();
+        return Optional.of(entry.value());
+    }
+
+    /**
+     * Store a lookup result. Empty results are stored as negative entries.
+     */
+    public void put(String key, JsonNode value) {
+        if (!enabled || value == null) {
+            return;
+        }
+        Entry entry = new Entry(value, isNegative(value), clock.instant());
+        synchronized (memory) {
+            memory.put(key, entry);
+        }
+        writeToDisk(key, entry);
+    }
+
+    /**
+     * Remove every entry from memory and disk.
+     *
+     * @return The number of files deleted
+     */
+    public int clear() {
+        synchronized (memory) {
+            memory.clear();
+        }
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        int deleted = 0;
+        try (var files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(FILE_EXTENSION)).toList()) {
+                Files.deleteIfExists(file);
+                deleted++;
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clear Wikidata cache {}: {}", directory, e.getMessage());
+        }
+        return deleted;
+    }
+
+    private boolean isExpired(Entry entry) {
+        if (offline) {
+            return false;
+        }
+        Duration maxAge = entry.negative() ? negativeTtl : ttl;
+        return entry.storedAt().plus(maxAge).isBefore(clock.instant());
+    }
+
+    private Entry readFromDisk(String key) {
+        Path file = fileFor(key);
+        try {
+            JsonNode root = objectMapper.readTree(Files.readString(file, StandardCharsets.UTF_8));
+            if (!key.equals(root.path("key").asText())) {
+                return null;
+            }
+            return new Entry(root.path("value"), root.path("negative").asBoolean(false),
+                    Instant.parse(root.path("storedAt").asText()));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (Exception e) {
+            log.debug("Ignoring unreadable Wikidata cache entry {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, Entry entry) {
+        try {
+            Files.createDirectories(directory);
+            ObjectNode root = objectMapper.createObjectNode();
+            root.put("key", key);
+            root.put("storedAt", entry.storedAt().toString());
+            root.put("negative", entry.negative());
+            root.set("value", entry.value());
+            Path temp = Files.createTempFile(directory, "wikidata-", ".tmp");
+            Files.writeString(temp, objectMapper.writeValueAsString(root), StandardCharsets.UTF_8);
+            Files.move(temp, fileFor(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write Wikidata cache entry for {}: {}", key, e.getMessage());
+        }
+    }
+
+    private Path fileFor(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(hash) + FILE_EXTENSION);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Statistics
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getNegativeHits() {
+        return negativeHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getExpired() {
+        return expired.get();
+    }
+
+    public int getMemoryEntryCount() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private record Entry(JsonNode value, boolean negative, Instant storedAt) {
+    }
+}
@@ -2,6 +2,12 @@ package com.jakefear.aipublisher.search;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.jakefear.aipublisher.monitoring.PipelineMeters;
+import com.jakefear.aipublisher.monitoring.jfr.HttpLookupEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,6 +22,14 @@ import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
  * Search provider using Wikidata's knowledge base.
@@ -27,6 +41,14 @@ import java.util.*;
  * - Better coverage for concepts that don't have dedicated Wikipedia articles
  *
  * Free, unlimited, no API key required.
+ *
+ * When a {@link WikidataCache} is available, search results, entity IDs,
+ * related entities and labels are cached between runs, and offline mode
+ * serves lookups from the cache without touching the network.
+ *
+ * Requests are sent with {@link HttpClient#sendAsync}. Identical requests that
+ * overlap in time share one round-trip, and entity fetches are grouped into
+ * wbgetentities calls of up to 50 IDs.
  */
 @Service
 public class WikidataSearchService implements SearchProvider {
@@ -37,6 +59,8 @@ public class WikidataSearchService implements SearchProvider {
     private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
     private static final int MAX_RETRIES = 3;
     private static final long INITIAL_BACKOFF_MS = 500;
+    // wbgetentities accepts at most 50 IDs per request
+    static final int MAX_IDS_PER_REQUEST = 50;
 
     // Properties for finding related entities
     private static final List<String> RELATED_PROPERTIES = List.of(
@@ -54,6 +78,13 @@ public class WikidataSearchService implements SearchProvider {
     private final ObjectMapper objectMapper;
     private final int maxResults;
     private final boolean enabled;
+    private WikidataCache cache;
+
+    // Requests currently in flight by URL, shared by concurrent identical lookups
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong requestsSent = new AtomicLong();
+    private final AtomicLong requestsCoalesced = new AtomicLong();
+    private PipelineMeters meters;
 
     public WikidataSearchService() {
         this(5, true);
@@ -79,6 +110,26 @@ public class WikidataSearchService implements SearchProvider {
         this.enabled = enabled;
     }
 
+    /**
+     * Set the lookup cache (called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setCache(WikidataCache cache) {
+        this.cache = cache != null && cache.isEnabled() ? cache : null;
+    }
+
+    /**
+     * Set the Micrometer meters (called by Spring via @Autowired).
+     */
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    public void setMeters(PipelineMeters meters) {
+        this.meters = meters;
+    }
+
+    public WikidataCache getCache() {
+        return cache;
+    }
+
     @Override
     public String getProviderName() {
         return "wikidata";
@@ -104,26 +155,19 @@ public class WikidataSearchService implements SearchProvider {
         }
 
         try {
-            String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
-            String url = WIKIDATA_API + "?action=wbsearchentities" +
-                    "&search=" + encodedQuery +
-                    "&language=en" +
-                    "&limit=" + maxResults +
-                    "&format=json";
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(DEFAULT_TIMEOUT)
-                    .header("User-Agent", "AIPublisher/1.0 (https://github.com/jakefear/aipublisher)")
-                    .GET()
-                    .build();
-
-            String responseBody = executeWithRetry(request);
-            if (responseBody == null) {
-                return List.of();
-            }
-
-            return parseSearchResults(responseBody);
+            JsonNode cached = cachedLookup("search:" + maxResults, query, () -> {
+                String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
+                String url = WIKIDATA_API + "?action=wbsearchentities" +
+                        "&search=" + encodedQuery +
+                        "&language=en" +
+                        "&limit=" + maxResults +
+                        "&format=json";
+
+                String responseBody = executeWithRetry(buildRequest(url));
+                return responseBody == null ? null : toJson(parseSearchResults(responseBody));
+            });
+
+            return cached == null ? List.of() : fromJson(cached);
         } catch (InterruptedException e) {
             log.error("Wikidata search interrupted: {}", e.getMessage());
             Thread.currentThread().interrupt();
@@ -188,29 +232,21 @@ public class WikidataSearchService implements SearchProvider {
                 return List.of();
             }
 
-            // Get entity claims (properties)
-            String url = WIKIDATA_API + "?action=wbgetentities" +
-                    "&ids=" + entityId +
-                    "&props=claims" +
-                    "&format=json";
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(DEFAULT_TIMEOUT)
-                    .header("User-Agent", "AIPublisher/1.0 (https://github.com/jakefear/aipublisher)")
-                    .GET()
-                    .build();
-
-            String responseBody = executeWithRetry(request);
-            if (responseBody == null) {
-                return List.of();
-            }
-
-            // Extract related entity IDs from claims
-            Set<String> relatedIds = parseRelatedEntityIds(responseBody, entityId);
-            if (relatedIds.isEmpty()) {
+            // Get entity claims (properties) and extract related entity IDs
+            JsonNode cached = cachedLookup("related:" + maxResults, entityId, () -> {
+                JsonNode entity = fetchEntities(List.of(entityId), "claims", null).get(entityId);
+                if (entity == null) {
+                    return null;
+                }
+                ArrayNode ids = objectMapper.createArrayNode();
+                parseRelatedEntityIds(entity, entityId).forEach(ids::add);
+                return ids;
+            });
+            if (cached == null || cached.isEmpty()) {
                 return List.of();
             }
+            Set<String> relatedIds = new LinkedHashSet<>();
+            cached.forEach(id -> relatedIds.add(id.asText()));
 
             // Fetch labels for related entities
             return fetchEntityLabels(relatedIds);
@@ -309,6 +345,19 @@ public class WikidataSearchService implements SearchProvider {
      * Find the Wikidata entity ID for a topic.
      */
     private String findEntityId(String topic) throws InterruptedException {
+        JsonNode cached = cachedLookup("entity-id", topic, () -> {
+            String id = fetchEntityId(topic);
+            return id == null ? null : id.isEmpty() ? NullNode.getInstance() : TextNode.valueOf(id);
+        });
+        return cached == null || cached.isNull() ? null : cached.asText();
+    }
+
+    /**
+     * Fetch the entity ID for a topic from the API.
+     *
+     * @return The entity ID, an empty string if there is no match, or null if the request failed
+     */
+    private String fetchEntityId(String topic) throws InterruptedException {
         String encodedQuery = URLEncoder.encode(topic, StandardCharsets.UTF_8);
         String url = WIKIDATA_API + "?action=wbsearchentities" +
                 "&search=" + encodedQuery +
@@ -316,14 +365,7 @@ public class WikidataSearchService implements SearchProvider {
                 "&limit=1" +
                 "&format=json";
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(DEFAULT_TIMEOUT)
-                .header("User-Agent", "AIPublisher/1.0 (https://github.com/jakefear/aipublisher)")
-                .GET()
-                .build();
-
-        String responseBody = executeWithRetry(request);
+        String responseBody = executeWithRetry(buildRequest(url));
         if (responseBody == null) {
             return null;
         }
@@ -332,8 +374,9 @@ public class WikidataSearchService implements SearchProvider {
             JsonNode root = objectMapper.readTree(responseBody);
             JsonNode searchResults = root.path("search");
             if (searchResults.isArray() && searchResults.size() > 0) {
-                return searchResults.get(0).path("id").asText(null);
+                return searchResults.get(0).path("id").asText("");
             }
+            return "";
         } catch (Exception e) {
             log.error("Failed to parse entity ID: {}", e.getMessage());
         }
@@ -344,19 +387,18 @@ public class WikidataSearchService implements SearchProvider {
     /**
      * Parse related entity IDs from claims response.
      */
-    private Set<String> parseRelatedEntityIds(String json, String entityId) {
+    private Set<String> parseRelatedEntityIds(JsonNode entity, String entityId) {
         Set<String> relatedIds = new LinkedHashSet<>();
 
         try {
-            JsonNode root = objectMapper.readTree(json);
-            JsonNode claims = root.path("entities").path(entityId).path("claims");
+            JsonNode claims = entity.path("claims");
 
             for (String property : RELATED_PROPERTIES) {
                 JsonNode propertyClaims = claims.path(property);
                 if (propertyClaims.isArray()) {
                     for (JsonNode claim : propertyClaims) {
                         JsonNode mainsnak = claim.path("mainsnak");
-                        if ("wikibase-entityid".equals(mainsnak.path("datatype").asText())) {
+                        if ("wikibase-entityid".equals(mainsnak.path("datavalue").path("type").asText())) {
                             String relatedId = mainsnak.path("datavalue").path("value").path("id").asText();
                             if (relatedId != null && !relatedId.isEmpty() && !relatedId.equals(entityId)) {
                                 relatedIds.add(relatedId);
@@ -388,41 +430,92 @@ public class WikidataSearchService implements SearchProvider {
             return List.of();
         }
 
-        String ids = String.join("|", entityIds);
-        String url = WIKIDATA_API + "?action=wbgetentities" +
-                "&ids=" + ids +
-                "&props=labels" +
-                "&languages=en" +
-                "&format=json";
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(DEFAULT_TIMEOUT)
-                .header("User-Agent", "AIPublisher/1.0 (https://github.com/jakefear/aipublisher)")
-                .GET()
-                .build();
+        // Serve what we can from the cache and fetch the rest in batched requests
+        Map<String, String> labelsById = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String entityId : entityIds) {
+            Optional<JsonNode> cached = cache != null
+                    ? cache.get(WikidataCache.key("label", entityId))
+                    : Optional.empty();
+            if (cached.isPresent()) {
+                if (!cached.get().isNull()) {
+                    labelsById.put(entityId, cached.get().asText());
+                }
+            } else {
+                missing.add(entityId);
+            }
+        }
 
-        String responseBody = executeWithRetry(request);
-        if (responseBody == null) {
-            return List.of();
+        if (!missing.isEmpty() && !isOffline()) {
+            Map<String, JsonNode> fetched = fetchEntities(missing, "labels", "en");
+            for (String entityId : missing) {
+                JsonNode entity = fetched.get(entityId);
+                if (entity == null) {
+                    continue; // Request failed; don't cache
+                }
+                String label = entity.path("labels").path("en").path("value").asText("");
+                if (!label.isEmpty()) {
+                    labelsById.put(entityId, label);
+                }
+                if (cache != null) {
+                    cache.put(WikidataCache.key("label", entityId),
+                            label.isEmpty() ? NullNode.getInstance() : TextNode.valueOf(label));
+                }
+            }
         }
 
         List<String> labels = new ArrayList<>();
-        try {
-            JsonNode root = objectMapper.readTree(responseBody);
-            JsonNode entities = root.path("entities");
+        for (String entityId : entityIds) {
+            String label = labelsById.get(entityId);
+            if (label != null) {
+                labels.add(label);
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Fetch entities with wbgetentities, in batches of up to {@value #MAX_IDS_PER_REQUEST}
+     * IDs sent concurrently.
+     *
+     * @param entityIds The entity IDs to fetch
+     * @param props The props to request
+     * @param languages Language filter for labels and descriptions, or null for all
+     * @return Entity JSON by ID for every ID whose batch succeeded; IDs unknown to
+     *         Wikidata map to a missing node, IDs from failed batches are absent
+     */
+    private Map<String, JsonNode> fetchEntities(Collection<String> entityIds, String props, String languages)
+            throws InterruptedException {
+        List<String> ids = new ArrayList<>(entityIds);
+        List<List<String>> batches = new ArrayList<>();
+        List<CompletableFuture<String>> responses = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += MAX_IDS_PER_REQUEST) {
+            List<String> batch = ids.subList(start, Math.min(ids.size(), start + MAX_IDS_PER_REQUEST));
+            String url = WIKIDATA_API + "?action=wbgetentities" +
+                    "&ids=" + String.join("%7C", batch) +
+                    "&props=" + props +
+                    (languages != null ? "&languages=" + languages : "") +
+                    "&format=json";
+            batches.add(batch);
+            responses.add(executeAsync(buildRequest(url)));
+        }
 
-            for (String entityIdItem : entityIds) {
-                String label = entities.path(entityIdItem).path("labels").path("en").path("value").asText();
-                if (label != null && !label.isEmpty()) {
-                    labels.add(label);
+        Map<String, JsonNode> entities = new HashMap<>();
+        for (int i = 0; i < batches.size(); i++) {
+            String responseBody = await(responses.get(i));
+            if (responseBody == null) {
+                continue;
+            }
+            try {
+                JsonNode returned = objectMapper.readTree(responseBody).path("entities");
+                for (String entityId : batches.get(i)) {
+                    entities.put(entityId, returned.path(entityId));
                 }
+            } catch (Exception e) {
+                log.error("Failed to parse Wikidata entities: {}", e.getMessage());
             }
-        } catch (Exception e) {
-            log.error("Failed to parse entity labels: {}", e.getMessage());
         }
-
-        return labels;
+        return entities;
     }
 
     /**
@@ -463,6 +556,68 @@ public class WikidataSearchService implements SearchProvider {
         return results;
     }
 
+    /**
+     * A network lookup whose result can be cached. Returns null when the request
+     * failed, so failures are never cached.
+     */
+    @FunctionalInterface
+    private interface Lookup {
+        JsonNode fetch() throws InterruptedException;
+    }
+
+    /**
+     * Serve a lookup from the cache, or run it and cache the result.
+     * In offline mode a cache miss returns null without a request.
+     */
+    private JsonNode cachedLookup(String operation, String argument, Lookup lookup) throws InterruptedException {
+        if (cache == null) {
+            return lookup.fetch();
+        }
+        String key = WikidataCache.key(operation, argument);
+        Optional<JsonNode> cached = cache.get(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        if (cache.isOffline()) {
+            log.debug("Wikidata offline: no cached result for {}", key);
+            return null;
+        }
+        JsonNode value = lookup.fetch();
+        if (value != null) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    private boolean isOffline() {
+        return cache != null && cache.isOffline();
+    }
+
+    private JsonNode toJson(List<SearchResult> results) {
+        ArrayNode array = objectMapper.createArrayNode();
+        for (SearchResult result : results) {
+            ObjectNode node = array.addObject();
+            node.put("title", result.title());
+            node.put("url", result.url());
+            node.put("snippet", result.snippet());
+            node.put("reliability", result.reliability().name());
+        }
+        return array;
+    }
+
+    private List<SearchResult> fromJson(JsonNode array) {
+        List<SearchResult> results = new ArrayList<>();
+        for (JsonNode node : array) {
+            results.add(new SearchResult(
+                    node.path("title").asText(""),
+                    node.path("url").asText(""),
+                    node.path("snippet").asText(""),
+                    SourceReliability.valueOf(node.path("reliability").asText(SourceReliability.REPUTABLE.name()))
+            ));
+        }
+        return results;
+    }
+
     /**
      * Check if the result label is a similar match to the query.
      */
@@ -488,50 +643,131 @@ public class WikidataSearchService implements SearchProvider {
         return commonWords >= Math.min(queryWords.size(), labelWords.size()) * 0.5;
     }
 
+    private HttpRequest buildRequest(String url) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(DEFAULT_TIMEOUT)
+                .header("User-Agent", "AIPublisher/1.0 (https://github.com/jakefear/aipublisher)")
+                .GET()
+                .build();
+    }
+
     /**
-     * Execute HTTP request with exponential backoff retry.
+     * Execute HTTP request with exponential backoff retry and wait for the response body.
      */
     private String executeWithRetry(HttpRequest request) throws InterruptedException {
-        int attempt = 0;
-        long backoffMs = INITIAL_BACKOFF_MS;
+        return await(executeAsync(request));
+    }
 
-        while (attempt < MAX_RETRIES) {
-            try {
-                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-                int statusCode = response.statusCode();
+    /**
+     * Start an HTTP request, or join an identical request already in flight
+     * (single-flight), so concurrent lookups of the same URL share one round-trip.
+     * Each round-trip, including its retries, is recorded once as a lookup.
+     *
+     * @return The response body, or null once retries are exhausted
+     */
+    private CompletableFuture<String> executeAsync(HttpRequest request) {
+        String key = request.uri().toString();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            requestsCoalesced.incrementAndGet();
+            return existing;
+        }
+        HttpLookupEvent event = new HttpLookupEvent();
+        event.begin();
+        long start = System.nanoTime();
+        sendWithRetry(request, 1, INITIAL_BACKOFF_MS).whenComplete((body, error) -> {
+            inFlight.remove(key, pending);
+            if (error != null) {
+                log.error("Wikidata request failed: {}", error.getMessage());
+            }
+            String result = error == null ? body : null;
+            recordLookup(event, key, Duration.ofNanos(System.nanoTime() - start), result);
+            pending.complete(result);
+        });
+        return pending;
+    }
+
+    private void recordLookup(HttpLookupEvent event, String url, Duration duration, String body) {
+        if (meters != null) {
+            meters.httpLookup("wikidata", duration, body != null);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.service = "wikidata";
+            event.url = url;
+            event.responseChars = body != null ? body.length() : 0;
+            event.succeeded = body != null;
+            event.commit();
+        }
+    }
 
+    private CompletableFuture<String> sendWithRetry(HttpRequest request, int attempt, long backoffMs) {
+        requestsSent.incrementAndGet();
+        CompletableFuture<HttpResponse<String>> sent;
+        try {
+            sent = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        return sent.handle((response, error) -> {
+            if (error == null) {
+                int statusCode = response.statusCode();
                 if (statusCode == 200) {
-                    return response.body();
-                } else if (isRetryableStatus(statusCode)) {
-                    attempt++;
-                    if (attempt < MAX_RETRIES) {
-                        log.info("Wikidata request returned status {}, retrying in {}ms (attempt {}/{})",
-                                statusCode, backoffMs, attempt, MAX_RETRIES);
-                        Thread.sleep(backoffMs);
-                        backoffMs *= 2;
-                    } else {
-                        log.warn("Wikidata request failed with status {} after {} attempts", statusCode, MAX_RETRIES);
-                        return null;
-                    }
-                } else {
+                    return CompletableFuture.completedFuture(response.body());
+                }
+                if (!isRetryableStatus(statusCode)) {
                     log.warn("Wikidata request failed with non-retryable status {}", statusCode);
-                    return null;
+                    return CompletableFuture.<String>completedFuture(null);
                 }
-            } catch (IOException e) {
-                attempt++;
-                if (attempt < MAX_RETRIES) {
-                    log.info("Wikidata request failed with {}, retrying in {}ms (attempt {}/{})",
-                            e.getMessage(), backoffMs, attempt, MAX_RETRIES);
-                    Thread.sleep(backoffMs);
-                    backoffMs *= 2;
-                } else {
-                    log.error("Wikidata request failed after {} attempts: {}", MAX_RETRIES, e.getMessage());
-                    return null;
+                if (attempt >= MAX_RETRIES) {
+                    log.warn("Wikidata request failed with status {} after {} attempts", statusCode, MAX_RETRIES);
+                    return CompletableFuture.<String>completedFuture(null);
+                }
+                log.info("Wikidata request returned status {}, retrying in {}ms (attempt {}/{})",
+                        statusCode, backoffMs, attempt, MAX_RETRIES);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                if (!(cause instanceof IOException)) {
+                    log.error("Wikidata request failed: {}", cause.getMessage());
+                    return CompletableFuture.<String>completedFuture(null);
+                }
+                if (attempt >= MAX_RETRIES) {
+                    log.error("Wikidata request failed after {} attempts: {}", MAX_RETRIES, cause.getMessage());
+                    return CompletableFuture.<String>completedFuture(null);
                 }
+                log.info("Wikidata request failed with {}, retrying in {}ms (attempt {}/{})",
+                        cause.getMessage(), backoffMs, attempt, MAX_RETRIES);
             }
+            Executor delayed = CompletableFuture.delayedExecutor(backoffMs, TimeUnit.MILLISECONDS);
+            return CompletableFuture.supplyAsync(() -> sendWithRetry(request, attempt + 1, backoffMs * 2), delayed)
+                    .thenCompose(Function.identity());
+        }).thenCompose(Function.identity());
+    }
+
+    private String await(CompletableFuture<String> response) throws InterruptedException {
+        try {
+            return response.get();
+        } catch (ExecutionException e) {
+            log.error("Wikidata request failed: {}", e.getCause().getMessage());
+            return null;
         }
+    }
 
-        return null;
+    /**
+     * Get the number of HTTP requests sent, including retries.
+     */
+    public long getRequestsSent() {
+        return requestsSent.get();
+    }
+
+    /**
+     * Get the number of requests that joined an identical request already in flight.
+     */
+    public long getRequestsCoalesced() {
+        return requestsCoalesced.get();
     }
 
     private boolean isRetryableStatus(int statusCode) {
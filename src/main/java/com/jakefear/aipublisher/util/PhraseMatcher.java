@@ -0,0 +1,173 @@
+package com.jakefear.aipublisher.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds mentions of many phrases in a text in a single pass, using an
+ * Aho-Corasick automaton.
+ *
+ * Matching is case-insensitive and reports every occurrence, including
+ * overlapping ones; callers apply their own word-boundary and overlap rules.
+ * Phrases are lower-cased character by character so match offsets are valid
+ * in the original text.
+ *
+ * @param <T> The value associated with each phrase (e.g. a page name)
+ */
+public final class PhraseMatcher<T> {
+
+    /**
+     * One occurrence of a phrase.
+     *
+     * @param value The value registered for the phrase
+     * @param start Offset of the first character in the text
+     * @param length Length of the phrase
+     */
+    public record Mention<T>(T value, int start, int length) {
+    }
+
+    private final List<String> phrases = new ArrayList<>();
+    private final List<List<T>> values = new ArrayList<>();
+
+    // Automaton: transitions keyed by (state << 16 | char)
+    private final Map<Long, Integer> transitions = new HashMap<>();
+    private int[] failure;
+    private int[] output;       // phrase index ending at this state, or -1
+    private int[] outputLink;   // nearest state on the failure chain with an output, or -1
+
+    private PhraseMatcher() {
+    }
+
+    /**
+     * Build a matcher over a set of phrases.
+     *
+     * @param phrasesToValues Phrase -> values to report when it occurs
+     */
+    public static <T> PhraseMatcher<T> build(Map<String, ? extends Collection<T>> phrasesToValues) {
+        PhraseMatcher<T> matcher = new PhraseMatcher<>();
+        matcher.compile(phrasesToValues);
+        return matcher;
+    }
+
+    /**
+     * Number of distinct phrases in the automaton.
+     */
+    public int size() {
+        return phrases.size();
+    }
+
+    /**
+     * Find all phrase occurrences in the text, ordered by end position.
+     */
+    public List<Mention<T>> findAll(String text) {
+        List<Mention<T>> mentions = new ArrayList<>();
+        if (text == null || phrases.isEmpty()) {
+            return mentions;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            Integer next;
+            while ((next = transitions.get(key(state, c))) == null && state != 0) {
+                state = failure[state];
+            }
+            state = next == null ? 0 : next;
+
+            int match = output[state] >= 0 ? state : outputLink[state];
+            while (match >= 0) {
+                int phrase = output[match];
+                int length = phrases.get(phrase).length();
+                for (T value : values.get(phrase)) {
+                    mentions.add(new Mention<>(value, i - length + 1, length));
+                }
+                match = outputLink[match];
+            }
+        }
+        return mentions;
+    }
+
+    private void compile(Map<String, ? extends Collection<T>> phrasesToValues) {
+        // Merge phrases that only differ in case
+        Map<String, List<T>> merged = new LinkedHashMap<>();
+        phrasesToValues.forEach((phrase, phraseValues) -> {
+            if (phrase != null && !phrase.isEmpty()) {
+                merged.computeIfAbsent(lowerCase(phrase), k -> new ArrayList<>()).addAll(phraseValues);
+            }
+        });
+
+        List<Integer> outputs = new ArrayList<>();
+        outputs.add(-1);
+        int states = 1;
+        for (Map.Entry<String, List<T>> entry : merged.entrySet()) {
+            int phraseIndex = phrases.size();
+            phrases.add(entry.getKey());
+            values.add(List.copyOf(entry.getValue()));
+
+            int state = 0;
+            for (char c : entry.getKey().toCharArray()) {
+                Integer next = transitions.get(key(state, c));
+                if (next == null) {
+                    next = states++;
+                    transitions.put(key(state, c), next);
+                    outputs.add(-1);
+                }
+                state = next;
+            }
+            outputs.set(state, phraseIndex);
+        }
+
+        output = outputs.stream().mapToInt(Integer::intValue).toArray();
+        failure = new int[states];
+        outputLink = new int[states];
+        Arrays.fill(outputLink, -1);
+
+        // Children of each state, for the breadth-first failure computation
+        List<List<long[]>> children = new ArrayList<>(states);
+        for (int i = 0; i < states; i++) {
+            children.add(new ArrayList<>(2));
+        }
+        transitions.forEach((key, child) ->
+                children.get((int) (key >>> 16)).add(new long[]{key & 0xFFFF, child}));
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (long[] edge : children.get(0)) {
+            int child = (int) edge[1];
+            failure[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (long[] edge : children.get(state)) {
+                char c = (char) edge[0];
+                int child = (int) edge[1];
+                int fallback = failure[state];
+                Integer next;
+                while ((next = transitions.get(key(fallback, c))) == null && fallback != 0) {
+                    fallback = failure[fallback];
+                }
+                failure[child] = next == null || next == child ? 0 : next;
+                int target = failure[child];
+                outputLink[child] = output[target] >= 0 ? target : outputLink[target];
+                queue.add(child);
+            }
+        }
+    }
+
+    private static long key(int state, char c) {
+        return ((long) state << 16) | c;
+    }
+
+    private static String lowerCase(String phrase) {
+        char[] chars = phrase.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+}
@@ -5,17 +5,37 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.jakefear.aipublisher.document.DocumentState;
 import com.jakefear.aipublisher.document.PublishingDocument;
 import com.jakefear.aipublisher.document.TopicBrief;
+import com.jakefear.aipublisher.document.AgentContribution;
+import com.jakefear.aipublisher.document.TokenUsageSummary;
+import com.jakefear.aipublisher.llm.LlmPriceTable;
+import com.jakefear.aipublisher.llm.LlmRequestScheduler;
+import com.jakefear.aipublisher.llm.LlmResponseCache;
+import com.jakefear.aipublisher.llm.StreamStalledException;
+import com.jakefear.aipublisher.llm.StreamingChatClient;
+import com.jakefear.aipublisher.llm.ScheduledChatModel;
+import com.jakefear.aipublisher.llm.StreamingResult;
+import com.jakefear.aipublisher.monitoring.PipelineMonitoringService;
+import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.FinishReason;
+import dev.langchain4j.model.output.TokenUsage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 
+import static com.jakefear.aipublisher.agent.ChatModelStubs.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -141,32 +161,32 @@ class BaseAgentTest {
         @Test
         @DisplayName("Succeeds on first attempt")
         void succeedsOnFirstAttempt() {
-            when(mockModel.chat(anyString())).thenReturn("success");
+            when(mockModel.chat(anyRequest())).thenReturn(reply("success"));
 
             agent.process(document);
 
-            verify(mockModel, times(1)).chat(anyString());
+            verify(mockModel, times(1)).chat(anyRequest());
             assertTrue(agent.wasProcessed());
         }
 
         @Test
         @DisplayName("Retries on transient failure")
         void retriesOnTransientFailure() {
-            when(mockModel.chat(anyString()))
+            when(mockModel.chat(anyRequest()))
                     .thenThrow(new RuntimeException("timeout"))
-                    .thenReturn("success");
+                    .thenReturn(reply("success"));
 
             // Use a fast retry agent for testing
             TestableAgent fastAgent = new TestableAgent(mockModel, 3, Duration.ofMillis(10), 1.0);
             fastAgent.process(document);
 
-            verify(mockModel, times(2)).chat(anyString());
+            verify(mockModel, times(2)).chat(anyRequest());
         }
 
         @Test
         @DisplayName("Throws after max retries")
         void throwsAfterMaxRetries() {
-            when(mockModel.chat(anyString()))
+            when(mockModel.chat(anyRequest()))
                     .thenThrow(new RuntimeException("timeout"));
 
             TestableAgent fastAgent = new TestableAgent(mockModel, 2, Duration.ofMillis(10), 1.0);
@@ -175,7 +195,7 @@ class BaseAgentTest {
                     () -> fastAgent.process(document));
 
             assertEquals(AgentRole.RESEARCHER, exception.getAgentRole());
-            verify(mockModel, times(2)).chat(anyString());
+            verify(mockModel, times(2)).chat(anyRequest());
         }
     }
 
@@ -352,6 +372,229 @@ class BaseAgentTest {
         }
     }
 
+    @Nested
+    @DisplayName("Response Caching")
+    class ResponseCaching {
+
+        @TempDir
+        Path cacheDir;
+
+        @Test
+        @DisplayName("Second run with identical prompt is served from cache")
+        void secondRunUsesCache() {
+            when(mockModel.chat(anyRequest())).thenReturn(reply("success"));
+            LlmResponseCache cache = new LlmResponseCache(cacheDir, 1024 * 1024, true);
+            agent.setResponseCache(cache);
+
+            agent.process(document);
+            agent.process(document);
+
+            verify(mockModel, times(1)).chat(anyRequest());
+            assertEquals(1, cache.getHits());
+            assertEquals(1, cache.getEntryCount());
+        }
+
+        @Test
+        @DisplayName("Disabled cache always calls the model")
+        void disabledCacheCallsModel() {
+            when(mockModel.chat(anyRequest())).thenReturn(reply("success"));
+            agent.setResponseCache(new LlmResponseCache(cacheDir, 1024 * 1024, false));
+
+            agent.process(document);
+            agent.process(document);
+
+            verify(mockModel, times(2)).chat(anyRequest());
+        }
+
+        @Test
+        @DisplayName("Does not cache responses that fail to parse")
+        void doesNotCacheUnparseableResponses() {
+            when(mockModel.chat(anyRequest())).thenReturn(reply("not json"));
+            LlmResponseCache cache = new LlmResponseCache(cacheDir, 1024 * 1024, true);
+            JsonAgent jsonAgent = new JsonAgent(mockModel);
+            jsonAgent.setResponseCache(cache);
+
+            assertThrows(AgentException.class, () -> jsonAgent.process(document));
+
+            verify(mockModel, times(2)).chat(anyRequest());
+            assertEquals(0, cache.getEntryCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Streaming")
+    class Streaming {
+
+        @Mock
+        private StreamingChatClient streamingClient;
+
+        private PipelineMonitoringService monitoringService;
+
+        @BeforeEach
+        void setUpStreaming() {
+            monitoringService = new PipelineMonitoringService(List.of());
+            agent.setStreamingClient(streamingClient);
+            agent.setMonitoringService(monitoringService);
+        }
+
+        @Test
+        @DisplayName("Uses the streaming client when enabled and records metrics")
+        void usesStreamingClient() {
+            when(streamingClient.isEnabled()).thenReturn(true);
+            when(streamingClient.chat(anyString())).thenReturn(new StreamingResult(
+                    "streamed", List.of("reasoning"), Duration.ofMillis(100), Duration.ofMillis(1100), 50));
+
+            agent.process(document);
+
+            verify(mockModel, never()).chat(anyRequest());
+            assertEquals("reasoning", agent.getLastCapturedThinking());
+            assertEquals(1, monitoringService.getMetrics().getStreamedResponseCount(AgentRole.RESEARCHER));
+            assertEquals(50.0, monitoringService.getMetrics().getAgentTokensPerSecond(AgentRole.RESEARCHER), 0.01);
+        }
+
+        @Test
+        @DisplayName("Falls back to the blocking model when streaming is disabled")
+        void usesBlockingModelWhenDisabled() {
+            when(streamingClient.isEnabled()).thenReturn(false);
+            when(mockModel.chat(anyRequest())).thenReturn(reply("blocking"));
+
+            agent.process(document);
+
+            verify(streamingClient, never()).chat(anyString());
+        }
+
+        @Test
+        @DisplayName("Retries stalled streams and counts the stall")
+        void retriesStalledStreams() {
+            TestableAgent retryingAgent = new TestableAgent(mockModel, 2, Duration.ofMillis(1), 1.0);
+            retryingAgent.setStreamingClient(streamingClient);
+            retryingAgent.setMonitoringService(monitoringService);
+            when(streamingClient.isEnabled()).thenReturn(true);
+            when(streamingClient.chat(anyString()))
+                    .thenThrow(new StreamStalledException(Duration.ofSeconds(30), true))
+                    .thenReturn(new StreamingResult("ok", List.of(), Duration.ZERO, Duration.ofMillis(10), 1));
+
+            retryingAgent.process(document);
+
+            assertTrue(retryingAgent.wasProcessed());
+            assertEquals(1, monitoringService.getMetrics().getTotalStreamStalls());
+        }
+
+        @Test
+        @DisplayName("Records token usage from the final streamed response")
+        void recordsStreamedTokenUsage() {
+            when(streamingClient.isEnabled()).thenReturn(true);
+            when(streamingClient.chat(anyString())).thenReturn(new StreamingResult(
+                    "streamed", List.of(), Duration.ofMillis(100), Duration.ofMillis(1100), 50,
+                    response("streamed", 800, 50)));
+
+            agent.process(document);
+
+            assertEquals(800, document.getTokenUsage().inputTokens());
+            assertEquals(50, monitoringService.getMetrics().getAgentTokenUsage(AgentRole.RESEARCHER).outputTokens());
+        }
+    }
+
+    @Nested
+    @DisplayName("Token Accounting")
+    class TokenAccounting {
+
+        private PipelineMonitoringService monitoringService;
+
+        @BeforeEach
+        void setUpAccounting() {
+            monitoringService = new PipelineMonitoringService(List.of());
+        }
+
+        @Test
+        @DisplayName("Records tokens and cost in the contribution and metrics")
+        void recordsUsage() {
+            when(mockModel.chat(anyRequest())).thenReturn(response("answer", 1000, 200));
+            agent.setMonitoringService(monitoringService);
+            agent.setPriceTable(new LlmPriceTable("claude-sonnet-4-20250514"));
+
+            agent.process(document);
+
+            AgentContribution contribution = document.getContributions().get(0);
+            assertEquals(1000L, contribution.metrics().get(TokenUsageSummary.INPUT_TOKENS));
+            assertEquals(200L, contribution.metrics().get(TokenUsageSummary.OUTPUT_TOKENS));
+            assertEquals("claude-sonnet-4-20250514", contribution.metrics().get("model"));
+            assertEquals("STOP", contribution.metrics().get("finishReason"));
+            assertEquals(0.006, document.getTokenUsage().costUsd(), 1e-9);
+
+            TokenUsageSummary agentUsage = monitoringService.getMetrics().getAgentTokenUsage(AgentRole.RESEARCHER);
+            assertEquals(1, agentUsage.calls());
+            assertEquals(1000, agentUsage.inputTokens());
+            assertEquals(0.006, agentUsage.costUsd(), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Reads usage through a scheduled model")
+        void recordsScheduledUsage() {
+            ChatModel provider = new ChatModel() {
+                @Override
+                public ChatResponse chat(ChatRequest chatRequest) {
+                    return response("answer", 1000, 200);
+                }
+            };
+            TestableAgent scheduledAgent = new TestableAgent(
+                    new ScheduledChatModel(provider, new LlmRequestScheduler(), "anthropic", "test", 1));
+
+            scheduledAgent.process(document);
+
+            assertEquals(1000, document.getTokenUsage().inputTokens());
+        }
+
+        @Test
+        @DisplayName("Counts the tokens of rejected attempts")
+        void countsRejectedAttempts() {
+            when(mockModel.chat(anyRequest())).thenReturn(response("not json", 1000, 200));
+            JsonAgent jsonAgent = new JsonAgent(mockModel);
+            jsonAgent.setMonitoringService(monitoringService);
+
+            assertThrows(AgentException.class, () -> jsonAgent.process(document));
+
+            TokenUsageSummary agentUsage = monitoringService.getMetrics().getAgentTokenUsage(AgentRole.RESEARCHER);
+            assertEquals(2, agentUsage.calls());
+            assertEquals(2000, agentUsage.inputTokens());
+        }
+
+        @Test
+        @DisplayName("Keeps the usage of a failed agent on the document")
+        void keepsUsageOfFailedAgent() {
+            when(mockModel.chat(anyRequest())).thenReturn(response("not json", 1000, 200));
+            JsonAgent jsonAgent = new JsonAgent(mockModel);
+
+            assertThrows(AgentException.class, () -> jsonAgent.process(document));
+
+            assertEquals(2, document.getTokenUsage().calls());
+            assertEquals(2000, document.getTokenUsage().inputTokens());
+            assertEquals(true, document.getContributions().get(0).metrics().get("failed"));
+        }
+
+        @Test
+        @DisplayName("Records no usage when the model reports none")
+        void noUsageWithoutResponse() {
+            when(mockModel.chat(anyRequest())).thenReturn(reply("success"));
+            agent.setMonitoringService(monitoringService);
+
+            agent.process(document);
+
+            assertTrue(document.getTokenUsage().isEmpty());
+            assertFalse(document.getContributions().get(0).metrics().containsKey(TokenUsageSummary.CALLS));
+            assertTrue(monitoringService.getMetrics().getTotalTokenUsage().isEmpty());
+        }
+    }
+
+    private static ChatResponse response(String text, int inputTokens, int outputTokens) {
+        return ChatResponse.builder()
+                .aiMessage(AiMessage.from(text))
+                .tokenUsage(new TokenUsage(inputTokens, outputTokens))
+                .finishReason(FinishReason.STOP)
+                .modelName("claude-sonnet-4-20250514")
+                .build();
+    }
+
     @Nested
     @DisplayName("Retryable Error Detection")
     class RetryableErrorDetection {
@@ -387,6 +630,37 @@ class BaseAgentTest {
         }
     }
 
+    /**
+     * Agent that requires a JSON response, used to exercise parse failures.
+     */
+    private static class JsonAgent extends BaseAgent {
+
+        JsonAgent(ChatModel model) {
+            super(model, "Test system prompt", 2, Duration.ofMillis(1), 1.0);
+        }
+
+        @Override
+        public AgentRole getRole() {
+            return AgentRole.RESEARCHER;
+        }
+
+        @Override
+        protected String buildUserPrompt(PublishingDocument document) {
+            return "Test prompt for " + document.getPageName();
+        }
+
+        @Override
+        protected void parseAndApplyResponse(String response, PublishingDocument document)
+                throws JsonProcessingException {
+            parseJson(response);
+        }
+
+        @Override
+        public boolean validate(PublishingDocument document) {
+            return true;
+        }
+    }
+
     /**
      * Testable subclass of BaseAgent that exposes protected methods for testing.
      */
@@ -0,0 +1,51 @@
+package com.jakefear.aipublisher.agent;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import org.mockito.invocation.InvocationOnMock;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Helpers for stubbing a mocked ChatModel in agent tests.
+ *
+ * Agents call {@code chat(ChatRequest)} so they can read the token usage of
+ * the response; stubs match any request and answer with a response wrapping
+ * the given text.
+ */
+final class ChatModelStubs {
+
+    private ChatModelStubs() {
+        // Utility class
+    }
+
+    /**
+     * Match any chat request.
+     */
+    static ChatRequest anyRequest() {
+        return any(ChatRequest.class);
+    }
+
+    /**
+     * Build a response carrying only the given text.
+     */
+    static ChatResponse reply(String text) {
+        return ChatResponse.builder()
+                .aiMessage(AiMessage.from(text))
+                .build();
+    }
+
+    /**
+     * Get the prompt text sent in a stubbed {@code chat(ChatRequest)} call.
+     */
+    static String promptOf(InvocationOnMock invocation) {
+        ChatRequest request = invocation.getArgument(0);
+        List<ChatMessage> messages = request.messages();
+        return ((UserMessage) messages.get(messages.size() - 1)).singleText();
+    }
+}
@@ -13,8 +13,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.List;
 import java.util.Map;
 
+import static com.jakefear.aipublisher.agent.ChatModelStubs.*;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -133,7 +133,7 @@ class CriticAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -172,7 +172,7 @@ class CriticAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -205,7 +205,7 @@ class CriticAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -231,7 +231,7 @@ class CriticAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -260,7 +260,7 @@ class CriticAgentTest {
                     ```
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -271,7 +271,7 @@ class CriticAgentTest {
         @Test
         @DisplayName("Throws on invalid JSON")
         void throwsOnInvalidJson() {
-            when(mockModel.chat(anyString())).thenReturn("This is not JSON");
+            when(mockModel.chat(anyRequest())).thenReturn(reply("This is not JSON"));
 
             assertThrows(AgentException.class, () -> agent.process(document));
         }
@@ -298,7 +298,7 @@ class CriticAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             agent.process(document);
 
@@ -329,7 +329,7 @@ class CriticAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             agent.process(document);
 
@@ -358,7 +358,7 @@ class CriticAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             agent.process(document);
 
@@ -385,7 +385,7 @@ class CriticAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             agent.process(document);
 
@@ -420,11 +420,11 @@ class CriticAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertTrue(prompt.contains("Apache Kafka"));
                 assertTrue(prompt.contains("[{TableOfContents}]"));
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(document);
@@ -447,11 +447,11 @@ class CriticAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertTrue(prompt.contains("Title:"));
                 assertTrue(prompt.contains("Editor quality score:"));
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(document);
@@ -474,10 +474,10 @@ class CriticAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertTrue(prompt.toLowerCase().contains("jspwiki") || prompt.contains("Markdown"));
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(document);
@@ -553,7 +553,7 @@ class CriticAgentTest {
                       "recommendedAction": "APPROVE"
                     }
                     """;
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             assertDoesNotThrow(() -> agent.process(document),
                     "CriticAgent should process successfully when FinalArticle is present");
@@ -581,7 +581,7 @@ class CriticAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             int initialContributions = document.getContributions().size();
             agent.process(document);
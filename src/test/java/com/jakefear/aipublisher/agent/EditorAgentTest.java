@@ -13,8 +13,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.List;
 import java.util.Map;
 
+import static com.jakefear.aipublisher.agent.ChatModelStubs.*;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -148,7 +148,7 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -176,7 +176,7 @@ class EditorAgentTest {
                     ```
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -194,7 +194,7 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -214,7 +214,7 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             FinalArticle article = agent.process(document).getFinalArticle();
 
@@ -231,7 +231,7 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             assertThrows(AgentException.class, () -> agent.process(document));
         }
@@ -239,7 +239,7 @@ class EditorAgentTest {
         @Test
         @DisplayName("Throws on invalid JSON")
         void throwsOnInvalidJson() {
-            when(mockModel.chat(anyString())).thenReturn("Not JSON");
+            when(mockModel.chat(anyRequest())).thenReturn(reply("Not JSON"));
 
             assertThrows(AgentException.class, () -> agent.process(document));
         }
@@ -259,7 +259,7 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             FinalArticle article = agent.process(document).getFinalArticle();
             assertEquals(0.95, article.qualityScore(), 0.001);
@@ -276,7 +276,7 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             FinalArticle article = agent.process(document).getFinalArticle();
             assertEquals(0.65, article.qualityScore(), 0.001);
@@ -292,7 +292,7 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             FinalArticle article = agent.process(document).getFinalArticle();
             assertEquals(0.8, article.qualityScore(), 0.001);
@@ -313,7 +313,7 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             agent.process(document);
 
@@ -336,7 +336,7 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             agent.process(document);
 
@@ -353,7 +353,7 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             agent.process(document);
 
@@ -375,10 +375,10 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertTrue(prompt.contains("Apache Kafka is a distributed streaming platform"));
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(document);
@@ -394,11 +394,11 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertTrue(prompt.contains("Overall Confidence: HIGH"));
                 assertTrue(prompt.contains("Recommendation: APPROVE"));
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(document);
@@ -455,12 +455,12 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertTrue(prompt.contains("Kafka is the fastest"));
                 assertTrue(prompt.contains("No evidence"));
                 assertTrue(prompt.contains("Remove superlative"));
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(docWithIssues);
@@ -479,12 +479,12 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertTrue(prompt.contains("EXISTING PAGES"));
                 assertTrue(prompt.contains("EventStreaming"));
                 assertTrue(prompt.contains("MessageQueue"));
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(document);
@@ -502,10 +502,10 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertFalse(prompt.contains("EXISTING PAGES"));
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(document);
@@ -531,7 +531,7 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             FinalArticle article = agent.process(document).getFinalArticle();
 
@@ -549,7 +549,7 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             FinalArticle article = agent.process(document).getFinalArticle();
 
@@ -572,7 +572,7 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             FinalArticle article = agent.process(document).getFinalArticle();
 
@@ -593,7 +593,7 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             FinalArticle article = agent.process(document).getFinalArticle();
 
@@ -615,7 +615,7 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             int initialContributions = document.getContributions().size();
 
@@ -680,7 +680,7 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             // Should not throw NullPointerException
             PublishingDocument result = agent.process(documentWithoutFactCheck);
@@ -701,12 +701,12 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertTrue(prompt.contains("Fact-checking was skipped") ||
                            prompt.contains("skipped"),
                         "Prompt should indicate fact-checking was skipped");
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(documentWithoutFactCheck);
@@ -724,14 +724,14 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 // Should not contain confidence level from a fact-check report
                 assertFalse(prompt.contains("Overall Confidence: HIGH") ||
                             prompt.contains("Overall Confidence: MEDIUM") ||
                             prompt.contains("Overall Confidence: LOW"),
                         "Prompt should not contain fact-check confidence when skipped");
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(documentWithoutFactCheck);
@@ -749,7 +749,7 @@ class EditorAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             agent.process(documentWithoutFactCheck);
 
@@ -13,8 +13,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.List;
 import java.util.Map;
 
+import static com.jakefear.aipublisher.agent.ChatModelStubs.*;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -99,7 +99,7 @@ class FactCheckerAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -130,7 +130,7 @@ class FactCheckerAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -158,7 +158,7 @@ class FactCheckerAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -187,7 +187,7 @@ class FactCheckerAgentTest {
                     ```
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -206,7 +206,7 @@ class FactCheckerAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -229,7 +229,7 @@ class FactCheckerAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -240,7 +240,7 @@ class FactCheckerAgentTest {
         @Test
         @DisplayName("Throws on invalid JSON")
         void throwsOnInvalidJson() {
-            when(mockModel.chat(anyString())).thenReturn("This is not JSON");
+            when(mockModel.chat(anyRequest())).thenReturn(reply("This is not JSON"));
 
             assertThrows(AgentException.class, () -> agent.process(document));
         }
@@ -261,7 +261,7 @@ class FactCheckerAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             FactCheckReport report = agent.process(document).getFactCheckReport();
             assertEquals(ConfidenceLevel.HIGH, report.overallConfidence());
@@ -278,7 +278,7 @@ class FactCheckerAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             FactCheckReport report = agent.process(document).getFactCheckReport();
             assertEquals(ConfidenceLevel.MEDIUM, report.overallConfidence());
@@ -295,7 +295,7 @@ class FactCheckerAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             FactCheckReport report = agent.process(document).getFactCheckReport();
             assertEquals(ConfidenceLevel.LOW, report.overallConfidence());
@@ -319,7 +319,7 @@ class FactCheckerAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             agent.process(document);
 
@@ -345,7 +345,7 @@ class FactCheckerAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             agent.process(document);
 
@@ -368,10 +368,10 @@ class FactCheckerAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertTrue(prompt.contains("Apache Kafka is a distributed streaming platform"));
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(document);
@@ -388,10 +388,10 @@ class FactCheckerAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertTrue(prompt.contains("Created at LinkedIn in 2011"));
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(document);
@@ -408,10 +408,10 @@ class FactCheckerAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertTrue(prompt.contains("Performance numbers vary by configuration"));
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(document);
@@ -441,7 +441,7 @@ class FactCheckerAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             FactCheckReport report = agent.process(document).getFactCheckReport();
 
@@ -466,7 +466,7 @@ class FactCheckerAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             FactCheckReport report = agent.process(document).getFactCheckReport();
 
@@ -492,7 +492,7 @@ class FactCheckerAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             // Document already has contributions from previous phases (simulated)
             int initialContributions = document.getContributions().size();
@@ -3,6 +3,7 @@ package com.jakefear.aipublisher.agent;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import com.jakefear.aipublisher.document.*;
+import com.jakefear.aipublisher.search.WikidataSearchService;
 import dev.langchain4j.model.chat.ChatModel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,9 +14,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
+import static com.jakefear.aipublisher.agent.ChatModelStubs.*;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("ResearchAgent")
@@ -87,7 +90,7 @@ class ResearchAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -117,7 +120,7 @@ class ResearchAgentTest {
                     ```
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -135,7 +138,7 @@ class ResearchAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -162,7 +165,7 @@ class ResearchAgentTest {
                         }
                         """;
 
-                when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+                when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
                 assertThrows(AgentException.class, () -> agent.process(document));
             } finally {
                 agentLogger.setLevel(originalLevel);
@@ -185,7 +188,7 @@ class ResearchAgentTest {
                         }
                         """;
 
-                when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+                when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
                 assertThrows(AgentException.class, () -> agent.process(document));
             } finally {
                 agentLogger.setLevel(originalLevel);
@@ -201,7 +204,7 @@ class ResearchAgentTest {
             agentLogger.setLevel(Level.OFF);
 
             try {
-                when(mockModel.chat(anyString())).thenReturn("This is not JSON");
+                when(mockModel.chat(anyRequest())).thenReturn(reply("This is not JSON"));
                 assertThrows(AgentException.class, () -> agent.process(document));
             } finally {
                 agentLogger.setLevel(originalLevel);
@@ -228,7 +231,7 @@ class ResearchAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
             var sources = result.getResearchBrief().sources();
@@ -252,7 +255,7 @@ class ResearchAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
             var sources = result.getResearchBrief().sources();
@@ -276,7 +279,7 @@ class ResearchAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             agent.process(document);
 
@@ -302,7 +305,7 @@ class ResearchAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
             agent.process(document);
 
             assertTrue(agent.validate(document)); // Should pass with 3 facts, 2 outline items
@@ -323,10 +326,10 @@ class ResearchAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertTrue(prompt.contains("Apache Kafka"));
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(document);
@@ -342,10 +345,10 @@ class ResearchAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertTrue(prompt.contains("developers new to streaming"));
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(document);
@@ -361,16 +364,42 @@ class ResearchAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertTrue(prompt.contains("1500"));
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(document);
         }
     }
 
+    @Nested
+    @DisplayName("Prompt Preparation")
+    class PromptPreparation {
+
+        @Test
+        @DisplayName("Retries reuse the Wikidata search results")
+        void retriesDoNotRepeatWikidataSearch() {
+            WikidataSearchService searchService = mock(WikidataSearchService.class);
+            when(searchService.isEnabled()).thenReturn(true);
+            when(searchService.search("Apache Kafka")).thenReturn(List.of());
+            ResearchAgent searchingAgent = new ResearchAgent(mockModel, AgentPrompts.RESEARCH, searchService);
+            when(mockModel.chat(anyRequest())).thenReturn(reply("not json"), reply("""
+                    {
+                      "keyFacts": ["Fact 1", "Fact 2", "Fact 3"],
+                      "suggestedOutline": ["Intro", "Body"]
+                    }
+                    """));
+
+            searchingAgent.process(document);
+
+            verify(mockModel, times(2)).chat(anyRequest());
+            verify(searchService, times(1)).search("Apache Kafka");
+            assertNotNull(document.getResearchBrief());
+        }
+    }
+
     @Nested
     @DisplayName("Contribution Recording")
     class ContributionRecording {
@@ -385,7 +414,7 @@ class ResearchAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             assertEquals(0, document.getContributions().size());
 
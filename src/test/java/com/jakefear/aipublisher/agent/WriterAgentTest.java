@@ -13,8 +13,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.List;
 import java.util.Map;
 
+import static com.jakefear.aipublisher.agent.ChatModelStubs.*;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -84,7 +84,7 @@ class WriterAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -110,7 +110,7 @@ class WriterAgentTest {
                     ```
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -128,7 +128,7 @@ class WriterAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             PublishingDocument result = agent.process(document);
 
@@ -148,7 +148,7 @@ class WriterAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             assertThrows(AgentException.class, () -> agent.process(document));
         }
@@ -163,7 +163,7 @@ class WriterAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             assertThrows(AgentException.class, () -> agent.process(document));
         }
@@ -171,7 +171,7 @@ class WriterAgentTest {
         @Test
         @DisplayName("Throws on invalid JSON")
         void throwsOnInvalidJson() {
-            when(mockModel.chat(anyString())).thenReturn("This is not JSON");
+            when(mockModel.chat(anyRequest())).thenReturn(reply("This is not JSON"));
 
             assertThrows(AgentException.class, () -> agent.process(document));
         }
@@ -193,7 +193,7 @@ class WriterAgentTest {
                     }
                     """.formatted(longContent.replace("\n", "\\n"));
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             agent.process(document);
 
@@ -219,7 +219,7 @@ class WriterAgentTest {
                     }
                     """;
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
             agent.process(document);
 
             // Validation passes even with insufficient words - it only warns
@@ -243,10 +243,10 @@ class WriterAgentTest {
                     }
                     """.formatted(longContent.replace("\n", "\\n"));
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertTrue(prompt.contains("Apache Kafka"));
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(document);
@@ -263,10 +263,10 @@ class WriterAgentTest {
                     }
                     """.formatted(longContent.replace("\n", "\\n"));
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertTrue(prompt.contains("distributed streaming platform"));
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(document);
@@ -283,11 +283,11 @@ class WriterAgentTest {
                     }
                     """.formatted(longContent.replace("\n", "\\n"));
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertTrue(prompt.contains("Core Concepts"));
                 assertTrue(prompt.contains("Use Cases"));
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(document);
@@ -304,11 +304,11 @@ class WriterAgentTest {
                     }
                     """.formatted(longContent.replace("\n", "\\n"));
 
-            when(mockModel.chat(anyString())).thenAnswer(invocation -> {
-                String prompt = invocation.getArgument(0);
+            when(mockModel.chat(anyRequest())).thenAnswer(invocation -> {
+                String prompt = promptOf(invocation);
                 assertTrue(prompt.contains("EventStreaming"));
                 assertTrue(prompt.contains("MessageQueue"));
-                return jsonResponse;
+                return reply(jsonResponse);
             });
 
             agent.process(document);
@@ -330,7 +330,7 @@ class WriterAgentTest {
                     }
                     """.formatted(longContent.replace("\n", "\\n"));
 
-            when(mockModel.chat(anyString())).thenReturn(jsonResponse);
+            when(mockModel.chat(anyRequest())).thenReturn(reply(jsonResponse));
 
             assertEquals(0, document.getContributions().size());
 
@@ -114,6 +114,55 @@ class AiPublisherCommandTest {
             assertEquals("general readers", command.getAudience());
             assertEquals(800, command.getWordCount());
             assertFalse(command.isAutoApprove());
+            assertEquals(1, command.getWorkers());
+        }
+
+        @Test
+        @DisplayName("Parses workers option")
+        void parsesWorkersOption() {
+            CommandLine cmd = new CommandLine(command);
+            cmd.parseArgs("-u", "myuniverse", "--workers", "4");
+
+            assertEquals(4, command.getWorkers());
+        }
+
+        @Test
+        @DisplayName("Parses convert-universe option")
+        void parsesConvertUniverseOption() {
+            CommandLine cmd = new CommandLine(command);
+            cmd.parseArgs("-u", "myuniverse", "--convert-universe", "smile");
+
+            assertEquals("smile", command.getConvertUniverseFormat());
+        }
+
+        @Test
+        @DisplayName("Parses cache options")
+        void parsesCacheOptions() {
+            CommandLine cmd = new CommandLine(command);
+            cmd.parseArgs("-t", "Topic", "--no-cache", "--clear-cache");
+
+            assertTrue(command.isNoCache());
+            assertTrue(command.isClearCache());
+        }
+
+        @Test
+        @DisplayName("Parses jfr option with and without a file")
+        void parsesJfrOption() {
+            new CommandLine(command).parseArgs("-u", "myuniverse", "--jfr");
+            assertEquals(Path.of("ai-publisher.jfr"), command.getJfrFile());
+
+            AiPublisherCommand other = new AiPublisherCommand();
+            new CommandLine(other).parseArgs("-u", "myuniverse", "--jfr=slow.jfr");
+            assertEquals(Path.of("slow.jfr"), other.getJfrFile());
+        }
+
+        @Test
+        @DisplayName("Parses resume option")
+        void parsesResumeOption() {
+            CommandLine cmd = new CommandLine(command);
+            cmd.parseArgs("-t", "Topic", "--resume");
+
+            assertTrue(command.isResume());
         }
 
         @Test
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -364,6 +365,30 @@ class PublishingDocumentTest {
                     () -> document.getContributions().add(
                             AgentContribution.create("TEST", Duration.ZERO)));
         }
+
+        @Test
+        @DisplayName("Sums token usage over contributions")
+        void sumsTokenUsage() {
+            Map<String, Object> research = new HashMap<>();
+            new TokenUsageSummary(2, 1000, 300, 50, 0.01).putInto(research);
+            Map<String, Object> writing = new HashMap<>();
+            new TokenUsageSummary(1, 2000, 800, 0, 0.02).putInto(writing);
+            document.addContribution(AgentContribution.withMetrics("RESEARCHER", Duration.ZERO, research));
+            document.addContribution(AgentContribution.create("CRITIC", Duration.ZERO));
+            // Numbers read back from a checkpoint may be narrower types
+            document.addContribution(AgentContribution.withMetrics("WRITER", Duration.ZERO, Map.of(
+                    TokenUsageSummary.CALLS, 1, TokenUsageSummary.INPUT_TOKENS, 500,
+                    TokenUsageSummary.OUTPUT_TOKENS, 100, TokenUsageSummary.COST_USD, 0.005)));
+            document.addContribution(AgentContribution.withMetrics("WRITER", Duration.ZERO, writing));
+
+            TokenUsageSummary usage = document.getTokenUsage();
+
+            assertEquals(4, usage.calls());
+            assertEquals(3500, usage.inputTokens());
+            assertEquals(1200, usage.outputTokens());
+            assertEquals(50, usage.thinkingTokens());
+            assertEquals(0.035, usage.costUsd(), 1e-9);
+        }
     }
 
     @Nested
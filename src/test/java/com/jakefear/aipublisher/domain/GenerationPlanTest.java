@@ -0,0 +1,87 @@
+package com.jakefear.aipublisher.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GenerationPlan.
+ */
+@DisplayName("GenerationPlan")
+class GenerationPlanTest {
+
+    private static List<Topic> topics(String... names) {
+        List<Topic> topics = new ArrayList<>();
+        for (String name : names) {
+            topics.add(Topic.builder(name).status(TopicStatus.ACCEPTED).build());
+        }
+        return topics;
+    }
+
+    private static TopicRelationship prereq(String source, String target) {
+        return TopicRelationship.confirmed(source, target, RelationshipType.PREREQUISITE_OF);
+    }
+
+    private static List<List<String>> layerIds(GenerationPlan plan) {
+        return plan.layers().stream()
+                .map(layer -> layer.stream().map(Topic::id).toList())
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Groups topics into dependency layers in supplied order")
+    void groupsIntoLayers() {
+        GenerationPlan plan = GenerationPlan.of(topics("D", "C", "B", "A"), List.of(
+                prereq("A", "B"), prereq("A", "C"), prereq("B", "D"), prereq("C", "D")));
+
+        assertEquals(List.of(List.of("A"), List.of("C", "B"), List.of("D")), layerIds(plan));
+        assertEquals(List.of("A", "C", "B", "D"), plan.order().stream().map(Topic::id).toList());
+        assertEquals(2, plan.getMaxParallelism());
+        assertFalse(plan.hasCycles());
+    }
+
+    @Test
+    @DisplayName("Places a topic after its deepest prerequisite")
+    void usesLongestPath() {
+        GenerationPlan plan = GenerationPlan.of(topics("A", "B", "C"), List.of(
+                prereq("A", "B"), prereq("B", "C"), prereq("A", "C")));
+
+        assertEquals(List.of(List.of("A"), List.of("B"), List.of("C")), layerIds(plan));
+    }
+
+    @Test
+    @DisplayName("Ignores inactive, non-ordering and external relationships")
+    void ignoresIrrelevantRelationships() {
+        GenerationPlan plan = GenerationPlan.of(topics("A", "B"), List.of(
+                TopicRelationship.suggested("A", "B", RelationshipType.PREREQUISITE_OF, 0.9),
+                TopicRelationship.confirmed("B", "A", RelationshipType.RELATED_TO),
+                prereq("Elsewhere", "A")));
+
+        assertEquals(List.of(List.of("A", "B")), layerIds(plan));
+    }
+
+    @Test
+    @DisplayName("Breaks and reports prerequisite cycles")
+    void breaksCycles() {
+        GenerationPlan plan = GenerationPlan.of(topics("A", "B", "C", "D"), List.of(
+                prereq("A", "B"), prereq("B", "C"), prereq("C", "B"), prereq("C", "D")));
+
+        assertTrue(plan.hasCycles());
+        assertEquals(List.of(List.of("B", "C")), plan.brokenCycles());
+        assertEquals(List.of(List.of("A"), List.of("B"), List.of("C"), List.of("D")), layerIds(plan));
+    }
+
+    @Test
+    @DisplayName("Handles no topics")
+    void handlesEmpty() {
+        GenerationPlan plan = GenerationPlan.of(List.of(), List.of());
+
+        assertTrue(plan.order().isEmpty());
+        assertTrue(plan.layers().isEmpty());
+        assertEquals(0, plan.getMaxParallelism());
+    }
+}
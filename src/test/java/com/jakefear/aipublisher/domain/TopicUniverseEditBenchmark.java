@@ -0,0 +1,110 @@
+package com.jakefear.aipublisher.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation and time per edit for TopicUniverse modifications, comparing
+ * one-off edits on the record with a builder session.
+ *
+ * Not a unit test. Run with the test classpath, e.g.
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.jakefear.aipublisher.domain.TopicUniverseEditBenchmark},
+ * and read {@code gc.alloc.rate.norm} (bytes per edit) from the output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TopicUniverseEditBenchmark {
+
+    private static final int SESSION_EDITS = 1_000;
+
+    @Param({"1000", "10000"})
+    int topicCount;
+
+    private TopicUniverse universe;
+    private List<Topic> newTopics;
+    private Topic updatedTopic;
+    private TopicRelationship newRelationship;
+
+    @Setup
+    public void setUp() {
+        TopicUniverse.Builder builder = TopicUniverse.builder("Benchmark");
+        for (int i = 0; i < topicCount; i++) {
+            builder.addTopic(Topic.proposed("Topic " + i, "Description " + i));
+            if (i > 0) {
+                builder.addRelationship(TopicRelationship.confirmed(
+                        "Topic" + (i - 1), "Topic" + i, RelationshipType.PREREQUISITE_OF));
+            }
+        }
+        universe = builder.build();
+
+        newTopics = new ArrayList<>(SESSION_EDITS);
+        for (int i = 0; i < SESSION_EDITS; i++) {
+            newTopics.add(Topic.proposed("New Topic " + i, "Added in the benchmark"));
+        }
+        updatedTopic = Topic.proposed("Topic " + (topicCount / 2), "Updated");
+        newRelationship = TopicRelationship.confirmed("Topic0", "Topic" + (topicCount - 1), RelationshipType.RELATED_TO);
+    }
+
+    @Benchmark
+    public TopicUniverse recordAddTopic() {
+        return universe.addTopic(newTopics.get(0));
+    }
+
+    @Benchmark
+    public TopicUniverse recordUpdateTopic() {
+        return universe.updateTopic(updatedTopic);
+    }
+
+    @Benchmark
+    public TopicUniverse recordAddRelationship() {
+        return universe.addRelationship(newRelationship);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SESSION_EDITS)
+    public TopicUniverse sessionAddTopics() {
+        return universe.edit(builder -> newTopics.forEach(builder::addTopic));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SESSION_EDITS)
+    public TopicUniverse sessionUpdateTopics() {
+        return universe.edit(builder -> {
+            for (int i = 0; i < SESSION_EDITS; i++) {
+                builder.updateTopic(updatedTopic);
+            }
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TopicUniverseEditBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
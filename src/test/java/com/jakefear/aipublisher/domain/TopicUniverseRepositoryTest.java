@@ -507,6 +507,282 @@ class TopicUniverseRepositoryTest {
         }
     }
 
+    @Nested
+    @DisplayName("Atomic and Journaled Saves")
+    class AtomicAndJournaledSaves {
+
+        private Path journalOf(Path file) {
+            return file.resolveSibling(file.getFileName() + ".journal");
+        }
+
+        private List<String> filesInTempDir() throws IOException {
+            try (var stream = Files.list(tempDir)) {
+                return stream.map(p -> p.getFileName().toString()).sorted().toList();
+            }
+        }
+
+        @Test
+        @DisplayName("Should leave only the universe file after a save")
+        void shouldLeaveOnlyTheUniverseFile() throws IOException {
+            repository.save(createRealisticUniverse());
+            repository.save(createRealisticUniverse().addToBacklog("Later"));
+
+            assertEquals(List.of("investing-basics.universe.json"), filesInTempDir());
+        }
+
+        @Test
+        @DisplayName("Should keep the previous file when a save fails")
+        void shouldKeepPreviousFileWhenSaveFails() throws IOException {
+            TopicUniverse universe = createRealisticUniverse();
+            Path path = repository.save(universe);
+            byte[] before = Files.readAllBytes(path);
+
+            ObjectMapper failing = new ObjectMapper();
+            failing.findAndRegisterModules();
+            failing.registerModule(new com.fasterxml.jackson.databind.module.SimpleModule()
+                    .addSerializer(Topic.class, new com.fasterxml.jackson.databind.JsonSerializer<Topic>() {
+                        @Override
+                        public void serialize(Topic topic, com.fasterxml.jackson.core.JsonGenerator gen,
+                                              com.fasterxml.jackson.databind.SerializerProvider provider)
+                                throws IOException {
+                            throw new IOException("disk full");
+                        }
+                    }));
+            TopicUniverseRepository failingRepository = new TopicUniverseRepository(failing);
+            failingRepository.setStorageDirectory(tempDir);
+
+            assertThrows(IOException.class, () -> failingRepository.save(universe.addToBacklog("Later")));
+            assertArrayEquals(before, Files.readAllBytes(path));
+            assertEquals(List.of("investing-basics.universe.json"), filesInTempDir());
+        }
+
+        @Test
+        @DisplayName("Should journal changes without rewriting the snapshot")
+        void shouldJournalChanges() throws IOException {
+            TopicUniverse universe = createRealisticUniverse();
+            Path path = repository.save(universe);
+            byte[] snapshot = Files.readAllBytes(path);
+
+            Topic added = Topic.builder("Index Funds").id("IndexFunds").status(TopicStatus.ACCEPTED).build();
+            TopicUniverse changed = universe
+                    .addTopic(added)
+                    .updateTopic(universe.getTopicById("CompoundInterest").orElseThrow().toBuilder()
+                            .description("Updated description").build())
+                    .addToBacklog("Bonds");
+            changed = changed.toBuilder()
+                    .topics(changed.topics().stream().filter(t -> !t.id().equals("OptionsTradingBasics")).toList())
+                    .build();
+            repository.saveChanges(changed);
+
+            assertArrayEquals(snapshot, Files.readAllBytes(path));
+            assertTrue(Files.exists(journalOf(path)));
+
+            TopicUniverse loaded = new TopicUniverseRepository().loadFromPath(path).orElseThrow();
+            assertEquals(changed.topics(), loaded.topics());
+            assertEquals(changed.relationships(), loaded.relationships());
+            assertEquals(changed.backlog(), loaded.backlog());
+            assertEquals(changed.modifiedAt(), loaded.modifiedAt());
+        }
+
+        @Test
+        @DisplayName("Should continue the journal after loading")
+        void shouldContinueJournalAfterLoading() throws IOException {
+            TopicUniverse universe = createRealisticUniverse();
+            Path path = repository.save(universe);
+            repository.saveChanges(repository.load("investing-basics").orElseThrow().addToBacklog("First"));
+
+            TopicUniverseRepository other = new TopicUniverseRepository();
+            other.setStorageDirectory(tempDir);
+            TopicUniverse loaded = other.load("investing-basics").orElseThrow();
+            other.saveChanges(loaded.addToBacklog("Second"));
+
+            assertEquals(universe.addToBacklog("First").addToBacklog("Second").backlog(),
+                    new TopicUniverseRepository().loadFromPath(path).orElseThrow().backlog());
+            assertEquals(3, Files.readAllLines(journalOf(path)).size());
+        }
+
+        @Test
+        @DisplayName("Should write nothing when nothing changed")
+        void shouldWriteNothingWhenUnchanged() throws IOException {
+            TopicUniverse universe = createRealisticUniverse();
+            Path path = repository.save(universe);
+
+            repository.saveChanges(universe);
+
+            assertFalse(Files.exists(journalOf(path)));
+        }
+
+        @Test
+        @DisplayName("Should fold the journal into a full save")
+        void shouldFoldJournalIntoFullSave() throws IOException {
+            TopicUniverse universe = createRealisticUniverse();
+            Path path = repository.save(universe);
+            repository.saveChanges(universe.addToBacklog("Later"));
+
+            repository.save(universe.addToBacklog("Later"));
+
+            assertFalse(Files.exists(journalOf(path)));
+            assertEquals(universe.addToBacklog("Later").backlog(),
+                    repository.load("investing-basics").orElseThrow().backlog());
+        }
+
+        @Test
+        @DisplayName("Should save in full when topics are reordered")
+        void shouldSaveInFullWhenReordered() throws IOException {
+            TopicUniverse universe = createRealisticUniverse();
+            Path path = repository.save(universe);
+
+            List<Topic> reversed = new java.util.ArrayList<>(universe.topics());
+            java.util.Collections.reverse(reversed);
+            repository.saveChanges(universe.toBuilder().topics(reversed).build());
+
+            assertFalse(Files.exists(journalOf(path)));
+            assertEquals(reversed, repository.load("investing-basics").orElseThrow().topics());
+        }
+
+        @Test
+        @DisplayName("Should ignore a journal written against another snapshot")
+        void shouldIgnoreStaleJournal() throws IOException {
+            TopicUniverse universe = createRealisticUniverse();
+            Path path = repository.save(universe);
+            repository.saveChanges(universe.addToBacklog("Stale"));
+            byte[] journal = Files.readAllBytes(journalOf(path));
+
+            // Simulate a crash between replacing the snapshot and removing the journal
+            repository.save(universe.addToBacklog("Fresh"));
+            Files.write(journalOf(path), journal);
+
+            TopicUniverse loaded = repository.load("investing-basics").orElseThrow();
+            assertEquals(universe.addToBacklog("Fresh").backlog(), loaded.backlog());
+
+            repository.saveChanges(loaded.addToBacklog("Next"));
+            assertFalse(Files.exists(journalOf(path)));
+            assertEquals(loaded.addToBacklog("Next").backlog(),
+                    repository.load("investing-basics").orElseThrow().backlog());
+        }
+
+        @Test
+        @DisplayName("Should skip a record torn by a crash")
+        void shouldSkipTornRecord() throws IOException {
+            TopicUniverse universe = createRealisticUniverse();
+            Path path = repository.save(universe);
+            repository.saveChanges(universe.addToBacklog("Kept"));
+            Files.writeString(journalOf(path), "{\"type\":\"meta\",\"val",
+                    java.nio.file.StandardOpenOption.APPEND);
+
+            TopicUniverse loaded = new TopicUniverseRepository().loadFromPath(path).orElseThrow();
+
+            assertEquals(universe.addToBacklog("Kept").backlog(), loaded.backlog());
+        }
+    }
+
+    @Nested
+    @DisplayName("Binary Format")
+    class BinaryFormat {
+
+        @Test
+        @DisplayName("Should save Smile by extension and load it back")
+        void shouldRoundTripSmile() throws IOException {
+            TopicUniverse universe = createRealisticUniverse();
+            Path json = repository.save(universe);
+            Path smile = repository.save(universe, UniverseFormat.SMILE);
+
+            assertEquals("investing-basics.universe.smile", smile.getFileName().toString());
+            byte[] bytes = Files.readAllBytes(smile);
+            assertEquals(':', bytes[0]);
+            assertEquals(')', bytes[1]);
+            assertTrue(bytes.length < Files.size(json));
+
+            TopicUniverse loaded = repository.loadFromPath(smile).orElseThrow();
+            assertEquals(universe, loaded);
+        }
+
+        @Test
+        @DisplayName("Should detect the format from content, not the file name")
+        void shouldSniffFormat() throws IOException {
+            TopicUniverse universe = createRealisticUniverse();
+            Path smile = tempDir.resolve("misnamed.json");
+            repository.save(universe, UniverseFormat.SMILE);
+            Files.copy(tempDir.resolve("investing-basics.universe.smile"), smile);
+            Path json = tempDir.resolve("misnamed.universe.smile");
+            Files.writeString(json, repository.toJson(universe));
+
+            assertEquals(universe, repository.loadFromPath(smile).orElseThrow());
+            assertEquals(universe, repository.loadFromPath(json).orElseThrow());
+        }
+
+        @Test
+        @DisplayName("Should load the most recently written format by ID")
+        void shouldPreferNewestFormat() throws IOException {
+            TopicUniverse universe = createRealisticUniverse();
+            Path json = repository.save(universe.addToBacklog("From JSON"));
+            Path smile = repository.save(universe.addToBacklog("From Smile"), UniverseFormat.SMILE);
+            Files.setLastModifiedTime(json, java.nio.file.attribute.FileTime.fromMillis(1_000_000));
+            Files.setLastModifiedTime(smile, java.nio.file.attribute.FileTime.fromMillis(2_000_000));
+
+            assertEquals(smile, repository.locate("investing-basics").orElseThrow());
+            assertTrue(repository.load("investing-basics").orElseThrow().backlog().contains("From Smile"));
+
+            Files.setLastModifiedTime(json, java.nio.file.attribute.FileTime.fromMillis(3_000_000));
+            assertTrue(repository.load("investing-basics").orElseThrow().backlog().contains("From JSON"));
+        }
+
+        @Test
+        @DisplayName("Should list, check and delete universes in either format")
+        void shouldManageBothFormats() throws IOException {
+            repository.save(TopicUniverse.create("Domain One", "First domain"));
+            repository.save(TopicUniverse.create("Domain One", "First domain"), UniverseFormat.SMILE);
+            repository.save(TopicUniverse.create("Domain Two", "Second domain"), UniverseFormat.SMILE);
+
+            assertEquals(Set.of("domain-one", "domain-two"), Set.copyOf(repository.listAll()));
+            assertEquals(2, repository.listAll().size());
+            assertTrue(repository.exists("domain-two"));
+
+            assertTrue(repository.delete("domain-one"));
+            assertFalse(repository.exists("domain-one"));
+            assertEquals(List.of("domain-two"), repository.listAll());
+        }
+
+        @Test
+        @DisplayName("Should convert next to the original")
+        void shouldConvert() throws IOException {
+            TopicUniverse universe = createRealisticUniverse();
+            Path json = repository.save(universe);
+
+            Path smile = repository.convert(json, UniverseFormat.SMILE);
+            Path back = repository.convert(smile, UniverseFormat.JSON);
+
+            assertEquals(tempDir.resolve("investing-basics.universe.smile"), smile);
+            assertEquals(json, back);
+            assertEquals(universe, repository.loadFromPath(smile).orElseThrow());
+            assertEquals(universe, repository.loadFromPath(json).orElseThrow());
+        }
+
+        @Test
+        @DisplayName("Should journal changes to a Smile snapshot")
+        void shouldJournalSmileSnapshot() throws IOException {
+            repository.setDefaultFormat(UniverseFormat.SMILE);
+            TopicUniverse universe = createRealisticUniverse();
+            Path path = repository.save(universe);
+
+            TopicUniverse changed = universe.addToBacklog("Later");
+            repository.saveChanges(changed);
+
+            assertTrue(Files.exists(path.resolveSibling(path.getFileName() + ".journal")));
+            assertEquals(changed, new TopicUniverseRepository().loadFromPath(path).orElseThrow());
+        }
+
+        @Test
+        @DisplayName("Should map format names and extensions")
+        void shouldMapFormatNames() {
+            assertEquals(UniverseFormat.SMILE, UniverseFormat.fromString(" Smile "));
+            assertNull(UniverseFormat.fromString("xml"));
+            assertEquals(UniverseFormat.SMILE, UniverseFormat.of(Path.of("a.universe.smile")));
+            assertEquals(UniverseFormat.JSON, UniverseFormat.of(Path.of("a.json")));
+            assertEquals(Path.of("dir", "a.universe.smile"), UniverseFormat.SMILE.siblingOf(Path.of("dir", "a.json")));
+        }
+    }
+
     @Nested
     @DisplayName("JSON String Conversion")
     class JsonStringConversion {
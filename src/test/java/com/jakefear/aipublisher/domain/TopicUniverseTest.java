@@ -202,6 +202,46 @@ class TopicUniverseTest {
 
             assertEquals(2, related.size());
         }
+
+        @Test
+        @DisplayName("Typed queries return only relationships of that type")
+        void typedQueriesFilterByType() {
+            assertEquals(1, universe.getIncomingRelationships("EventSourcing", RelationshipType.RELATED_TO).size());
+            assertEquals(2, universe.getOutgoingRelationships("Events", RelationshipType.PREREQUISITE_OF).size());
+            assertTrue(universe.getOutgoingRelationships("Events", RelationshipType.PART_OF).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Queries skip relationships that are not active")
+        void queriesSkipInactiveRelationships() {
+            TopicUniverse withSuggestion = universe.addRelationship(
+                    TopicRelationship.suggested("EventSourcing", "Events", RelationshipType.RELATED_TO, 0.9));
+
+            assertEquals(2, withSuggestion.getRelationshipsFor("Events").size());
+            assertEquals(4, withSuggestion.relationships().size());
+        }
+
+        @Test
+        @DisplayName("Indexes follow modifications")
+        void indexesFollowModifications() {
+            universe.getTopicById("Events");
+            Topic cqrs = Topic.builder("CQRS").status(TopicStatus.ACCEPTED).build();
+
+            TopicUniverse updated = universe.addTopic(cqrs)
+                    .addRelationship(TopicRelationship.confirmed("EventSourcing", "CQRS", RelationshipType.PREREQUISITE_OF));
+
+            assertTrue(updated.getTopicById("CQRS").isPresent());
+            assertEquals("Event Sourcing", updated.getPrerequisites("CQRS").get(0).name());
+            assertTrue(universe.getTopicById("CQRS").isEmpty());
+        }
+
+        @Test
+        @DisplayName("Unknown topics have no relationships")
+        void unknownTopicsHaveNoRelationships() {
+            assertTrue(universe.getRelationshipsFor("Missing").isEmpty());
+            assertTrue(universe.getPrerequisites("Missing").isEmpty());
+            assertTrue(universe.getRelatedTopics("Missing").isEmpty());
+        }
     }
 
     @Nested
@@ -306,6 +346,51 @@ class TopicUniverseTest {
             assertEquals(1, updated.backlog().size());
             assertTrue(updated.backlog().contains("Future topic idea"));
         }
+
+        @Test
+        @DisplayName("Single edits share the lists they don't change")
+        void singleEditsShareUnchangedLists() {
+            TopicUniverse updated = universe.addTopic(Topic.proposed("CQRS", "Command Query Separation"));
+
+            assertSame(universe.relationships(), updated.relationships());
+            assertSame(universe.backlog(), updated.backlog());
+        }
+
+        @Test
+        @DisplayName("edit applies a batch of changes in one session")
+        void editAppliesBatch() {
+            Topic events = universe.getTopicById("Events").get();
+
+            TopicUniverse updated = universe.edit(builder -> builder
+                    .addTopic(Topic.proposed("CQRS", "Command Query Separation"))
+                    .addTopic(Topic.proposed("CQRS", "Duplicate is ignored"))
+                    .updateTopic(events.toBuilder().description("Updated").build())
+                    .addRelationship(TopicRelationship.confirmed("EventSourcing", "CQRS", RelationshipType.PREREQUISITE_OF))
+                    .addToBacklog("Sagas"));
+
+            assertEquals(5, updated.topics().size());
+            assertEquals("Updated", updated.getTopicById("Events").get().description());
+            assertEquals("Event Sourcing", updated.getPrerequisites("CQRS").get(0).name());
+            assertEquals(List.of("Sagas"), updated.backlog());
+            assertEquals(4, universe.topics().size());
+            assertTrue(universe.backlog().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Builder edits after build don't change the built universe")
+        void builderEditsAfterBuildAreIsolated() {
+            TopicUniverse.Builder builder = universe.toBuilder();
+            builder.addTopic(Topic.proposed("CQRS", "Command Query Separation"));
+            TopicUniverse first = builder.build();
+
+            builder.addTopic(Topic.proposed("Sagas", "Long-running transactions"));
+            TopicUniverse second = builder.build();
+
+            assertEquals(5, first.topics().size());
+            assertEquals(6, second.topics().size());
+            assertTrue(first.getTopicById("Sagas").isEmpty());
+            assertThrows(UnsupportedOperationException.class, () -> second.topics().add(Topic.proposed("X", "")));
+        }
     }
 
     @Nested
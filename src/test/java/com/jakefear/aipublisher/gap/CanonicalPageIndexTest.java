@@ -0,0 +1,70 @@
+package com.jakefear.aipublisher.gap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CanonicalPageIndex.
+ */
+class CanonicalPageIndexTest {
+
+    @Test
+    void find_exactNormalizedMatch() {
+        CanonicalPageIndex index = CanonicalPageIndex.build(Set.of("CompoundInterest", "PresentValue"));
+
+        assertEquals("CompoundInterest", index.find("compound-interest"));
+        assertEquals("PresentValue", index.find("PRESENT_VALUE"));
+    }
+
+    @Test
+    void find_accentFoldedMatch() {
+        CanonicalPageIndex index = CanonicalPageIndex.build(Set.of("EstadoDaIndia"));
+
+        assertEquals("EstadoDaIndia", index.find("EstadoDaÍndia"));
+    }
+
+    @Test
+    void find_smallLetterEditsWithSameDigits() {
+        CanonicalPageIndex index = CanonicalPageIndex.build(Set.of("401kPlan", "RothIra", "MarketRisk"));
+
+        assertEquals("401kPlan", index.find("401kPlans"));
+        assertEquals("RothIra", index.find("RothIRAs"));
+        assertNull(index.find("403kPlan"));
+        assertNull(index.find("MarketReturns"));
+    }
+
+    @Test
+    void find_prefersClosestThenAlphabeticalPage() {
+        CanonicalPageIndex index = CanonicalPageIndex.build(List.of("Bonds", "Bond", "Bands"));
+
+        assertEquals("Bond", index.find("Bondx"));
+        assertEquals("Bands", CanonicalPageIndex.build(List.of("Bonds", "Bands")).find("Bnds"));
+    }
+
+    @Test
+    void find_returnsNullForNoMatch() {
+        CanonicalPageIndex index = CanonicalPageIndex.build(Set.of("CompoundInterest", "PresentValue"));
+
+        assertNull(index.find("TotallyDifferent"));
+        assertNull(CanonicalPageIndex.build(Set.of()).find("Anything"));
+    }
+
+    @Test
+    void boundedLevenshtein_matchesExactDistanceWithinBound() {
+        assertEquals(0, CanonicalPageIndex.boundedLevenshtein("kitten", "kitten", 2));
+        assertEquals(1, CanonicalPageIndex.boundedLevenshtein("kitten", "sitten", 2));
+        assertEquals(2, CanonicalPageIndex.boundedLevenshtein("kitten", "sittin", 2));
+        assertEquals(3, CanonicalPageIndex.boundedLevenshtein("", "abc", 5));
+    }
+
+    @Test
+    void boundedLevenshtein_bailsOutAboveBound() {
+        assertEquals(3, CanonicalPageIndex.boundedLevenshtein("kitten", "sitting", 2));
+        assertEquals(3, CanonicalPageIndex.boundedLevenshtein("a", "abcdefgh", 2));
+        assertEquals(3, CanonicalPageIndex.boundedLevenshtein("abcdef", "uvwxyz", 2));
+    }
+}
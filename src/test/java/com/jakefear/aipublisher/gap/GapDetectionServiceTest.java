@@ -277,6 +277,27 @@ class GapDetectionServiceTest {
         assertTrue(gapNames.contains("Time Value of Money") || gapNames.contains("TimeValueOfMoney"));
     }
 
+    @Test
+    void detectGaps_withLinkIndex_matchesFullScan() throws IOException {
+        Files.writeString(tempDir.resolve("InvestingGuide.txt"),
+                "Learn about [CompoundInterest], [PresentValue], and [RiskManagement].");
+        Files.writeString(tempDir.resolve("CompoundInterest.txt"), "See [PresentValue].");
+        List<String> fullScan = gapNames(service.detectGaps());
+
+        LinkGraphIndex linkIndex = new LinkGraphIndex(true);
+        service.setLinkIndex(linkIndex);
+        List<String> firstIndexed = gapNames(service.detectGaps());
+        List<String> secondIndexed = gapNames(service.detectGaps());
+
+        assertEquals(fullScan, firstIndexed);
+        assertEquals(fullScan, secondIndexed);
+        assertEquals(2, linkIndex.getLastReused());
+    }
+
+    private static List<String> gapNames(List<GapConcept> gaps) {
+        return gaps.stream().map(GapConcept::name).sorted().toList();
+    }
+
     // Tests for invalid page name filtering
     @Test
     void shouldSkipPageName_skipsNumericOnly() {
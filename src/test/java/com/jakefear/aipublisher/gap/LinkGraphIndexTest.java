@@ -0,0 +1,144 @@
+package com.jakefear.aipublisher.gap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LinkGraphIndex.
+ */
+class LinkGraphIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger extractions = new AtomicInteger();
+
+    /**
+     * Treats each whitespace-separated word as a link and counts calls.
+     */
+    private final Function<String, Set<String>> extractor = content -> {
+        extractions.incrementAndGet();
+        return Arrays.stream(content.trim().split("\\s+"))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toSet());
+    };
+
+    @Test
+    void update_buildsInverseLinkMap() throws IOException {
+        Files.writeString(tempDir.resolve("PageA.txt"), "Alpha Beta");
+        Files.writeString(tempDir.resolve("PageB.txt"), "Beta");
+        Files.writeString(tempDir.resolve("notes.md"), "Ignored");
+
+        Map<String, Set<String>> links = new LinkGraphIndex(true).update(tempDir, ".txt", extractor);
+
+        assertEquals(Map.of("Alpha", Set.of("PageA"), "Beta", Set.of("PageA", "PageB")), links);
+    }
+
+    @Test
+    void update_unchangedFilesAreNotReread() throws IOException {
+        Files.writeString(tempDir.resolve("PageA.txt"), "Alpha");
+        Files.writeString(tempDir.resolve("PageB.txt"), "Beta");
+        LinkGraphIndex index = new LinkGraphIndex(true);
+        index.update(tempDir, ".txt", extractor);
+
+        Map<String, Set<String>> links = index.update(tempDir, ".txt", extractor);
+
+        assertEquals(2, extractions.get());
+        assertEquals(0, index.getLastScanned());
+        assertEquals(2, index.getLastReused());
+        assertEquals(Set.of("Alpha", "Beta"), links.keySet());
+    }
+
+    @Test
+    void update_persistsAcrossInstances() throws IOException {
+        Files.writeString(tempDir.resolve("PageA.txt"), "Alpha");
+        new LinkGraphIndex(true).update(tempDir, ".txt", extractor);
+        assertTrue(Files.exists(tempDir.resolve(LinkGraphIndex.INDEX_FILE_NAME)));
+
+        LinkGraphIndex reopened = new LinkGraphIndex(true);
+        Map<String, Set<String>> links = reopened.update(tempDir, ".txt", extractor);
+
+        assertEquals(1, extractions.get());
+        assertEquals(Map.of("Alpha", Set.of("PageA")), links);
+    }
+
+    @Test
+    void update_changedFileUpdatesInverseMap() throws IOException {
+        Path page = tempDir.resolve("PageA.txt");
+        Files.writeString(page, "Alpha Beta");
+        Files.writeString(tempDir.resolve("PageB.txt"), "Beta");
+        LinkGraphIndex index = new LinkGraphIndex(true);
+        index.update(tempDir, ".txt", extractor);
+
+        Files.writeString(page, "Gamma Beta Delta");
+        Files.setLastModifiedTime(page, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        Map<String, Set<String>> links = index.update(tempDir, ".txt", extractor);
+
+        assertEquals(1, index.getLastScanned());
+        assertFalse(links.containsKey("Alpha"));
+        assertEquals(Set.of("PageA"), links.get("Gamma"));
+        assertEquals(Set.of("PageA", "PageB"), links.get("Beta"));
+    }
+
+    @Test
+    void update_touchedButUnchangedFileIsNotReextracted() throws IOException {
+        Path page = tempDir.resolve("PageA.txt");
+        Files.writeString(page, "Alpha");
+        LinkGraphIndex index = new LinkGraphIndex(true);
+        index.update(tempDir, ".txt", extractor);
+
+        Files.setLastModifiedTime(page, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        index.update(tempDir, ".txt", extractor);
+
+        assertEquals(1, index.getLastScanned());
+        assertEquals(1, extractions.get());
+    }
+
+    @Test
+    void update_deletedFileRemovesItsLinks() throws IOException {
+        Files.writeString(tempDir.resolve("PageA.txt"), "Alpha Beta");
+        Files.writeString(tempDir.resolve("PageB.txt"), "Beta");
+        LinkGraphIndex index = new LinkGraphIndex(true);
+        index.update(tempDir, ".txt", extractor);
+
+        Files.delete(tempDir.resolve("PageA.txt"));
+        Map<String, Set<String>> links = index.update(tempDir, ".txt", extractor);
+
+        assertEquals(1, index.getLastRemoved());
+        assertEquals(Map.of("Beta", Set.of("PageB")), links);
+        assertEquals(Set.of(), index.getOutboundLinks("PageA"));
+    }
+
+    @Test
+    void update_staleFormatIsRebuilt() throws IOException {
+        Files.writeString(tempDir.resolve("PageA.txt"), "Alpha");
+        Files.writeString(tempDir.resolve(LinkGraphIndex.INDEX_FILE_NAME),
+                "{\"version\": 0, \"extension\": \".txt\", \"pages\": {}}");
+
+        new LinkGraphIndex(true).update(tempDir, ".txt", extractor);
+
+        assertEquals(1, extractions.get());
+    }
+
+    @Test
+    void update_disabledIndexDoesNotPersist() throws IOException {
+        Files.writeString(tempDir.resolve("PageA.txt"), "Alpha");
+
+        new LinkGraphIndex(false).update(tempDir, ".txt", extractor);
+
+        assertFalse(Files.exists(tempDir.resolve(LinkGraphIndex.INDEX_FILE_NAME)));
+    }
+}
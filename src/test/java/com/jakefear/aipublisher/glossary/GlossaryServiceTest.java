@@ -149,6 +149,18 @@ class GlossaryServiceTest {
             assertTrue(service.lookup("").isEmpty());
             assertTrue(service.lookup(null).isEmpty());
         }
+
+        @Test
+        @DisplayName("Drops aliases of a replaced entry")
+        void dropsReplacedAliases() {
+            service.addEntry(new GlossaryEntry("Event Sourcing", null, "Old", List.of("ES"),
+                    null, null, List.of(), true, null));
+            service.addEntry(new GlossaryEntry("Event Sourcing", null, "New", List.of("EvtSrc"),
+                    null, null, List.of(), true, null));
+
+            assertTrue(service.lookup("ES").isEmpty());
+            assertEquals("New", service.lookup("evtsrc").orElseThrow().definition());
+        }
     }
 
     @Nested
@@ -249,6 +261,33 @@ class GlossaryServiceTest {
 
             assertTrue(found.isEmpty());
         }
+
+        @Test
+        @DisplayName("Sees entries added after an earlier search")
+        void seesEntriesAddedLater() {
+            service.addEntry(GlossaryEntry.simple("Kafka", "Event streaming"));
+            assertEquals(1, service.findTermsInText("Kafka and Docker").size());
+
+            service.addEntry(GlossaryEntry.simple("Docker", "Container runtime"));
+            for (int i = 0; i < 100; i++) {
+                service.addEntry(GlossaryEntry.simple("Term" + i, "Filler"));
+            }
+
+            List<GlossaryEntry> found = service.findTermsInText("Kafka and Docker and Term42");
+            assertEquals(List.of("Docker", "Kafka", "Term4", "Term42"), found.stream().map(GlossaryEntry::term).toList());
+        }
+
+        @Test
+        @DisplayName("Ignores aliases of a replaced entry")
+        void ignoresReplacedAliases() {
+            service.addEntry(new GlossaryEntry("Event Sourcing", null, "Old", List.of("ES"),
+                    null, null, List.of(), true, null));
+            service.findTermsInText("warm up");
+            service.addEntry(GlossaryEntry.simple("Event Sourcing", "New"));
+
+            assertTrue(service.findTermsInText("ES is handy").isEmpty());
+            assertEquals(1, service.findTermsInText("event sourcing is handy").size());
+        }
     }
 
     @Nested
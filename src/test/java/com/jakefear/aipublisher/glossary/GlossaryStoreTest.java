@@ -0,0 +1,137 @@
+package com.jakefear.aipublisher.glossary;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GlossaryStore")
+class GlossaryStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Round-trips entries with their source article")
+    void roundTripsEntries() throws IOException {
+        GlossaryStore store = new GlossaryStore(tempDir, 100);
+        GlossaryEntry entry = new GlossaryEntry("Event Sourcing", null, "Storing state as events",
+                List.of("ES"), "EventDrivenArchitecture", "Architecture", List.of("CQRS"), true, null);
+
+        store.append(List.of(entry, GlossaryEntry.simple("Kafka", "Event streaming")));
+
+        List<GlossaryEntry> loaded = new GlossaryStore(tempDir, 100).load();
+        assertEquals(2, loaded.size());
+        assertEquals(entry, loaded.get(0));
+        assertEquals("EventDrivenArchitecture", loaded.get(0).sourceArticle());
+    }
+
+    @Test
+    @DisplayName("Keeps the latest entry per term")
+    void keepsLatestEntry() throws IOException {
+        GlossaryStore store = new GlossaryStore(tempDir, 100);
+        store.append(List.of(GlossaryEntry.simple("Kafka", "Old")));
+        store.append(List.of(GlossaryEntry.simple("kafka", "New")));
+
+        List<GlossaryEntry> loaded = store.load();
+
+        assertEquals(1, loaded.size());
+        assertEquals("New", loaded.get(0).definition());
+    }
+
+    @Test
+    @DisplayName("Compacts the log into a snapshot past the threshold")
+    void compactsLog() throws IOException {
+        GlossaryStore store = new GlossaryStore(tempDir, 3);
+        for (int i = 0; i < 4; i++) {
+            store.append(List.of(GlossaryEntry.simple("Term" + i, "Definition " + i)));
+        }
+
+        assertTrue(Files.exists(tempDir.resolve(GlossaryStore.SNAPSHOT_FILE_NAME)));
+        assertEquals(0, Files.size(tempDir.resolve(GlossaryStore.LOG_FILE_NAME)));
+        assertEquals(4, store.load().size());
+
+        store.append(List.of(GlossaryEntry.simple("Term0", "Changed")));
+        assertEquals("Changed", store.load().get(0).definition());
+    }
+
+    @Test
+    @DisplayName("Skips a torn log line")
+    void skipsTornLine() throws IOException {
+        GlossaryStore store = new GlossaryStore(tempDir, 100);
+        store.append(List.of(GlossaryEntry.simple("Kafka", "Event streaming")));
+        Files.writeString(tempDir.resolve(GlossaryStore.LOG_FILE_NAME), "{\"term\":\"Dock",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        assertEquals(1, store.load().size());
+    }
+
+    @Test
+    @DisplayName("Appends after a torn log line without losing the new entry")
+    void appendsAfterTornLine() throws IOException {
+        GlossaryStore store = new GlossaryStore(tempDir, 100);
+        store.append(List.of(GlossaryEntry.simple("Kafka", "Event streaming")));
+        Files.writeString(tempDir.resolve(GlossaryStore.LOG_FILE_NAME), "{\"term\":\"Dock",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        store.append(List.of(GlossaryEntry.simple("Zookeeper", "Coordination service")));
+
+        assertEquals(2, store.load().size());
+    }
+
+    @Test
+    @DisplayName("Keeps every entry from concurrent writers")
+    void concurrentWriters() throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int worker = 0; worker < 8; worker++) {
+                int w = worker;
+                // Separate store instances, as separate pipeline workers would have
+                GlossaryStore store = new GlossaryStore(tempDir, 25);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20; i++) {
+                        store.append(List.of(GlossaryEntry.simple("Term" + w + "x" + i, "Definition")));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(160, new GlossaryStore(tempDir, 25).load().size());
+    }
+
+    @Test
+    @DisplayName("Service loads stored entries lazily and writes only changes")
+    void serviceUsesStore() throws IOException {
+        GlossaryService first = new GlossaryService();
+        first.setStore(new GlossaryStore(tempDir, 100));
+        first.addFromMap(Map.of("Kafka", "Event streaming"), "ApacheKafka");
+
+        GlossaryService second = new GlossaryService();
+        second.setStore(new GlossaryStore(tempDir, 100));
+        assertEquals("ApacheKafka", second.lookup("kafka").orElseThrow().sourceArticle());
+        assertEquals(1, second.findTermsInText("Kafka is a log").size());
+
+        long logSize = Files.size(tempDir.resolve(GlossaryStore.LOG_FILE_NAME));
+        second.addFromMap(Map.of("Kafka", "Event streaming"), "ApacheKafka");
+        assertEquals(logSize, Files.size(tempDir.resolve(GlossaryStore.LOG_FILE_NAME)));
+        assertEquals(List.of("Kafka"), second.getBySourceArticle("ApacheKafka").stream()
+                .map(GlossaryEntry::term).toList());
+    }
+}
@@ -2,6 +2,7 @@ package com.jakefear.aipublisher.linking;
 
 import com.jakefear.aipublisher.glossary.GlossaryEntry;
 import com.jakefear.aipublisher.glossary.GlossaryService;
+import com.jakefear.aipublisher.util.PhraseMatcher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -128,6 +130,36 @@ class LinkEvaluatorTest {
             assertEquals(1, gitCandidates.size());
             assertTrue(content.indexOf("Git.") > 0); // Verify it's the standalone "Git."
         }
+
+        @Test
+        @DisplayName("Finds overlapping page names in one pass")
+        void findsOverlappingPageNames() {
+            wikiContext.registerPage("Kafka");
+            wikiContext.registerPage("KafkaStreams");
+            String content = "Kafka Streams builds on Kafka.";
+
+            List<LinkCandidate> candidates = evaluator.findCandidates(content, wikiContext);
+
+            assertEquals(Set.of("Kafka@0", "KafkaStreams@0", "Kafka@24"), candidates.stream()
+                    .map(c -> c.targetPage() + "@" + c.position())
+                    .collect(Collectors.toSet()));
+        }
+
+        @Test
+        @DisplayName("Reuses the page matcher until the page set changes")
+        void reusesPageMatcher() {
+            wikiContext.registerPage("VersionControl");
+            PhraseMatcher<String> first = evaluator.pageMatcher(wikiContext);
+
+            WikiLinkContext samePages = new WikiLinkContext();
+            samePages.registerPage("VersionControl");
+            assertSame(first, evaluator.pageMatcher(samePages));
+
+            samePages.registerPage("Git");
+            PhraseMatcher<String> rebuilt = evaluator.pageMatcher(samePages);
+            assertNotSame(first, rebuilt);
+            assertEquals(2, rebuilt.size());
+        }
     }
 
     @Nested
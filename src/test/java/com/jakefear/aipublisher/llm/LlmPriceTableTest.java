@@ -0,0 +1,138 @@
+package com.jakefear.aipublisher.llm;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.FinishReason;
+import dev.langchain4j.model.output.TokenUsage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LlmPriceTable")
+class LlmPriceTableTest {
+
+    @Nested
+    @DisplayName("Prices")
+    class Prices {
+
+        @Test
+        @DisplayName("Matches dated model names by the longest prefix")
+        void matchesLongestPrefix() {
+            LlmPriceTable table = new LlmPriceTable("claude-sonnet-4-20250514");
+
+            assertEquals(3.0, table.priceOf("claude-sonnet-4-20250514").orElseThrow().inputPerMillion());
+            assertEquals(75.0, table.priceOf("claude-opus-4-1-20250805").orElseThrow().outputPerMillion());
+            assertEquals(25.0, table.priceOf("claude-opus-4-5-20251101").orElseThrow().outputPerMillion());
+            assertTrue(table.priceOf("qwen3:14b").isEmpty());
+        }
+
+        @Test
+        @DisplayName("Prices calls in USD per million tokens")
+        void computesCost() {
+            LlmPriceTable table = new LlmPriceTable("claude-sonnet-4-20250514");
+
+            assertEquals(3.0 + 15.0, table.cost("claude-sonnet-4-20250514", 1_000_000, 1_000_000), 1e-9);
+            assertEquals(0.0105, table.cost("claude-sonnet-4-20250514", 1_000, 500), 1e-9);
+            assertEquals(0.0, table.cost("qwen3:14b", 1_000, 500));
+        }
+
+        @Test
+        @DisplayName("Configured prices override and extend the defaults")
+        void overrides() {
+            LlmPriceTable table = new LlmPriceTable(
+                    LlmPriceTable.parse("claude-sonnet-4=2/10, qwen3=0.1/0.2"), "qwen3:14b", 1000, 100);
+
+            assertEquals(2.0, table.priceOf("claude-sonnet-4-20250514").orElseThrow().inputPerMillion());
+            assertEquals(0.2, table.priceOf("qwen3:14b").orElseThrow().outputPerMillion());
+            assertEquals(1.0, table.priceOf("claude-haiku-4-5").orElseThrow().inputPerMillion());
+        }
+
+        @Test
+        @DisplayName("Rejects malformed price entries")
+        void rejectsMalformedEntries() {
+            assertTrue(LlmPriceTable.parse("").isEmpty());
+            assertThrows(IllegalArgumentException.class, () -> LlmPriceTable.parse("claude-sonnet-4=3"));
+            assertThrows(IllegalArgumentException.class, () -> LlmPriceTable.parse("claude-sonnet-4=a/b"));
+            assertThrows(IllegalArgumentException.class, () -> LlmPriceTable.parse("claude-sonnet-4=-1/2"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Estimates")
+    class Estimates {
+
+        @Test
+        @DisplayName("Projects tokens and cost for the configured model")
+        void projectsCost() {
+            LlmPriceTable table = new LlmPriceTable(Map.of(), "claude-sonnet-4-20250514", 20_000, 10_000);
+
+            LlmPriceTable.Estimate estimate = table.estimate(10);
+
+            assertEquals(200_000, estimate.inputTokens());
+            assertEquals(100_000, estimate.outputTokens());
+            assertEquals(0.6 + 1.5, estimate.costUsd().orElseThrow(), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Has no cost for unpriced models")
+        void unpricedModel() {
+            LlmPriceTable.Estimate estimate = new LlmPriceTable("qwen3:14b").estimate(3);
+
+            assertEquals(3 * LlmPriceTable.DEFAULT_INPUT_TOKENS_PER_ARTICLE, estimate.inputTokens());
+            assertTrue(estimate.costUsd().isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Usage")
+    class Usage {
+
+        @Test
+        @DisplayName("Reads tokens, finish reason and thinking from a response")
+        void readsResponse() {
+            ChatResponse response = ChatResponse.builder()
+                    .aiMessage(AiMessage.builder().text("answer").thinking("x".repeat(40)).build())
+                    .tokenUsage(new TokenUsage(1200, 300))
+                    .finishReason(FinishReason.LENGTH)
+                    .modelName("claude-sonnet-4-20250514")
+                    .build();
+
+            LlmUsage usage = LlmUsage.from(response, "fallback", 8, null, Duration.ofSeconds(3));
+
+            assertEquals("claude-sonnet-4-20250514", usage.modelName());
+            assertEquals(1200, usage.inputTokens());
+            assertEquals(300, usage.outputTokens());
+            assertEquals(12, usage.thinkingTokens());
+            assertTrue(usage.isTruncated());
+            assertEquals(100.0, usage.outputTokensPerSecond(), 1e-9);
+            assertEquals(0.0081, new LlmPriceTable("claude-sonnet-4").cost(usage), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Flags calls that fill the context window")
+        void flagsContextLimit() {
+            ChatResponse response = ChatResponse.builder()
+                    .aiMessage(AiMessage.from("answer"))
+                    .tokenUsage(new TokenUsage(7900, 100))
+                    .build();
+
+            assertTrue(LlmUsage.from(response, "qwen3:14b", 0, 8192, Duration.ZERO).isAtContextLimit());
+            assertFalse(LlmUsage.from(response, "qwen3:14b", 0, 32768, Duration.ZERO).isAtContextLimit());
+            assertFalse(LlmUsage.from(response, "qwen3:14b", 0, null, Duration.ZERO).isAtContextLimit());
+            assertEquals("qwen3:14b", LlmUsage.from(response, "qwen3:14b", 0, null, Duration.ZERO).modelName());
+        }
+
+        @Test
+        @DisplayName("Has no usage without a response or token counts")
+        void noResponse() {
+            assertNull(LlmUsage.from(null, "model", 0, null, Duration.ZERO));
+            ChatResponse response = ChatResponse.builder().aiMessage(AiMessage.from("answer")).build();
+            assertNull(LlmUsage.from(response, "model", 0, null, Duration.ZERO));
+        }
+    }
+}
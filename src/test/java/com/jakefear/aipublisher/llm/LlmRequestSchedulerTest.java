@@ -0,0 +1,243 @@
+package com.jakefear.aipublisher.llm;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("LlmRequestScheduler")
+class LlmRequestSchedulerTest {
+
+    @Nested
+    @DisplayName("Limits")
+    class Limits {
+
+        @Test
+        @DisplayName("Uses per-provider limit, case-insensitive")
+        void usesPerProviderLimit() {
+            LlmRequestScheduler scheduler = new LlmRequestScheduler(Map.of("Ollama", 2), 5);
+
+            assertEquals(2, scheduler.getMaxInFlight("ollama"));
+            assertEquals(5, scheduler.getMaxInFlight("anthropic"));
+        }
+
+        @Test
+        @DisplayName("Limits are at least one")
+        void limitsAtLeastOne() {
+            LlmRequestScheduler scheduler = new LlmRequestScheduler(Map.of("ollama", 0), -1);
+
+            assertEquals(1, scheduler.getMaxInFlight("ollama"));
+            assertEquals(1, scheduler.getMaxInFlight("other"));
+        }
+
+        @Test
+        @DisplayName("Never exceeds max in flight")
+        void neverExceedsMaxInFlight() throws Exception {
+            LlmRequestScheduler scheduler = new LlmRequestScheduler(Map.of("ollama", 2), 4);
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger peak = new AtomicInteger();
+
+            ExecutorService executor = Executors.newFixedThreadPool(6);
+            try {
+                List<Future<String>> futures = new ArrayList<>();
+                for (int i = 0; i < 12; i++) {
+                    futures.add(executor.submit(() -> scheduler.execute("ollama", 0, () -> {
+                        peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        sleep(10);
+                        running.decrementAndGet();
+                        return "ok";
+                    })));
+                }
+                for (Future<String> future : futures) {
+                    assertEquals("ok", future.get(10, TimeUnit.SECONDS));
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertTrue(peak.get() <= 2, "Peak in-flight was " + peak.get());
+            assertEquals(12, scheduler.getStats("ollama").completed());
+        }
+
+        @Test
+        @DisplayName("Providers have independent lanes")
+        void providersAreIndependent() throws Exception {
+            LlmRequestScheduler scheduler = new LlmRequestScheduler(Map.of("ollama", 1, "anthropic", 1), 1);
+            CountDownLatch ollamaHeld = new CountDownLatch(1);
+            CountDownLatch releaseOllama = new CountDownLatch(1);
+
+            Thread holder = new Thread(() -> scheduler.execute("ollama", 0, () -> {
+                ollamaHeld.countDown();
+                await(releaseOllama);
+                return null;
+            }));
+            holder.start();
+            assertTrue(ollamaHeld.await(5, TimeUnit.SECONDS));
+
+            // Must not block behind the ollama request
+            assertEquals("done", scheduler.execute("anthropic", 0, () -> "done"));
+
+            releaseOllama.countDown();
+            holder.join(5000);
+        }
+    }
+
+    @Nested
+    @DisplayName("Ordering")
+    class Ordering {
+
+        @Test
+        @DisplayName("Admits higher priority first, then arrival order")
+        void admitsByPriorityThenArrival() throws Exception {
+            LlmRequestScheduler scheduler = new LlmRequestScheduler(Map.of("ollama", 1), 1);
+            List<String> order = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch held = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            Thread holder = new Thread(() -> scheduler.execute("ollama", 0, () -> {
+                held.countDown();
+                await(release);
+                return null;
+            }));
+            holder.start();
+            assertTrue(held.await(5, TimeUnit.SECONDS));
+
+            List<Thread> waiters = new ArrayList<>();
+            String[] names = {"research-1", "critic-1", "research-2", "critic-2"};
+            int[] priorities = {1, 5, 1, 5};
+            for (int i = 0; i < names.length; i++) {
+                String name = names[i];
+                int priority = priorities[i];
+                Thread t = new Thread(() -> scheduler.execute("ollama", priority, () -> order.add(name)));
+                t.start();
+                waiters.add(t);
+                // Wait until this request is queued so arrival order is deterministic
+                waitForQueued(scheduler, i + 1);
+            }
+
+            release.countDown();
+            holder.join(5000);
+            for (Thread t : waiters) {
+                t.join(5000);
+            }
+
+            assertEquals(List.of("critic-1", "critic-2", "research-1", "research-2"), order);
+        }
+    }
+
+    @Nested
+    @DisplayName("Statistics")
+    class Statistics {
+
+        @Test
+        @DisplayName("Tracks queue depth and wait time")
+        void tracksQueueDepthAndWait() throws Exception {
+            LlmRequestScheduler scheduler = new LlmRequestScheduler(Map.of("ollama", 1), 1);
+            CountDownLatch held = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            Thread holder = new Thread(() -> scheduler.execute("ollama", 0, () -> {
+                held.countDown();
+                await(release);
+                return null;
+            }));
+            holder.start();
+            assertTrue(held.await(5, TimeUnit.SECONDS));
+
+            Thread waiter = new Thread(() -> scheduler.execute("ollama", 0, () -> null));
+            waiter.start();
+            waitForQueued(scheduler, 1);
+
+            LlmRequestScheduler.LaneStats during = scheduler.getStats("ollama");
+            assertEquals(1, during.inFlight());
+            assertEquals(1, during.queued());
+
+            sleep(20);
+            release.countDown();
+            holder.join(5000);
+            waiter.join(5000);
+
+            LlmRequestScheduler.LaneStats after = scheduler.getStats("ollama");
+            assertEquals(0, after.inFlight());
+            assertEquals(0, after.queued());
+            assertEquals(1, after.peakQueued());
+            assertEquals(2, after.completed());
+            assertTrue(after.maxWait().toMillis() >= 20);
+            assertTrue(after.averageWaitMs() > 0);
+            assertTrue(scheduler.generateReport().contains("ollama"));
+        }
+
+        @Test
+        @DisplayName("Releases slot when call throws")
+        void releasesSlotOnException() {
+            LlmRequestScheduler scheduler = new LlmRequestScheduler(Map.of("ollama", 1), 1);
+
+            assertThrows(RuntimeException.class, () -> scheduler.execute("ollama", 0, () -> {
+                throw new RuntimeException("model down");
+            }));
+
+            assertEquals(0, scheduler.getStats("ollama").inFlight());
+            assertEquals("ok", scheduler.execute("ollama", 0, () -> "ok"));
+        }
+    }
+
+    @Nested
+    @DisplayName("ScheduledChatModel")
+    class Wrapping {
+
+        @Test
+        @DisplayName("Delegates chat requests through the scheduler")
+        void delegatesThroughScheduler() {
+            LlmRequestScheduler scheduler = new LlmRequestScheduler(Map.of("ollama", 1), 1);
+            ChatModel delegate = mock(ChatModel.class);
+            when(delegate.chat(any(ChatRequest.class)))
+                    .thenReturn(ChatResponse.builder().aiMessage(AiMessage.from("hello")).build());
+
+            ChatModel model = scheduler.wrap(delegate, "ollama", "researchChatModel", 1);
+
+            assertEquals("hello", model.chat("hi"));
+            verify(delegate).chat(any(ChatRequest.class));
+            assertEquals(1, scheduler.getStats("ollama").completed());
+        }
+    }
+
+    private static void waitForQueued(LlmRequestScheduler scheduler, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.getStats("ollama").queued() < expected) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for " + expected + " queued requests");
+            }
+            Thread.sleep(2);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.jakefear.aipublisher.llm;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LlmResponseCache")
+class LlmResponseCacheTest {
+
+    @TempDir
+    Path cacheDir;
+
+    @Nested
+    @DisplayName("Keys")
+    class Keys {
+
+        @Test
+        @DisplayName("Same inputs produce the same key")
+        void sameInputsSameKey() {
+            String a = LlmResponseCache.key("OLLAMA", "qwen3:14b", 0.1, "system", "user");
+            String b = LlmResponseCache.key("OLLAMA", "qwen3:14b", 0.1, "system", "user");
+
+            assertEquals(a, b);
+            assertEquals(64, a.length());
+        }
+
+        @Test
+        @DisplayName("Each component changes the key")
+        void eachComponentChangesKey() {
+            String base = LlmResponseCache.key("OLLAMA", "qwen3:14b", 0.1, "system", "user");
+
+            assertNotEquals(base, LlmResponseCache.key("ANTHROPIC", "qwen3:14b", 0.1, "system", "user"));
+            assertNotEquals(base, LlmResponseCache.key("OLLAMA", "llama3.2", 0.1, "system", "user"));
+            assertNotEquals(base, LlmResponseCache.key("OLLAMA", "qwen3:14b", 0.3, "system", "user"));
+            assertNotEquals(base, LlmResponseCache.key("OLLAMA", "qwen3:14b", 0.1, "other", "user"));
+            assertNotEquals(base, LlmResponseCache.key("OLLAMA", "qwen3:14b", 0.1, "system", "other"));
+        }
+
+        @Test
+        @DisplayName("Moving text between prompts changes the key")
+        void fieldBoundariesMatter() {
+            assertNotEquals(
+                    LlmResponseCache.key("P", "M", 0.1, "ab", "c"),
+                    LlmResponseCache.key("P", "M", 0.1, "a", "bc"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Storage")
+    class Storage {
+
+        @Test
+        @DisplayName("Returns stored responses and counts hits and misses")
+        void storesAndRetrieves() {
+            LlmResponseCache cache = new LlmResponseCache(cacheDir, 1024, true);
+
+            assertEquals(Optional.empty(), cache.get("k1"));
+            cache.put("k1", "response one");
+
+            assertEquals(Optional.of("response one"), cache.get("k1"));
+            assertEquals(1, cache.getHits());
+            assertEquals(1, cache.getMisses());
+        }
+
+        @Test
+        @DisplayName("Persists across instances")
+        void persistsAcrossInstances() {
+            new LlmResponseCache(cacheDir, 1024, true).put("k1", "persisted");
+
+            LlmResponseCache reopened = new LlmResponseCache(cacheDir, 1024, true);
+
+            assertEquals(1, reopened.getEntryCount());
+            assertEquals(Optional.of("persisted"), reopened.get("k1"));
+        }
+
+        @Test
+        @DisplayName("Disabled cache neither reads nor writes")
+        void disabledCacheIsInert() {
+            LlmResponseCache cache = new LlmResponseCache(cacheDir, 1024, true);
+            cache.put("k1", "stored");
+            cache.setEnabled(false);
+
+            assertEquals(Optional.empty(), cache.get("k1"));
+            cache.put("k2", "ignored");
+
+            cache.setEnabled(true);
+            assertEquals(Optional.empty(), cache.get("k2"));
+        }
+
+        @Test
+        @DisplayName("Invalidate removes a single entry")
+        void invalidateRemovesEntry() {
+            LlmResponseCache cache = new LlmResponseCache(cacheDir, 1024, true);
+            cache.put("k1", "one");
+            cache.put("k2", "two");
+
+            cache.invalidate("k1");
+
+            assertEquals(Optional.empty(), cache.get("k1"));
+            assertEquals(Optional.of("two"), cache.get("k2"));
+            assertFalse(Files.exists(cacheDir.resolve("k1.txt")));
+        }
+
+        @Test
+        @DisplayName("Clear removes every entry")
+        void clearRemovesEverything() {
+            LlmResponseCache cache = new LlmResponseCache(cacheDir, 1024, true);
+            cache.put("k1", "one");
+            cache.put("k2", "two");
+
+            assertEquals(2, cache.clear());
+            assertEquals(0, cache.getEntryCount());
+            assertEquals(0, cache.getTotalBytes());
+            assertEquals(Optional.empty(), cache.get("k1"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Eviction")
+    class Eviction {
+
+        @Test
+        @DisplayName("Evicts least recently used entries beyond the size limit")
+        void evictsLeastRecentlyUsed() {
+            LlmResponseCache cache = new LlmResponseCache(cacheDir, 25, true);
+            cache.put("k1", "0123456789");
+            cache.put("k2", "0123456789");
+
+            // Touch k1 so k2 becomes the least recently used
+            assertTrue(cache.get("k1").isPresent());
+            cache.put("k3", "0123456789");
+
+            assertTrue(cache.get("k1").isPresent());
+            assertEquals(Optional.empty(), cache.get("k2"));
+            assertTrue(cache.get("k3").isPresent());
+            assertEquals(1, cache.getEvictions());
+            assertTrue(cache.getTotalBytes() <= 25);
+        }
+
+        @Test
+        @DisplayName("Keeps an entry larger than the limit until the next write")
+        void keepsOversizedNewestEntry() {
+            LlmResponseCache cache = new LlmResponseCache(cacheDir, 5, true);
+            cache.put("big", "0123456789");
+
+            assertEquals(Optional.of("0123456789"), cache.get("big"));
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.jakefear.aipublisher.llm;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.PartialThinking;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import dev.langchain4j.model.output.TokenUsage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StreamingChatClient")
+class StreamingChatClientTest {
+
+    @Test
+    @DisplayName("Returns the streamed text with thinking removed")
+    void returnsStreamedText() {
+        StreamingChatModel model = streaming(List.of("<think>hmm</think>", "{\"a\":", " 1}"), 0, 7);
+        StreamingChatClient client = new StreamingChatClient(model, Duration.ofSeconds(5), Duration.ofSeconds(5));
+
+        StreamingResult result = client.chat("prompt");
+
+        assertEquals("{\"a\": 1}", result.text());
+        assertEquals(List.of("hmm"), result.thinkingBlocks());
+        assertEquals(7, result.outputTokens());
+        assertFalse(result.timeToFirstToken().isNegative());
+        assertTrue(result.totalTime().compareTo(result.timeToFirstToken()) >= 0);
+    }
+
+    @Test
+    @DisplayName("Counts chunks when the provider reports no usage")
+    void countsChunksWithoutUsage() {
+        StreamingChatModel model = streaming(List.of("a", "b", "c"), 0, 0);
+        StreamingChatClient client = new StreamingChatClient(model, Duration.ofSeconds(5), Duration.ofSeconds(5));
+
+        assertEquals(3, client.chat("prompt").outputTokens());
+    }
+
+    @Test
+    @DisplayName("Aborts a stream that stops producing tokens")
+    void abortsStalledStream() {
+        StreamingChatModel model = new StreamingChatModel() {
+            @Override
+            public void chat(ChatRequest chatRequest, StreamingChatResponseHandler handler) {
+                // One token, then silence
+                handler.onPartialResponse("{");
+            }
+        };
+        StreamingChatClient client = new StreamingChatClient(model, Duration.ofSeconds(5), Duration.ofMillis(100));
+
+        StreamStalledException e = assertThrows(StreamStalledException.class, () -> client.chat("prompt"));
+        assertTrue(e.hasReceivedTokens());
+        assertTrue(e.getMessage().toLowerCase().contains("timeout"));
+    }
+
+    @Test
+    @DisplayName("Aborts when the first token never arrives")
+    void abortsWithoutFirstToken() {
+        StreamingChatModel model = new StreamingChatModel() {
+            @Override
+            public void chat(ChatRequest chatRequest, StreamingChatResponseHandler handler) {
+                // Never responds
+            }
+        };
+        StreamingChatClient client = new StreamingChatClient(model, Duration.ofMillis(100), Duration.ofSeconds(5));
+
+        StreamStalledException e = assertThrows(StreamStalledException.class, () -> client.chat("prompt"));
+        assertFalse(e.hasReceivedTokens());
+    }
+
+    @Test
+    @DisplayName("Keeps waiting while tokens keep arriving")
+    void slowButSteadyStreamSucceeds() {
+        StreamingChatModel model = streaming(List.of("a", "b", "c", "d", "e"), 60, 5);
+        StreamingChatClient client = new StreamingChatClient(model, Duration.ofSeconds(5), Duration.ofMillis(200));
+
+        assertEquals("abcde", client.chat("prompt").text());
+    }
+
+    @Test
+    @DisplayName("Counts streamed reasoning as activity but not as response text")
+    void countsStreamedThinking() {
+        StreamingChatModel model = new StreamingChatModel() {
+            @Override
+            public void chat(ChatRequest chatRequest, StreamingChatResponseHandler handler) {
+                Thread.ofVirtual().start(() -> {
+                    try {
+                        // Reasoning only, for longer than the first-token timeout
+                        for (int i = 0; i < 6; i++) {
+                            Thread.sleep(50);
+                            handler.onPartialThinking(new PartialThinking("hmm "));
+                        }
+                        handler.onPartialResponse("done");
+                        handler.onCompleteResponse(ChatResponse.builder()
+                                .aiMessage(AiMessage.from("done"))
+                                .build());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+        };
+        StreamingChatClient client = new StreamingChatClient(model, Duration.ofMillis(150), Duration.ofSeconds(5));
+
+        StreamingResult result = client.chat("prompt");
+
+        assertEquals("done", result.text());
+        assertEquals(24, result.thinkingChars());
+        assertEquals(7, result.outputTokens());
+        assertTrue(result.timeToFirstToken().compareTo(Duration.ofMillis(150)) < 0);
+    }
+
+    @Test
+    @DisplayName("Propagates provider errors")
+    void propagatesErrors() {
+        StreamingChatModel model = new StreamingChatModel() {
+            @Override
+            public void chat(ChatRequest chatRequest, StreamingChatResponseHandler handler) {
+                handler.onError(new IllegalStateException("overloaded"));
+            }
+        };
+        StreamingChatClient client = new StreamingChatClient(model, Duration.ofSeconds(5), Duration.ofSeconds(5));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> client.chat("prompt"));
+        assertEquals("overloaded", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Holds a scheduler slot for the whole stream")
+    void usesScheduler() {
+        LlmRequestScheduler scheduler = new LlmRequestScheduler();
+        StreamingChatClient client = new StreamingChatClient(streaming(List.of("ok"), 0, 1), scheduler,
+                "ollama", "test", 1, Duration.ofSeconds(5), Duration.ofSeconds(5), true);
+
+        assertEquals("ok", client.chat("prompt").text());
+        assertEquals(1, scheduler.getStats("ollama").completed());
+    }
+
+    @Test
+    @DisplayName("Keeps the slot of an abandoned stream until the provider calls back")
+    void keepsSlotOfAbandonedStream() {
+        AtomicReference<StreamingChatResponseHandler> pending = new AtomicReference<>();
+        StreamingChatModel model = new StreamingChatModel() {
+            @Override
+            public void chat(ChatRequest chatRequest, StreamingChatResponseHandler handler) {
+                // Never responds until the test reports an error
+                pending.set(handler);
+            }
+        };
+        LlmRequestScheduler scheduler = new LlmRequestScheduler();
+        StreamingChatClient client = new StreamingChatClient(model, scheduler,
+                "ollama", "test", 1, Duration.ofMillis(100), Duration.ofSeconds(5), true);
+
+        assertThrows(StreamStalledException.class, () -> client.chat("prompt"));
+        assertEquals(1, scheduler.getStats("ollama").inFlight());
+
+        pending.get().onError(new IllegalStateException("read timed out"));
+        assertEquals(0, scheduler.getStats("ollama").inFlight());
+        assertEquals(1, scheduler.getStats("ollama").completed());
+    }
+
+    @Test
+    @DisplayName("Releases the slot when the provider fails before streaming")
+    void releasesSlotOnImmediateFailure() {
+        StreamingChatModel model = new StreamingChatModel() {
+            @Override
+            public void chat(ChatRequest chatRequest, StreamingChatResponseHandler handler) {
+                throw new IllegalArgumentException("bad request");
+            }
+        };
+        LlmRequestScheduler scheduler = new LlmRequestScheduler();
+        StreamingChatClient client = new StreamingChatClient(model, scheduler,
+                "ollama", "test", 1, Duration.ofSeconds(5), Duration.ofSeconds(5), true);
+
+        assertThrows(IllegalArgumentException.class, () -> client.chat("prompt"));
+        assertEquals(0, scheduler.getStats("ollama").inFlight());
+    }
+
+    /**
+     * A model that streams the chunks on a background thread, pausing between them.
+     */
+    private static StreamingChatModel streaming(List<String> chunks, long delayMs, int outputTokens) {
+        return new StreamingChatModel() {
+            @Override
+            public void chat(ChatRequest chatRequest, StreamingChatResponseHandler handler) {
+                Thread.ofVirtual().start(() -> {
+                    try {
+                        for (String chunk : chunks) {
+                            Thread.sleep(delayMs);
+                            handler.onPartialResponse(chunk);
+                        }
+                        handler.onCompleteResponse(ChatResponse.builder()
+                                .aiMessage(AiMessage.from(String.join("", chunks)))
+                                .tokenUsage(new TokenUsage(10, outputTokens))
+                                .build());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package com.jakefear.aipublisher.llm;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ThinkingStreamFilter")
+class ThinkingStreamFilterTest {
+
+    @Test
+    @DisplayName("Passes through text without thinking")
+    void passesThroughPlainText() {
+        ThinkingStreamFilter filter = feed("{\"a\":", " 1}");
+
+        assertEquals("{\"a\": 1}", filter.finish());
+        assertTrue(filter.getThinkingBlocks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Removes a thinking block delivered in one chunk")
+    void removesWholeBlock() {
+        ThinkingStreamFilter filter = feed("<think>plan it</think>{\"a\": 1}");
+
+        assertEquals("{\"a\": 1}", filter.finish());
+        assertEquals(List.of("plan it"), filter.getThinkingBlocks());
+    }
+
+    @Test
+    @DisplayName("Handles tags split across chunks")
+    void handlesSplitTags() {
+        ThinkingStreamFilter filter = feed("{\"a\"", ": 1<th", "ink>  reason", "ing </thi", "nk>}");
+
+        assertEquals("{\"a\": 1}", filter.finish());
+        assertEquals(List.of("reasoning"), filter.getThinkingBlocks());
+    }
+
+    @Test
+    @DisplayName("Handles one character per chunk")
+    void handlesSingleCharacterChunks() {
+        String response = "before<think>x</think>middle<think>y</think>after";
+        ThinkingStreamFilter filter = new ThinkingStreamFilter();
+        for (char c : response.toCharArray()) {
+            filter.accept(String.valueOf(c));
+        }
+
+        assertEquals("beforemiddleafter", filter.finish());
+        assertEquals(List.of("x", "y"), filter.getThinkingBlocks());
+    }
+
+    @Test
+    @DisplayName("Drops orphaned closing tags")
+    void dropsOrphanedClosingTag() {
+        ThinkingStreamFilter filter = feed("text</think> more");
+
+        assertEquals("text more", filter.finish());
+        assertTrue(filter.getThinkingBlocks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Keeps content of an unterminated block")
+    void keepsUnterminatedBlockContent() {
+        ThinkingStreamFilter filter = feed("start <think>never closed");
+
+        assertEquals("start never closed", filter.finish());
+        assertTrue(filter.getThinkingBlocks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Drops opening tags nested in an unterminated block")
+    void dropsNestedTagsOfUnterminatedBlock() {
+        ThinkingStreamFilter filter = feed("x<think>y<think>z");
+
+        assertEquals("xyz", filter.finish());
+        assertTrue(filter.getThinkingBlocks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Keeps nested opening tags inside a complete block")
+    void keepsNestedTagsOfCompleteBlock() {
+        ThinkingStreamFilter filter = feed("x<think>y<think>z</think>w");
+
+        assertEquals("xw", filter.finish());
+        assertEquals(List.of("y<think>z"), filter.getThinkingBlocks());
+    }
+
+    @Test
+    @DisplayName("Releases held-back text that was not a tag")
+    void releasesHeldBackText() {
+        ThinkingStreamFilter filter = feed("a < b <th");
+
+        assertEquals(6, filter.getContentLength());
+        assertEquals("a < b <th", filter.finish());
+    }
+
+    @Test
+    @DisplayName("Omits empty thinking blocks")
+    void omitsEmptyBlocks() {
+        ThinkingStreamFilter filter = feed("<think>  </think>done");
+
+        assertEquals("done", filter.finish());
+        assertTrue(filter.getThinkingBlocks().isEmpty());
+    }
+
+    private static ThinkingStreamFilter feed(String... chunks) {
+        ThinkingStreamFilter filter = new ThinkingStreamFilter();
+        for (String chunk : chunks) {
+            filter.accept(chunk);
+        }
+        return filter;
+    }
+}
@@ -0,0 +1,230 @@
+package com.jakefear.aipublisher.monitoring;
+
+import com.jakefear.aipublisher.document.PublishingDocument;
+import com.jakefear.aipublisher.document.TopicBrief;
+import com.jakefear.aipublisher.monitoring.AsyncEventDispatcher.OverflowPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AsyncEventDispatcher")
+class AsyncEventDispatcherTest {
+
+    private PublishingDocument document;
+    private AsyncEventDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        document = new PublishingDocument(TopicBrief.simple("Test Topic", "testers", 500));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
+    private PipelineEvent event(int n) {
+        return PipelineEvent.info(document, "event " + n);
+    }
+
+    /**
+     * Listener that blocks on its first batch until released.
+     */
+    private static class GatedListener implements PipelineEventListener {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<PipelineEvent> received = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onEvent(PipelineEvent event) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(event);
+        }
+    }
+
+    @Nested
+    @DisplayName("Delivery")
+    class Delivery {
+
+        @Test
+        @DisplayName("Delivers events in order off the publishing thread")
+        void deliversInOrder() {
+            dispatcher = new AsyncEventDispatcher(16, OverflowPolicy.BLOCK, 4, 10);
+            List<PipelineEvent> received = Collections.synchronizedList(new ArrayList<>());
+            List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+            dispatcher.addListener(event -> {
+                threads.add(Thread.currentThread());
+                received.add(event);
+            });
+
+            for (int i = 0; i < 100; i++) {
+                dispatcher.publish(event(i));
+            }
+
+            assertTrue(dispatcher.flush(Duration.ofSeconds(5)));
+            assertEquals(100, received.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals("event " + i, received.get(i).message());
+            }
+            assertTrue(threads.stream().noneMatch(thread -> thread == Thread.currentThread()));
+        }
+
+        @Test
+        @DisplayName("Hands listeners batches no larger than the batch size")
+        void deliversBatches() throws Exception {
+            dispatcher = new AsyncEventDispatcher(64, OverflowPolicy.BLOCK, 8, 10);
+            GatedListener gate = new GatedListener();
+            List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+            dispatcher.addListener(gate);
+            dispatcher.addListener(new PipelineEventListener() {
+                @Override
+                public void onEvent(PipelineEvent event) {
+                    fail("batch listener should not be called per event");
+                }
+
+                @Override
+                public void onEvents(List<PipelineEvent> events) {
+                    batchSizes.add(events.size());
+                }
+            });
+
+            dispatcher.publish(event(0));
+            assertTrue(gate.entered.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i <= 20; i++) {
+                dispatcher.publish(event(i));
+            }
+            gate.release.countDown();
+
+            assertTrue(dispatcher.flush(Duration.ofSeconds(5)));
+            assertEquals(List.of(1, 8, 8, 4), batchSizes);
+        }
+
+        @Test
+        @DisplayName("Keeps delivering to other listeners when one throws")
+        void isolatesFailingListener() {
+            dispatcher = new AsyncEventDispatcher(16, OverflowPolicy.BLOCK, 4, 10);
+            List<PipelineEvent> received = Collections.synchronizedList(new ArrayList<>());
+            dispatcher.addListener(event -> {
+                throw new RuntimeException("listener error");
+            });
+            dispatcher.addListener(received::add);
+
+            dispatcher.publish(event(1));
+            dispatcher.publish(event(2));
+
+            assertTrue(dispatcher.flush(Duration.ofSeconds(5)));
+            assertEquals(2, received.size());
+            assertTrue(dispatcher.getListenerStats().get(0).failures() > 0);
+            assertEquals(2, dispatcher.getListenerStats().get(1).delivered());
+        }
+
+        @Test
+        @DisplayName("Delivers buffered events on close and later events synchronously")
+        void drainsOnClose() throws Exception {
+            dispatcher = new AsyncEventDispatcher(16, OverflowPolicy.BLOCK, 4, 10);
+            GatedListener gate = new GatedListener();
+            dispatcher.addListener(gate);
+
+            dispatcher.publish(event(0));
+            assertTrue(gate.entered.await(5, TimeUnit.SECONDS));
+            dispatcher.publish(event(1));
+            dispatcher.publish(event(2));
+            gate.release.countDown();
+            dispatcher.close();
+
+            assertEquals(3, gate.received.size());
+            dispatcher.publish(event(3));
+            assertEquals(4, gate.received.size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Overflow")
+    class Overflow {
+
+        @Test
+        @DisplayName("DROP discards new events and counts them per listener")
+        void dropsWhenFull() throws Exception {
+            dispatcher = new AsyncEventDispatcher(4, OverflowPolicy.DROP, 4, 10);
+            GatedListener gate = new GatedListener();
+            dispatcher.addListener(gate);
+
+            dispatcher.publish(event(0));
+            assertTrue(gate.entered.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i <= 10; i++) {
+                dispatcher.publish(event(i));
+            }
+
+            AsyncEventDispatcher.ListenerStats stats = dispatcher.getListenerStats().get(0);
+            assertEquals(6, dispatcher.getDroppedCount());
+            assertEquals(6, stats.dropped());
+            assertEquals(5, stats.lag());
+            assertEquals(4, dispatcher.getBufferedCount());
+
+            gate.release.countDown();
+            assertTrue(dispatcher.flush(Duration.ofSeconds(5)));
+            assertEquals(5, gate.received.size());
+            assertEquals(0, dispatcher.getListenerStats().get(0).lag());
+        }
+
+        @Test
+        @DisplayName("BLOCK waits for room and loses nothing")
+        void blocksWhenFull() throws Exception {
+            dispatcher = new AsyncEventDispatcher(2, OverflowPolicy.BLOCK, 1, 10);
+            List<PipelineEvent> received = Collections.synchronizedList(new ArrayList<>());
+            dispatcher.addListener(event -> {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                received.add(event);
+            });
+
+            for (int i = 0; i < 50; i++) {
+                dispatcher.publish(event(i));
+            }
+
+            assertTrue(dispatcher.flush(Duration.ofSeconds(5)));
+            assertEquals(50, received.size());
+            assertEquals(0, dispatcher.getDroppedCount());
+        }
+
+        @Test
+        @DisplayName("SAMPLE thins events once the buffer is half full")
+        void samplesWhenBacklogged() throws Exception {
+            dispatcher = new AsyncEventDispatcher(100, OverflowPolicy.SAMPLE, 100, 10);
+            GatedListener gate = new GatedListener();
+            dispatcher.addListener(gate);
+
+            dispatcher.publish(event(0));
+            assertTrue(gate.entered.await(5, TimeUnit.SECONDS));
+            // 50 fill the buffer to half, then 1 in 10 of the next 100 is kept
+            for (int i = 1; i <= 150; i++) {
+                dispatcher.publish(event(i));
+            }
+
+            assertEquals(60, dispatcher.getBufferedCount());
+            assertEquals(90, dispatcher.getDroppedCount());
+            gate.release.countDown();
+        }
+    }
+}
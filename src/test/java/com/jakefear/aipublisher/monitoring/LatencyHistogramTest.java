@@ -0,0 +1,159 @@
+package com.jakefear.aipublisher.monitoring;
+
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LatencyHistogram")
+class LatencyHistogramTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private LatencyHistogram histogram;
+
+    @BeforeEach
+    void setUp() {
+        histogram = new LatencyHistogram(Duration.ofMinutes(5), now::get);
+    }
+
+    @Nested
+    @DisplayName("Buckets")
+    class Buckets {
+
+        @Test
+        @DisplayName("Covers every value with contiguous buckets")
+        void bucketsAreContiguous() {
+            assertEquals(0, LatencyHistogram.lowestValueOf(0));
+            for (int i = 1; i < LatencyHistogram.BUCKET_COUNT; i++) {
+                assertEquals(LatencyHistogram.highestValueOf(i - 1) + 1, LatencyHistogram.lowestValueOf(i));
+            }
+        }
+
+        @Test
+        @DisplayName("Keeps bucket width within 1/64 of the value")
+        void bucketsArePrecise() {
+            for (long value : new long[]{0, 63, 64, 65, 1000, 30_000, 540_000, 4_000_000_000L}) {
+                int bucket = LatencyHistogram.bucketOf(value);
+                assertTrue(LatencyHistogram.lowestValueOf(bucket) <= value);
+                assertTrue(LatencyHistogram.highestValueOf(bucket) >= value);
+                long width = LatencyHistogram.highestValueOf(bucket) - LatencyHistogram.lowestValueOf(bucket) + 1;
+                assertTrue(width <= Math.max(1, value / 64), "width " + width + " at " + value);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Percentiles")
+    class Percentiles {
+
+        @Test
+        @DisplayName("Reports an empty snapshot before any values")
+        void emptySnapshot() {
+            assertEquals(LatencyHistogram.Snapshot.EMPTY, histogram.snapshot());
+            assertEquals(LatencyHistogram.Snapshot.EMPTY, histogram.windowSnapshot());
+        }
+
+        @Test
+        @DisplayName("Exposes the long tail")
+        void exposesLongTail() {
+            for (int i = 0; i < 99; i++) {
+                histogram.record(Duration.ofSeconds(30));
+            }
+            histogram.record(Duration.ofMinutes(9));
+
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            assertEquals(100, snapshot.count());
+            assertEquals(30_000, snapshot.p50Ms(), 30_000 / 64.0);
+            assertEquals(30_000, snapshot.p99Ms(), 30_000 / 64.0);
+            assertEquals(540_000, snapshot.maxMs());
+            assertEquals((99 * 30_000 + 540_000) / 100.0, snapshot.meanMs(), 0.001);
+        }
+
+        @Test
+        @DisplayName("Stays within 1/64 of exact percentiles")
+        void matchesExactPercentiles() {
+            List<Long> values = new ArrayList<>();
+            java.util.Random random = new java.util.Random(42);
+            for (int i = 0; i < 10_000; i++) {
+                long value = (long) Math.exp(random.nextDouble() * 13);
+                values.add(value);
+                histogram.recordMillis(value);
+            }
+            values.sort(null);
+
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            long exactP90 = values.get(8_999);
+            long exactP99 = values.get(9_899);
+            assertEquals(exactP90, snapshot.p90Ms(), Math.max(1, exactP90 / 64.0));
+            assertEquals(exactP99, snapshot.p99Ms(), Math.max(1, exactP99 / 64.0));
+            assertEquals(values.get(values.size() - 1), snapshot.maxMs());
+        }
+    }
+
+    @Nested
+    @DisplayName("Sliding window")
+    class SlidingWindow {
+
+        @Test
+        @DisplayName("Drops values older than the window")
+        void dropsOldValues() {
+            histogram.record(Duration.ofMinutes(9));
+            now.addAndGet(Duration.ofMinutes(3).toMillis());
+            histogram.record(Duration.ofSeconds(30));
+
+            assertEquals(2, histogram.windowSnapshot().count());
+
+            now.addAndGet(Duration.ofMinutes(3).toMillis());
+            LatencyHistogram.Snapshot recent = histogram.windowSnapshot();
+            assertEquals(1, recent.count());
+            assertEquals(30_000, recent.maxMs());
+            assertEquals(2, histogram.snapshot().count());
+        }
+
+        @Test
+        @DisplayName("Reuses slices after the window wraps")
+        void reusesSlices() {
+            histogram.record(Duration.ofSeconds(1));
+            now.addAndGet(Duration.ofMinutes(5).toMillis());
+            histogram.record(Duration.ofSeconds(2));
+
+            LatencyHistogram.Snapshot recent = histogram.windowSnapshot();
+            assertEquals(1, recent.count());
+            assertEquals(2_000, recent.maxMs());
+        }
+    }
+
+    @Test
+    @DisplayName("Counts concurrent recordings without loss")
+    void countsConcurrentRecordings() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.recordMillis(i % 1000);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80_000, histogram.snapshot().count());
+        assertEquals(80_000, histogram.windowSnapshot().count());
+    }
+
+    @Test
+    @DisplayName("Clears everything on reset")
+    void resets() {
+        histogram.record(Duration.ofSeconds(5));
+
+        histogram.reset();
+
+        assertEquals(LatencyHistogram.Snapshot.EMPTY, histogram.snapshot());
+        assertEquals(LatencyHistogram.Snapshot.EMPTY, histogram.windowSnapshot());
+    }
+}
@@ -0,0 +1,126 @@
+package com.jakefear.aipublisher.monitoring;
+
+import com.jakefear.aipublisher.agent.AgentRole;
+import com.jakefear.aipublisher.document.DocumentState;
+import com.jakefear.aipublisher.llm.LlmRequestScheduler;
+import com.jakefear.aipublisher.llm.LlmUsage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PipelineMeters")
+class PipelineMetersTest {
+
+    private SimpleMeterRegistry registry;
+    private PipelineMonitoringService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        service = new PipelineMonitoringService(List.of());
+        service.setMeters(new PipelineMeters(registry));
+    }
+
+    @Test
+    @DisplayName("Tags agent timings by role and pass")
+    void tagsAgentTimings() {
+        service.recordAgentProcessing(AgentRole.WRITER, Duration.ofSeconds(2));
+        service.recordAgentProcessing(AgentRole.EDITOR, Duration.ofSeconds(3), 1);
+
+        assertEquals(1, registry.get("aipublisher.agent.duration").tag("agent", "writer").tag("pass", "first")
+                .timer().count());
+        assertEquals(3.0, registry.get("aipublisher.agent.duration").tag("agent", "editor").tag("pass", "revision")
+                .timer().totalTime(TimeUnit.SECONDS), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Counts tokens and cost by agent, model and token type")
+    void countsTokens() {
+        LlmUsage usage = new LlmUsage("claude-sonnet-4", 1000, 200, 50, "LENGTH", null, Duration.ofSeconds(4));
+
+        service.recordLlmUsage(AgentRole.RESEARCHER, usage, 0.006);
+        service.recordLlmUsage(AgentRole.RESEARCHER, usage, 0.006);
+
+        assertEquals(2000.0, registry.get("aipublisher.llm.tokens").tag("agent", "researcher")
+                .tag("model", "claude-sonnet-4").tag("type", "input").counter().count());
+        assertEquals(100.0, registry.get("aipublisher.llm.tokens").tag("type", "thinking").counter().count());
+        assertEquals(0.012, registry.get("aipublisher.llm.cost").tag("model", "claude-sonnet-4").counter().count(), 1e-9);
+        assertEquals(2.0, registry.get("aipublisher.llm.truncated").counter().count());
+        assertEquals(400.0, registry.get("aipublisher.llm.response.tokens").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Records pipeline outcomes and phases")
+    void recordsPipelineOutcomes() {
+        PipelineMeters meters = new PipelineMeters(registry);
+
+        meters.pipelineStarted();
+        meters.phaseCompleted(DocumentState.DRAFTING, Duration.ofSeconds(30));
+        meters.pipelineFailed(DocumentState.FACT_CHECKING);
+        meters.approval(false);
+
+        assertEquals(1.0, registry.get("aipublisher.pipeline.started").counter().count());
+        assertEquals(1, registry.get("aipublisher.phase.duration").tag("phase", "drafting").timer().count());
+        assertEquals(1.0, registry.get("aipublisher.pipeline.failures").tag("phase", "fact_checking").counter().count());
+        assertEquals(1.0, registry.get("aipublisher.approvals").tag("decision", "rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Records search lookups and output writes")
+    void recordsLookupsAndWrites() {
+        PipelineMeters meters = new PipelineMeters(registry);
+
+        meters.httpLookup("wikidata", Duration.ofMillis(120), true);
+        meters.httpLookup("wikidata", Duration.ofMillis(900), false);
+        meters.outputWrite("article", Duration.ofMillis(3), 5000);
+
+        assertEquals(1, registry.get("aipublisher.search.lookup.duration").tag("service", "wikidata")
+                .tag("outcome", "failure").timer().count());
+        assertEquals(5000.0, registry.get("aipublisher.output.page.size").tag("kind", "article")
+                .summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Exposes event dispatcher lag and drops per listener")
+    void exposesEventDispatch() {
+        try (AsyncEventDispatcher dispatcher = new AsyncEventDispatcher(8, AsyncEventDispatcher.OverflowPolicy.DROP, 8, 10)) {
+            dispatcher.addListener(new LoggingEventListener());
+            new PipelineMeters(registry).monitorEventDispatcher(dispatcher);
+
+            assertEquals(0.0, registry.get("aipublisher.events.lag").tag("listener", "LoggingEventListener")
+                    .gauge().value());
+            assertEquals(0.0, registry.get("aipublisher.events.dropped").tag("listener", "LoggingEventListener")
+                    .functionCounter().count());
+            assertEquals(0.0, registry.get("aipublisher.events.buffered").gauge().value());
+        }
+    }
+
+    @Test
+    @DisplayName("Exposes scheduler queue depth, in-flight calls and wait time per lane")
+    void exposesSchedulerLanes() {
+        LlmRequestScheduler scheduler = new LlmRequestScheduler(Map.of("ollama", 2, "anthropic", 4), 4);
+        service.setRequestScheduler(scheduler);
+
+        assertEquals(0.0, registry.get("aipublisher.llm.scheduler.queued").tag("lane", "ollama").gauge().value());
+
+        scheduler.execute("ollama", 0, () -> {
+            assertEquals(1.0, registry.get("aipublisher.llm.scheduler.in.flight").tag("lane", "ollama")
+                    .gauge().value());
+            return "done";
+        });
+
+        assertEquals(0.0, registry.get("aipublisher.llm.scheduler.in.flight").tag("lane", "ollama").gauge().value());
+        assertEquals(1.0, registry.get("aipublisher.llm.scheduler.wait").tag("lane", "ollama")
+                .functionTimer().count());
+        assertEquals(0.0, registry.get("aipublisher.llm.scheduler.wait").tag("lane", "anthropic")
+                .functionTimer().count());
+    }
+}
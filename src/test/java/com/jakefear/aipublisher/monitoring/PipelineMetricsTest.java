@@ -2,10 +2,13 @@ package com.jakefear.aipublisher.monitoring;
 
 import com.jakefear.aipublisher.agent.AgentRole;
 import com.jakefear.aipublisher.document.DocumentState;
+import com.jakefear.aipublisher.document.TokenUsageSummary;
 import org.junit.jupiter.api.*;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -241,6 +244,166 @@ class PipelineMetricsTest {
         }
     }
 
+    @Nested
+    @DisplayName("Streaming metrics")
+    class StreamingMetrics {
+
+        @Test
+        @DisplayName("Averages time to first token and computes tokens per second")
+        void tracksStreamingResponses() {
+            metrics.recordStreamingResponse(AgentRole.WRITER, Duration.ofMillis(200), 100, Duration.ofSeconds(2));
+            metrics.recordStreamingResponse(AgentRole.WRITER, Duration.ofMillis(400), 300, Duration.ofSeconds(2));
+
+            assertEquals(2, metrics.getStreamedResponseCount(AgentRole.WRITER));
+            assertEquals(300.0, metrics.getAgentAverageTimeToFirstTokenMs(AgentRole.WRITER), 0.01);
+            assertEquals(100.0, metrics.getAgentTokensPerSecond(AgentRole.WRITER), 0.01);
+            assertEquals(0.0, metrics.getAgentTokensPerSecond(AgentRole.EDITOR), 0.01);
+        }
+
+        @Test
+        @DisplayName("Reports streaming statistics and stalls")
+        void reportsStreaming() {
+            metrics.recordStreamingResponse(AgentRole.RESEARCHER, Duration.ofMillis(150), 50, Duration.ofSeconds(1));
+            metrics.recordStreamStall();
+
+            String report = metrics.generateReport();
+
+            assertTrue(report.contains("Streaming:"));
+            assertTrue(report.contains("Research Agent: 1 responses"));
+            assertTrue(report.contains("Stalled streams: 1"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Token usage")
+    class TokenUsage {
+
+        @Test
+        @DisplayName("Sums usage per agent, per model and in total")
+        void sumsUsage() {
+            metrics.recordTokenUsage(AgentRole.WRITER, "claude-sonnet-4",
+                    new TokenUsageSummary(1, 1000, 400, 0, 0.009), Duration.ofSeconds(4));
+            metrics.recordTokenUsage(AgentRole.WRITER, "claude-sonnet-4",
+                    new TokenUsageSummary(1, 2000, 600, 0, 0.015), Duration.ofSeconds(6));
+            metrics.recordTokenUsage(AgentRole.CRITIC, "qwen3:14b",
+                    new TokenUsageSummary(1, 500, 100, 80, 0.0), Duration.ofSeconds(2));
+
+            TokenUsageSummary writer = metrics.getAgentTokenUsage(AgentRole.WRITER);
+            assertEquals(2, writer.calls());
+            assertEquals(3000, writer.inputTokens());
+            assertEquals(0.024, writer.costUsd(), 1e-9);
+            assertEquals(80, metrics.getModelTokenUsage("qwen3:14b").thinkingTokens());
+            assertEquals(List.of("claude-sonnet-4", "qwen3:14b"), List.copyOf(metrics.getTokenUsageByModel().keySet()));
+            assertEquals(1100, metrics.getTotalTokenUsage().outputTokens());
+            assertEquals(TokenUsageSummary.EMPTY, metrics.getAgentTokenUsage(AgentRole.EDITOR));
+        }
+
+        @Test
+        @DisplayName("Calculates tokens per second per model")
+        void tokensPerSecond() {
+            metrics.recordTokenUsage(AgentRole.WRITER, "qwen3:14b",
+                    new TokenUsageSummary(1, 1000, 400, 0, 0.0), Duration.ofSeconds(4));
+
+            assertEquals(100.0, metrics.getModelTokensPerSecond("qwen3:14b"), 0.01);
+            assertEquals(0.0, metrics.getModelTokensPerSecond("unknown"));
+        }
+
+        @Test
+        @DisplayName("Reports usage, truncations and context limit hits")
+        void reportsUsage() {
+            metrics.recordTokenUsage(AgentRole.RESEARCHER, "claude-sonnet-4",
+                    new TokenUsageSummary(1, 12345, 2000, 0, 0.067), Duration.ofSeconds(10));
+            metrics.recordTruncatedResponse();
+            metrics.recordContextLimitHit();
+
+            String report = metrics.generateReport();
+
+            assertTrue(report.contains("Tokens and Cost:"));
+            assertTrue(report.contains("Research Agent: 1 calls, 12,345 in / 2,000 out tokens, $0.07"));
+            assertTrue(report.contains("Model claude-sonnet-4: 1 calls"));
+            assertTrue(report.contains("Truncated responses: 1"));
+            assertTrue(report.contains("Context limit hits: 1"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Latency percentiles")
+    class LatencyPercentiles {
+
+        @Test
+        @DisplayName("Tracks percentiles per agent")
+        void tracksAgentPercentiles() {
+            for (int i = 0; i < 30; i++) {
+                metrics.recordAgentProcessing(AgentRole.RESEARCHER, Duration.ofSeconds(30));
+            }
+            metrics.recordAgentProcessing(AgentRole.RESEARCHER, Duration.ofMinutes(9));
+
+            LatencyHistogram.Snapshot latency = metrics.getAgentLatency(AgentRole.RESEARCHER);
+            assertEquals(31, latency.count());
+            assertEquals(30_000, latency.p50Ms(), 30_000 / 64.0);
+            assertEquals(540_000, latency.p99Ms(), 540_000 / 64.0);
+            assertEquals(540_000, latency.maxMs());
+            assertEquals(31, metrics.getRecentAgentLatency(AgentRole.RESEARCHER).count());
+            assertEquals(0, metrics.getAgentLatency(AgentRole.EDITOR).count());
+        }
+
+        @Test
+        @DisplayName("Tracks phases, revision attempts and pipelines")
+        void tracksPhasesAttemptsAndPipelines() {
+            metrics.recordPhase(DocumentState.FACT_CHECKING, Duration.ofSeconds(40));
+            metrics.recordAgentProcessing(AgentRole.WRITER, Duration.ofSeconds(20));
+            metrics.recordAgentProcessing(AgentRole.WRITER, Duration.ofSeconds(10), 1);
+            metrics.recordPipelineCompleted(Duration.ofMinutes(2));
+
+            assertEquals(40_000, metrics.getPhaseLatency(DocumentState.FACT_CHECKING).maxMs());
+            assertEquals(20_000, metrics.getAttemptLatency(0).maxMs());
+            assertEquals(10_000, metrics.getAttemptLatency(1).maxMs());
+            assertEquals(120_000, metrics.getPipelineLatency().maxMs());
+        }
+
+        @Test
+        @DisplayName("Reports percentiles for the sliding window")
+        void reportsSlidingWindow() {
+            AtomicLong now = new AtomicLong(0);
+            PipelineMetrics windowed = new PipelineMetrics(Duration.ofMinutes(10), now::get);
+            windowed.recordAgentProcessing(AgentRole.WRITER, Duration.ofMinutes(9));
+            now.addAndGet(Duration.ofMinutes(20).toMillis());
+            windowed.recordAgentProcessing(AgentRole.WRITER, Duration.ofSeconds(30));
+
+            assertEquals(540_000, windowed.getAgentLatency(AgentRole.WRITER).maxMs());
+            assertEquals(30_000, windowed.getRecentAgentLatency(AgentRole.WRITER).maxMs());
+        }
+
+        @Test
+        @DisplayName("Exports every distribution with data")
+        void exportsLatencies() {
+            metrics.recordPipelineCompleted(Duration.ofSeconds(5));
+            metrics.recordAgentProcessing(AgentRole.CRITIC, Duration.ofSeconds(2), 2);
+            metrics.recordPhase(DocumentState.CRITIQUING, Duration.ofSeconds(3));
+
+            Map<String, LatencyHistogram.Snapshot> export = metrics.exportLatencies();
+
+            assertEquals(List.of("pipeline", "pipeline.recent", "agent.critic", "agent.critic.recent",
+                            "phase.critiquing", "phase.critiquing.recent", "attempt.2", "attempt.2.recent"),
+                    List.copyOf(export.keySet()));
+            assertEquals(2_000, export.get("agent.critic").maxMs());
+        }
+
+        @Test
+        @DisplayName("Prints percentiles in the report")
+        void printsPercentiles() {
+            metrics.recordAgentProcessing(AgentRole.WRITER, Duration.ofSeconds(3));
+            metrics.recordPhase(DocumentState.DRAFTING, Duration.ofSeconds(4));
+
+            String report = metrics.generateReport();
+
+            assertTrue(report.contains("Latency (all time | last 15 min):"));
+            assertTrue(report.contains("Writer Agent: n=1 p50 3000 ms, p90 3000 ms, p99 3000 ms, max 3000 ms"));
+            assertTrue(report.contains("Phase DRAFTING: n=1"));
+            assertTrue(report.contains("First attempts: n=1"));
+        }
+    }
+
     @Nested
     @DisplayName("Report generation")
     class ReportGeneration {
@@ -284,6 +447,8 @@ class PipelineMetricsTest {
             metrics.recordPipelineFailed(DocumentState.RESEARCHING);
             metrics.recordApprovalRequested();
             metrics.recordAgentProcessing(AgentRole.WRITER, Duration.ofSeconds(3));
+            metrics.recordTokenUsage(AgentRole.WRITER, "claude-sonnet-4",
+                    new TokenUsageSummary(1, 100, 10, 0, 0.0), Duration.ofSeconds(1));
 
             // Reset
             metrics.reset();
@@ -296,6 +461,9 @@ class PipelineMetricsTest {
             assertEquals(0, metrics.getTotalApprovalsRequested());
             assertTrue(metrics.getFailuresByState().isEmpty());
             assertEquals(0, metrics.getAgentInvocationCount(AgentRole.WRITER));
+            assertEquals(0, metrics.getAgentLatency(AgentRole.WRITER).count());
+            assertEquals(0, metrics.getPipelineLatency().count());
+            assertTrue(metrics.getTotalTokenUsage().isEmpty());
         }
     }
 
@@ -4,11 +4,13 @@ import com.jakefear.aipublisher.agent.AgentRole;
 import com.jakefear.aipublisher.document.DocumentState;
 import com.jakefear.aipublisher.document.PublishingDocument;
 import com.jakefear.aipublisher.document.TopicBrief;
+import com.jakefear.aipublisher.llm.LlmRequestScheduler;
 import org.junit.jupiter.api.*;
 
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -233,6 +235,26 @@ class PipelineMonitoringServiceTest {
 
             assertEquals(3000, service.getMetrics().getAgentTotalProcessingTimeMs(AgentRole.WRITER));
         }
+
+        @Test
+        @DisplayName("Records revision attempts in metrics")
+        void recordsRevisionAttemptsInMetrics() {
+            service.recordAgentProcessing(AgentRole.WRITER, Duration.ofSeconds(3), 2);
+
+            assertEquals(1, service.getMetrics().getAttemptLatency(2).count());
+            assertEquals(1, service.getMetrics().getAgentLatency(AgentRole.WRITER).count());
+        }
+
+        @Test
+        @DisplayName("Times phases from start to completion")
+        void timesPhases() {
+            service.phaseStarted(document, DocumentState.CREATED, DocumentState.RESEARCHING);
+            service.phaseCompleted(document, DocumentState.RESEARCHING, "Complete");
+            service.phaseCompleted(document, DocumentState.FACT_CHECKING, "skipped");
+
+            assertEquals(1, service.getMetrics().getPhaseLatency(DocumentState.RESEARCHING).count());
+            assertEquals(0, service.getMetrics().getPhaseLatency(DocumentState.FACT_CHECKING).count());
+        }
     }
 
     @Nested
@@ -262,6 +284,36 @@ class PipelineMonitoringServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Asynchronous dispatch")
+    class AsynchronousDispatch {
+
+        @Test
+        @DisplayName("Delivers events through the dispatcher and reports listener stats")
+        void deliversThroughDispatcher() {
+            try (AsyncEventDispatcher dispatcher = new AsyncEventDispatcher(16, AsyncEventDispatcher.OverflowPolicy.BLOCK, 4, 10)) {
+                List<PipelineEvent> received = new java.util.concurrent.CopyOnWriteArrayList<>();
+                PipelineMonitoringService asyncService =
+                        new PipelineMonitoringService(List.of(received::add), dispatcher);
+
+                asyncService.pipelineStarted(document);
+                asyncService.info(document, "working");
+
+                assertTrue(dispatcher.flush(Duration.ofSeconds(5)));
+                assertEquals(2, received.size());
+                assertEquals(1, asyncService.getListenerCount());
+                assertEquals(2, asyncService.getListenerStats().get(0).delivered());
+                assertTrue(asyncService.generateMetricsReport().contains("Event Listeners:"));
+            }
+        }
+
+        @Test
+        @DisplayName("Has no listener stats when dispatching synchronously")
+        void noStatsWhenSynchronous() {
+            assertTrue(service.getListenerStats().isEmpty());
+        }
+    }
+
     @Nested
     @DisplayName("Report generation")
     class ReportGeneration {
@@ -277,5 +329,19 @@ class PipelineMonitoringServiceTest {
             assertNotNull(report);
             assertTrue(report.contains("Pipeline Statistics"));
         }
+
+        @Test
+        @DisplayName("Includes LLM scheduler lanes once they have been used")
+        void includesSchedulerLanes() {
+            LlmRequestScheduler scheduler = new LlmRequestScheduler(Map.of("ollama", 2), 4);
+            service.setRequestScheduler(scheduler);
+            assertFalse(service.generateMetricsReport().contains("LLM Scheduler:"));
+
+            scheduler.execute("ollama", 0, () -> "done");
+
+            String report = service.generateMetricsReport();
+            assertTrue(report.contains("LLM Scheduler:"));
+            assertTrue(report.contains("ollama: limit 2, 1 completed"));
+        }
     }
 }
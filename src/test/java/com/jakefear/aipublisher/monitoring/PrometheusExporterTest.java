@@ -0,0 +1,71 @@
+package com.jakefear.aipublisher.monitoring;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PrometheusExporter")
+class PrometheusExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Serves the scrape on /metrics")
+    void servesMetrics() throws Exception {
+        try (PrometheusExporter exporter = new PrometheusExporter(
+                () -> "aipublisher_pipeline_started_total 3.0\n", 0, null, Duration.ofSeconds(30))) {
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + exporter.getPort() + "/metrics")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode());
+            assertEquals("aipublisher_pipeline_started_total 3.0\n", response.body());
+            assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("text/plain"));
+        }
+    }
+
+    @Test
+    @DisplayName("Writes a final dump on close")
+    void dumpsOnClose() throws Exception {
+        Path file = tempDir.resolve("metrics/aipublisher.prom");
+        AtomicInteger scrapes = new AtomicInteger();
+
+        PrometheusExporter exporter = new PrometheusExporter(
+                () -> "aipublisher_revisions_total " + scrapes.incrementAndGet() + ".0\n", -1, file, Duration.ofHours(1));
+        assertEquals(-1, exporter.getPort());
+        assertFalse(Files.exists(file));
+        exporter.close();
+
+        assertEquals("aipublisher_revisions_total 1.0\n", Files.readString(file));
+        try (var files = Files.list(file.getParent())) {
+            assertEquals(1L, files.count(), "no temp files left behind");
+        }
+    }
+
+    @Test
+    @DisplayName("Dumps periodically")
+    void dumpsPeriodically() throws Exception {
+        Path file = tempDir.resolve("aipublisher.prom");
+
+        try (PrometheusExporter exporter = new PrometheusExporter(
+                () -> "up 1.0\n", -1, file, Duration.ofMillis(20))) {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!Files.exists(file) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(Files.exists(file));
+        }
+    }
+}
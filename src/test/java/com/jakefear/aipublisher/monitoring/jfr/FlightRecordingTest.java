@@ -0,0 +1,44 @@
+package com.jakefear.aipublisher.monitoring.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FlightRecording")
+class FlightRecordingTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Writes pipeline events to the recording file")
+    void recordsPipelineEvents() throws Exception {
+        Path file = tempDir.resolve("run.jfr");
+
+        try (FlightRecording recording = FlightRecording.start(file)) {
+            PipelinePhaseEvent event = new PipelinePhaseEvent();
+            event.begin();
+            event.pageName = "GradientDescent";
+            event.phase = "RESEARCHING";
+            event.succeeded = true;
+            event.commit();
+        }
+
+        assertTrue(Files.size(file) > 0);
+        List<RecordedEvent> phases = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("com.jakefear.aipublisher.PipelinePhase"))
+                .toList();
+        assertEquals(1, phases.size());
+        assertEquals("GradientDescent", phases.get(0).getString("pageName"));
+        assertEquals("RESEARCHING", phases.get(0).getString("phase"));
+        assertTrue(phases.get(0).getBoolean("succeeded"));
+    }
+}
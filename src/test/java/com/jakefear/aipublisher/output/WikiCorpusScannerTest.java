@@ -0,0 +1,114 @@
+package com.jakefear.aipublisher.output;
+
+import com.jakefear.aipublisher.output.ScannedPage.PageFile;
+import com.jakefear.aipublisher.output.WikiCorpusScanner.ScanFilter;
+import com.jakefear.aipublisher.output.WikiCorpusScanner.ScanResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WikiCorpusScanner")
+class WikiCorpusScannerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Runs every extractor over every page in one pass")
+    void runsAllExtractors() throws IOException {
+        Files.writeString(tempDir.resolve("ApacheKafka.txt"), """
+                !!! Apache Kafka
+                Kafka is a log.
+                !! History
+                [{SET categories='Streaming, Messaging'}]
+                """);
+        Files.writeString(tempDir.resolve("notes.md"), "!!! Ignored");
+
+        PageExtractor<List<PageExtractors.Heading>> headings = PageExtractors.headings();
+        PageExtractor<Set<String>> categories = PageExtractors.categories();
+        ScanResult result = new WikiCorpusScanner().scan(tempDir, ".txt", List.of(headings, categories));
+
+        assertEquals(1, result.pages().size());
+        ScannedPage page = result.pages().get(0);
+        assertEquals("ApacheKafka", page.name());
+        assertEquals(List.of(new PageExtractors.Heading(3, "Apache Kafka"), new PageExtractors.Heading(2, "History")),
+                page.get(headings));
+        assertEquals(Set.of("Streaming", "Messaging"), page.get(categories));
+    }
+
+    @Test
+    @DisplayName("Scans many pages concurrently")
+    void scansManyPages() throws IOException {
+        for (int i = 0; i < 200; i++) {
+            Files.writeString(tempDir.resolve("Page" + i + ".txt"), "!!! Page " + i);
+        }
+        PageExtractor<List<PageExtractors.Heading>> headings = PageExtractors.headings();
+
+        ScanResult result = new WikiCorpusScanner(4, 262_144).scan(tempDir, ".txt", List.of(headings));
+
+        assertEquals(200, result.pages().size());
+        assertTrue(result.pages().stream().allMatch(p -> p.get(headings).size() == 1));
+    }
+
+    @Test
+    @DisplayName("Reads large pages through a memory mapping")
+    void readsMappedPages() throws IOException {
+        String body = "x".repeat(10_000);
+        Files.writeString(tempDir.resolve("Large.txt"), "!!! Large\n" + body);
+        PageExtractor<Integer> length = (page, content) -> content.length();
+
+        ScanResult result = new WikiCorpusScanner(4, 1_024).scan(tempDir, ".txt", List.of(length));
+
+        assertEquals(10 + body.length(), result.pages().get(0).get(length));
+    }
+
+    @Test
+    @DisplayName("Filter can skip reading and extraction")
+    void filterSkipsWork() throws IOException {
+        Files.writeString(tempDir.resolve("Known.txt"), "known");
+        Files.writeString(tempDir.resolve("Unchanged.txt"), "unchanged");
+        Files.writeString(tempDir.resolve("New.txt"), "new");
+        AtomicInteger extractions = new AtomicInteger();
+        PageExtractor<String> extractor = (page, content) -> {
+            extractions.incrementAndGet();
+            return content;
+        };
+
+        ScanResult result = new WikiCorpusScanner().scan(tempDir, ".txt", new ScanFilter() {
+            @Override
+            public boolean shouldRead(PageFile file) {
+                return !file.name().equals("Known");
+            }
+
+            @Override
+            public boolean shouldExtract(PageFile file, long checksum) {
+                return !file.name().equals("Unchanged");
+            }
+        }, List.of(extractor));
+
+        assertEquals(3, result.files().size());
+        assertEquals(2, result.pages().size());
+        assertEquals(1, extractions.get());
+        ScannedPage unchanged = result.pages().stream().filter(p -> p.name().equals("Unchanged")).findFirst().orElseThrow();
+        assertFalse(unchanged.isExtracted());
+        assertNotEquals(0, unchanged.checksum());
+    }
+
+    @Test
+    @DisplayName("Treats a missing directory as empty")
+    void missingDirectoryIsEmpty() throws IOException {
+        ScanResult result = new WikiCorpusScanner().scan(tempDir.resolve("missing"), ".txt", List.of());
+
+        assertTrue(result.files().isEmpty());
+        assertTrue(result.pages().isEmpty());
+    }
+}
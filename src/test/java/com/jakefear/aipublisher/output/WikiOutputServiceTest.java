@@ -209,6 +209,20 @@ class WikiOutputServiceTest {
             // Act & Assert
             assertFalse(service.pageExists("NonExistentPage"));
         }
+
+        @Test
+        @DisplayName("Sees pages written after the index was loaded")
+        void seesWrittenPages() throws IOException {
+            // Arrange
+            assertFalse(service.pageExists("ApacheKafka"));
+
+            // Act
+            service.writeDocument(createCompletedDocument("ApacheKafka"));
+
+            // Assert
+            assertTrue(service.pageExists("ApacheKafka"));
+            assertTrue(service.discoverExistingPages().contains("ApacheKafka"));
+        }
     }
 
     @Nested
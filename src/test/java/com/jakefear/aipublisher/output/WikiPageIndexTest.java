@@ -0,0 +1,125 @@
+package com.jakefear.aipublisher.output;
+
+import com.jakefear.aipublisher.config.OutputProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WikiPageIndex")
+class WikiPageIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private OutputProperties outputProperties;
+    private WikiPageIndex index;
+
+    @BeforeEach
+    void setUp() {
+        outputProperties = new OutputProperties();
+        outputProperties.setDirectory(tempDir.toString());
+        outputProperties.setFileExtension(".txt");
+        index = new WikiPageIndex(outputProperties);
+    }
+
+    @Test
+    @DisplayName("Loads existing pages on first use")
+    void loadsExistingPages() throws IOException {
+        Files.writeString(tempDir.resolve("ApacheKafka.txt"), "Kafka");
+        Files.writeString(tempDir.resolve("notes.md"), "ignored");
+        Files.createDirectory(tempDir.resolve("Folder.txt"));
+
+        assertEquals(Set.of("ApacheKafka"), index.getPages());
+        assertTrue(index.contains("ApacheKafka"));
+        assertFalse(index.contains("notes"));
+    }
+
+    @Test
+    @DisplayName("Does not list the directory again after loading")
+    void servesFromMemory() throws IOException {
+        assertEquals(0, index.size());
+
+        // Written behind the index's back
+        Files.writeString(tempDir.resolve("External.txt"), "content");
+
+        assertFalse(index.contains("External"));
+    }
+
+    @Test
+    @DisplayName("Refresh picks up external changes")
+    void refreshPicksUpExternalChanges() throws IOException {
+        Files.writeString(tempDir.resolve("Removed.txt"), "content");
+        assertTrue(index.contains("Removed"));
+
+        Files.delete(tempDir.resolve("Removed.txt"));
+        Files.writeString(tempDir.resolve("Added.txt"), "content");
+        index.refresh();
+
+        assertEquals(Set.of("Added"), index.getPages());
+    }
+
+    @Test
+    @DisplayName("Records written pages")
+    void recordsWrites() {
+        index.add("NewPage");
+        index.add(tempDir.resolve("OtherPage.txt"));
+        index.add(tempDir.resolve("image.png"));
+
+        assertEquals(List.of("NewPage", "OtherPage"), index.getSortedPages());
+
+        index.remove("NewPage");
+        assertFalse(index.contains("NewPage"));
+    }
+
+    @Test
+    @DisplayName("Reloads when the output directory changes")
+    void reloadsOnDirectoryChange() throws IOException {
+        Files.writeString(tempDir.resolve("First.txt"), "content");
+        assertTrue(index.contains("First"));
+
+        Path other = Files.createDirectory(tempDir.resolve("other"));
+        Files.writeString(other.resolve("Second.txt"), "content");
+        outputProperties.setDirectory(other.toString());
+
+        assertEquals(Set.of("Second"), index.getPages());
+    }
+
+    @Test
+    @DisplayName("Treats a missing directory as empty")
+    void missingDirectoryIsEmpty() {
+        outputProperties.setDirectory(tempDir.resolve("missing").toString());
+
+        assertEquals(0, index.size());
+        assertFalse(index.contains("Anything"));
+    }
+
+    @Test
+    @DisplayName("Watcher picks up external changes")
+    void watcherPicksUpExternalChanges() throws Exception {
+        WikiPageIndex watching = new WikiPageIndex(outputProperties, true);
+        try {
+            assertEquals(0, watching.size());
+            assertTrue(watching.isWatching());
+
+            Files.writeString(tempDir.resolve("External.txt"), "content");
+
+            long deadline = System.currentTimeMillis() + 15_000;
+            while (!watching.contains("External") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertTrue(watching.contains("External"));
+        } finally {
+            watching.close();
+        }
+        assertFalse(watching.isWatching());
+    }
+}
@@ -0,0 +1,109 @@
+package com.jakefear.aipublisher.pipeline;
+
+import com.jakefear.aipublisher.document.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CheckpointStore")
+class CheckpointStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private CheckpointStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new CheckpointStore(tempDir);
+    }
+
+    @Test
+    @DisplayName("Round-trips a document through a checkpoint")
+    void roundTripsDocument() {
+        PublishingDocument document = draftedDocument();
+
+        store.save(document, DocumentState.DRAFTING);
+        DocumentCheckpoint checkpoint = store.load("ApacheKafka").orElseThrow();
+        PublishingDocument restored = checkpoint.toDocument();
+
+        assertEquals(DocumentState.DRAFTING, checkpoint.completedPhase());
+        assertEquals(document.getId(), restored.getId());
+        assertEquals(document.getPageName(), restored.getPageName());
+        assertEquals(DocumentState.DRAFTING, restored.getState());
+        assertEquals("Apache Kafka", restored.getTopicBrief().topic());
+        assertEquals(document.getResearchBrief().keyFacts().size(), restored.getResearchBrief().keyFacts().size());
+        assertEquals("!!! Apache Kafka\n\nContent.", restored.getDraft().wikiContent());
+        assertEquals(1, restored.getContributions().size());
+        assertNull(restored.getFactCheckReport());
+    }
+
+    @Test
+    @DisplayName("Reports completed phases")
+    void reportsCompletedPhases() {
+        store.save(draftedDocument(), DocumentState.DRAFTING);
+        DocumentCheckpoint checkpoint = store.load("ApacheKafka").orElseThrow();
+
+        assertTrue(checkpoint.hasCompleted(DocumentState.RESEARCHING));
+        assertTrue(checkpoint.hasCompleted(DocumentState.DRAFTING));
+        assertFalse(checkpoint.hasCompleted(DocumentState.FACT_CHECKING));
+    }
+
+    @Test
+    @DisplayName("Returns empty when no checkpoint exists")
+    void missingCheckpointIsEmpty() {
+        assertTrue(store.load("NoSuchPage").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Ignores unreadable checkpoints")
+    void ignoresCorruptCheckpoint() throws IOException {
+        Files.writeString(tempDir.resolve("ApacheKafka.checkpoint.json"), "{not json");
+
+        assertTrue(store.load("ApacheKafka").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deletes checkpoints")
+    void deletesCheckpoint() {
+        store.save(draftedDocument(), DocumentState.DRAFTING);
+
+        assertTrue(store.delete("ApacheKafka"));
+        assertTrue(store.load("ApacheKafka").isEmpty());
+        assertFalse(store.delete("ApacheKafka"));
+    }
+
+    private PublishingDocument draftedDocument() {
+        PublishingDocument document = new PublishingDocument(
+                TopicBrief.simple("Apache Kafka", "developers", 800));
+        document.transitionTo(DocumentState.RESEARCHING);
+        document.setResearchBrief(new ResearchBrief(
+                List.of(KeyFact.unsourced("Kafka is a distributed log")),
+                List.of(),
+                List.of("Intro"),
+                List.of(),
+                Map.of("Topic", "A named stream of records"),
+                List.of()
+        ));
+        document.addContribution(AgentContribution.create("RESEARCHER", Duration.ofMillis(10)));
+        document.transitionTo(DocumentState.DRAFTING);
+        document.setDraft(new ArticleDraft(
+                "!!! Apache Kafka\n\nContent.",
+                "Summary",
+                List.of(),
+                List.of(),
+                Map.of()
+        ));
+        return document;
+    }
+}
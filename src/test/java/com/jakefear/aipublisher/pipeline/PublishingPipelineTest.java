@@ -432,6 +432,96 @@ class PublishingPipelineTest {
         }
     }
 
+    @Nested
+    @DisplayName("Checkpoint and Resume")
+    class CheckpointAndResume {
+
+        private CheckpointStore checkpointStore;
+
+        @BeforeEach
+        void setUpCheckpoints() {
+            checkpointStore = new CheckpointStore(tempDir.resolve("checkpoints"));
+            pipeline.setCheckpointStore(checkpointStore);
+        }
+
+        @Test
+        @DisplayName("Keeps checkpoint of last completed phase on failure")
+        void keepsCheckpointOnFailure() {
+            TopicBrief topicBrief = TopicBrief.simple("Test", "testers", 500);
+            setupResearchSuccess();
+            setupWriterSuccess();
+            when(factCheckerAgent.process(any())).thenThrow(
+                    new AgentException(AgentRole.FACT_CHECKER, "Model unavailable"));
+
+            PipelineResult result = pipeline.execute(topicBrief);
+
+            assertFalse(result.success());
+            DocumentCheckpoint checkpoint = checkpointStore.load("Test").orElseThrow();
+            assertEquals(DocumentState.DRAFTING, checkpoint.completedPhase());
+            assertNotNull(checkpoint.researchBrief());
+            assertNotNull(checkpoint.draft());
+        }
+
+        @Test
+        @DisplayName("Resumes after the last completed phase")
+        void resumesFromLastCompletedPhase() throws IOException {
+            TopicBrief topicBrief = TopicBrief.simple("Test", "testers", 500);
+            setupResearchSuccess();
+            setupWriterSuccess();
+            when(factCheckerAgent.process(any()))
+                    .thenThrow(new AgentException(AgentRole.FACT_CHECKER, "Model unavailable"));
+            assertFalse(pipeline.execute(topicBrief).success());
+
+            reset(researchAgent, writerAgent, factCheckerAgent);
+            setupFactCheckSuccess();
+            setupEditorSuccess();
+            setupCriticSuccess();
+            when(outputService.getExistingPagesList()).thenReturn(List.of());
+            when(outputService.writeDocument(any())).thenReturn(tempDir.resolve("Test.md"));
+
+            PipelineResult result = pipeline.execute(topicBrief, true);
+
+            assertTrue(result.success());
+            verify(researchAgent, never()).process(any());
+            verify(writerAgent, never()).process(any());
+            verify(factCheckerAgent).process(any());
+            assertEquals("!!! Test Article\n\nContent here.", result.document().getDraft().wikiContent());
+        }
+
+        @Test
+        @DisplayName("Deletes checkpoint after publishing")
+        void deletesCheckpointAfterPublishing() throws IOException {
+            TopicBrief topicBrief = TopicBrief.simple("Test", "testers", 500);
+            setupSuccessfulMocks();
+            when(outputService.writeDocument(any())).thenReturn(tempDir.resolve("Test.md"));
+
+            assertTrue(pipeline.execute(topicBrief).success());
+
+            assertTrue(checkpointStore.load("Test").isEmpty());
+        }
+
+        @Test
+        @DisplayName("Starts from scratch when not resuming")
+        void ignoresCheckpointWithoutResume() throws IOException {
+            TopicBrief topicBrief = TopicBrief.simple("Test", "testers", 500);
+            setupResearchSuccess();
+            setupWriterSuccess();
+            when(factCheckerAgent.process(any()))
+                    .thenThrow(new AgentException(AgentRole.FACT_CHECKER, "Model unavailable"));
+            pipeline.execute(topicBrief);
+
+            reset(factCheckerAgent);
+            setupFactCheckSuccess();
+            setupEditorSuccess();
+            setupCriticSuccess();
+            when(outputService.getExistingPagesList()).thenReturn(List.of());
+            when(outputService.writeDocument(any())).thenReturn(tempDir.resolve("Test.md"));
+
+            assertTrue(pipeline.execute(topicBrief).success());
+            verify(researchAgent, times(2)).process(any());
+        }
+    }
+
     // Helper methods for setting up mocks
 
     private void setupSuccessfulMocks() {
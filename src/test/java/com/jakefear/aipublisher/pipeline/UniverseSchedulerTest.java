@@ -0,0 +1,269 @@
+package com.jakefear.aipublisher.pipeline;
+
+import com.jakefear.aipublisher.document.DocumentState;
+import com.jakefear.aipublisher.document.PublishingDocument;
+import com.jakefear.aipublisher.document.TopicBrief;
+import com.jakefear.aipublisher.domain.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UniverseScheduler")
+class UniverseSchedulerTest {
+
+    private static Topic topic(String name) {
+        return Topic.builder(name)
+                .status(TopicStatus.ACCEPTED)
+                .priority(Priority.MUST_HAVE)
+                .build();
+    }
+
+    private static TopicUniverse universe(List<Topic> topics, List<TopicRelationship> relationships) {
+        return TopicUniverse.builder("Scheduler Test")
+                .topics(topics)
+                .relationships(relationships)
+                .build();
+    }
+
+    private static PipelineResult success(Topic topic) {
+        PublishingDocument document = new PublishingDocument(TopicBrief.simple(topic.name(), "testers", 500));
+        return PipelineResult.success(document, Path.of(topic.id() + ".txt"), Duration.ZERO);
+    }
+
+    private static List<String> names(List<UniverseScheduler.TopicOutcome> outcomes) {
+        return outcomes.stream().map(o -> o.topic().name()).toList();
+    }
+
+    @Nested
+    @DisplayName("Ordering")
+    class Ordering {
+
+        @Test
+        @DisplayName("Single worker preserves generation order")
+        void singleWorkerPreservesOrder() throws Exception {
+            Topic a = topic("Alpha");
+            Topic b = topic("Beta");
+            Topic c = topic("Gamma");
+            TopicUniverse universe = universe(List.of(a, b, c), List.of(
+                    TopicRelationship.confirmed(a.id(), c.id(), RelationshipType.PREREQUISITE_OF)
+            ));
+
+            List<UniverseScheduler.TopicOutcome> outcomes = new UniverseScheduler(1)
+                    .run(universe, universe.getGenerationOrder(), UniverseSchedulerTest::success, null, null);
+
+            List<String> expected = universe.getGenerationOrder().stream().map(Topic::name).toList();
+            assertEquals(expected, names(outcomes));
+        }
+
+        @Test
+        @DisplayName("Prerequisites complete before dependents start")
+        void prerequisitesCompleteFirst() throws Exception {
+            Topic base = topic("Base");
+            Topic middle = topic("Middle");
+            Topic top = topic("Top");
+            Topic independent = topic("Independent");
+            TopicUniverse universe = universe(List.of(base, middle, top, independent), List.of(
+                    TopicRelationship.confirmed(base.id(), middle.id(), RelationshipType.PREREQUISITE_OF),
+                    TopicRelationship.confirmed(middle.id(), top.id(), RelationshipType.PART_OF)
+            ));
+
+            Set<String> finished = ConcurrentHashMap.newKeySet();
+            List<String> violations = Collections.synchronizedList(new ArrayList<>());
+
+            new UniverseScheduler(4).run(universe, universe.getGenerationOrder(), t -> {
+                for (Topic prereq : universe.getPrerequisites(t.id())) {
+                    if (!finished.contains(prereq.id())) {
+                        violations.add(t.name() + " before " + prereq.name());
+                    }
+                }
+                if (t.id().equals(top.id()) && !finished.contains(middle.id())) {
+                    violations.add("Top before Middle");
+                }
+                finished.add(t.id());
+                return success(t);
+            }, null, null);
+
+            assertTrue(violations.isEmpty(), "Ordering violated: " + violations);
+            assertEquals(4, finished.size());
+        }
+
+        @Test
+        @DisplayName("Non-ordering relationships do not block")
+        void nonOrderingRelationshipsDoNotBlock() throws Exception {
+            Topic a = topic("Kafka");
+            Topic b = topic("RabbitMQ");
+            TopicUniverse universe = universe(List.of(a, b), List.of(
+                    TopicRelationship.confirmed(a.id(), b.id(), RelationshipType.RELATED_TO)
+            ));
+
+            CountDownLatch bothRunning = new CountDownLatch(2);
+            List<UniverseScheduler.TopicOutcome> outcomes = new UniverseScheduler(2)
+                    .run(universe, universe.getGenerationOrder(), t -> {
+                        bothRunning.countDown();
+                        try {
+                            assertTrue(bothRunning.await(5, TimeUnit.SECONDS), "Topics did not run concurrently");
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return success(t);
+                    }, null, null);
+
+            assertEquals(2, outcomes.size());
+            assertTrue(outcomes.stream().allMatch(UniverseScheduler.TopicOutcome::isSuccess));
+        }
+
+        @Test
+        @DisplayName("Releases topics caught in a cycle")
+        void releasesCycles() throws Exception {
+            Topic a = topic("Chicken");
+            Topic b = topic("Egg");
+            TopicUniverse universe = universe(List.of(a, b), List.of(
+                    TopicRelationship.confirmed(a.id(), b.id(), RelationshipType.PREREQUISITE_OF),
+                    TopicRelationship.confirmed(b.id(), a.id(), RelationshipType.PREREQUISITE_OF)
+            ));
+
+            List<UniverseScheduler.TopicOutcome> outcomes = new UniverseScheduler(2)
+                    .run(universe, List.of(a, b), UniverseSchedulerTest::success, null, null);
+
+            assertEquals(List.of("Chicken", "Egg"), names(outcomes));
+        }
+
+        @Test
+        @DisplayName("Releases the cycle member chosen by the generation plan")
+        void releasesPlannedCycleMember() throws Exception {
+            Topic dependent = topic("Omelette");
+            Topic a = topic("Chicken");
+            Topic b = topic("Egg");
+            TopicUniverse universe = universe(List.of(dependent, a, b), List.of(
+                    TopicRelationship.confirmed(a.id(), b.id(), RelationshipType.PREREQUISITE_OF),
+                    TopicRelationship.confirmed(b.id(), a.id(), RelationshipType.PREREQUISITE_OF),
+                    TopicRelationship.confirmed(b.id(), dependent.id(), RelationshipType.PREREQUISITE_OF)
+            ));
+            String released = universe.getGenerationPlan().brokenCycles().get(0).get(0);
+
+            // The dependent comes first but is not part of the cycle, so it must not be released
+            List<UniverseScheduler.TopicOutcome> outcomes = new UniverseScheduler(1)
+                    .run(universe, List.of(dependent, a, b), UniverseSchedulerTest::success, null, null);
+
+            assertEquals(a.id(), released);
+            assertEquals(List.of("Chicken", "Egg", "Omelette"), names(outcomes));
+        }
+
+        @Test
+        @DisplayName("Releases a cycle member of topics outside the generation plan")
+        void releasesUnplannedCycleMember() throws Exception {
+            // Proposed topics are not ready for generation, so the universe plan has no cycles
+            Topic a = Topic.builder("Chicken").status(TopicStatus.PROPOSED).build();
+            Topic b = Topic.builder("Egg").status(TopicStatus.PROPOSED).build();
+            TopicUniverse universe = universe(List.of(a, b), List.of(
+                    TopicRelationship.confirmed(a.id(), b.id(), RelationshipType.PREREQUISITE_OF),
+                    TopicRelationship.confirmed(b.id(), a.id(), RelationshipType.PREREQUISITE_OF)
+            ));
+
+            List<UniverseScheduler.TopicOutcome> outcomes = new UniverseScheduler(1)
+                    .run(universe, List.of(b, a), UniverseSchedulerTest::success, null, null);
+
+            assertFalse(universe.getGenerationPlan().hasCycles());
+            assertEquals(List.of("Egg", "Chicken"), names(outcomes));
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrency")
+    class Concurrency {
+
+        @Test
+        @DisplayName("Never exceeds configured worker count")
+        void respectsWorkerLimit() throws Exception {
+            List<Topic> topics = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                topics.add(topic("Topic " + i));
+            }
+            TopicUniverse universe = universe(topics, List.of());
+
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger peak = new AtomicInteger();
+
+            new UniverseScheduler(3).run(universe, topics, t -> {
+                int now = running.incrementAndGet();
+                peak.accumulateAndGet(now, Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return success(t);
+            }, null, null);
+
+            assertTrue(peak.get() <= 3, "Peak concurrency was " + peak.get());
+        }
+
+        @Test
+        @DisplayName("Worker count is at least one")
+        void workerCountAtLeastOne() {
+            assertEquals(1, new UniverseScheduler(0).getWorkers());
+            assertEquals(1, new UniverseScheduler(-2).getWorkers());
+        }
+    }
+
+    @Nested
+    @DisplayName("Failures")
+    class Failures {
+
+        @Test
+        @DisplayName("Captures exceptions and still runs dependents")
+        void capturesExceptionsAndContinues() throws Exception {
+            Topic a = topic("Broken");
+            Topic b = topic("Dependent");
+            TopicUniverse universe = universe(List.of(a, b), List.of(
+                    TopicRelationship.confirmed(a.id(), b.id(), RelationshipType.PREREQUISITE_OF)
+            ));
+
+            List<UniverseScheduler.TopicOutcome> completed = new ArrayList<>();
+            List<UniverseScheduler.TopicOutcome> outcomes = new UniverseScheduler(2).run(
+                    universe, List.of(a, b),
+                    t -> {
+                        if (t.id().equals(a.id())) {
+                            throw new IllegalStateException("boom");
+                        }
+                        return success(t);
+                    },
+                    null,
+                    completed::add);
+
+            assertEquals(2, outcomes.size());
+            assertEquals(outcomes, completed);
+            assertFalse(outcomes.get(0).isSuccess());
+            assertEquals("boom", outcomes.get(0).error().getMessage());
+            assertTrue(outcomes.get(1).isSuccess());
+        }
+
+        @Test
+        @DisplayName("Failed pipeline results are not successes")
+        void failedResultsAreNotSuccesses() throws Exception {
+            Topic a = topic("Failing");
+            TopicUniverse universe = universe(List.of(a), List.of());
+
+            List<UniverseScheduler.TopicOutcome> outcomes = new UniverseScheduler(1).run(
+                    universe, List.of(a),
+                    t -> PipelineResult.failure(
+                            new PublishingDocument(TopicBrief.simple(t.name(), "testers", 500)),
+                            "quality too low", DocumentState.EDITING, Duration.ZERO),
+                    null, null);
+
+            assertFalse(outcomes.get(0).isSuccess());
+            assertNull(outcomes.get(0).error());
+        }
+    }
+}
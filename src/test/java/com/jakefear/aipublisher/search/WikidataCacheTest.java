@@ -0,0 +1,146 @@
+package com.jakefear.aipublisher.search;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WikidataCache")
+class WikidataCacheTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+
+    private WikidataCache cache(boolean offline) {
+        return new WikidataCache(cacheDir, Duration.ofDays(7), Duration.ofDays(1), 2, true, offline, clock);
+    }
+
+    @Test
+    @DisplayName("Normalizes query keys")
+    void normalizesKeys() {
+        assertEquals(WikidataCache.key("search", "Apache Kafka"), WikidataCache.key("search", "  apache\tKAFKA "));
+        assertNotEquals(WikidataCache.key("search", "Kafka"), WikidataCache.key("entity-id", "Kafka"));
+    }
+
+    @Test
+    @DisplayName("Persists entries across instances")
+    void persistsToDisk() {
+        cache(false).put("label:q1", TextNode.valueOf("Universe"));
+
+        WikidataCache reopened = cache(false);
+
+        assertEquals("Universe", reopened.get("label:q1").orElseThrow().asText());
+        assertEquals(1, reopened.getHits());
+    }
+
+    @Test
+    @DisplayName("Expires entries after the TTL")
+    void expiresEntries() {
+        WikidataCache cache = cache(false);
+        cache.put("label:q1", TextNode.valueOf("Universe"));
+
+        clock.advance(Duration.ofDays(6));
+        assertTrue(cache.get("label:q1").isPresent());
+
+        clock.advance(Duration.ofDays(2));
+        assertTrue(cache.get("label:q1").isEmpty());
+        assertEquals(1, cache.getExpired());
+    }
+
+    @Test
+    @DisplayName("Negative entries use the shorter TTL")
+    void negativeEntriesExpireSooner() {
+        WikidataCache cache = cache(false);
+        cache.put("entity-id:nothing", NullNode.getInstance());
+        cache.put("search:5:nothing", JsonNodeFactory.instance.arrayNode());
+
+        assertTrue(cache.get("entity-id:nothing").orElseThrow().isNull());
+        assertEquals(1, cache.getNegativeHits());
+
+        clock.advance(Duration.ofDays(2));
+        assertTrue(cache.get("entity-id:nothing").isEmpty());
+        assertTrue(cache.get("search:5:nothing").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Offline mode never expires entries")
+    void offlineNeverExpires() {
+        cache(false).put("label:q1", TextNode.valueOf("Universe"));
+        clock.advance(Duration.ofDays(365));
+
+        assertTrue(cache(true).get("label:q1").isPresent());
+    }
+
+    @Test
+    @DisplayName("Bounds the in-memory tier but keeps evicted entries on disk")
+    void boundsMemoryTier() {
+        WikidataCache cache = cache(false);
+        cache.put("label:q1", TextNode.valueOf("One"));
+        cache.put("label:q2", TextNode.valueOf("Two"));
+        cache.put("label:q3", TextNode.valueOf("Three"));
+
+        assertEquals(2, cache.getMemoryEntryCount());
+        assertEquals("One", cache.get("label:q1").orElseThrow().asText());
+    }
+
+    @Test
+    @DisplayName("Disabled cache stores nothing")
+    void disabledCacheIsInert() {
+        WikidataCache cache = new WikidataCache(cacheDir, Duration.ofDays(7), Duration.ofDays(1), 10,
+                false, false, clock);
+        cache.put("label:q1", TextNode.valueOf("Universe"));
+
+        assertTrue(cache.get("label:q1").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Clear removes memory and disk entries")
+    void clearRemovesEverything() {
+        WikidataCache cache = cache(false);
+        cache.put("label:q1", TextNode.valueOf("One"));
+        cache.put("label:q2", TextNode.valueOf("Two"));
+
+        assertEquals(2, cache.clear());
+        assertTrue(cache.get("label:q1").isEmpty());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.jakefear.aipublisher.search;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jakefear.aipublisher.monitoring.PipelineMeters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -13,7 +16,11 @@ import java.io.IOException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -98,8 +105,8 @@ class WikidataSearchServiceTest {
         @DisplayName("Returns empty list on HTTP error")
         void returnsEmptyOnHttpError() throws Exception {
             when(mockResponse.statusCode()).thenReturn(500);
-            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-                    .thenReturn(mockResponse);
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
             List<SearchResult> results = service.search("test query");
             assertTrue(results.isEmpty());
@@ -108,8 +115,8 @@ class WikidataSearchServiceTest {
         @Test
         @DisplayName("Returns empty list on IOException")
         void returnsEmptyOnIOException() throws Exception {
-            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-                    .thenThrow(new IOException("Network error"));
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.failedFuture(new IOException("Network error")));
 
             List<SearchResult> results = service.search("test query");
             assertTrue(results.isEmpty());
@@ -120,12 +127,12 @@ class WikidataSearchServiceTest {
         void callsWikidataApiEndpoint() throws Exception {
             when(mockResponse.statusCode()).thenReturn(200);
             when(mockResponse.body()).thenReturn("{\"search\":[]}");
-            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-                    .thenReturn(mockResponse);
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
             service.search("compound interest");
 
-            verify(mockHttpClient).send(argThat(request -> {
+            verify(mockHttpClient).sendAsync(argThat(request -> {
                 String uri = request.uri().toString();
                 return uri.contains("wikidata.org") && uri.contains("wbsearchentities");
             }), any(HttpResponse.BodyHandler.class));
@@ -250,8 +257,8 @@ class WikidataSearchServiceTest {
 
             when(mockResponse.statusCode()).thenReturn(200);
             when(mockResponse.body()).thenReturn(json);
-            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-                    .thenReturn(mockResponse);
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
             SearchResult result = service.getTopicSummary("compound interest");
 
@@ -266,8 +273,8 @@ class WikidataSearchServiceTest {
         void returnsNullForNoResults() throws Exception {
             when(mockResponse.statusCode()).thenReturn(200);
             when(mockResponse.body()).thenReturn("{\"search\":[]}");
-            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-                    .thenReturn(mockResponse);
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
             SearchResult result = service.getTopicSummary("nonexistent topic xyz");
             assertNull(result);
@@ -327,8 +334,8 @@ class WikidataSearchServiceTest {
         void returnsEmptyWhenEntityNotFound() throws Exception {
             when(mockResponse.statusCode()).thenReturn(200);
             when(mockResponse.body()).thenReturn("{\"search\":[]}");
-            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-                    .thenReturn(mockResponse);
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
             List<String> topics = service.getRelatedTopics("nonexistent");
             assertTrue(topics.isEmpty());
@@ -378,8 +385,8 @@ class WikidataSearchServiceTest {
 
             when(mockResponse.statusCode()).thenReturn(200);
             when(mockResponse.body()).thenReturn(json);
-            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-                    .thenReturn(mockResponse);
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
             double confidence = service.validateTopic("Machine Learning");
             assertEquals(1.0, confidence);
@@ -402,8 +409,8 @@ class WikidataSearchServiceTest {
 
             when(mockResponse.statusCode()).thenReturn(200);
             when(mockResponse.body()).thenReturn(json);
-            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-                    .thenReturn(mockResponse);
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
             double confidence = service.validateTopic("Machine Learning Basics");
             assertEquals(0.85, confidence);
@@ -414,8 +421,8 @@ class WikidataSearchServiceTest {
         void returnsZeroForNoResults() throws Exception {
             when(mockResponse.statusCode()).thenReturn(200);
             when(mockResponse.body()).thenReturn("{\"search\":[]}");
-            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-                    .thenReturn(mockResponse);
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
             double confidence = service.validateTopic("xyznonexistent123");
             assertEquals(0.0, confidence);
@@ -431,12 +438,12 @@ class WikidataSearchServiceTest {
         void searchForVerificationDelegatesToSearch() throws Exception {
             when(mockResponse.statusCode()).thenReturn(200);
             when(mockResponse.body()).thenReturn("{\"search\":[]}");
-            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-                    .thenReturn(mockResponse);
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
             service.searchForVerification("test claim");
 
-            verify(mockHttpClient).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+            verify(mockHttpClient).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
         }
     }
 
@@ -451,12 +458,12 @@ class WikidataSearchServiceTest {
                     .thenReturn(429)
                     .thenReturn(200);
             when(mockResponse.body()).thenReturn("{\"search\":[]}");
-            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-                    .thenReturn(mockResponse);
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
             service.search("test");
 
-            verify(mockHttpClient, times(2)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+            verify(mockHttpClient, times(2)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
         }
 
         @Test
@@ -466,50 +473,238 @@ class WikidataSearchServiceTest {
                     .thenReturn(503)
                     .thenReturn(200);
             when(mockResponse.body()).thenReturn("{\"search\":[]}");
-            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-                    .thenReturn(mockResponse);
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
             service.search("test");
 
-            verify(mockHttpClient, times(2)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+            verify(mockHttpClient, times(2)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
         }
 
         @Test
         @DisplayName("Does not retry on 404 status")
         void doesNotRetryOn404Status() throws Exception {
             when(mockResponse.statusCode()).thenReturn(404);
-            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-                    .thenReturn(mockResponse);
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
             service.search("test");
 
-            verify(mockHttpClient, times(1)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+            verify(mockHttpClient, times(1)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
         }
 
         @Test
         @DisplayName("Retries on IOException")
         void retriesOnIOException() throws Exception {
-            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-                    .thenThrow(new IOException("Connection reset"))
-                    .thenReturn(mockResponse);
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.failedFuture(new IOException("Connection reset")))
+                    .thenReturn(CompletableFuture.completedFuture(mockResponse));
             when(mockResponse.statusCode()).thenReturn(200);
             when(mockResponse.body()).thenReturn("{\"search\":[]}");
 
             service.search("test");
 
-            verify(mockHttpClient, times(2)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+            verify(mockHttpClient, times(2)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
         }
 
         @Test
         @DisplayName("Gives up after max retries")
         void givesUpAfterMaxRetries() throws Exception {
-            when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-                    .thenThrow(new IOException("Connection reset"));
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.failedFuture(new IOException("Connection reset")));
 
             List<SearchResult> results = service.search("test");
 
             assertTrue(results.isEmpty());
-            verify(mockHttpClient, times(3)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+            verify(mockHttpClient, times(3)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Caching")
+    class Caching {
+
+        @TempDir
+        Path cacheDir;
+
+        private WikidataCache cache(boolean offline) {
+            return new WikidataCache(cacheDir, Duration.ofDays(7), Duration.ofDays(1), 100,
+                    true, offline, Clock.systemUTC());
+        }
+
+        @Test
+        @DisplayName("Repeated searches are served from the cache")
+        void repeatedSearchUsesCache() throws Exception {
+            when(mockResponse.statusCode()).thenReturn(200);
+            when(mockResponse.body()).thenReturn(
+                    "{\"search\":[{\"id\":\"Q1\",\"label\":\"Apache Kafka\",\"description\":\"platform\"}]}");
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockResponse));
+            service.setCache(cache(false));
+
+            List<SearchResult> first = service.search("Apache Kafka");
+            List<SearchResult> second = service.search("  apache   KAFKA ");
+
+            assertEquals(first, second);
+            assertEquals("Apache Kafka", second.get(0).title());
+            verify(mockHttpClient, times(1)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        }
+
+        @Test
+        @DisplayName("Empty results are cached")
+        void emptyResultsAreCached() throws Exception {
+            when(mockResponse.statusCode()).thenReturn(200);
+            when(mockResponse.body()).thenReturn("{\"search\":[]}");
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockResponse));
+            WikidataCache cache = cache(false);
+            service.setCache(cache);
+
+            service.search("no such thing");
+            assertTrue(service.search("no such thing").isEmpty());
+
+            verify(mockHttpClient, times(1)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+            assertEquals(1, cache.getNegativeHits());
+        }
+
+        @Test
+        @DisplayName("Failed requests are not cached")
+        void failuresAreNotCached() throws Exception {
+            when(mockResponse.statusCode()).thenReturn(500);
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockResponse));
+            service.setCache(cache(false));
+
+            service.search("test");
+            service.search("test");
+
+            verify(mockHttpClient, times(2)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        }
+
+        @Test
+        @DisplayName("Offline mode serves a warmed cache without network calls")
+        void offlineModeUsesWarmCache() throws Exception {
+            when(mockResponse.statusCode()).thenReturn(200);
+            when(mockResponse.body()).thenReturn(
+                    "{\"search\":[{\"id\":\"Q1\",\"label\":\"Apache Kafka\",\"description\":\"platform\"}]}");
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockResponse));
+            service.setCache(cache(false));
+            service.search("Apache Kafka");
+
+            HttpClient offlineClient = mock(HttpClient.class);
+            WikidataSearchService offline = new WikidataSearchService(offlineClient, objectMapper, 5, true);
+            offline.setCache(cache(true));
+
+            assertEquals(1, offline.search("Apache Kafka").size());
+            assertTrue(offline.search("Uncached Topic").isEmpty());
+            verifyNoInteractions(offlineClient);
+        }
+    }
+
+    @Nested
+    @DisplayName("Request Batching")
+    class RequestBatching {
+
+        @Test
+        @DisplayName("Concurrent identical requests share one round-trip")
+        void coalescesIdenticalRequests() throws Exception {
+            CompletableFuture<HttpResponse<String>> pending = new CompletableFuture<>();
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenReturn(pending);
+            when(mockResponse.statusCode()).thenReturn(200);
+            when(mockResponse.body()).thenReturn(
+                    "{\"search\":[{\"id\":\"Q1\",\"label\":\"Apache Kafka\",\"description\":\"platform\"}]}");
+
+            CompletableFuture<List<SearchResult>> first = CompletableFuture.supplyAsync(() -> service.search("Kafka"));
+            CompletableFuture<List<SearchResult>> second = CompletableFuture.supplyAsync(() -> service.search("Kafka"));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (service.getRequestsCoalesced() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            pending.complete(mockResponse);
+
+            assertEquals(1, first.get().size());
+            assertEquals(1, second.get().size());
+            assertEquals(1, service.getRequestsCoalesced());
+            verify(mockHttpClient, times(1)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        }
+
+        @Test
+        @DisplayName("Fetches labels in wbgetentities batches of at most 50 IDs")
+        void batchesEntityLabels() throws Exception {
+            WikidataSearchService wide = new WikidataSearchService(mockHttpClient, objectMapper, 60, true);
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenAnswer(invocation -> {
+                        HttpRequest request = invocation.getArgument(0);
+                        return CompletableFuture.completedFuture(respond(request.uri().toString()));
+                    });
+
+            List<String> related = wide.getRelatedTopics("Physics");
+
+            assertEquals(60, related.size());
+            assertEquals("Entity 100", related.get(0));
+            verify(mockHttpClient, times(2)).sendAsync(
+                    argThat(request -> request.uri().toString().contains("props=labels")),
+                    any(HttpResponse.BodyHandler.class));
+        }
+
+        @Test
+        @DisplayName("Records batched entity fetches as lookups")
+        void recordsBatchedLookups() throws Exception {
+            WikidataSearchService wide = new WikidataSearchService(mockHttpClient, objectMapper, 60, true);
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            wide.setMeters(new PipelineMeters(registry));
+            when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                    .thenAnswer(invocation -> {
+                        HttpRequest request = invocation.getArgument(0);
+                        return CompletableFuture.completedFuture(respond(request.uri().toString()));
+                    });
+
+            wide.getRelatedTopics("Physics");
+
+            assertEquals(4, wide.getRequestsSent());
+            assertEquals(4, registry.get("aipublisher.search.lookup.duration").tag("service", "wikidata")
+                    .tag("outcome", "success").timer().count());
+        }
+
+        /**
+         * Answer wbsearchentities with Q1, its claims with 60 "instance of" values,
+         * and label requests with a label for every requested ID.
+         */
+        @SuppressWarnings("unchecked")
+        private HttpResponse<String> respond(String uri) {
+            StringBuilder body = new StringBuilder();
+            if (uri.contains("wbsearchentities")) {
+                body.append("{\"search\":[{\"id\":\"Q1\",\"label\":\"Physics\"}]}");
+            } else if (uri.contains("props=claims")) {
+                body.append("{\"entities\":{\"Q1\":{\"claims\":{\"P31\":[");
+                for (int i = 0; i < 60; i++) {
+                    if (i > 0) {
+                        body.append(",");
+                    }
+                    body.append("{\"mainsnak\":{\"datatype\":\"wikibase-item\",\"datavalue\":{\"type\":\"wikibase-entityid\",\"value\":{\"id\":\"Q")
+                            .append(100 + i).append("\"}}}}");
+                }
+                body.append("]}}}}");
+            } else {
+                String ids = uri.substring(uri.indexOf("ids=") + 4, uri.indexOf("&props"));
+                String[] requested = ids.split("%7C");
+                assertTrue(requested.length <= WikidataSearchService.MAX_IDS_PER_REQUEST);
+                body.append("{\"entities\":{");
+                for (int i = 0; i < requested.length; i++) {
+                    if (i > 0) {
+                        body.append(",");
+                    }
+                    body.append("\"").append(requested[i]).append("\":{\"labels\":{\"en\":{\"value\":\"Entity ")
+                            .append(requested[i].substring(1)).append("\"}}}");
+                }
+                body.append("}}");
+            }
+            HttpResponse<String> response = mock(HttpResponse.class);
+            when(response.statusCode()).thenReturn(200);
+            when(response.body()).thenReturn(body.toString());
+            return response;
         }
     }
 }
@@ -0,0 +1,64 @@
+package com.jakefear.aipublisher.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PhraseMatcher.
+ */
+@DisplayName("PhraseMatcher")
+class PhraseMatcherTest {
+
+    @Test
+    @DisplayName("Finds every phrase case-insensitively")
+    void findsAllPhrases() {
+        PhraseMatcher<String> matcher = PhraseMatcher.build(Map.of(
+                "version control", List.of("VersionControl"),
+                "git", List.of("Git")));
+
+        List<PhraseMatcher.Mention<String>> mentions = matcher.findAll("Git is a Version Control tool.");
+
+        assertEquals(List.of(
+                new PhraseMatcher.Mention<>("Git", 0, 3),
+                new PhraseMatcher.Mention<>("VersionControl", 9, 15)), mentions);
+    }
+
+    @Test
+    @DisplayName("Reports overlapping and nested phrases")
+    void reportsOverlaps() {
+        PhraseMatcher<String> matcher = PhraseMatcher.build(Map.of(
+                "he", List.of("he"),
+                "she", List.of("she"),
+                "hers", List.of("hers"),
+                "his", List.of("his")));
+
+        List<String> found = matcher.findAll("ushers").stream()
+                .map(m -> m.value() + "@" + m.start())
+                .toList();
+
+        assertEquals(List.of("she@1", "he@2", "hers@2"), found);
+    }
+
+    @Test
+    @DisplayName("Merges phrases that differ only in case")
+    void mergesCaseVariants() {
+        PhraseMatcher<String> matcher = PhraseMatcher.build(Map.of(
+                "API Gateway", List.of("APIGateway"),
+                "Api Gateway", List.of("ApiGateway")));
+
+        assertEquals(1, matcher.size());
+        assertEquals(2, matcher.findAll("an api gateway").size());
+    }
+
+    @Test
+    @DisplayName("Handles empty input")
+    void handlesEmptyInput() {
+        assertTrue(PhraseMatcher.<String>build(Map.of()).findAll("anything").isEmpty());
+        assertTrue(PhraseMatcher.build(Map.of("x", List.of("X"))).findAll(null).isEmpty());
+    }
+}